@@ -0,0 +1,242 @@
+package com.banka1.banking.benchmark;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountSubtype;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.CurrencyRepository;
+import com.banka1.banking.repository.TransactionRepository;
+import com.banka1.banking.repository.TransferRepository;
+import com.banka1.banking.services.AccountLockService;
+import com.banka1.banking.services.ConsolidatedBalanceService;
+import com.banka1.banking.services.LedgerService;
+import com.banka1.banking.services.SpendingLimitService;
+import com.banka1.banking.services.TransferService;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meri propusnost internih transfera nad malim skupom deljenih racuna, kroz {@link TransferService#processTransfer}:
+ * <ul>
+ *     <li>{@code serializable} - kao ranije: transakcija na SERIALIZABLE nivou, bez zakljucavanja racuna, a transfer
+ *     koji baza odbije zbog konflikta se ponavlja</li>
+ *     <li>{@code ordered} - READ COMMITTED i zakljucavanje racuna rastucim redosledom ID-ja u {@link AccountLockService}</li>
+ * </ul>
+ * Broj ponavljanja u {@code serializable} rezimu se ispisuje na kraju merenja.
+ * <p>
+ * Servis radi u minimalnom Spring kontekstu nad H2 bazom (JPA, repozitorijumi, {@link LedgerService}), a saradnici
+ * koje interni transfer ne koristi su {@code null}. Svaka operacija upisuje PENDING transfer izmedju dva slucajna
+ * racuna i izvrsava ga, pa je rezultat broj izvrsenih transfera u sekundi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class AccountLockingBenchmark {
+
+    private static final int MAX_ATTEMPTS = 50;
+
+    @Param({"4", "32"})
+    public int accountCount;
+
+    @Param({"serializable", "ordered"})
+    public String isolation;
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private TransferService transferService;
+    private TransactionTemplate serializable;
+    private TransferRepository transferRepository;
+    private Currency currency;
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TransferContext.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:locking" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.sql.init.mode=never",
+                        "spring.main.banner-mode=off")
+                .run();
+
+        if (isolation.equals("serializable")) {
+            transferService = context.getBean("serializableTransferService", TransferService.class);
+            serializable = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        } else {
+            transferService = context.getBean("transferService", TransferService.class);
+        }
+        transferRepository = context.getBean(TransferRepository.class);
+        currency = context.getBean(CurrencyRepository.class).save(currency());
+
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++)
+            accounts.add(accountRepository.save(account(i)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (serializable != null)
+            System.out.printf("%n%s, %d racuna: %d ponovljenih transfera%n", isolation, accountCount, retries.get());
+        context.close();
+    }
+
+    @Benchmark
+    public String processTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountCount);
+        int to = random.nextInt(accountCount - 1);
+        if (to >= from)
+            to++;
+
+        Transfer transfer = transferRepository.save(transfer(accounts.get(from), accounts.get(to)));
+        if (serializable == null)
+            return transferService.processTransfer(transfer.getId());
+
+        // spoljna transakcija odredjuje nivo izolacije, processTransfer joj se prikljucuje
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return serializable.execute(status -> transferService.processTransfer(transfer.getId()));
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS || !isSerializationFailure(e))
+                    throw e;
+                retries.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isSerializationFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException || cause instanceof SQLTransactionRollbackException
+                    || cause instanceof PessimisticLockException || cause instanceof LockTimeoutException)
+                return true;
+        }
+        return false;
+    }
+
+    private Transfer transfer(Account from, Account to) {
+        Transfer transfer = new Transfer();
+        transfer.setFromAccountId(from);
+        transfer.setToAccountId(to);
+        transfer.setAmount(100L);
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setType(TransferType.INTERNAL);
+        transfer.setPaymentDescription("Interni prenos");
+        transfer.setReceiver("Benchmark");
+        transfer.setFromCurrency(currency);
+        transfer.setToCurrency(currency);
+        transfer.setCreatedAt(System.currentTimeMillis());
+        return transfer;
+    }
+
+    private static Currency currency() {
+        Currency currency = new Currency();
+        currency.setName("RSD");
+        currency.setCode(CurrencyType.RSD);
+        currency.setCountry("Srbija");
+        currency.setSymbol("RSD");
+        return currency;
+    }
+
+    private static Account account(int index) {
+        Account account = new Account();
+        account.setOwnerID(1L);
+        account.setAccountNumber(String.format("1110000000%08d", index));
+        account.setBalance(100_000_000L);
+        account.setReservedBalance(0L);
+        account.setType(AccountType.CURRENT);
+        account.setCurrencyType(CurrencyType.RSD);
+        account.setSubtype(AccountSubtype.STANDARD);
+        account.setCreatedDate(0L);
+        account.setExpirationDate(0L);
+        account.setDailyLimit(0L);
+        account.setMonthlyLimit(0L);
+        account.setDailySpent(0L);
+        account.setMonthlySpent(0L);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setEmployeeID(1L);
+        account.setMonthlyMaintenanceFee(0L);
+        return account;
+    }
+
+    /**
+     * Bez zakljucavanja racuna, kao pre {@link AccountLockService}: konflikte razresava SERIALIZABLE.
+     */
+    static class NoAccountLocking extends AccountLockService {
+
+        @Override
+        public List<Account> lock(Collection<Account> accounts) {
+            return new ArrayList<>(accounts);
+        }
+    }
+
+    /**
+     * JPA nad H2 i servisi koje interni transfer dodiruje.
+     */
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan("com.banka1.banking.models")
+    @EnableJpaRepositories("com.banka1.banking.repository")
+    @Import({AccountLockService.class, LedgerService.class})
+    public static class TransferContext {
+
+        @Bean
+        public ConsolidatedBalanceService consolidatedBalanceService(AccountRepository accountRepository) {
+            return new ConsolidatedBalanceService(accountRepository, null, null, 1000, 5000);
+        }
+
+        @Bean
+        public SpendingLimitService spendingLimitService(AccountRepository accountRepository, PlatformTransactionManager transactionManager) {
+            return new SpendingLimitService(accountRepository, transactionManager);
+        }
+
+        @Bean
+        public TransferService transferService(AccountRepository accountRepository, TransferRepository transferRepository, TransactionRepository transactionRepository,
+                                               AccountLockService accountLockService, SpendingLimitService spendingLimitService) {
+            return new TransferService(accountRepository, transferRepository, transactionRepository, null, null, null, "email",
+                    null, null, null, null, null, null, null, accountLockService, null, null, spendingLimitService);
+        }
+
+        @Bean
+        public TransferService serializableTransferService(AccountRepository accountRepository, TransferRepository transferRepository, TransactionRepository transactionRepository,
+                                                           SpendingLimitService spendingLimitService) {
+            return new TransferService(accountRepository, transferRepository, transactionRepository, null, null, null, "email",
+                    null, null, null, null, null, null, null, new NoAccountLocking(), null, null, spendingLimitService);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.banka1.banking.benchmark;
+
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.services.CustomerDirectory;
+import com.banka1.banking.services.UserServiceCustomer;
+import com.banka1.common.listener.JmsRpcClient;
+import com.banka1.common.listener.MessageHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meri dohvatanje imena posiljaoca i primaoca za istoriju transakcija jednog racuna:
+ * <ul>
+ *     <li>{@code perTransaction} - stari pristup, dva {@link UserServiceCustomer#getCustomerById} poziva po transakciji</li>
+ *     <li>{@code replica} - kao {@code perTransaction}, ali iz ucitanog {@link CustomerDirectory}, bez JMS poziva</li>
+ *     <li>{@code parallel} - razliciti vlasnici, svi {@link UserServiceCustomer#getCustomerByIdAsync} zahtevi poslati odjednom</li>
+ *     <li>{@code batched} - razliciti vlasnici iz cele istorije i jedan {@link UserServiceCustomer#getCustomersByIds} poziv,
+ *     kao {@code AccountService.getTransactionsForAccount}</li>
+ * </ul>
+ * User-service je zamenjen {@link JmsRpcClient}-om koji odgovara iz memorije posle {@code rpcLatencyMicros}
+ * (simulirano kasnjenje jednog JMS request/reply kruga, bez zauzimanja niti), pa se meri broj i trajanje poziva, a ne broker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CustomerLookupBenchmark {
+
+    @Param({"100", "2000"})
+    public int transactionCount;
+
+    @Param({"50"})
+    public int counterpartyCount;
+
+    @Param({"200"})
+    public long rpcLatencyMicros;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserServiceCustomer userServiceCustomer;
+    private UserServiceCustomer replicaUserServiceCustomer;
+    private long[][] history;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MessageHelper messageHelper = new MessageHelper(Validation.buildDefaultValidatorFactory().getValidator(), objectMapper);
+        InMemoryUserService userService = new InMemoryUserService(messageHelper);
+        userServiceCustomer = new UserServiceCustomer(userService, new CustomerDirectory(userService, false, "get-customer-snapshot"));
+        setField(userServiceCustomer, "destination", "get-customer");
+        setField(userServiceCustomer, "destinationBulk", "get-customers-by-ids");
+
+        CustomerDirectory directory = new CustomerDirectory(userService, true, "get-customer-snapshot");
+        directory.reload();
+        replicaUserServiceCustomer = new UserServiceCustomer(userService, directory);
+        setField(replicaUserServiceCustomer, "destination", "get-customer");
+        setField(replicaUserServiceCustomer, "destinationBulk", "get-customers-by-ids");
+
+        // vlasnik racuna je 1, druga strana je jedan od counterpartyCount vlasnika
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        history = new long[transactionCount][2];
+        for (int i = 0; i < transactionCount; i++) {
+            long counterparty = 2 + random.nextInt(counterpartyCount);
+            history[i] = random.nextBoolean() ? new long[]{1, counterparty} : new long[]{counterparty, 1};
+        }
+    }
+
+    private static void setField(UserServiceCustomer target, String name, String value) {
+        Field field = ReflectionUtils.findField(UserServiceCustomer.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Benchmark
+    public List<String> perTransaction() {
+        List<String> names = new ArrayList<>(history.length * 2);
+        for (long[] transaction : history) {
+            names.add(name(userServiceCustomer.getCustomerById(transaction[0])));
+            names.add(name(userServiceCustomer.getCustomerById(transaction[1])));
+        }
+        return names;
+    }
+
+    @Benchmark
+    public List<String> replica() {
+        List<String> names = new ArrayList<>(history.length * 2);
+        for (long[] transaction : history) {
+            names.add(name(replicaUserServiceCustomer.getCustomerById(transaction[0])));
+            names.add(name(replicaUserServiceCustomer.getCustomerById(transaction[1])));
+        }
+        return names;
+    }
+
+    @Benchmark
+    public List<String> parallel() {
+        Map<Long, CompletableFuture<CustomerDTO>> requests = new HashMap<>();
+        for (long[] transaction : history) {
+            requests.computeIfAbsent(transaction[0], userServiceCustomer::getCustomerByIdAsync);
+            requests.computeIfAbsent(transaction[1], userServiceCustomer::getCustomerByIdAsync);
+        }
+
+        List<String> names = new ArrayList<>(history.length * 2);
+        for (long[] transaction : history) {
+            names.add(name(requests.get(transaction[0]).join()));
+            names.add(name(requests.get(transaction[1]).join()));
+        }
+        return names;
+    }
+
+    @Benchmark
+    public List<String> batched() {
+        Set<Long> ownerIds = new HashSet<>();
+        for (long[] transaction : history) {
+            ownerIds.add(transaction[0]);
+            ownerIds.add(transaction[1]);
+        }
+
+        Map<Long, CustomerDTO> customers = userServiceCustomer.getCustomersByIds(ownerIds);
+        List<String> names = new ArrayList<>(history.length * 2);
+        for (long[] transaction : history) {
+            names.add(name(customers.get(transaction[0])));
+            names.add(name(customers.get(transaction[1])));
+        }
+        return names;
+    }
+
+    private static String name(CustomerDTO customer) {
+        return customer.getFirstName() + " " + customer.getLastName();
+    }
+
+    private static CustomerDTO customer(long id) {
+        return new CustomerDTO(id, "Ime" + id, "Prezime" + id, "2000-01-01", "korisnik" + id + "@banka.rs", "0601234567", "Adresa " + id);
+    }
+
+    private static TextMessage textMessage(String text) {
+        return (TextMessage) Proxy.newProxyInstance(TextMessage.class.getClassLoader(), new Class<?>[]{TextMessage.class},
+                (proxy, method, args) -> method.getName().equals("getText") ? text : null);
+    }
+
+    /**
+     * Odgovara na zahteve za jednog i za vise korisnika kao user-service, posle simuliranog kasnjenja.
+     */
+    private class InMemoryUserService extends JmsRpcClient {
+
+        InMemoryUserService(MessageHelper messageHelper) {
+            super(null, messageHelper, Duration.ofSeconds(10));
+        }
+
+        @Override
+        public CompletableFuture<Message> send(String destinationName, Object payload, Duration timeout) {
+            try {
+                String request = objectMapper.writeValueAsString(payload);
+                String response;
+                if (destinationName.equals("get-customer-snapshot")) {
+                    // vlasnici su 1..counterpartyCount + 1, sve u jednom delu
+                    List<CustomerDTO> customers = new ArrayList<>();
+                    for (long id = objectMapper.readValue(request, Long.class) + 1; id <= counterpartyCount + 1; id++)
+                        customers.add(customer(id));
+                    response = objectMapper.writeValueAsString(customers);
+                } else if (destinationName.equals("get-customers-by-ids")) {
+                    List<CustomerDTO> customers = new ArrayList<>();
+                    for (long id : objectMapper.readValue(request, long[].class))
+                        customers.add(customer(id));
+                    response = objectMapper.writeValueAsString(customers);
+                } else {
+                    response = objectMapper.writeValueAsString(customer(objectMapper.readValue(request, Long.class)));
+                }
+                return CompletableFuture.supplyAsync(() -> textMessage(response),
+                        CompletableFuture.delayedExecutor(rpcLatencyMicros, TimeUnit.MICROSECONDS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.banka1.banking.benchmark;
+
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.services.ExchangeRateCache;
+import com.banka1.banking.services.ExchangeService;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meri obracun menjacnice ({@link ExchangeService#calculatePreviewExchangeAutomatic}) za sve tri putanje:
+ * RSD -> strana valuta, strana valuta -> RSD i strana -> strana valuta preko RSD.
+ * <p>
+ * Varijante {@code *} vracaju tipizovan {@link ExchangeResult}, kako ga koriste {@code TransferService} i {@code TaxService},
+ * a varijante {@code *Map} dodaju i pravljenje mape za REST odgovor, sto je ranije placao svaki interni poziv.
+ * Kursna lista je u memoriji ({@link ExchangeRateCache}), pa se meri samo racun. Pokrenuti sa {@code -prof gc}
+ * za broj alokacija po pozivu.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExchangeCalculationBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final Long[] amounts = new Long[SIZE];
+    private ExchangeService exchangeService;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SIZE; i++) {
+            amounts[i] = random.nextLong(1, 10_000_000);
+        }
+
+        List<ExchangePair> pairs = new ArrayList<>();
+        pairs.add(pair(CurrencyType.EUR, CurrencyType.RSD, 117.2));
+        pairs.add(pair(CurrencyType.USD, CurrencyType.RSD, 108.4));
+        pairs.add(pair(CurrencyType.RSD, CurrencyType.CHF, 0.0081));
+
+        ExchangeRateCache exchangeRateCache = new ExchangeRateCache();
+        exchangeRateCache.publish(ExchangeRateMatrix.of(pairs));
+        exchangeService = new ExchangeService(null, null, null, null, null, null, null, null, exchangeRateCache, null, null);
+    }
+
+    private static ExchangePair pair(CurrencyType base, CurrencyType target, double rate) {
+        Currency baseCurrency = new Currency();
+        baseCurrency.setCode(base);
+        Currency targetCurrency = new Currency();
+        targetCurrency.setCode(target);
+
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(baseCurrency);
+        pair.setTargetCurrency(targetCurrency);
+        pair.setExchangeRate(rate);
+        pair.setDate(LocalDate.now());
+        return pair;
+    }
+
+    private Long next() {
+        index = (index + 1) & (SIZE - 1);
+        return amounts[index];
+    }
+
+    @Benchmark
+    public ExchangeResult rsdToForeign() {
+        return exchangeService.calculatePreviewExchangeAutomatic("RSD", "EUR", next());
+    }
+
+    @Benchmark
+    public ExchangeResult foreignToRsd() {
+        return exchangeService.calculatePreviewExchangeAutomatic("USD", "RSD", next());
+    }
+
+    @Benchmark
+    public ExchangeResult foreignToForeign() {
+        return exchangeService.calculatePreviewExchangeAutomatic("EUR", "CHF", next());
+    }
+
+    @Benchmark
+    public Map<String, Object> rsdToForeignMap() {
+        return exchangeService.calculatePreviewExchangeAutomatic("RSD", "EUR", next()).toMap();
+    }
+
+    @Benchmark
+    public Map<String, Object> foreignToRsdMap() {
+        return exchangeService.calculatePreviewExchangeAutomatic("USD", "RSD", next()).toMap();
+    }
+
+    @Benchmark
+    public Map<String, Object> foreignToForeignMap() {
+        return exchangeService.calculatePreviewExchangeAutomatic("EUR", "CHF", next()).toMap();
+    }
+}
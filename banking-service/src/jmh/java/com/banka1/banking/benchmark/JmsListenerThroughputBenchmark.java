@@ -0,0 +1,202 @@
+package com.banka1.banking.benchmark;
+
+import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.banking.dto.OrderTransactionInitiationDTO;
+import com.banka1.common.listener.JmsListenerProperties;
+import com.banka1.common.listener.MessageHelper;
+import com.banka1.common.listener.TunedJmsListenerContainerFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.Queue;
+import jakarta.validation.Validation;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Propusnost JMS potrosaca (poruka u sekundi) za {@code send-email} (notification-service) i {@code order-init}
+ * (banking-service), sa ugradjenim ActiveMQ brokerom u memoriji:
+ * <ul>
+ *     <li>{@code legacy} - kao ranije: {@code concurrency = "5-10"}, {@code jms.prefetchPolicy.all=1} i commit posle svake poruke</li>
+ *     <li>{@code tuned} - podesavanja iz {@code jms.listener.destinations} u application.properties servisa</li>
+ * </ul>
+ * Listener-i citaju DTO kao pravi, a posao simuliraju cekanjem: predaja email-a SMTP serveru traje duze od upisa
+ * naloga, a {@code order-init} odgovara na {@code JMSReplyTo} u istoj transakcionoj sesiji. Jedno merenje salje
+ * {@link #MESSAGES} poruka i ceka da sve budu obradjene.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JmsListenerThroughputBenchmark {
+
+    private static final int MESSAGES = 2000;
+    private static final long EMAIL_WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final long ORDER_WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Param({"send-email", "order-init"})
+    public String queue;
+
+    @Param({"legacy", "tuned"})
+    public String profile;
+
+    private final MessageHelper messageHelper = new MessageHelper(
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), Set.of(), Set.of());
+
+    private BrokerService broker;
+    private CachingConnectionFactory connectionFactory;
+    private JmsTemplate jmsTemplate;
+    private TunedJmsListenerContainerFactory factory;
+    private DefaultMessageListenerContainer container;
+    private DefaultMessageListenerContainer replyDrain;
+    private Queue replyQueue;
+    private String body;
+    private volatile CountDownLatch processed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName("bench");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        broker.waitUntilStarted();
+
+        // isti parametri kao amq.queryParameters u servisima
+        connectionFactory = new CachingConnectionFactory(new ActiveMQConnectionFactory(
+                "vm://bench?create=false&jms.prefetchPolicy.all=1&jms.redeliveryPolicy.maximumRedeliveries=0"));
+        connectionFactory.setSessionCacheSize(20);
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        replyQueue = new ActiveMQQueue(queue + "-reply");
+
+        JmsListenerProperties properties = new JmsListenerProperties();
+        if (profile.equals("tuned"))
+            properties.getDestinations().put(queue, tuned(queue));
+
+        factory = new TunedJmsListenerContainerFactory(properties);
+        factory.setConnectionFactory(connectionFactory);
+        // Spring Boot bez JTA menadzera transakcija pravi transakcione sesije
+        factory.setSessionTransacted(true);
+
+        SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+        endpoint.setId(queue);
+        endpoint.setDestination(queue);
+        endpoint.setConcurrency("5-10");
+        endpoint.setMessageListener(queue.equals("send-email") ? this::onEmail : this::onOrder);
+        container = start(factory.createListenerContainer(endpoint));
+
+        // odgovori se samo odbacuju, da ne bi punili memoriju brokera
+        replyDrain = new DefaultMessageListenerContainer();
+        replyDrain.setConnectionFactory(connectionFactory);
+        replyDrain.setDestination(replyQueue);
+        replyDrain.setMessageListener((MessageListener) message -> { });
+        start(replyDrain);
+
+        body = messageHelper.createTextMessage(queue.equals("send-email") ? notification() : order());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        container.shutdown();
+        replyDrain.shutdown();
+        factory.destroy();
+        connectionFactory.destroy();
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void consume() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(MESSAGES);
+        processed = latch;
+        for (int i = 0; i < MESSAGES; i++) {
+            jmsTemplate.send(queue, session -> {
+                Message message = session.createTextMessage(body);
+                message.setJMSReplyTo(replyQueue);
+                return message;
+            });
+        }
+        if (!latch.await(2, TimeUnit.MINUTES))
+            throw new IllegalStateException("Obradjeno je samo " + (MESSAGES - latch.getCount()) + " poruka");
+    }
+
+    private void onEmail(Message message) {
+        try {
+            messageHelper.getMessage(message, NotificationDTO.class);
+        } catch (JMSException e) {
+            throw new RuntimeException(e);
+        }
+        LockSupport.parkNanos(EMAIL_WORK_NANOS);
+        processed.countDown();
+    }
+
+    private void onOrder(Message message) {
+        try {
+            messageHelper.getMessage(message, OrderTransactionInitiationDTO.class);
+            LockSupport.parkNanos(ORDER_WORK_NANOS);
+            jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage("null"));
+        } catch (JMSException e) {
+            throw new RuntimeException(e);
+        }
+        processed.countDown();
+    }
+
+    /**
+     * Vrednosti iz notification-service i banking-service application.properties.
+     */
+    private static JmsListenerProperties.Destination tuned(String queue) {
+        JmsListenerProperties.Destination settings = new JmsListenerProperties.Destination();
+        if (queue.equals("send-email")) {
+            settings.setConcurrency("5-20");
+            settings.setPrefetch(50);
+            settings.setBatchSize(20);
+        } else {
+            settings.setConcurrency("10-20");
+            settings.setPrefetch(10);
+            settings.setExecutor(JmsListenerProperties.ExecutorType.POOLED);
+        }
+        return settings;
+    }
+
+    private static DefaultMessageListenerContainer start(DefaultMessageListenerContainer container) {
+        container.afterPropertiesSet();
+        container.start();
+        return container;
+    }
+
+    private static NotificationDTO notification() {
+        NotificationDTO notification = new NotificationDTO();
+        notification.setEmail("korisnik@banka.rs");
+        notification.setSubject("Verifikacija plaćanja");
+        notification.setMessage("Kod za verifikaciju plaćanja je 123456. Kod važi 5 minuta.");
+        notification.setFirstName("Petar");
+        notification.setLastName("Petrović");
+        notification.setType("email");
+        notification.setAdditionalData(Map.of("transferId", "42"));
+        return notification;
+    }
+
+    private static OrderTransactionInitiationDTO order() {
+        OrderTransactionInitiationDTO order = new OrderTransactionInitiationDTO();
+        order.setUid("ORDER-42");
+        order.setSellerAccountId(1L);
+        order.setBuyerAccountId(2L);
+        order.setAmount(1500.0);
+        order.setFee(7.5);
+        order.setDirection("buy");
+        return order;
+    }
+}
@@ -0,0 +1,132 @@
+package com.banka1.banking.benchmark;
+
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.common.listener.MessageHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Propusnost pravljenja i citanja jedne JMS poruke (upis tela + citanje u DTO), za obavestenje ({@code send-email})
+ * i za odgovor sa 100 korisnika ({@code get-customers-by-ids}):
+ * <ul>
+ *     <li>{@code legacyJson} - stari {@link MessageHelper}: {@code objectMapper.readValue} i bean validacija svake poruke</li>
+ *     <li>{@code json} - JSON sa kesiranim {@code ObjectReader}/{@code ObjectWriter} i bez validacije</li>
+ *     <li>{@code smile} - binarni Smile u {@link BytesMessage}</li>
+ * </ul>
+ * Sesija i poruke su u memoriji, pa se meri samo kodiranje, a ne broker. Velicina tela se ispisuje pri pokretanju.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MessageCodecBenchmark {
+
+    private static final String DESTINATION = "bench";
+
+    @Param({"notification", "customers"})
+    public String payloadType;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final Session session = session();
+
+    private MessageHelper json;
+    private MessageHelper smile;
+    private Object payload;
+    private Class<?> type;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        json = new MessageHelper(validator, objectMapper, Set.of(), Set.of());
+        smile = new MessageHelper(validator, objectMapper, Set.of(DESTINATION), Set.of());
+
+        if (payloadType.equals("notification")) {
+            NotificationDTO notification = new NotificationDTO();
+            notification.setEmail("korisnik@banka.rs");
+            notification.setSubject("Verifikacija plaćanja");
+            notification.setMessage("Kod za verifikaciju plaćanja je 123456. Kod važi 5 minuta.");
+            notification.setFirstName("Petar");
+            notification.setLastName("Petrović");
+            notification.setType("email");
+            notification.setAdditionalData(Map.of("transferId", "42"));
+            payload = notification;
+            type = NotificationDTO.class;
+        } else {
+            CustomerDTO[] customers = new CustomerDTO[100];
+            for (int i = 0; i < customers.length; i++)
+                customers[i] = new CustomerDTO((long) i, "Ime" + i, "Prezime" + i, "2000-01-01", "korisnik" + i + "@banka.rs", "0601234567", "Adresa " + i);
+            payload = customers;
+            type = CustomerDTO[].class;
+        }
+
+        int jsonSize = ((TextMessage) json.createMessage(session, DESTINATION, payload)).getText().getBytes(StandardCharsets.UTF_8).length;
+        int smileSize = ((BytesMessage) smile.createMessage(session, DESTINATION, payload)).getBody(byte[].class).length;
+        System.out.printf("%n%s: JSON %d B, Smile %d B%n", payloadType, jsonSize, smileSize);
+    }
+
+    @Benchmark
+    public Object legacyJson() throws Exception {
+        TextMessage message = session.createTextMessage(objectMapper.writeValueAsString(payload));
+        Object data = objectMapper.readValue(message.getText(), type);
+        validator.validate(data);
+        return data;
+    }
+
+    @Benchmark
+    public Object json() throws Exception {
+        return json.getMessage(json.createMessage(session, DESTINATION, payload), type);
+    }
+
+    @Benchmark
+    public Object smile() throws Exception {
+        return smile.getMessage(smile.createMessage(session, DESTINATION, payload), type);
+    }
+
+    private static Session session() {
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "createTextMessage" -> {
+                        Message message = message(TextMessage.class);
+                        ((TextMessage) message).setText((String) args[0]);
+                        yield message;
+                    }
+                    case "createBytesMessage" -> message(BytesMessage.class);
+                    default -> null;
+                });
+    }
+
+    /**
+     * Poruka u memoriji: samo telo i string svojstva, sto je sve sto {@link MessageHelper} koristi.
+     */
+    private static Message message(Class<? extends Message> type) {
+        Map<String, Object> properties = new HashMap<>();
+        Object[] body = new Object[1];
+        return (Message) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setText", "writeBytes" -> {
+                        body[0] = args[0];
+                        yield null;
+                    }
+                    case "getText", "getBody" -> body[0];
+                    case "setStringProperty" -> {
+                        properties.put((String) args[0], args[1]);
+                        yield null;
+                    }
+                    case "getStringProperty" -> properties.get(args[0]);
+                    default -> null;
+                });
+    }
+}
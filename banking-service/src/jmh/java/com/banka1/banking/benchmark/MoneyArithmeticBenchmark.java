@@ -0,0 +1,86 @@
+package com.banka1.banking.benchmark;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.utils.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poredi vruce putanje transfera i menjacnice pre i posle prelaska na najmanje jedinice valute:
+ * <ul>
+ *     <li>{@code transfer*} - skidanje sa jednog i dodavanje na drugi racun</li>
+ *     <li>{@code exchange*} - konverzija po kursu, provizija od 1% i konacan iznos
+ *     (isto kao {@link com.banka1.banking.services.ExchangeService#calculatePreviewExchange})</li>
+ * </ul>
+ * Varijante {@code *Double} racunaju direktno u {@code double}-u, kao ranije, a {@code *Minor}
+ * preko {@link Money}, nad istim iznosima u najmanjim jedinicama valute.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final double[] amounts = new double[SIZE];
+    private final long[] minorAmounts = new long[SIZE];
+    private final double[] rates = new double[SIZE];
+    private double fromBalance;
+    private double toBalance;
+    private long fromMinorBalance;
+    private long toMinorBalance;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SIZE; i++) {
+            minorAmounts[i] = random.nextLong(1, 10_000_000);
+            amounts[i] = minorAmounts[i] / 100.0;
+            rates[i] = 100 + random.nextDouble() * 20;
+        }
+        fromBalance = 1e9;
+        toBalance = 0.0;
+        fromMinorBalance = 100_000_000_000L;
+        toMinorBalance = 0L;
+    }
+
+    private int next() {
+        index = (index + 1) & (SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public double transferDouble() {
+        double amount = amounts[next()];
+        fromBalance = fromBalance - amount;
+        toBalance = toBalance + amount;
+        return fromBalance + toBalance;
+    }
+
+    @Benchmark
+    public long transferMinor() {
+        long amount = minorAmounts[next()];
+        fromMinorBalance = Money.subtract(fromMinorBalance, amount);
+        toMinorBalance = Money.add(toMinorBalance, amount);
+        return fromMinorBalance + toMinorBalance;
+    }
+
+    @Benchmark
+    public double exchangeDouble() {
+        int i = next();
+        double converted = amounts[i] * rates[i];
+        double fee = converted * 0.01;
+        return converted - fee;
+    }
+
+    @Benchmark
+    public long exchangeMinor() {
+        int i = next();
+        long converted = Money.convert(minorAmounts[i], CurrencyType.EUR, rates[i], CurrencyType.RSD);
+        long fee = Money.percent(converted, 100L);
+        return Money.subtract(converted, fee);
+    }
+}
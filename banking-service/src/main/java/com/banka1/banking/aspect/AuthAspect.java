@@ -4,6 +4,7 @@ import com.banka1.banking.dto.*;
 import com.banka1.banking.dto.request.CreateAccountDTO;
 import com.banka1.banking.dto.request.CreateLoanDTO;
 import com.banka1.banking.models.Account;
+import com.banka1.banking.models.BulkPayment;
 import com.banka1.banking.models.Card;
 import com.banka1.banking.models.Loan;
 import com.banka1.banking.models.Receiver;
@@ -42,14 +43,16 @@ public class AuthAspect {
     private final CardService cardService;
     private final TransferService transferService;
     private final ReceiverService receiverService;
+    private final BulkPaymentService bulkPaymentService;
 
-    public AuthAspect(AuthService authService, AccountService accountService, LoanService loanService, CardService cardService, TransferService transferService, ReceiverService receiverService) {
+    public AuthAspect(AuthService authService, AccountService accountService, LoanService loanService, CardService cardService, TransferService transferService, ReceiverService receiverService, BulkPaymentService bulkPaymentService) {
         this.authService = authService;
         this.accountService = accountService;
         this.loanService = loanService;
         this.cardService = cardService;
         this.transferService = transferService;
         this.receiverService = receiverService;
+        this.bulkPaymentService = bulkPaymentService;
     }
 
     // Izvlači token iz prosledjenog autorizacionog parametra
@@ -96,11 +99,15 @@ public class AuthAspect {
 
     private boolean accountDataOk(MethodSignature methodSignature, JoinPoint joinPoint, Long userId) {
         OptionalInt maybeAccountIdIndex = IntStream.range(0, methodSignature.getParameterNames().length).filter(i -> methodSignature.getParameterNames()[i].compareTo("accountId") == 0).findFirst();
+        OptionalInt maybeBulkPaymentIdIndex = IntStream.range(0, methodSignature.getParameterNames().length).filter(i -> methodSignature.getParameterNames()[i].compareTo("bulkPaymentId") == 0).findFirst();
         if (maybeAccountIdIndex.isPresent()) {
             Account account = accountService.findById(Long.valueOf(joinPoint.getArgs()[maybeAccountIdIndex.getAsInt()].toString()));
             if (account != null) {
                 return Objects.equals(userId, account.getOwnerID());
             }
+        } else if (maybeBulkPaymentIdIndex.isPresent()) {
+            BulkPayment bulkPayment = bulkPaymentService.findById(Long.valueOf(joinPoint.getArgs()[maybeBulkPaymentIdIndex.getAsInt()].toString()));
+            return Objects.equals(userId, bulkPayment.getSourceAccount().getOwnerID());
         } else {
             Class<?>[] types = methodSignature.getParameterTypes();
             Object[] values = joinPoint.getArgs();
@@ -134,6 +141,10 @@ public class AuthAspect {
                     if(!Objects.equals(accountService.findByAccountNumber(((MoneyTransferDTO) values[i]).getFromAccountNumber()).getOwnerID(), userId))
                         return false;
                     encounteredDto = true;
+                } else if(types[i] == CreateBulkPaymentDTO.class) {
+                    if(!Objects.equals(accountService.findByAccountNumber(((CreateBulkPaymentDTO) values[i]).getFromAccountNumber()).getOwnerID(), userId))
+                        return false;
+                    encounteredDto = true;
                 } else if(types[i] == CreateCardDTO.class) {
                     if(!Objects.equals(accountService.findById(((CreateCardDTO) values[i]).getAccountID()).getOwnerID(), userId))
                         return false;
@@ -40,8 +40,10 @@ public class BootstrapExchangeRateLoader implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         System.out.println("=== Fetching exchange rates on startup ===");
-        currencyService.fetchExchangeRates();
-        System.out.println("=== Exchange rates fetched successfully ===");
+        if (currencyService.fetchExchangeRates())
+            System.out.println("=== Exchange rates fetched successfully ===");
+        else
+            System.out.println("=== Exchange rates not refreshed, using last stored rates ===");
 
 
 //         test events
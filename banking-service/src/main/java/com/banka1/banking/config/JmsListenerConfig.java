@@ -0,0 +1,37 @@
+package com.banka1.banking.config;
+
+import com.banka1.common.listener.JmsListenerProperties;
+import com.banka1.common.listener.TunedJmsListenerContainerFactory;
+import jakarta.jms.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jms.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+
+@Configuration
+@EnableConfigurationProperties(JmsListenerProperties.class)
+public class JmsListenerConfig {
+    /**
+     * Podrazumevana fabrika za {@code @JmsListener}-e, sa podesavanjima po odredistu iz {@code jms.listener.destinations}.
+     */
+    @Bean
+    public DefaultJmsListenerContainerFactory jmsListenerContainerFactory(ConnectionFactory connectionFactory, DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                          JmsListenerProperties properties) {
+        TunedJmsListenerContainerFactory factory = new TunedJmsListenerContainerFactory(properties);
+        configurer.configure(factory, connectionFactory);
+        return factory;
+    }
+
+    /**
+     * Za {@code @JmsListener}-e na topic-ima: svaka instanca servisa dobija svaku poruku.
+     */
+    @Bean
+    public DefaultJmsListenerContainerFactory topicListenerFactory(ConnectionFactory connectionFactory, DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                   JmsListenerProperties properties) {
+        TunedJmsListenerContainerFactory factory = new TunedJmsListenerContainerFactory(properties);
+        configurer.configure(factory, connectionFactory);
+        factory.setPubSubDomain(true);
+        return factory;
+    }
+}
@@ -1,12 +1,17 @@
 package com.banka1.banking.controllers;
 
 import com.banka1.banking.aspect.AccountAuthorization;
+import com.banka1.banking.dto.LedgerBalanceEntryDTO;
 import com.banka1.banking.dto.TransactionResponseDTO;
 import com.banka1.banking.dto.request.CreateAccountDTO;
 import com.banka1.banking.dto.request.UpdateAccountDTO;
 import com.banka1.banking.dto.request.UserUpdateAccountDTO;
+import com.banka1.banking.dto.ConsolidatedBalanceDTO;
 import com.banka1.banking.models.Account;
+import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.services.AccountService;
+import com.banka1.banking.services.ConsolidatedBalanceService;
+import com.banka1.banking.services.LedgerService;
 import com.banka1.banking.services.implementation.AuthService;
 import com.banka1.banking.utils.ResponseTemplate;
 import com.banka1.banking.utils.ResponseMessage;
@@ -32,6 +37,8 @@ import java.util.Map;
 public class AccountController {
     private final AccountService accountService;
     private final AuthService authService;
+    private final LedgerService ledgerService;
+    private final ConsolidatedBalanceService consolidatedBalanceService;
 
     /// pristup imaju samo zaposleni
     /// Da bi zaposleni mogao da kreira novi račun, potrebno je da se prijavi u aplikaciju.
@@ -216,6 +223,70 @@ public class AccountController {
         return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, response, null);
     }
 
+    /// pristup imaju zaposleni i vlasnici racuna
+    @GetMapping("/user/{userId}/balance")
+    @Operation(summary = "Ukupno stanje korisnika", description = "Sabira stanja svih računa korisnika i preračunava ih u izabranu valutu (podrazumevano RSD) po aktivnoj kursnoj listi.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Ukupno stanje uspešno izračunato", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                   "success": true,
+                   "data": {
+                     "balance": {
+                       "currency": "RSD",
+                       "totalBalance": 21720000,
+                       "totalAvailableBalance": 21220000,
+                       "ratesDate": "2025-03-05",
+                       "balances": [
+                         {
+                           "currency": "RSD",
+                           "accounts": 1,
+                           "balance": 10000000,
+                           "availableBalance": 9500000,
+                           "exchangeRate": 1.0,
+                           "convertedBalance": 10000000
+                         },
+                         {
+                           "currency": "EUR",
+                           "accounts": 1,
+                           "balance": 100000,
+                           "availableBalance": 100000,
+                           "exchangeRate": 117.2,
+                           "convertedBalance": 11720000
+                         }
+                       ]
+                     }
+                   }
+                }
+            """))
+        ),
+        @ApiResponse(responseCode = "400", description = "Kurs za traženu valutu nije dostupan", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                   "success": false,
+                   "error": "Kurs nije pronađen za konverziju EUR -> JPY"
+                }
+            """))
+        ),
+        @ApiResponse(responseCode = "403", description = "Nedovoljna autorizacija", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                   "success": false,
+                   "error": "Nedovoljna autorizacija"
+                }
+            """))
+        )
+    })
+    @AccountAuthorization
+    public ResponseEntity<?> getConsolidatedBalance(@PathVariable Long userId, @RequestParam(defaultValue = "RSD") CurrencyType currency) {
+        try {
+            ConsolidatedBalanceDTO balance = consolidatedBalanceService.getForOwner(userId, currency);
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of("balance", balance), null);
+        } catch (IllegalStateException e) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.BAD_REQUEST), false, null, e.getMessage());
+        }
+    }
+
     /// pristup imaju samo zaposleni
     @PutMapping("/{accountId}")
     @Operation(summary = "Ažuriranje računa", description = "Omogućava zaposlenima da ažuriraju podatke o računu.")
@@ -404,4 +475,61 @@ public class AccountController {
         return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, response, null);
     }
 
+    @GetMapping("/{accountId}/ledger")
+    @Operation(summary = "Istorija stanja iz dnevnika knjizenja", description = "Ponovo izracunava stanje računa stavku po stavku iz dnevnika knjizenja, za potrebe revizije.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Istorija uspešno izračunata", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                   "success": true,
+                   "data": {
+                     "projectedBalance": 90000,
+                     "entries": [
+                       {
+                         "postingId": 1,
+                         "entryId": "0b6a4c1e-5f0d-4a53-9d3e-8f1c2a7b9e10",
+                         "transactionId": null,
+                         "direction": "CREDIT",
+                         "amount": 100000,
+                         "currencyType": "RSD",
+                         "balanceAfter": 100000,
+                         "createdAt": 1741132800000
+                       },
+                       {
+                         "postingId": 7,
+                         "entryId": "5d1f0e2a-7c3b-4e8a-b6d4-2a9f8c1e3b70",
+                         "transactionId": 3,
+                         "direction": "DEBIT",
+                         "amount": 10000,
+                         "currencyType": "RSD",
+                         "balanceAfter": 90000,
+                         "createdAt": 1741136400000
+                       }
+                     ]
+                   }
+                }
+            """))
+        ),
+        @ApiResponse(responseCode = "404", description = "Račun nije pronađen", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                   "success": false,
+                   "error": "Račun sa ID-jem 1 nije pronađen."
+                }
+            """))
+        )
+    })
+    @AccountAuthorization(employeeOnlyOperation = true)
+    public ResponseEntity<?> getLedgerForAccount(@PathVariable Long accountId) {
+        if (accountService.findById(accountId) == null) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.NOT_FOUND), false, null, "Račun sa ID-jem " + accountId + " nije pronađen.");
+        }
+
+        List<LedgerBalanceEntryDTO> entries = ledgerService.replay(accountId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("projectedBalance", ledgerService.getProjectedBalance(accountId));
+        response.put("entries", entries);
+        return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, response, null);
+    }
+
 }
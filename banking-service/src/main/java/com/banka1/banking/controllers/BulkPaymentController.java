@@ -0,0 +1,160 @@
+package com.banka1.banking.controllers;
+
+import com.banka1.banking.aspect.AccountAuthorization;
+import com.banka1.banking.dto.CreateBulkPaymentDTO;
+import com.banka1.banking.models.BulkPayment;
+import com.banka1.banking.services.BulkPaymentService;
+import com.banka1.banking.utils.ResponseTemplate;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/bulk-payments")
+@RequiredArgsConstructor
+@Tag(name = "Grupna plaćanja", description = "Rute za grupna plaćanja kompanija (plate, dobavljači)")
+public class BulkPaymentController {
+
+    private final BulkPaymentService bulkPaymentService;
+
+    @Operation(
+            summary = "Kreiranje grupnog plaćanja",
+            description = "Kreira nalog sa više stavki sa računa kompanije. Nalog se potvrđuje jednim OTP kodom preko rute /otp/verification, sa vraćenim transferId."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Grupno plaćanje kreirano", content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(value = """
+                            {
+                                "success": true,
+                                "data": {
+                                    "message": "Grupno plaćanje uspešno kreirano.",
+                                    "bulkPaymentId": 1,
+                                    "transferId": 50,
+                                    "totalAmount": 25000000,
+                                    "lineCount": 120,
+                                    "rejectedCount": 0
+                                }
+                            }
+                            """))
+            ),
+            @ApiResponse(responseCode = "400", description = "Nevalidan nalog", content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(value = """
+                            {
+                                "success": false,
+                                "error": "Grupno plaćanje je moguće samo sa računa kompanije"
+                            }
+                            """))
+            )
+    })
+    @PostMapping
+    @AccountAuthorization(customerOnlyOperation = true)
+    public ResponseEntity<?> createBulkPayment(
+            @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Nalog za grupno plaćanje",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = CreateBulkPaymentDTO.class),
+                            examples = @ExampleObject(value = "{"
+                                    + "  \"fromAccountNumber\": \"111000100011000110\","
+                                    + "  \"payementCode\": \"240\","
+                                    + "  \"payementDescription\": \"Plate za mart\","
+                                    + "  \"lines\": ["
+                                    + "    { \"recipientAccount\": \"111000100000000110\", \"receiver\": \"Marko Marković\", \"amount\": 8500000, \"payementReference\": \"2025-03\" }"
+                                    + "  ]"
+                                    + "}"))
+            ) CreateBulkPaymentDTO bulkPaymentDTO) {
+        try {
+            BulkPayment bulkPayment = bulkPaymentService.createBulkPayment(bulkPaymentDTO);
+
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of(
+                    "message", "Grupno plaćanje uspešno kreirano.",
+                    "bulkPaymentId", bulkPayment.getId(),
+                    "transferId", bulkPayment.getTransfer().getId(),
+                    "totalAmount", bulkPayment.getTotalAmount(),
+                    "lineCount", bulkPayment.getLineCount(),
+                    "rejectedCount", bulkPayment.getFailedCount()
+            ), null);
+        } catch (Exception e) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.BAD_REQUEST), false, null, e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "Status grupnog plaćanja",
+            description = "Vraća status naloga i broj izvršenih i neuspešnih stavki."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status naloga", content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(value = """
+                            {
+                                "success": true,
+                                "data": {
+                                    "status": "PARTIALLY_COMPLETED",
+                                    "transferStatus": "COMPLETED",
+                                    "lineCount": 120,
+                                    "completedCount": 118,
+                                    "failedCount": 2,
+                                    "totalAmount": 25000000,
+                                    "refundedAmount": 400000
+                                }
+                            }
+                            """))
+            ),
+            @ApiResponse(responseCode = "404", description = "Nalog nije pronađen")
+    })
+    @GetMapping("/{bulkPaymentId}")
+    @AccountAuthorization
+    public ResponseEntity<?> getBulkPayment(@PathVariable("bulkPaymentId") Long bulkPaymentId) {
+        try {
+            BulkPayment bulkPayment = bulkPaymentService.findById(bulkPaymentId);
+
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of(
+                    "status", bulkPayment.getStatus(),
+                    "transferStatus", bulkPayment.getTransfer().getStatus(),
+                    "lineCount", bulkPayment.getLineCount(),
+                    "completedCount", bulkPayment.getCompletedCount(),
+                    "failedCount", bulkPayment.getFailedCount(),
+                    "totalAmount", bulkPayment.getTotalAmount(),
+                    "refundedAmount", bulkPayment.getRefundedAmount()
+            ), null);
+        } catch (Exception e) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.NOT_FOUND), false, null, e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "Rezultat grupnog plaćanja",
+            description = "Vraća CSV fajl sa statusom i greškom za svaku stavku naloga."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "CSV fajl sa rezultatom", content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "404", description = "Nalog nije pronađen")
+    })
+    @GetMapping("/{bulkPaymentId}/result")
+    @AccountAuthorization
+    public ResponseEntity<?> getBulkPaymentResult(@PathVariable("bulkPaymentId") Long bulkPaymentId) {
+        try {
+            bulkPaymentService.findById(bulkPaymentId);
+        } catch (Exception e) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.NOT_FOUND), false, null, e.getMessage());
+        }
+
+        StreamingResponseBody body = outputStream -> bulkPaymentService.writeResult(bulkPaymentId, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bulk-payment-" + bulkPaymentId + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+}
@@ -1,11 +1,14 @@
 package com.banka1.banking.controllers;
 
 import com.banka1.banking.aspect.CompanyAuthorization;
+import com.banka1.banking.dto.ConsolidatedBalanceDTO;
 import com.banka1.banking.dto.CreateCompanyDTO;
 
 import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Company;
+import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.services.CompanyService;
+import com.banka1.banking.services.ConsolidatedBalanceService;
 
 import com.banka1.banking.utils.ResponseMessage;
 import com.banka1.banking.utils.ResponseTemplate;
@@ -29,9 +32,11 @@ import java.util.Map;
 @Tag(name = "Company API", description = "API za upravljanje kompanijama")
 public class CompanyController {
     private final CompanyService companyService;
+    private final ConsolidatedBalanceService consolidatedBalanceService;
 
-    public CompanyController(CompanyService companyService) {
+    public CompanyController(CompanyService companyService, ConsolidatedBalanceService consolidatedBalanceService) {
         this.companyService = companyService;
+        this.consolidatedBalanceService = consolidatedBalanceService;
     }
 
     @PostMapping("/")
@@ -280,7 +285,7 @@ public class CompanyController {
                       "accounts": [
                         {
                             "id": 1,
-                            "balance": 1000.0,
+                            "balance": 100000,
                             "currency": "RSD",
                             "type": "CURRENT"
                         }
@@ -316,4 +321,51 @@ public class CompanyController {
             return ResponseTemplate.create(ResponseEntity.status(HttpStatus.BAD_REQUEST), false, null, e.getMessage());
         }
     }
+
+    @GetMapping("/{company_id}/balance")
+    @Operation(summary = "Ukupno stanje kompanije", description = "Sabira stanja svih računa kompanije i preračunava ih u izabranu valutu (podrazumevano RSD) po aktivnoj kursnoj listi.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ukupno stanje kompanije.", content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(value = """
+                {
+                   "data": {
+                      "balance": {
+                        "currency": "EUR",
+                        "totalBalance": 85000,
+                        "totalAvailableBalance": 85000,
+                        "ratesDate": "2025-03-05",
+                        "balances": [
+                          {
+                              "currency": "RSD",
+                              "accounts": 1,
+                              "balance": 10000000,
+                              "availableBalance": 10000000,
+                              "exchangeRate": 0.0085,
+                              "convertedBalance": 85000
+                          }
+                        ]
+                      }
+                   },
+                   "success": true
+                 }
+            """))
+            ),
+            @ApiResponse(responseCode = "400", description = "Kurs za traženu valutu nije dostupan.", content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(value = """
+                {
+                  "success": false,
+                  "error": "Kurs nije pronađen za konverziju RSD -> JPY"
+                }
+            """))
+            )
+    })
+    @CompanyAuthorization
+    public ResponseEntity<?> getConsolidatedBalance(@PathVariable("company_id") Long companyId, @RequestParam(defaultValue = "RSD") CurrencyType currency) {
+        try {
+            ConsolidatedBalanceDTO balance = consolidatedBalanceService.getForCompany(companyId, currency);
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of("balance", balance), null);
+        } catch (IllegalStateException e) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.BAD_REQUEST), false, null, e.getMessage());
+        }
+    }
 }
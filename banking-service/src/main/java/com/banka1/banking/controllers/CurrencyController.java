@@ -1,30 +1,43 @@
 package com.banka1.banking.controllers;
 
 import com.banka1.banking.dto.ExchangePairDTO;
+import com.banka1.banking.dto.ExchangeRateHistoryDTO;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.services.CurrencyService;
+import com.banka1.banking.services.ExchangeRateHistoryService;
+import com.banka1.banking.services.ExchangeRateStreamService;
+import com.banka1.banking.utils.ExchangeRateMatrix;
 import com.banka1.banking.utils.ResponseTemplate;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/currency")
 @Tag(name = "Currency API", description = "API za upravljanje valutama i kursnim listama")
 public class CurrencyController {
     private final CurrencyService currencyService;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
+    private final ExchangeRateStreamService exchangeRateStreamService;
 
-    public CurrencyController(CurrencyService currencyService) {
+    public CurrencyController(CurrencyService currencyService, ExchangeRateHistoryService exchangeRateHistoryService, ExchangeRateStreamService exchangeRateStreamService) {
         this.currencyService = currencyService;
+        this.exchangeRateHistoryService = exchangeRateHistoryService;
+        this.exchangeRateStreamService = exchangeRateStreamService;
     }
 
     @GetMapping("/available")
@@ -97,6 +110,21 @@ public class CurrencyController {
         return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of("rates", rates), null);
     }
 
+    @GetMapping(value = "/exchange-rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Praćenje kursne liste", description = "Server-Sent Events tok kursne liste. Odmah po prijavi šalje se događaj snapshot sa celom listom, "
+            + "a posle svakog osvežavanja događaj rates samo sa parovima čiji se kurs promenio. Događaj heartbeat se šalje periodično radi održavanja veze.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tok promena kursne liste", content = @Content(mediaType = "text/event-stream",
+            examples = @ExampleObject(value = """
+                event:rates
+                data:{"version":13,"date":"2025-03-01","snapshot":false,"rates":[{"baseCurrency":"EUR","targetCurrency":"RSD","exchangeRate":117.25,"date":"2025-03-01"}]}
+            """))
+        )
+    })
+    public SseEmitter streamExchangeRates() {
+        return exchangeRateStreamService.subscribe();
+    }
+
     @GetMapping("/exchange-rates/{currency}")
     @Operation(summary = "Dohvatanje kursne liste za odabranu baznu valutu", description = "Vraća kursnu listu sa odabranom baznom valutom.")
     @ApiResponses({
@@ -142,4 +170,78 @@ public class CurrencyController {
         }
         return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of("rates", rates), null);
     }
+
+    @GetMapping("/exchange-rates/history")
+    @Operation(summary = "Istorija kursne liste", description = "Sa parametrom date vraća kursnu listu važeću na taj dan (poslednju pre njega ako tog dana nije bilo osvežavanja). "
+            + "Sa parametrima from i to vraća sve dnevne liste u periodu. Parametri base i target sužavaju listu na baznu, odnosno ciljnu valutu.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Kursna lista na dan", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                  "data": {
+                    "history": [
+                      {
+                        "date": "2025-03-01",
+                        "version": 12,
+                        "rates": [
+                          {
+                            "baseCurrency": "EUR",
+                            "targetCurrency": "RSD",
+                            "exchangeRate": 117.2,
+                            "date": "2025-03-01"
+                          }
+                        ]
+                      }
+                    ]
+                  },
+                  "success": true
+                }
+            """))
+        ),
+        @ApiResponse(responseCode = "400", description = "Nevalidni parametri", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                  "success": false,
+                  "error": "Potrebno je poslati date ili from i to."
+                }
+            """))
+        ),
+        @ApiResponse(responseCode = "404", description = "Ne postoji kursna lista za traženi dan", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                  "success": false,
+                  "error": "Ne postoji kursna lista za dan 2024-01-01"
+                }
+            """))
+        )
+    })
+    public ResponseEntity<?> getExchangeRateHistory(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    @RequestParam(required = false) CurrencyType base,
+                                                    @RequestParam(required = false) CurrencyType target) {
+        try {
+            if (date != null) {
+                Optional<ExchangeRateMatrix> matrix = exchangeRateHistoryService.getAsOf(date);
+                if (matrix.isEmpty()) {
+                    return ResponseTemplate.create(ResponseEntity.status(HttpStatus.NOT_FOUND), false, null,
+                            "Ne postoji kursna lista za dan " + date);
+                }
+                return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true,
+                        Map.of("history", List.of(ExchangeRateHistoryService.toDTO(matrix.get(), base, target))), null);
+            }
+
+            if (from == null || to == null) {
+                return ResponseTemplate.create(ResponseEntity.status(HttpStatus.BAD_REQUEST), false, null,
+                        "Potrebno je poslati date ili from i to.");
+            }
+
+            List<ExchangeRateHistoryDTO> history = exchangeRateHistoryService.getRange(from, to).stream()
+                    .map(matrix -> ExchangeRateHistoryService.toDTO(matrix, base, target))
+                    .toList();
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.OK), true, Map.of("history", history), null);
+        } catch (IllegalArgumentException e) {
+            return ResponseTemplate.create(ResponseEntity.status(HttpStatus.BAD_REQUEST), false, null, e.getMessage());
+        }
+    }
 }
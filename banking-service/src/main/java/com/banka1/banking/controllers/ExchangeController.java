@@ -3,6 +3,8 @@ package com.banka1.banking.controllers;
 import com.banka1.banking.aspect.AccountAuthorization;
 import com.banka1.banking.dto.ExchangeMoneyTransferDTO;
 import com.banka1.banking.dto.ExchangePreviewDTO;
+import com.banka1.banking.dto.exchange.ExchangePreviewBatch;
+import com.banka1.banking.models.helper.ExchangeQuote;
 import com.banka1.banking.services.ExchangeService;
 import com.banka1.banking.utils.ResponseTemplate;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -59,7 +63,7 @@ public class ExchangeController {
                     description = "Podaci za transfer sa konverzijom",
                     required = true,
                     content = @Content(schema = @Schema(implementation = ExchangeMoneyTransferDTO.class),
-                            examples = @ExampleObject(value = "{ \"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 500.0, \"fromCurrency\": \"EUR\", \"toCurrency\": \"USD\" }"))
+                            examples = @ExampleObject(value = "{ \"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 50000, \"fromCurrency\": \"EUR\", \"toCurrency\": \"USD\", \"quoteId\": \"5f0c7a2e-7d3b-4c1e-9a51-2f6f0b1d9c44\" }"))
             ) ExchangeMoneyTransferDTO exchangeMoneyTransferDTO) {
 
         // PROVERITI DA LI SE VALUTE SALJU U DTO
@@ -79,15 +83,18 @@ public class ExchangeController {
 
     }
 
-    @Operation(summary = "Pregled kursa pre razmene", description = "Vraća kurs, iznos nakon konverzije, proviziju i krajnji iznos pre nego što korisnik potvrdi transfer.")
+    @Operation(summary = "Pregled kursa pre razmene", description = "Vraća kurs, iznos nakon konverzije, proviziju i krajnji iznos pre nego što korisnik potvrdi transfer. "
+            + "Ako je zadat accountFrom, vraća se i quoteId koji se šalje pri kreiranju transfera sa tog računa i garantuje prikazani kurs do expiresAt.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Uspešno izračunata konverzija", content = @Content(mediaType = "application/json",
             examples = @ExampleObject(value = """
                 {
                     "exchangeRate": 117.5,
-                    "convertedAmount": 8.51,
-                    "fee": 0.25,
-                    "finalAmount": 8.26
+                    "convertedAmount": 851,
+                    "fee": 25,
+                    "finalAmount": 826,
+                    "quoteId": "5f0c7a2e-7d3b-4c1e-9a51-2f6f0b1d9c44",
+                    "expiresAt": 1741190460000
                 }
             """))
         ),
@@ -103,8 +110,8 @@ public class ExchangeController {
             {
                 "firstExchangeRate": 117.5,
                 "secondExchangeRate": 105.2,
-                "totalFee": 5.0,
-                "finalAmount": 95.0
+                "totalFee": 500,
+                "finalAmount": 9500
             }
         """))
         ),
@@ -119,11 +126,23 @@ public class ExchangeController {
     @PostMapping("/preview")
     public ResponseEntity<?> previewExchange(@RequestBody ExchangePreviewDTO exchangePreviewDTO) {
         try {
-            Map<String, Object> previewData = exchangeService.calculatePreviewExchangeAutomatic(
+            if (exchangePreviewDTO.getAccountFrom() == null) {
+                return ResponseEntity.ok(exchangeService.calculatePreviewExchangeAutomatic(
+                        exchangePreviewDTO.getFromCurrency(),
+                        exchangePreviewDTO.getToCurrency(),
+                        exchangePreviewDTO.getAmount()
+                ).toMap());
+            }
+
+            ExchangeQuote quote = exchangeService.createQuote(
+                    exchangePreviewDTO.getAccountFrom(),
                     exchangePreviewDTO.getFromCurrency(),
                     exchangePreviewDTO.getToCurrency(),
                     exchangePreviewDTO.getAmount()
             );
+            Map<String, Object> previewData = new HashMap<>(quote.getPreview().toMap());
+            previewData.put("quoteId", quote.getId());
+            previewData.put("expiresAt", quote.getExpiresAt());
             return ResponseEntity.ok(previewData);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -131,6 +150,55 @@ public class ExchangeController {
         }
     }
 
+    @Operation(summary = "Zbirni pregled konverzija", description = "Obračunava više konverzija (npr. vrednovanje pozicija portfolija) u jednom zahtevu, "
+            + "sve iz iste verzije kursne liste. Rezultati su istim redom kao stavke zahteva; stavka koja ne može da se obračuna nosi polje error. "
+            + "Ponude za transfer (quoteId) se ne prave.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Obračunate stavke", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                    "version": 13,
+                    "date": "2025-03-01",
+                    "results": [
+                        {
+                            "fromCurrency": "EUR",
+                            "toCurrency": "RSD",
+                            "amount": 10000,
+                            "exchangeRate": 117.0,
+                            "convertedAmount": 1170000,
+                            "fee": 11700,
+                            "provision": 11700,
+                            "finalAmount": 1158300
+                        },
+                        {
+                            "fromCurrency": "XYZ",
+                            "toCurrency": "RSD",
+                            "amount": 1000,
+                            "error": "Nepoznata valuta: XYZ"
+                        }
+                    ]
+                }
+            """))
+        ),
+        @ApiResponse(responseCode = "400", description = "Prazan ili prevelik zahtev", content = @Content(mediaType = "application/json",
+            examples = @ExampleObject(value = """
+                {
+                    "error": "Najvise 1000 konverzija po zahtevu."
+                }
+            """))
+        )
+    })
+    @PostMapping("/preview/batch")
+    public ResponseEntity<?> previewExchangeBatch(@RequestBody List<ExchangePreviewDTO> exchangePreviewDTOs) {
+        try {
+            ExchangePreviewBatch batch = exchangeService.calculatePreviewBatch(exchangePreviewDTOs);
+            return ResponseEntity.ok(batch.toMap());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
 //    @Operation(summary = "Pregled kursa za stranu valutu pre razmene", description = "Vraća kurs za obe strane valute, ukupnu proviziju i konačan iznos nakon oduzimanja provizije.")
 //    @ApiResponses(value = {
 //        @ApiResponse(responseCode = "200", description = "Uspešno izračunata konverzija strane valute", content = @Content(mediaType = "application/json",
@@ -4,7 +4,9 @@ import com.banka1.banking.aspect.AccountAuthorization;
 import com.banka1.banking.dto.OtpTokenDTO;
 import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
 import com.banka1.banking.repository.TransferRepository;
+import com.banka1.banking.services.BulkPaymentService;
 import com.banka1.banking.services.OtpTokenService;
 import com.banka1.banking.services.TransferService;
 import com.banka1.banking.utils.ResponseTemplate;
@@ -34,6 +36,7 @@ public class OtpTokenController {
     private final OtpTokenService otpTokenService;
     private final TransferRepository transferRepository;
     private final TransferService transferService;
+    private final BulkPaymentService bulkPaymentService;
 
     @Operation(
             summary = "Verifikacija OTP koda",
@@ -91,7 +94,10 @@ public class OtpTokenController {
 
 
                 try {
-                    transferService.processTransfer(transferId);
+                    if (transfer.getType() == TransferType.BULK)
+                        bulkPaymentService.executeBulkPayment(transferId);
+                    else
+                        transferService.processTransfer(transferId);
                 } catch (Exception e){
                     System.out.println(e);
                     return ResponseTemplate.create(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR),
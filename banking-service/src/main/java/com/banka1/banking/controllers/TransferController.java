@@ -64,7 +64,7 @@ public class TransferController {
                     description = "Podaci za interni transfer",
                     required = true,
                     content = @Content(schema = @Schema(implementation = InternalTransferDTO.class),
-                            examples = @ExampleObject(value = "{ \"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 500.0 }"))
+                            examples = @ExampleObject(value = "{ \"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 50000 }"))
             ) InternalTransferDTO transferDTO) {
 
         try {
@@ -121,7 +121,7 @@ public class TransferController {
                             examples = @ExampleObject(value = "{"
                                     + "  \"fromAccountId\": 1,"
                                     + "  \"toAccountId\": 3,"
-                                    + "  \"amount\": 200.0,"
+                                    + "  \"amount\": 20000,"
                                     + "  \"receiver\": \"Marko Marković\","
                                     + "  \"adress\": \"Kralja Petra 12\","
                                     + "  \"payementCode\": \"123\","
@@ -163,14 +163,14 @@ public class TransferController {
                                         "transferId": 1,
                                         "fromAccountId": 1,
                                         "toAccountId": 2,
-                                        "amount": 500.0,
+                                        "amount": 50000,
                                         "status": "COMPLETED"
                                     },
                                     {
                                         "transferId": 2,
                                         "fromAccountId": 1,
                                         "toAccountId": 3,
-                                        "amount": 200.0,
+                                        "amount": 20000,
                                         "status": "PENDING"
                                     }
                                 ]
@@ -0,0 +1,15 @@
+package com.banka1.banking.dto;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkPaymentLineDTO {
+
+    private String recipientAccount;
+    private String receiver;
+    private Long amount;
+    private String payementReference;
+    private String payementDescription;
+}
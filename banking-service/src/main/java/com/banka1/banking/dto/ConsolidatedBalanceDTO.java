@@ -0,0 +1,21 @@
+package com.banka1.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsolidatedBalanceDTO {
+    private String currency; // Valuta u kojoj je iskazan zbir
+    private Long totalBalance; // Zbir stanja svih racuna
+    private Long totalAvailableBalance; // Zbir raspolozivih stanja (bez rezervisanih sredstava)
+    private LocalDate ratesDate; // Datum kursne liste po kojoj je preracunato
+    private List<CurrencyBalanceDTO> balances; // Stanja po valutama
+}
@@ -0,0 +1,17 @@
+package com.banka1.banking.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateBulkPaymentDTO {
+
+    private String fromAccountNumber;
+    private String payementCode;
+    private String payementDescription;
+
+    private List<BulkPaymentLineDTO> lines;
+}
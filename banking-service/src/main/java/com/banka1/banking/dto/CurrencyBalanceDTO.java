@@ -0,0 +1,19 @@
+package com.banka1.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurrencyBalanceDTO {
+    private String currency; // Valuta racuna
+    private Integer accounts; // Broj racuna u toj valuti
+    private Long balance; // Zbir stanja u najmanjim jedinicama valute racuna
+    private Long availableBalance; // Zbir raspolozivih stanja u valuti racuna
+    private Double exchangeRate; // Kurs ka valuti zbira
+    private Long convertedBalance; // Stanje preracunato u valutu zbira, u njenim najmanjim jedinicama
+}
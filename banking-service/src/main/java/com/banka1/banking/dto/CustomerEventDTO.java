@@ -0,0 +1,20 @@
+package com.banka1.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Promena korisnika koju user-service objavljuje na {@code destination.customer.events} topic.
+ * Za {@link Type#DELETED} je {@code customer} {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerEventDTO {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private Type type;
+    private Long id;
+    private CustomerDTO customer;
+}
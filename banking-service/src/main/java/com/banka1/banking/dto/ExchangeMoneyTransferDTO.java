@@ -11,6 +11,11 @@ public class ExchangeMoneyTransferDTO {
 
     private Long accountFrom;
     private Long accountTo;
-    private Double amount;
+    private Long amount;
+
+    /**
+     * Ponuda iz pregleda kursa. Ako je zadata, transfer se izvrsava po kursu i iznosu iz ponude.
+     */
+    private String quoteId;
 
 }
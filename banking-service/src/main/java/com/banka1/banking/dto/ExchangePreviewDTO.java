@@ -10,5 +10,10 @@ import lombok.NoArgsConstructor;
 public class ExchangePreviewDTO {
     private String fromCurrency;
     private String toCurrency;
-    private Double amount;
+    private Long amount;
+
+    /**
+     * Racun sa kog bi se transfer izvrsio. Ponuda (quoteId) se izdaje samo kada je zadat i vezuje se za taj racun.
+     */
+    private Long accountFrom;
 }
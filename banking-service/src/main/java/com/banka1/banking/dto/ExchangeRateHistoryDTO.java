@@ -0,0 +1,19 @@
+package com.banka1.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExchangeRateHistoryDTO {
+    private LocalDate date; // Dan na koji se lista odnosi
+    private Long version; // Verzija kursne liste iz koje je dan upisan
+    private List<ExchangePairDTO> rates; // Kursevi tog dana
+}
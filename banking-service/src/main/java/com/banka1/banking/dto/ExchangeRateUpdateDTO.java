@@ -0,0 +1,20 @@
+package com.banka1.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExchangeRateUpdateDTO {
+    private Long version; // Verzija kursne liste posle promene
+    private LocalDate date; // Datum kursne liste
+    private boolean snapshot; // true za celu listu pri prijavi, false kada se salju samo promenjeni parovi
+    private List<ExchangePairDTO> rates; // Promenjeni (ili svi) kursni parovi
+}
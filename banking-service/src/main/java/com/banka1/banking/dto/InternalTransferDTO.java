@@ -9,5 +9,5 @@ public class InternalTransferDTO {
 
     private Long fromAccountId;
     private Long toAccountId;
-    private Double amount;
+    private Long amount;
 }
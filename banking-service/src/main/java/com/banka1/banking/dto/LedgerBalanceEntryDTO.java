@@ -0,0 +1,23 @@
+package com.banka1.banking.dto;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.PostingDirection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerBalanceEntryDTO {
+    private Long postingId;
+    private String entryId;
+    private Long transactionId;
+    private PostingDirection direction;
+    private Long amount;
+    private CurrencyType currencyType;
+    private Long balanceAfter; // Stanje racuna posle ove stavke
+    private Long createdAt;
+}
@@ -9,7 +9,7 @@ public class MoneyTransferDTO {
 
     private String fromAccountNumber;
     private String recipientAccount;
-    private Double amount;
+    private Long amount;
     private String receiver;
     private String adress;
     private String payementCode;
@@ -14,11 +14,11 @@ public class TransactionResponseDTO {
 
     private Account toAccountId;
 
-    private Double amount;
+    private Long amount;
 
-    private Double finalAmount;
+    private Long finalAmount;
 
-    private Double fee;
+    private Long fee;
 
     private Boolean bankOnly = false;
 
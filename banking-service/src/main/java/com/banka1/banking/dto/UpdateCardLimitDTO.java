@@ -6,5 +6,5 @@ import lombok.Setter;
 @Getter
 @Setter
 public class UpdateCardLimitDTO {
-    private Double newLimit;
+    private Long newLimit;
 }
@@ -0,0 +1,26 @@
+package com.banka1.banking.dto.exchange;
+
+import java.util.Map;
+
+/**
+ * Konverzija izmedju RSD i strane valute. Iznosi su u najmanjim jedinicama valute
+ * ({@link com.banka1.banking.utils.Money}).
+ *
+ * @param exchangeRate    kurs za prikaz klijentu (broj dinara za jedinicu strane valute)
+ * @param convertedAmount iznos posle konverzije, pre provizije
+ * @param fee             provizija
+ * @param finalAmount     iznos posle provizije
+ */
+public record DirectExchangeResult(double exchangeRate, long convertedAmount, long fee, long finalAmount) implements ExchangeResult {
+
+    @Override
+    public Map<String, Object> toMap() {
+        return Map.of(
+                "exchangeRate", exchangeRate,
+                "convertedAmount", convertedAmount,
+                "fee", fee,
+                "provision", fee,
+                "finalAmount", finalAmount
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.banka1.banking.dto.exchange;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zbirni pregled konverzija. Sve stavke su obracunate iz iste verzije kursne liste.
+ *
+ * @param version verzija kursne liste
+ * @param date    datum kursne liste
+ * @param items   stavke, istim redom kao u zahtevu
+ */
+public record ExchangePreviewBatch(Long version, LocalDate date, List<ExchangePreviewItem> items) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("version", version);
+        map.put("date", date);
+        map.put("results", items.stream().map(ExchangePreviewItem::toMap).toList());
+        return map;
+    }
+}
@@ -0,0 +1,29 @@
+package com.banka1.banking.dto.exchange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Jedna stavka zbirnog pregleda konverzije: obracun, ili poruka greske ako stavka nije mogla da se obracuna
+ * (nepoznata valuta, nepostojeci kurs, nevalidan iznos).
+ *
+ * @param fromCurrency valuta iz zahteva
+ * @param toCurrency   valuta iz zahteva
+ * @param amount       iznos iz zahteva, u najmanjim jedinicama valute {@code fromCurrency}
+ * @param result       obracun, ili {@code null} ako stavka nije uspela
+ * @param error        poruka greske, ili {@code null} ako je stavka obracunata
+ */
+public record ExchangePreviewItem(String fromCurrency, String toCurrency, Long amount, ExchangeResult result, String error) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("fromCurrency", fromCurrency);
+        map.put("toCurrency", toCurrency);
+        map.put("amount", amount);
+        if (result != null)
+            map.putAll(result.toMap());
+        else
+            map.put("error", error);
+        return map;
+    }
+}
@@ -0,0 +1,22 @@
+package com.banka1.banking.dto.exchange;
+
+import java.util.Map;
+
+/**
+ * Rezultat obracuna menjacnice. Interni pozivaoci citaju polja direktno, a {@link #toMap()}
+ * postoji samo za odgovor REST API-ja.
+ */
+public sealed interface ExchangeResult permits DirectExchangeResult, ForeignExchangeResult {
+
+    /**
+     * Ukupna provizija, u najmanjim jedinicama ciljne valute.
+     */
+    long fee();
+
+    /**
+     * Iznos koji se uplacuje na ciljni racun, u najmanjim jedinicama ciljne valute.
+     */
+    long finalAmount();
+
+    Map<String, Object> toMap();
+}
@@ -0,0 +1,31 @@
+package com.banka1.banking.dto.exchange;
+
+import java.util.Map;
+
+/**
+ * Konverzija strane valute u stranu valutu preko RSD, sa provizijom u oba koraka. Iznosi su u najmanjim jedinicama
+ * valute ({@link com.banka1.banking.utils.Money}).
+ *
+ * @param firstExchangeRate  kurs strane valute prema RSD
+ * @param secondExchangeRate kurs za prikaz klijentu u drugom koraku (broj dinara za jedinicu ciljne valute)
+ * @param rsdAmount          medjuiznos u RSD posle prve provizije
+ * @param firstFee           provizija prvog koraka, u RSD
+ * @param secondFee          provizija drugog koraka, u ciljnoj valuti
+ * @param fee                ukupna provizija, u ciljnoj valuti
+ * @param finalAmount        iznos posle obe provizije
+ */
+public record ForeignExchangeResult(double firstExchangeRate, double secondExchangeRate, long rsdAmount, long firstFee,
+                                    long secondFee, long fee, long finalAmount) implements ExchangeResult {
+
+    @Override
+    public Map<String, Object> toMap() {
+        return Map.of(
+                "firstExchangeRate", firstExchangeRate,
+                "secondExchangeRate", secondExchangeRate,
+                "totalFee", fee,
+                "provision", fee,
+                "fee", fee,
+                "finalAmount", finalAmount
+        );
+    }
+}
@@ -23,9 +23,9 @@ public class CreateAccountDTO {
     @NotNull(message = "Izaberi podtip racuna")
     private AccountSubtype subtype;
 
-    private Double dailyLimit;
+    private Long dailyLimit;
 
-    private Double monthlyLimit;
+    private Long monthlyLimit;
 
     @NotNull(message = "Izaberi status racuna")
     private AccountStatus status;
@@ -33,6 +33,6 @@ public class CreateAccountDTO {
     @NotNull(message = "Izaberi da li da se kreiraju kartice za racun")
     private Boolean createCard;
 
-    private Double balance;
+    private Long balance;
     private CreateCompanyDTO companyData;
 }
@@ -16,9 +16,9 @@ public class CreateLoanDTO {
     @NotNull
     private InterestType interestType;
     @NotNull
-    private Double loanAmount;
+    private Long loanAmount;
     @NotNull
-    private Double salaryAmount;
+    private Long salaryAmount;
     @NotNull
     private String employmentStatus;
     @NotNull
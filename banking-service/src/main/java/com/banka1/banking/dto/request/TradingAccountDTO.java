@@ -0,0 +1,60 @@
+package com.banka1.banking.dto.request;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountSubtype;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.utils.Money;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Racun kako ga vidi trading servis: iznosi su decimalni, u celim jedinicama valute racuna.
+ */
+@Data
+@NoArgsConstructor
+public class TradingAccountDTO {
+    private Long id;
+    private Long ownerID;
+    private String accountNumber;
+    private Double balance;
+    private Double reservedBalance;
+    private AccountType type;
+    private CurrencyType currencyType;
+    private AccountSubtype subtype;
+    private Long createdDate;
+    private Long expirationDate;
+    private Double dailyLimit;
+    private Double monthlyLimit;
+    private Double dailySpent;
+    private Double monthlySpent;
+    private AccountStatus status;
+    private Long employeeID;
+    private Double monthlyMaintenanceFee;
+
+    public TradingAccountDTO(Account account) {
+        CurrencyType currency = account.getCurrencyType();
+        this.id = account.getId();
+        this.ownerID = account.getOwnerID();
+        this.accountNumber = account.getAccountNumber();
+        this.balance = major(account.getBalance(), currency);
+        this.reservedBalance = major(account.getReservedBalance(), currency);
+        this.type = account.getType();
+        this.currencyType = currency;
+        this.subtype = account.getSubtype();
+        this.createdDate = account.getCreatedDate();
+        this.expirationDate = account.getExpirationDate();
+        this.dailyLimit = major(account.getDailyLimit(), currency);
+        this.monthlyLimit = major(account.getMonthlyLimit(), currency);
+        this.dailySpent = major(account.getDailySpent(), currency);
+        this.monthlySpent = major(account.getMonthlySpent(), currency);
+        this.status = account.getStatus();
+        this.employeeID = account.getEmployeeID();
+        this.monthlyMaintenanceFee = major(account.getMonthlyMaintenanceFee(), currency);
+    }
+
+    private static Double major(Long minor, CurrencyType currency) {
+        return minor != null ? Money.toMajor(minor, currency) : null;
+    }
+}
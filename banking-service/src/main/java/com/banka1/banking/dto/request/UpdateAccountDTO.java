@@ -5,7 +5,7 @@ import lombok.Data;
 
 @Data
 public class UpdateAccountDTO {
-    private Double dailyLimit;
-    private Double monthlyLimit;
+    private Long dailyLimit;
+    private Long monthlyLimit;
     private AccountStatus status;
 }
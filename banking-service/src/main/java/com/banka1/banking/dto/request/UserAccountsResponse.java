@@ -1,6 +1,5 @@
 package com.banka1.banking.dto.request;
 
-import com.banka1.banking.models.Account;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -9,5 +8,5 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 public class UserAccountsResponse {
-    private List<Account> accounts;
+    private List<TradingAccountDTO> accounts;
 }
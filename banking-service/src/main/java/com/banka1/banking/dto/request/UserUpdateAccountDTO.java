@@ -4,6 +4,6 @@ import lombok.Data;
 
 @Data
 public class UserUpdateAccountDTO {
-    private Double dailyLimit;
-    private Double monthlyLimit;
+    private Long dailyLimit;
+    private Long monthlyLimit;
 }
@@ -1,6 +1,7 @@
 package com.banka1.banking.listener;
 
 import com.banka1.banking.dto.CreateAccountByEmployeeDTO;
+import com.banka1.banking.dto.request.TradingAccountDTO;
 import com.banka1.banking.dto.request.UserAccountsResponse;
 import com.banka1.banking.dto.request.UserRequest;
 import com.banka1.banking.models.Account;
@@ -34,10 +35,10 @@ public class AccountListener {
                 accountService.createAccount(dto.getCreateAccountDTO(), dto.getEmployeeId());
         } catch (Exception e) {
             log.error("AccountListener: ", e);
-            jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage(e.getMessage()));
+            messageHelper.sendReply(jmsTemplate, message, e.getMessage());
             return;
         }
-        jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage("null"));
+        messageHelper.sendReply(jmsTemplate, message, "null");
     }
 
     @JmsListener(destination = "${destination.account.by-user}", concurrency = "5-10")
@@ -46,7 +47,7 @@ public class AccountListener {
 
         try {
             List<Account> accounts = accountService.getAccountsByOwnerId(request.getUserId());
-            UserAccountsResponse response = new UserAccountsResponse(accounts);
+            UserAccountsResponse response = new UserAccountsResponse(accounts.stream().map(TradingAccountDTO::new).toList());
 
             jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage(response));
         } catch (Exception e) {
@@ -0,0 +1,30 @@
+package com.banka1.banking.listener;
+
+import com.banka1.banking.dto.CustomerEventDTO;
+import com.banka1.banking.services.CustomerDirectory;
+import com.banka1.common.listener.MessageHelper;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerEventListener {
+    private final CustomerDirectory customerDirectory;
+    private final MessageHelper messageHelper;
+
+    @JmsListener(destination = "${destination.customer.events}", containerFactory = "topicListenerFactory")
+    public void onCustomerEvent(Message message) throws JMSException {
+        try {
+            var event = messageHelper.getMessage(message, CustomerEventDTO.class);
+            if (event != null)
+                customerDirectory.apply(event);
+        } catch (Exception e) {
+            log.error("CustomerEventListener: ", e);
+        }
+    }
+}
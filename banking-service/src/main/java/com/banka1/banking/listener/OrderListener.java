@@ -1,6 +1,7 @@
 package com.banka1.banking.listener;
 
 import com.banka1.banking.dto.OrderTransactionInitiationDTO;
+import com.banka1.banking.services.OrderNettingService;
 import com.banka1.banking.services.OrderService;
 import com.banka1.common.listener.MessageHelper;
 import jakarta.jms.JMSException;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Component;
 public class OrderListener {
 
     private final OrderService orderService;
+    private final OrderNettingService orderNettingService;
     private final MessageHelper messageHelper;
     private final JmsTemplate jmsTemplate;
 
@@ -29,6 +31,12 @@ public class OrderListener {
         try {
             if (dto == null)
                 throw new RuntimeException("DTO je null");
+            if (orderNettingService.isEnabled()) {
+                // odgovor salje OrderNettingService, posle poravnanja
+                String correlationId = message.getJMSCorrelationID() != null ? message.getJMSCorrelationID() : message.getJMSMessageID();
+                orderNettingService.submit(dto, message.getJMSReplyTo(), correlationId);
+                return;
+            }
             orderService.processOrderTransaction(dto);
         } catch (Exception e) {
             log.error("OrderListener: ", e);
@@ -31,7 +31,7 @@ public class CardMapper {
         card.setExpirationDate(fiveYearsFuture.getTime().getTime() / 1000);
         card.setActive(true);
         card.setBlocked(false);
-        card.setCardLimit(1000000.0);
+        card.setCardLimit(100000000L);
 
         String cardNumber = switch (card.getCardBrand()) {
             case VISA -> "4" + generateRandomNumeric(15);
@@ -4,17 +4,21 @@ import com.banka1.banking.models.helper.AccountStatus;
 import com.banka1.banking.models.helper.AccountSubtype;
 import com.banka1.banking.models.helper.AccountType;
 import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.services.AccountBalanceListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDate;
+
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@EntityListeners(AccountBalanceListener.class)
 public class Account {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,11 +30,12 @@ public class Account {
     @Column(nullable = false, unique = true)
     private String accountNumber;
 
+    // svi iznosi racuna su u najmanjim jedinicama njegove valute (pare, centi...), vidi Money
     @Column(nullable = false)
-    private Double balance;
+    private Long balance;
 
     @Column(nullable = false)
-    private Double reservedBalance;
+    private Long reservedBalance;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -51,16 +56,21 @@ public class Account {
     private Long expirationDate;
 
     @Column(nullable = false)
-    private Double dailyLimit;
+    private Long dailyLimit;
 
     @Column(nullable = false)
-    private Double monthlyLimit;
+    private Long monthlyLimit;
 
-    @Column(nullable = false)
-    private Double dailySpent;
+    // potrosnju vodi SpendingLimitService i sam je upisuje, pa se ne prepisuje pri cuvanju racuna
+    @Column(nullable = false, updatable = false)
+    private Long dailySpent;
 
-    @Column(nullable = false)
-    private Double monthlySpent;
+    @Column(nullable = false, updatable = false)
+    private Long monthlySpent;
+
+    // dan na koji se odnosi upisana potrosnja
+    @Column(updatable = false)
+    private LocalDate spentDate;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -70,7 +80,7 @@ public class Account {
     private Long employeeID;
 
     @Column(nullable = false)
-    private Double monthlyMaintenanceFee;
+    private Long monthlyMaintenanceFee;
 
     @ManyToOne
     @JoinColumn(name = "company_id")
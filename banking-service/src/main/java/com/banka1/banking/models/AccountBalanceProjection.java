@@ -0,0 +1,30 @@
+package com.banka1.banking.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Stanje racuna izracunato iz dnevnika knjizenja, zakljucno sa stavkom {@code lastPostingId}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_balance_projection")
+public class AccountBalanceProjection {
+    @Id
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Long balance = 0L;
+
+    @Column(nullable = false)
+    private Long lastPostingId = 0L;
+
+    @Column(nullable = false)
+    private Long updatedAt;
+}
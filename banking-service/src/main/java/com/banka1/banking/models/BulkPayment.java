@@ -0,0 +1,59 @@
+package com.banka1.banking.models;
+
+import com.banka1.banking.models.helper.BulkPaymentStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Grupno placanje kompanije (plate, dobavljaci). Potvrdjuje se jednim OTP-om preko zbirnog {@link Transfer}-a
+ * tipa {@code BULK}, sa kog se ukupan iznos skida jednim zaduzenjem, a stavke ({@link BulkPaymentLine})
+ * se zatim izvrsavaju u delovima.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "bulk_payment")
+public class BulkPayment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_payment_seq")
+    @SequenceGenerator(name = "bulk_payment_seq", sequenceName = "bulk_payment_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @ManyToOne
+    @JoinColumn(name = "source_account_id", nullable = false)
+    private Account sourceAccount;
+
+    @OneToOne
+    @JoinColumn(name = "transfer_id", nullable = false, unique = true)
+    private Transfer transfer;
+
+    @Column(nullable = false)
+    private Long totalAmount; // zbir stavki koje nisu odbijene
+
+    @Column(nullable = false)
+    private Integer lineCount;
+
+    @Column(nullable = false)
+    private Integer completedCount = 0;
+
+    @Column(nullable = false)
+    private Integer failedCount = 0;
+
+    @Column(nullable = false)
+    private Long refundedAmount = 0L;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private BulkPaymentStatus status = BulkPaymentStatus.PENDING;
+
+    @Column(nullable = false)
+    private Long createdAt;
+
+    @Column
+    private Long completedAt;
+}
@@ -0,0 +1,49 @@
+package com.banka1.banking.models;
+
+import com.banka1.banking.models.helper.BulkPaymentLineStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "bulk_payment_line")
+public class BulkPaymentLine {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_payment_line_seq")
+    @SequenceGenerator(name = "bulk_payment_line_seq", sequenceName = "bulk_payment_line_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bulk_payment_id", nullable = false)
+    private BulkPayment bulkPayment;
+
+    @Column(nullable = false)
+    private Integer lineNumber; // redni broj stavke u zahtevu, za fajl sa rezultatom
+
+    @Column(nullable = false)
+    private String recipientAccount;
+
+    @Column
+    private String receiver;
+
+    @Column
+    private Long amount;
+
+    @Column
+    private String paymentReference; // poziv na broj
+
+    @Column
+    private String paymentDescription; // svrha placanja
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private BulkPaymentLineStatus status = BulkPaymentLineStatus.PENDING;
+
+    @Column
+    private String error;
+
+    @Column
+    private Long processedAt;
+}
@@ -48,7 +48,7 @@ public class Card {
     private Boolean blocked;
 
     @Column(nullable = false)
-    private Double cardLimit;
+    private Long cardLimit;
 
     @ManyToOne
     @JoinColumn(name = "authorized_person_id")
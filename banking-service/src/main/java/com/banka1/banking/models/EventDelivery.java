@@ -13,7 +13,8 @@ import java.time.Instant;
 public class EventDelivery {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_delivery_seq")
+    @SequenceGenerator(name = "event_delivery_seq", sequenceName = "event_delivery_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
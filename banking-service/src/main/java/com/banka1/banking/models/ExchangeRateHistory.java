@@ -0,0 +1,31 @@
+package com.banka1.banking.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Kursna lista jednog dana, cela matrica u jednom redu ({@link com.banka1.banking.utils.ExchangeRateMatrix#encode()}).
+ * Redovi se samo dopisuju: prvo uspesno osvezavanje u danu upisuje red, a kasnija istog dana ga ne menjaju.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "exchange_rate_history")
+public class ExchangeRateHistory {
+
+    @Id
+    private LocalDate date;
+
+    /** Verzija kursne liste ({@link ExchangeRateSnapshot}) iz koje je red upisan. */
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] rates;
+
+    @Column(nullable = false)
+    private Long createdAt;
+}
@@ -0,0 +1,32 @@
+package com.banka1.banking.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Jedna verzija kursne liste. Aktivna je poslednja sacuvana verzija; parovi starijih verzija se brisu
+ * u istoj transakciji u kojoj se upisuje nova.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "exchange_rate_snapshot")
+public class ExchangeRateSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchange_rate_snapshot_seq")
+    @SequenceGenerator(name = "exchange_rate_snapshot_seq", sequenceName = "exchange_rate_snapshot_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Integer pairCount;
+
+    @Column(nullable = false)
+    private Long createdAt;
+}
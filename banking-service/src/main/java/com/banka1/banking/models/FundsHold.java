@@ -0,0 +1,48 @@
+package com.banka1.banking.models;
+
+import com.banka1.banking.models.helper.HoldStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Rezervacija sredstava na racunu. Dok je aktivna, iznos je uracunat u {@link Account#getReservedBalance()}
+ * i nije raspoloziv, ali je i dalje deo {@link Account#getBalance()}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "funds_hold")
+public class FundsHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JoinColumn(name = "account_id", nullable = false)
+    @ManyToOne
+    private Account account;
+
+    @Column(nullable = false)
+    private Long amount;
+
+    @Column(nullable = false, unique = true)
+    private String reference;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status = HoldStatus.ACTIVE;
+
+    @Column(nullable = false)
+    private Long createdAt;
+
+    /**
+     * {@code null} za rezervacije koje ne isticu ({@link com.banka1.banking.services.FundsHoldService#placeUntilResolved}).
+     */
+    @Column
+    private Long expiresAt;
+
+    @Column
+    private Long resolvedAt;
+}
@@ -0,0 +1,35 @@
+package com.banka1.banking.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Deo (shard) racuna banke za jednu valutu.
+ * Uplate i isplate sa racuna banke se knjize na shardove umesto na sam red racuna,
+ * a ukupno stanje je {@code account.balance} + zbir stanja svih shardova.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "house_account_shard",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "shard_index"}))
+public class HouseAccountShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JoinColumn(name = "account_id", nullable = false)
+    @ManyToOne
+    private Account account;
+
+    @Column(nullable = false)
+    private Integer shardIndex;
+
+    @Column(nullable = false)
+    private Long balance = 0L;
+}
@@ -13,11 +13,12 @@ import java.time.LocalDate;
 @Setter
 public class Installment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installment_seq")
+    @SequenceGenerator(name = "installment_seq", sequenceName = "installment_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
-    private Double amount; // Iznos rate
+    private Long amount; // Iznos rate
 
     @Column(nullable = false)
     private Double interestRate; // Iznos kamatne stope
@@ -0,0 +1,24 @@
+package com.banka1.banking.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Poslednja stavka dnevnika koju je projektor obradio.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ledger_checkpoint")
+public class LedgerCheckpoint {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastPostingId = 0L;
+}
@@ -0,0 +1,59 @@
+package com.banka1.banking.models;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.PostingDirection;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Jedna stavka u dnevniku knjizenja. Stavke se samo dodaju, nikad se ne menjaju ni ne brisu.
+ * Sve stavke sa istim {@code entryId} cine jedno knjizenje, u kome je za svaku valutu
+ * zbir duguje jednak zbiru potrazuje. Stavka bez racuna se knjizi na kliring (drugu banku ili menjacnicu).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "ledger_posting")
+public class LedgerPosting {
+    @Id
+    // ID-jevi se ne rezervisu unapred u blokovima: projektor cita stavke redom po ID-ju,
+    // pa blok koji bi jedna instanca trosila kasnije mogao bi da ostane iza checkpoint-a
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_posting_seq")
+    @SequenceGenerator(name = "ledger_posting_seq", sequenceName = "ledger_posting_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private String entryId;
+
+    @ManyToOne
+    @JoinColumn(name = "account_id", updatable = false)
+    private Account account;
+
+    @ManyToOne
+    @JoinColumn(name = "transaction_id", updatable = false)
+    private Transaction transaction;
+
+    @Column(nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private PostingDirection direction;
+
+    @Column(nullable = false, updatable = false)
+    private Long amount;
+
+    @Column(nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private CurrencyType currencyType;
+
+    @Column(nullable = false, updatable = false)
+    private Long createdAt;
+
+    /**
+     * Promena stanja racuna koju stavka unosi: uplata povecava, a skidanje smanjuje stanje.
+     */
+    public long signedAmount() {
+        return direction == PostingDirection.CREDIT ? amount : -amount;
+    }
+}
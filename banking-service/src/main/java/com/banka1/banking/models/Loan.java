@@ -52,7 +52,7 @@ public class Loan {
     private Double penalty = 0.0;
 
     @Column(nullable = false)
-    private Double loanAmount;
+    private Long loanAmount;
 
     @Column(nullable = false)
     private Long createdDate;
@@ -61,7 +61,7 @@ public class Loan {
     private Long allowedDate;
 
     @Column(nullable = false)
-    private Double monthlyPayment;
+    private Long monthlyPayment;
 
     @Column(nullable = false)
     private Integer numberOfPaidInstallments = 0;
@@ -71,7 +71,7 @@ public class Loan {
     private LocalDate nextPaymentDate;
 
     @Column(nullable = false)
-    private Double remainingAmount;
+    private Long remainingAmount;
 
     @Column(nullable = false)
     private String phoneNumber;
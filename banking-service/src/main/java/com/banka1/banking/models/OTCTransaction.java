@@ -26,7 +26,7 @@ public class OTCTransaction {
     private Account buyerAccount;
 
     @Column(nullable = false)
-    private Double amount;
+    private Long amount;
 
     @Column(unique = true)
     private String uid;
@@ -38,8 +38,8 @@ public class OTCTransaction {
     private Boolean finished = false;
 
     @Column(nullable = false)
-    private Double amountTaken = -1.0;
+    private Long amountTaken = -1L;
 
     @Column(nullable = false)
-    private Double amountGiven = -1.0;
+    private Long amountGiven = -1L;
 }
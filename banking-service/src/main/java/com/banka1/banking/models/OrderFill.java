@@ -0,0 +1,62 @@
+package com.banka1.banking.models;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.OrderFillStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Jedno izvrsenje naloga iz trading servisa, primljeno u rezimu neto poravnanja.
+ * Cuva se pre odgovora brokeru poruka, tako da se nijedno izvrsenje ne gubi, i ostaje kao trag
+ * koje je poravnanje ({@link #settlement}) izvrsenje ukljucilo.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "order_fill")
+public class OrderFill {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_fill_seq")
+    @SequenceGenerator(name = "order_fill_seq", sequenceName = "order_fill_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(unique = true)
+    private String uid; // ID izvrsenja iz trading servisa
+
+    @Column(nullable = false)
+    private Long buyerAccountId;
+
+    @Column(nullable = false)
+    private Long sellerAccountId;
+
+    @Column(nullable = false)
+    private Long amount;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private CurrencyType currencyType;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OrderFillStatus status = OrderFillStatus.PENDING;
+
+    @Column
+    private String error;
+
+    @ManyToOne
+    @JoinColumn(name = "settlement_transfer_id")
+    private Transfer settlement; // null ako se izvrsenja para potpuno poniste
+
+    @Column
+    private String replyTo; // JMS reply-to posiljaoca, npr. temp-queue://ID:...
+
+    @Column
+    private String correlationId;
+
+    @Column(nullable = false)
+    private Long receivedAt;
+
+    @Column
+    private Long settledAt;
+}
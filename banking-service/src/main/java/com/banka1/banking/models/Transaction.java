@@ -1,6 +1,8 @@
 package com.banka1.banking.models;
 
+import com.banka1.banking.services.TransactionJournalListener;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,9 +13,11 @@ import java.time.LocalTime;
 @Entity
 @Getter
 @Setter
+@EntityListeners(TransactionJournalListener.class)
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -25,13 +29,13 @@ public class Transaction {
     private Account toAccountId;
 
     @Column(nullable = false)
-    private Double amount;
+    private Long amount;
 
     @Column(nullable = false)
-    private Double finalAmount;
+    private Long finalAmount;
 
     @Column(nullable = false)
-    private Double fee;
+    private Long fee;
 
     @Column(nullable = false)
     private Boolean bankOnly = false;
@@ -57,4 +61,9 @@ public class Transaction {
     @ManyToOne
     @JoinColumn(name = "transfer_id", nullable = false)
     private Transfer transfer;
+
+    // zbirni red transfera sa konverzijom: stanja menjaju redovi pojedinacnih koraka, pa se ovaj ne knjizi u dnevnik
+    @Transient
+    @JsonIgnore
+    private boolean summary;
 }
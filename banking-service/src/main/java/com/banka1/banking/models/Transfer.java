@@ -1,5 +1,7 @@
 package com.banka1.banking.models;
 
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.models.helper.ExchangeResultConverter;
 import com.banka1.banking.models.helper.TransferStatus;
 import com.banka1.banking.models.helper.TransferType;
 import jakarta.persistence.*;
@@ -13,7 +15,8 @@ public class Transfer {
 
     @Getter
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_seq")
+    @SequenceGenerator(name = "transfer_seq", sequenceName = "transfer_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -25,7 +28,7 @@ public class Transfer {
     private Account toAccountId;
 
     @Column(nullable = false)
-    private Double amount;
+    private Long amount;
 
     @Column()
     private String receiver;
@@ -72,4 +75,11 @@ public class Transfer {
 
     @Column(nullable = true)
     private Long savedReceiverId;
+
+    @Column()
+    private String quoteId; // ponuda kursa iz pregleda, ako je transfer kreiran sa njom
+
+    @Column(length = 1000)
+    @Convert(converter = ExchangeResultConverter.class)
+    private ExchangeResult quotedExchange; // obracun iz ponude, koji se koristi pri izvrsenju
 }
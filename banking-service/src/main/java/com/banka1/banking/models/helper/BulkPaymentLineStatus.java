@@ -0,0 +1,8 @@
+package com.banka1.banking.models.helper;
+
+public enum BulkPaymentLineStatus {
+    PENDING,
+    COMPLETED,
+    FAILED, //primalac ne postoji, druga valuta...
+    REJECTED //odbijena pri kreiranju (nevalidan iznos), ne ulazi u ukupan iznos
+}
@@ -0,0 +1,9 @@
+package com.banka1.banking.models.helper;
+
+public enum BulkPaymentStatus {
+    PENDING, //ceka OTP potvrdu; ako OTP istekne, zbirni transfer se otkazuje
+    PROCESSING, //ukupan iznos je skinut, stavke se izvrsavaju
+    COMPLETED, //sve stavke su izvrsene
+    PARTIALLY_COMPLETED, //deo stavki nije izvrsen, njihov iznos je vracen na racun
+    FAILED //nijedna stavka nije izvrsena
+}
@@ -1,14 +1,27 @@
 package com.banka1.banking.models.helper;
 
 public enum CurrencyType {
-    RSD,
-    EUR,
-    USD,
-    CHF,
-    GBP,
-    JPY,
-    CAD,
-    AUD;
+    RSD(2),
+    EUR(2),
+    USD(2),
+    CHF(2),
+    GBP(2),
+    JPY(0),
+    CAD(2),
+    AUD(2);
+
+    /**
+     * Broj decimala najmanje jedinice valute (ISO 4217), npr. 2 za para/cent, 0 za jen.
+     */
+    private final int minorUnits;
+
+    CurrencyType(int minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public int getMinorUnits() {
+        return minorUnits;
+    }
 
     public static CurrencyType fromString(String code) {
         try {
@@ -0,0 +1,35 @@
+package com.banka1.banking.models.helper;
+
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Ponuda menjacnice: kurs, provizija i konacan iznos izracunati pri pregledu, koji vaze do {@link #expiresAt}.
+ * Cuva se u memoriji dok se ne preuzme; posle toga obracun ostaje zapisan uz transfer (videti {@code ExchangeQuoteService}).
+ */
+@Getter
+@AllArgsConstructor
+public class ExchangeQuote {
+
+    private final String id;
+
+    /**
+     * Racun za koji je ponuda izdata; samo transfer sa tog racuna moze da je preuzme.
+     */
+    private final Long fromAccountId;
+
+    private final CurrencyType fromCurrency;
+
+    private final CurrencyType toCurrency;
+
+    private final long amount;
+
+    private final ExchangeResult preview;
+
+    private final long expiresAt;
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.banka1.banking.models.helper;
+
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.dto.exchange.ForeignExchangeResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Cuva {@link ExchangeResult} kao JSON sa poljem {@code type} ({@code direct} ili {@code foreign}),
+ * da bi se iz baze vratio isti obracun koji je klijent video.
+ */
+@Converter
+public class ExchangeResultConverter implements AttributeConverter<ExchangeResult, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String TYPE = "type";
+
+    @Override
+    public String convertToDatabaseColumn(ExchangeResult result) {
+        if (result == null)
+            return null;
+
+        ObjectNode node = MAPPER.valueToTree(result);
+        node.put(TYPE, result instanceof DirectExchangeResult ? "direct" : "foreign");
+        return node.toString();
+    }
+
+    @Override
+    public ExchangeResult convertToEntityAttribute(String json) {
+        if (json == null)
+            return null;
+
+        try {
+            ObjectNode node = (ObjectNode) MAPPER.readTree(json);
+            String type = node.remove(TYPE).asText();
+            return MAPPER.treeToValue(node, type.equals("direct") ? DirectExchangeResult.class : ForeignExchangeResult.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Neispravan zapis obracuna menjacnice", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.banka1.banking.models.helper;
+
+public enum HoldStatus {
+    ACTIVE, //sredstva su rezervisana
+    CAPTURED, //sredstva su skinuta sa racuna
+    RELEASED, //rezervacija je ponistena
+    EXPIRED //rezervacija je istekla
+}
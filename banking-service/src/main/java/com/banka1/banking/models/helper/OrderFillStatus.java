@@ -0,0 +1,7 @@
+package com.banka1.banking.models.helper;
+
+public enum OrderFillStatus {
+    PENDING, //ceka sledece neto poravnanje
+    SETTLED, //uracunat u neto poravnanje
+    REJECTED //odbijen (nedovoljno sredstava, nevalidni racuni)
+}
@@ -0,0 +1,6 @@
+package com.banka1.banking.models.helper;
+
+public enum PostingDirection {
+    DEBIT, //skidanje sa racuna
+    CREDIT //uplata na racun
+}
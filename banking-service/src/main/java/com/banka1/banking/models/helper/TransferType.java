@@ -6,4 +6,5 @@ public enum TransferType {
     EXCHANGE,
     FOREIGN,
     FOREIGN_BANK,
+    BULK,
 }
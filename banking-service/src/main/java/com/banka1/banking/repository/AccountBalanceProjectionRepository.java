@@ -0,0 +1,9 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.AccountBalanceProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceProjectionRepository extends JpaRepository<AccountBalanceProjection, Long> {
+}
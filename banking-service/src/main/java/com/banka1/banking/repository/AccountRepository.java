@@ -6,7 +6,13 @@ import com.banka1.banking.models.helper.CurrencyType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -20,7 +26,31 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     boolean existsByOwnerIDAndCurrencyType(Long ownerId,CurrencyType currencyType);
 
     Optional<Account> findByTypeAndCurrencyType(AccountType accountType,CurrencyType currencyType);
+    List<Account> findAllByType(AccountType accountType);
     Optional<Account> findByAccountNumber(String accountNumber);
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
     Account findByOwnerIDAndCurrencyType(Long ownerId, CurrencyType currencyType);
     List<Account> findByCompanyId(Long companyId);
+
+    /**
+     * Dodaje iznos na dnevnu i mesecnu potrosnju samo ako nijedan limit ne bi bio prekoracen (limit 0 znaci bez limita).
+     * Potrosnja iz proslog dana ili meseca se racuna kao 0. Vraca 0 ako je limit prekoracen.
+     */
+    @Modifying
+    @Query("update Account a set " +
+            "a.dailySpent = (case when a.spentDate = :today then a.dailySpent else 0 end) + :amount, " +
+            "a.monthlySpent = (case when a.spentDate >= :monthStart then a.monthlySpent else 0 end) + :amount, " +
+            "a.spentDate = :today " +
+            "where a.id = :id " +
+            "and (a.dailyLimit <= 0 or (case when a.spentDate = :today then a.dailySpent else 0 end) + :amount <= a.dailyLimit) " +
+            "and (a.monthlyLimit <= 0 or (case when a.spentDate >= :monthStart then a.monthlySpent else 0 end) + :amount <= a.monthlyLimit)")
+    int addSpent(@Param("id") Long id, @Param("amount") long amount, @Param("today") LocalDate today, @Param("monthStart") LocalDate monthStart);
+
+    @Modifying
+    @Query("update Account a set a.monthlySpent = 0 where a.spentDate is null or a.spentDate < :monthStart")
+    int resetMonthlySpent(@Param("monthStart") LocalDate monthStart);
+
+    @Modifying
+    @Query("update Account a set a.dailySpent = 0, a.spentDate = :today where a.spentDate is null or a.spentDate < :today")
+    int resetDailySpent(@Param("today") LocalDate today);
 }
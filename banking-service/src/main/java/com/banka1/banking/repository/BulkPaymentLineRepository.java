@@ -0,0 +1,20 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.BulkPaymentLine;
+import com.banka1.banking.models.helper.BulkPaymentLineStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BulkPaymentLineRepository extends JpaRepository<BulkPaymentLine, Long> {
+
+    /**
+     * Sledeci deo stavki posle {@code afterId} (keyset paginacija po indeksu {@code (bulk_payment_id, id)}).
+     */
+    List<BulkPaymentLine> findByBulkPaymentIdAndIdGreaterThanOrderByIdAsc(Long bulkPaymentId, Long afterId, Pageable pageable);
+
+    List<BulkPaymentLine> findByBulkPaymentIdAndStatusOrderByIdAsc(Long bulkPaymentId, BulkPaymentLineStatus status, Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.BulkPayment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BulkPaymentRepository extends JpaRepository<BulkPayment, Long> {
+
+    Optional<BulkPayment> findByTransferId(Long transferId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BulkPayment b WHERE b.id = :id")
+    Optional<BulkPayment> findByIdForUpdate(@Param("id") Long id);
+}
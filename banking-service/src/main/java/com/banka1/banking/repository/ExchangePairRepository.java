@@ -3,14 +3,19 @@ package com.banka1.banking.repository;
 import com.banka1.banking.models.ExchangePair;
 import com.banka1.banking.models.helper.CurrencyType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface ExchangePairRepository extends JpaRepository<ExchangePair, Long> {
-    List<ExchangePair> findByBaseCurrencyCode(CurrencyType baseCurrency);
-    Optional<ExchangePair> findByBaseCurrencyCodeAndTargetCurrencyCode(CurrencyType baseCurrency, CurrencyType targetCurrency);
+    List<ExchangePair> findByVersion(Long version);
+    List<ExchangePair> findByVersionAndBaseCurrencyCode(Long version, CurrencyType baseCurrency);
+
+    @Modifying
+    @Query("DELETE FROM ExchangePair p WHERE p.version < :version")
+    int deleteByVersionLessThan(@Param("version") Long version);
 }
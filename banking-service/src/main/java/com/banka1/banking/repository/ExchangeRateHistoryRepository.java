@@ -0,0 +1,34 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.ExchangeRateHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExchangeRateHistoryRepository extends JpaRepository<ExchangeRateHistory, LocalDate> {
+
+    /**
+     * Poslednja kursna lista vazeca na dati dan (za dane bez osvezavanja, npr. vikend, to je lista prethodnog dana).
+     */
+    Optional<ExchangeRateHistory> findTopByDateLessThanEqualOrderByDateDesc(LocalDate date);
+
+    List<ExchangeRateHistory> findByDateBetweenOrderByDate(LocalDate from, LocalDate to);
+
+    /**
+     * Upisuje listu za dan ako je jos nema. Postojeci red se ne menja, pa je istorija samo za dopisivanje.
+     */
+    @Modifying
+    @Query(value = """
+            insert into exchange_rate_history (date, version, rates, created_at)
+            values (:date, :version, :rates, :createdAt)
+            on conflict (date) do nothing
+            """, nativeQuery = true)
+    int appendIfAbsent(@Param("date") LocalDate date, @Param("version") Long version, @Param("rates") byte[] rates, @Param("createdAt") Long createdAt);
+}
@@ -0,0 +1,18 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.ExchangeRateSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExchangeRateSnapshotRepository extends JpaRepository<ExchangeRateSnapshot, Long> {
+    Optional<ExchangeRateSnapshot> findTopByOrderByIdDesc();
+
+    @Query("SELECT s.id FROM ExchangeRateSnapshot s ORDER BY s.id DESC")
+    List<Long> findLatestIds(Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.FundsHold;
+import com.banka1.banking.models.helper.HoldStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FundsHoldRepository extends JpaRepository<FundsHold, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM FundsHold h WHERE h.reference = :reference")
+    Optional<FundsHold> findByReferenceForUpdate(@Param("reference") String reference);
+
+    List<FundsHold> findTop500ByStatusAndExpiresAtLessThanOrderByIdAsc(HoldStatus status, Long expiresAt);
+}
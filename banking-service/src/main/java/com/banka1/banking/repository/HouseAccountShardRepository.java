@@ -0,0 +1,34 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.HouseAccountShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HouseAccountShardRepository extends JpaRepository<HouseAccountShard, Long> {
+    boolean existsByAccountIdAndShardIndex(Long accountId, Integer shardIndex);
+
+    @Modifying
+    @Query("UPDATE HouseAccountShard s SET s.balance = s.balance + :delta " +
+            "WHERE s.account.id = :accountId AND s.shardIndex = :shardIndex")
+    int addToShard(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE HouseAccountShard s SET s.balance = s.balance - :amount " +
+            "WHERE s.account.id = :accountId AND s.shardIndex = :shardIndex AND s.balance >= :amount")
+    int debitShard(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex, @Param("amount") long amount);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM HouseAccountShard s WHERE s.account.id = :accountId")
+    Long sumBalanceByAccountId(@Param("accountId") Long accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM HouseAccountShard s WHERE s.account.id = :accountId ORDER BY s.shardIndex")
+    List<HouseAccountShard> findAllForUpdate(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,18 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.LedgerCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM LedgerCheckpoint c WHERE c.name = :name")
+    Optional<LedgerCheckpoint> findForUpdate(@Param("name") String name);
+}
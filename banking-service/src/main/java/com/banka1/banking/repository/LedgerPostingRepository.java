@@ -0,0 +1,20 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.LedgerPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, Long> {
+    List<LedgerPosting> findTop1000ByIdGreaterThanOrderByIdAsc(Long id);
+    List<LedgerPosting> findAllByAccountIdOrderByIdAsc(Long accountId);
+    boolean existsByAccountId(Long accountId);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN p.direction = com.banka1.banking.models.helper.PostingDirection.CREDIT THEN p.amount ELSE -p.amount END), 0) " +
+            "FROM LedgerPosting p WHERE p.account.id = :accountId AND p.id > :afterId")
+    Long sumSignedAmountAfter(@Param("accountId") Long accountId, @Param("afterId") Long afterId);
+}
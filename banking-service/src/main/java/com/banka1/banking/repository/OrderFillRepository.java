@@ -0,0 +1,37 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.OrderFill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderFillRepository extends JpaRepository<OrderFill, Long> {
+
+    Optional<OrderFill> findByUid(String uid);
+
+    /**
+     * Zakljucava najvise {@code limit} izvrsenja na cekanju, redom prijema. Redove koje vec obradjuje
+     * drugi cvor preskace, pa vise instanci moze da poravnava istovremeno.
+     */
+    @Query(value = """
+            select * from order_fill
+            where status = 'PENDING'
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OrderFill> lockPending(@Param("limit") int limit);
+
+    /**
+     * Upisuje reply-to ponovljene poruke, samo ako izvrsenje jos ceka poravnanje. Vraca broj izmenjenih redova.
+     */
+    @Modifying
+    @Query("update OrderFill f set f.replyTo = :replyTo, f.correlationId = :correlationId where f.id = :id and f.status = com.banka1.banking.models.helper.OrderFillStatus.PENDING")
+    int updatePendingReplyTo(@Param("id") Long id, @Param("replyTo") String replyTo, @Param("correlationId") String correlationId);
+}
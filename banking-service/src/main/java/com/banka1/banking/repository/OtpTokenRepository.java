@@ -2,8 +2,12 @@ package com.banka1.banking.repository;
 
 import com.banka1.banking.models.OtpToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,8 @@ public interface OtpTokenRepository extends JpaRepository<OtpToken,Long> {
     Optional<OtpToken> findByTransferIdAndOtpCode(Long transferId,String otpCode);
 
     Optional<OtpToken> findByTransferId(Long transactionId);
+
+    @Modifying
+    @Query("update OtpToken o set o.expirationTime = :now where o.transferId in :transferIds and o.expirationTime > :now")
+    int expireByTransferIds(@Param("transferIds") Collection<Long> transferIds, @Param("now") long now);
 }
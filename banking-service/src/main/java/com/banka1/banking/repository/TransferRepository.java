@@ -1,8 +1,9 @@
 package com.banka1.banking.repository;
 
 import com.banka1.banking.models.Transfer;
-import com.banka1.banking.models.helper.TransferStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,9 +11,26 @@ import java.util.List;
 @Repository
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
 
-    List<Transfer> findAllByStatusAndCreatedAtBefore(TransferStatus status,Long createdAt);
-
     List<Transfer> findAllByFromAccountId_OwnerID(Long ownerId);
 
+    /**
+     * Otkazuje najvise {@code limit} PENDING transfera kreiranih pre {@code createdBefore}, jednom naredbom.
+     * Redove koje neka druga transakcija drzi zakljucane preskace. Vraca ID-jeve otkazanih transfera.
+     */
+    @Query(value = """
+            update transfer set status = 'CANCELLED'
+            where id in (select id from transfer
+                         where status = 'PENDING' and created_at < :createdBefore
+                         order by created_at
+                         limit :limit
+                         for update skip locked)
+            returning id
+            """, nativeQuery = true)
+    List<Long> cancelPendingCreatedBefore(@Param("createdBefore") long createdBefore, @Param("limit") int limit);
 
+    /**
+     * Transakcioni advisory lock; otpusta se sam na kraju transakcije.
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
 }
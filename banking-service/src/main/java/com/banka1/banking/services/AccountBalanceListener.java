@@ -0,0 +1,39 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener koji pri svakoj promeni {@link Account} brise zbirna stanja vlasnika u {@link ConsolidatedBalanceService}.
+ * Brise se odmah i ponovo posle zavrsetka transakcije, da citanje izmedju upisa i commit-a ne bi ostalo u kesu.
+ */
+@Component
+public class AccountBalanceListener {
+
+    private final ConsolidatedBalanceService consolidatedBalanceService;
+
+    public AccountBalanceListener(@Lazy ConsolidatedBalanceService consolidatedBalanceService) {
+        this.consolidatedBalanceService = consolidatedBalanceService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Account account) {
+        consolidatedBalanceService.invalidate(account);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    consolidatedBalanceService.invalidate(account);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Zakljucavanje racuna pre promene stanja.
+ * <p>
+ * Svaki tok koji menja {@link Account#getBalance() balance} treba da pre izmene zakljuca
+ * sve racune koje dodiruje ({@code SELECT ... FOR UPDATE}). Racuni se uvek zakljucavaju
+ * rastucim redosledom ID-ja, tako da dve transakcije nad istim racunima ne mogu da se
+ * zaglave jedna u drugu i sve izmene stanja mogu da rade na READ COMMITTED nivou izolacije.
+ */
+@Slf4j
+@Service
+public class AccountLockService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Zakljucava prosledjene racune i osvezava njihovo stanje iz baze.
+     * Mora se pozvati pre bilo kakve izmene nad racunima, jer osvezavanje odbacuje nesacuvane promene.
+     *
+     * @param accounts racuni koje transakcija menja, {@code null} vrednosti se preskacu
+     * @return zakljucani racuni sortirani po ID-ju
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Account> lock(Account... accounts) {
+        return lock(Arrays.asList(accounts));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Account> lock(Collection<Account> accounts) {
+        SortedMap<Long, Account> ordered = new TreeMap<>();
+        for (Account account : accounts) {
+            if (account != null && account.getId() != null)
+                ordered.putIfAbsent(account.getId(), account);
+        }
+
+        List<Account> locked = new ArrayList<>(ordered.size());
+        for (Account account : ordered.values()) {
+            if (entityManager.contains(account)) {
+                entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+                locked.add(account);
+            } else {
+                locked.add(entityManager.find(Account.class, account.getId(), LockModeType.PESSIMISTIC_WRITE));
+            }
+        }
+
+        log.debug("Zakljucani racuni {}", ordered.keySet());
+        return locked;
+    }
+}
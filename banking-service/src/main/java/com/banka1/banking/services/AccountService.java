@@ -97,25 +97,25 @@ public class AccountService {
         if (account.getBalance() != null) {
             account.setBalance(account.getBalance());
         } else {
-            account.setBalance(0.0);
+            account.setBalance(0L);
         }
         if (account.getDailyLimit() != null) {
             account.setDailyLimit(account.getDailyLimit());
         } else {
-            account.setDailyLimit(0.0);
+            account.setDailyLimit(0L);
         }
         if (account.getMonthlyLimit() != null) {
             account.setMonthlyLimit(account.getMonthlyLimit());
         } else {
-            account.setMonthlyLimit(0.0);
+            account.setMonthlyLimit(0L);
         }
 
-        account.setReservedBalance(100.0);
+        account.setReservedBalance(0L);
         account.setCreatedDate(Instant.now().getEpochSecond());
         account.setExpirationDate(account.getCreatedDate() + 4 * 365 * 24 * 60 * 60);
-        account.setDailySpent(0.0);
-        account.setMonthlySpent(0.0);
-        account.setMonthlyMaintenanceFee(0.0);
+        account.setDailySpent(0L);
+        account.setMonthlySpent(0L);
+        account.setMonthlyMaintenanceFee(0L);
 
         account.setAccountNumber(generateAccountNumber(account, config.getRoutingNumber()));
         account.setCurrencyType(createAccountDTO.getCurrency());
@@ -220,30 +220,37 @@ public class AccountService {
             allTransactions.removeIf(Transaction::getBankOnly);
 
         List<TransactionResponseDTO> responseDTOs = new ArrayList<>();
+        Set<Long> ownerIds = new HashSet<>();
         for (Transaction transaction : allTransactions) {
             TransactionResponseDTO dto = modelMapper.map(transaction, TransactionResponseDTO.class);
-
-            if (dto.getFromAccountId() != null && dto.getFromAccountId().getOwnerID() != null) {
-                CustomerDTO sender = userServiceCustomer.getCustomerById(dto.getFromAccountId().getOwnerID());
-                dto.setSenderName(sender.getFirstName() + " " + sender.getLastName());
-            } else {
-                dto.setSenderName("Strana banka");
-            }
-
-            if (dto.getToAccountId() != null && dto.getToAccountId().getOwnerID() != null) {
-                CustomerDTO receiver = userServiceCustomer.getCustomerById(dto.getToAccountId().getOwnerID());
-                dto.setReceiverName(receiver.getFirstName() + " " + receiver.getLastName());
-            } else {
-                dto.setReceiverName("Strana banka");
-            }
-
+            if (dto.getFromAccountId() != null && dto.getFromAccountId().getOwnerID() != null)
+                ownerIds.add(dto.getFromAccountId().getOwnerID());
+            if (dto.getToAccountId() != null && dto.getToAccountId().getOwnerID() != null)
+                ownerIds.add(dto.getToAccountId().getOwnerID());
             responseDTOs.add(dto);
         }
 
+        // imena svih vlasnika se dohvataju jednim zahtevom ka user-service-u, a ne dva puta po transakciji
+        Map<Long, CustomerDTO> customers = ownerIds.isEmpty() ? Map.of() : userServiceCustomer.getCustomersByIds(ownerIds);
+        for (TransactionResponseDTO dto : responseDTOs) {
+            dto.setSenderName(customerName(customers, dto.getFromAccountId()));
+            dto.setReceiverName(customerName(customers, dto.getToAccountId()));
+        }
+
         return responseDTOs;
     }
 
 
+    private static String customerName(Map<Long, CustomerDTO> customers, Account account) {
+        if (account == null || account.getOwnerID() == null)
+            return "Strana banka";
+
+        CustomerDTO customer = customers.get(account.getOwnerID());
+        if (customer == null)
+            throw new IllegalArgumentException("Korisnik nije pronađen ili API nije vratio očekivani format.");
+        return customer.getFirstName() + " " + customer.getLastName();
+    }
+
     public static String generateAccountNumber(Account account, String routingNumber) {
         StringBuilder sb = new StringBuilder();
         sb.append(routingNumber);
@@ -1,27 +1,31 @@
 package com.banka1.banking.services;
 
 import com.banka1.banking.models.Account;
-import com.banka1.banking.models.helper.AccountType;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+/**
+ * Racuni banke i drzave po valuti. ID racuna je u {@link ReferenceDataRegistry}, pa se racun ucitava po kljucu
+ * (u transakciji koja ga je vec ucitala bez upita ka bazi).
+ */
 @RequiredArgsConstructor
 @Component
 public class BankAccountUtils {
 
     private final AccountRepository accountRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     public Account getBankAccountForCurrency(CurrencyType currencyType){
-        return accountRepository
-                .findByTypeAndCurrencyType(AccountType.BANK,currencyType)
+        return referenceDataRegistry.findBankAccountId(currencyType)
+                .flatMap(accountRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Račun banke za valutu " + currencyType + " nije pronađen."));
     }
 
     public Account getCountryAccountForCurrency(CurrencyType currencyType){
-        return accountRepository
-                .findByTypeAndCurrencyType(AccountType.COUNTRY,currencyType)
+        return referenceDataRegistry.findCountryAccountId(currencyType)
+                .flatMap(accountRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Račun drzave za valutu " + currencyType + " nije pronađen."));
     }
 
@@ -0,0 +1,449 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.BulkPaymentLineDTO;
+import com.banka1.banking.dto.CreateBulkPaymentDTO;
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.banking.models.*;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.helper.*;
+import com.banka1.banking.repository.*;
+import com.banka1.banking.utils.Money;
+import com.banka1.common.listener.MessageHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Grupna placanja kompanija (plate, dobavljaci).
+ * <p>
+ * Nalog sa stavkama se kreira zajedno sa zbirnim {@link Transfer}-om tipa {@code BULK}, na koji se vezuje
+ * jedan OTP, pa se potvrdjuje istom rutom kao i obican transfer ({@code /otp/verification}).
+ * Posle potvrde se ukupan iznos skida sa racuna kompanije jednim zaduzenjem, stavke se izvrsavaju u delovima
+ * od {@code bulk-payments.chunk-size}, svaki deo u zasebnoj transakciji, a iznos stavki koje nisu izvrsene
+ * se na kraju vraca na racun jednom uplatom. Status svake stavke se cuva i vraca kao CSV fajl.
+ * <p>
+ * Prekinuto izvrsavanje (status {@code PROCESSING}) moze da se nastavi ponovnim pozivom
+ * {@link #executeBulkPayment(Long)}, jer se obradjuju samo stavke koje su jos na cekanju.
+ */
+@Slf4j
+@Service
+public class BulkPaymentService {
+
+    private final BulkPaymentRepository bulkPaymentRepository;
+    private final BulkPaymentLineRepository bulkPaymentLineRepository;
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final TransactionRepository transactionRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final SpendingLimitService spendingLimitService;
+    private final AccountLockService accountLockService;
+    private final HouseAccountService houseAccountService;
+    private final OtpTokenService otpTokenService;
+    private final UserServiceCustomer userServiceCustomer;
+    private final JmsTemplate jmsTemplate;
+    private final MessageHelper messageHelper;
+    private final String destinationEmail;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLines;
+    private final int chunkSize;
+
+    public BulkPaymentService(BulkPaymentRepository bulkPaymentRepository, BulkPaymentLineRepository bulkPaymentLineRepository, AccountRepository accountRepository, TransferRepository transferRepository, TransactionRepository transactionRepository, ReferenceDataRegistry referenceDataRegistry, SpendingLimitService spendingLimitService, AccountLockService accountLockService, HouseAccountService houseAccountService, OtpTokenService otpTokenService, UserServiceCustomer userServiceCustomer, JmsTemplate jmsTemplate, MessageHelper messageHelper, @Value("${destination.email}") String destinationEmail, PlatformTransactionManager transactionManager, @Value("${bulk-payments.max-lines:10000}") int maxLines, @Value("${bulk-payments.chunk-size:500}") int chunkSize) {
+        this.bulkPaymentRepository = bulkPaymentRepository;
+        this.bulkPaymentLineRepository = bulkPaymentLineRepository;
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.transactionRepository = transactionRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.spendingLimitService = spendingLimitService;
+        this.accountLockService = accountLockService;
+        this.houseAccountService = houseAccountService;
+        this.otpTokenService = otpTokenService;
+        this.userServiceCustomer = userServiceCustomer;
+        this.jmsTemplate = jmsTemplate;
+        this.messageHelper = messageHelper;
+        this.destinationEmail = destinationEmail;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLines = maxLines;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkPayment findById(Long bulkPaymentId) {
+        return bulkPaymentRepository.findById(bulkPaymentId)
+                .orElseThrow(() -> new IllegalArgumentException("Grupno plaćanje nije pronađeno"));
+    }
+
+    /**
+     * Kreira nalog i salje jedan OTP za ceo nalog. Stavke sa nevalidnim iznosom ili bez racuna primaoca
+     * se odmah odbijaju i ne ulaze u ukupan iznos; postojanje i valuta racuna primaoca se proveravaju pri izvrsavanju.
+     */
+    @Transactional
+    public BulkPayment createBulkPayment(CreateBulkPaymentDTO bulkPaymentDTO) {
+        Account sourceAccount = accountRepository.findByAccountNumber(bulkPaymentDTO.getFromAccountNumber())
+                .orElseThrow(() -> new IllegalArgumentException("Račun nije pronađen"));
+
+        if (sourceAccount.getCompany() == null)
+            throw new IllegalArgumentException("Grupno plaćanje je moguće samo sa računa kompanije");
+        if (bulkPaymentDTO.getLines() == null || bulkPaymentDTO.getLines().isEmpty())
+            throw new IllegalArgumentException("Nalog nema nijednu stavku");
+        if (bulkPaymentDTO.getLines().size() > maxLines)
+            throw new IllegalArgumentException("Nalog može imati najviše " + maxLines + " stavki");
+
+        CustomerDTO customerData = userServiceCustomer.getCustomerById(sourceAccount.getOwnerID());
+        if (customerData == null)
+            throw new IllegalArgumentException("Korisnik nije pronađen");
+
+        Currency currency = referenceDataRegistry.findCurrency(sourceAccount.getCurrencyType())
+                .orElseThrow(() -> new IllegalArgumentException("Greska"));
+
+        List<BulkPaymentLine> lines = new ArrayList<>(bulkPaymentDTO.getLines().size());
+        long total = 0;
+        int rejected = 0;
+        for (BulkPaymentLineDTO lineDTO : bulkPaymentDTO.getLines()) {
+            BulkPaymentLine line = new BulkPaymentLine();
+            line.setLineNumber(lines.size() + 1);
+            line.setRecipientAccount(lineDTO.getRecipientAccount() != null ? lineDTO.getRecipientAccount() : "");
+            line.setReceiver(lineDTO.getReceiver());
+            line.setPaymentReference(lineDTO.getPayementReference());
+            line.setPaymentDescription(lineDTO.getPayementDescription() != null ? lineDTO.getPayementDescription() : bulkPaymentDTO.getPayementDescription());
+
+            if (lineDTO.getAmount() == null || lineDTO.getAmount() <= 0 || line.getRecipientAccount().isBlank()) {
+                line.setAmount(lineDTO.getAmount());
+                line.setStatus(BulkPaymentLineStatus.REJECTED);
+                line.setError("Nevalidan iznos ili račun primaoca");
+                rejected++;
+            } else {
+                line.setAmount(lineDTO.getAmount());
+                total = Money.add(total, lineDTO.getAmount());
+            }
+            lines.add(line);
+        }
+
+        if (total <= 0)
+            throw new IllegalArgumentException("Nalog nema nijednu validnu stavku");
+
+        Transfer transfer = new Transfer();
+        transfer.setFromAccountId(sourceAccount);
+        transfer.setToAccountId(null);
+        transfer.setAmount(total);
+        transfer.setReceiver(sourceAccount.getCompany().getName());
+        transfer.setAdress("N/A");
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setType(TransferType.BULK);
+        transfer.setFromCurrency(currency);
+        transfer.setToCurrency(currency);
+        transfer.setPaymentCode(bulkPaymentDTO.getPayementCode());
+        transfer.setPaymentReference("N/A");
+        transfer.setPaymentDescription(bulkPaymentDTO.getPayementDescription());
+        transfer.setCreatedAt(System.currentTimeMillis());
+        transfer = transferRepository.saveAndFlush(transfer);
+
+        BulkPayment bulkPayment = new BulkPayment();
+        bulkPayment.setCompany(sourceAccount.getCompany());
+        bulkPayment.setSourceAccount(sourceAccount);
+        bulkPayment.setTransfer(transfer);
+        bulkPayment.setTotalAmount(transfer.getAmount());
+        bulkPayment.setLineCount(lines.size());
+        bulkPayment.setFailedCount(rejected);
+        bulkPayment.setStatus(BulkPaymentStatus.PENDING);
+        bulkPayment.setCreatedAt(transfer.getCreatedAt());
+        bulkPaymentRepository.save(bulkPayment);
+
+        for (BulkPaymentLine line : lines)
+            line.setBulkPayment(bulkPayment);
+        bulkPaymentLineRepository.saveAll(lines);
+
+        String otpCode = otpTokenService.generateOtp(transfer.getId());
+        transfer.setOtp(otpCode);
+        transferRepository.save(transfer);
+
+        sendVerification(customerData, transfer, otpCode, lines.size() - rejected);
+
+        return bulkPayment;
+    }
+
+    /**
+     * Izvrsava potvrdjen nalog. Poziva se posle uspesne OTP verifikacije zbirnog transfera.
+     *
+     * @param transferId ID zbirnog transfera tipa {@code BULK}
+     */
+    public BulkPayment executeBulkPayment(Long transferId) {
+        BulkPayment bulkPayment = bulkPaymentRepository.findByTransferId(transferId)
+                .orElseThrow(() -> new RuntimeException("Grupno plaćanje nije pronađeno"));
+        Long bulkPaymentId = bulkPayment.getId();
+
+        Boolean debited = transactionTemplate.execute(status -> debitSourceAccount(bulkPaymentId));
+        if (!Boolean.TRUE.equals(debited))
+            throw new RuntimeException("Insufficient balance for bulk payment");
+
+        Boolean hasMore;
+        do {
+            hasMore = transactionTemplate.execute(status -> processChunk(bulkPaymentId));
+        } while (Boolean.TRUE.equals(hasMore));
+
+        return transactionTemplate.execute(status -> finish(bulkPaymentId));
+    }
+
+    /**
+     * Pise rezultat naloga kao CSV, deo po deo, bez ucitavanja svih stavki u memoriju.
+     */
+    public void writeResult(Long bulkPaymentId, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        writer.write("line,recipientAccount,receiver,amount,paymentReference,status,error\n");
+
+        long afterId = 0L;
+        List<BulkPaymentLine> lines;
+        do {
+            lines = bulkPaymentLineRepository.findByBulkPaymentIdAndIdGreaterThanOrderByIdAsc(bulkPaymentId, afterId, PageRequest.of(0, chunkSize));
+            for (BulkPaymentLine line : lines) {
+                writer.write(line.getLineNumber() + ","
+                        + csv(line.getRecipientAccount()) + ","
+                        + csv(line.getReceiver()) + ","
+                        + (line.getAmount() != null ? line.getAmount() : "") + ","
+                        + csv(line.getPaymentReference()) + ","
+                        + line.getStatus() + ","
+                        + csv(line.getError()) + "\n");
+                afterId = line.getId();
+            }
+            writer.flush();
+        } while (lines.size() == chunkSize);
+    }
+
+    /**
+     * Skida ukupan iznos sa racuna kompanije. Vraca {@code false} ako nema dovoljno sredstava ili bi bio prekoracen
+     * limit potrosnje racuna, a tada se nalog i zbirni transfer oznacavaju kao neuspesni u istoj transakciji.
+     */
+    private boolean debitSourceAccount(Long bulkPaymentId) {
+        BulkPayment bulkPayment = bulkPaymentRepository.findByIdForUpdate(bulkPaymentId)
+                .orElseThrow(() -> new RuntimeException("Grupno plaćanje nije pronađeno"));
+
+        // nastavak prekinutog izvrsavanja, iznos je vec skinut
+        if (bulkPayment.getStatus() == BulkPaymentStatus.PROCESSING)
+            return true;
+
+        Transfer transfer = bulkPayment.getTransfer();
+        if (bulkPayment.getStatus() != BulkPaymentStatus.PENDING || transfer.getStatus() != TransferStatus.PENDING)
+            throw new RuntimeException("Transfer is not in pending state");
+
+        Account sourceAccount = accountLockService.lock(bulkPayment.getSourceAccount()).get(0);
+        if (FundsHoldService.availableBalance(sourceAccount) < bulkPayment.getTotalAmount())
+            return fail(bulkPayment, transfer, "Insufficient balance");
+
+        try {
+            spendingLimitService.consume(sourceAccount, bulkPayment.getTotalAmount());
+        } catch (IllegalStateException e) {
+            return fail(bulkPayment, transfer, e.getMessage());
+        }
+
+        sourceAccount.setBalance(Money.subtract(sourceAccount.getBalance(), bulkPayment.getTotalAmount()));
+        accountRepository.save(sourceAccount);
+        transactionRepository.save(createTransaction(sourceAccount, null, bulkPayment.getTotalAmount(), transfer,
+                "Grupno plaćanje " + bulkPayment.getId()));
+
+        // RESERVED, da ga TransferExpiryService ne bi otkazao dok se stavke izvrsavaju
+        transfer.setStatus(TransferStatus.RESERVED);
+        transferRepository.save(transfer);
+        bulkPayment.setStatus(BulkPaymentStatus.PROCESSING);
+        bulkPaymentRepository.save(bulkPayment);
+        return true;
+    }
+
+    private boolean fail(BulkPayment bulkPayment, Transfer transfer, String note) {
+        bulkPayment.setStatus(BulkPaymentStatus.FAILED);
+        bulkPayment.setCompletedAt(System.currentTimeMillis());
+        transfer.setStatus(TransferStatus.FAILED);
+        transfer.setNote(note);
+        bulkPaymentRepository.save(bulkPayment);
+        transferRepository.save(transfer);
+        return false;
+    }
+
+    /**
+     * Izvrsava sledeci deo stavki na cekanju. Racuni primalaca se ucitavaju jednim upitom i zakljucavaju
+     * redom po ID-ju, a transakcije i stavke se upisuju u batch-u. Vraca {@code true} ako ima jos stavki.
+     */
+    private boolean processChunk(Long bulkPaymentId) {
+        BulkPayment bulkPayment = bulkPaymentRepository.findByIdForUpdate(bulkPaymentId)
+                .orElseThrow(() -> new RuntimeException("Grupno plaćanje nije pronađeno"));
+        if (bulkPayment.getStatus() != BulkPaymentStatus.PROCESSING)
+            return false;
+
+        List<BulkPaymentLine> lines = bulkPaymentLineRepository.findByBulkPaymentIdAndStatusOrderByIdAsc(bulkPaymentId, BulkPaymentLineStatus.PENDING, PageRequest.of(0, chunkSize));
+        if (lines.isEmpty())
+            return false;
+
+        Account sourceAccount = bulkPayment.getSourceAccount();
+
+        Set<String> accountNumbers = new HashSet<>();
+        for (BulkPaymentLine line : lines)
+            accountNumbers.add(line.getRecipientAccount());
+
+        Map<String, Account> recipients = new HashMap<>();
+        List<Account> customerAccounts = new ArrayList<>();
+        for (Account account : accountRepository.findByAccountNumberIn(accountNumbers)) {
+            recipients.put(account.getAccountNumber(), account);
+            if (!HouseAccountService.isHouseAccount(account))
+                customerAccounts.add(account);
+        }
+        accountLockService.lock(customerAccounts);
+
+        long now = System.currentTimeMillis();
+        long failedAmount = 0;
+        int completed = 0;
+        int failed = 0;
+        List<Transaction> transactions = new ArrayList<>();
+        for (BulkPaymentLine line : lines) {
+            Account recipient = recipients.get(line.getRecipientAccount());
+            String error = validateRecipient(sourceAccount, recipient);
+            line.setProcessedAt(now);
+
+            if (error != null) {
+                line.setStatus(BulkPaymentLineStatus.FAILED);
+                line.setError(error);
+                failedAmount = Money.add(failedAmount, line.getAmount());
+                failed++;
+                continue;
+            }
+
+            credit(recipient, line.getAmount());
+            transactions.add(createTransaction(null, recipient, line.getAmount(), bulkPayment.getTransfer(), line.getPaymentDescription()));
+            line.setStatus(BulkPaymentLineStatus.COMPLETED);
+            completed++;
+        }
+
+        accountRepository.saveAll(customerAccounts);
+        transactionRepository.saveAll(transactions);
+        bulkPaymentLineRepository.saveAll(lines);
+
+        bulkPayment.setCompletedCount(bulkPayment.getCompletedCount() + completed);
+        bulkPayment.setFailedCount(bulkPayment.getFailedCount() + failed);
+        bulkPayment.setRefundedAmount(Money.add(bulkPayment.getRefundedAmount(), failedAmount));
+        bulkPaymentRepository.save(bulkPayment);
+
+        return lines.size() == chunkSize;
+    }
+
+    /**
+     * Vraca iznos neizvrsenih stavki na racun kompanije i zatvara nalog i zbirni transfer.
+     */
+    private BulkPayment finish(Long bulkPaymentId) {
+        BulkPayment bulkPayment = bulkPaymentRepository.findByIdForUpdate(bulkPaymentId)
+                .orElseThrow(() -> new RuntimeException("Grupno plaćanje nije pronađeno"));
+        if (bulkPayment.getStatus() != BulkPaymentStatus.PROCESSING)
+            return bulkPayment;
+
+        Transfer transfer = bulkPayment.getTransfer();
+        if (bulkPayment.getRefundedAmount() > 0) {
+            Account sourceAccount = accountLockService.lock(bulkPayment.getSourceAccount()).get(0);
+            sourceAccount.setBalance(Money.add(sourceAccount.getBalance(), bulkPayment.getRefundedAmount()));
+            accountRepository.save(sourceAccount);
+            transactionRepository.save(createTransaction(null, sourceAccount, bulkPayment.getRefundedAmount(), transfer,
+                    "Povraćaj neizvršenih stavki grupnog plaćanja " + bulkPayment.getId()));
+            transfer.setNote("Refunded " + Money.toMajor(bulkPayment.getRefundedAmount(), transfer.getFromCurrency().getCode()));
+        }
+
+        long now = System.currentTimeMillis();
+        if (bulkPayment.getCompletedCount() == 0)
+            bulkPayment.setStatus(BulkPaymentStatus.FAILED);
+        else if (bulkPayment.getFailedCount() == 0)
+            bulkPayment.setStatus(BulkPaymentStatus.COMPLETED);
+        else
+            bulkPayment.setStatus(BulkPaymentStatus.PARTIALLY_COMPLETED);
+        bulkPayment.setCompletedAt(now);
+
+        transfer.setStatus(bulkPayment.getCompletedCount() == 0 ? TransferStatus.FAILED : TransferStatus.COMPLETED);
+        transfer.setCompletedAt(now);
+        transferRepository.save(transfer);
+
+        log.info("Grupno plaćanje {}: izvršeno {}, neuspešno {}, vraćeno {}", bulkPaymentId,
+                bulkPayment.getCompletedCount(), bulkPayment.getFailedCount(), bulkPayment.getRefundedAmount());
+        return bulkPaymentRepository.save(bulkPayment);
+    }
+
+    private static String validateRecipient(Account sourceAccount, Account recipient) {
+        if (recipient == null)
+            return "Račun primaoca nije pronađen";
+        if (recipient.getId().equals(sourceAccount.getId()))
+            return "Račun primaoca je isti kao račun platioca";
+        if (recipient.getCurrencyType() != sourceAccount.getCurrencyType())
+            return "Račun primaoca nije u valuti " + sourceAccount.getCurrencyType();
+        if (recipient.getStatus() != AccountStatus.ACTIVE)
+            return "Račun primaoca nije aktivan";
+        return null;
+    }
+
+    private void credit(Account account, long amount) {
+        if (HouseAccountService.isHouseAccount(account))
+            houseAccountService.credit(account, amount);
+        else
+            account.setBalance(Money.add(account.getBalance(), amount));
+    }
+
+    /**
+     * Zaduzenje i povracaj idu izmedju racuna kompanije i kliringa ({@code null} racun), a svaka stavka
+     * iz kliringa ka primaocu, tako da je dnevnik knjizenja uravnotezen, a na izvodu kompanije je jedno zaduzenje.
+     */
+    private Transaction createTransaction(Account fromAccount, Account toAccount, long amount, Transfer transfer, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setBankOnly(false);
+        transaction.setFromAccountId(fromAccount);
+        transaction.setToAccountId(toAccount);
+        transaction.setAmount(amount);
+        transaction.setFinalAmount(amount);
+        transaction.setFee(0L);
+        transaction.setCurrency(transfer.getFromCurrency());
+        transaction.setTimestamp(System.currentTimeMillis());
+        LocalDateTime now = LocalDateTime.now();
+        String date = now.toLocalDate().toString();
+        date = date.substring(8, 10) + "-" + date.substring(5, 7) + "-" + date.substring(0, 4);
+        transaction.setDate(date);
+        transaction.setTime(now.toLocalTime().toString().substring(0, 5));
+        transaction.setDescription(description);
+        transaction.setTransfer(transfer);
+        return transaction;
+    }
+
+    private void sendVerification(CustomerDTO customerData, Transfer transfer, String otpCode, int lineCount) {
+        NotificationDTO emailDto = new NotificationDTO();
+        emailDto.setSubject("Verifikacija");
+        emailDto.setEmail(customerData.getEmail());
+        emailDto.setMessage("Vaš verifikacioni kod za grupno plaćanje (" + lineCount + " stavki, ukupno "
+                + Money.toMajor(transfer.getAmount(), transfer.getFromCurrency().getCode()) + " " + transfer.getFromCurrency().getCode() + ") je: " + otpCode);
+        emailDto.setFirstName(customerData.getFirstName());
+        emailDto.setLastName(customerData.getLastName());
+        emailDto.setType("email");
+
+        NotificationDTO pushNotification = new NotificationDTO();
+        pushNotification.setSubject("Verifikacija");
+        pushNotification.setMessage("Kliknite kako biste verifikovali grupno plaćanje");
+        pushNotification.setFirstName(customerData.getFirstName());
+        pushNotification.setLastName(customerData.getLastName());
+        pushNotification.setEmail(customerData.getEmail());
+        pushNotification.setType("firebase");
+        pushNotification.setAdditionalData(Map.of("transferId", transfer.getId().toString(), "otp", otpCode));
+
+        jmsTemplate.convertAndSend(destinationEmail, messageHelper.createTextMessage(emailDto));
+        jmsTemplate.convertAndSend(destinationEmail, messageHelper.createTextMessage(pushNotification));
+    }
+
+    private static String csv(String value) {
+        if (value == null)
+            return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n"))
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        return value;
+    }
+}
@@ -0,0 +1,38 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Kursevi sa javnog CDN-a (fawazahmed0/currency-api). Zahtev ima isti rok kao i ceo dohvat jedne bazne valute,
+ * da nit ne bi ostala blokirana posle isteka roka u {@link CurrencyService}.
+ */
+@Service
+@ConditionalOnProperty(name = "exchange.rates.provider", havingValue = "cdn", matchIfMissing = true)
+public class CdnExchangeRateProvider implements ExchangeRateProvider {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public CdnExchangeRateProvider(@Value("${exchange.rates.cdn.base-url:https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/}") String baseUrl, @Value("${exchange.rates.fetch-timeout-ms:10000}") int timeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public Map<CurrencyType, Double> fetchRates(CurrencyType baseCurrency) throws Exception {
+        String jsonResponse = restTemplate.getForObject(baseUrl + baseCurrency.name().toLowerCase() + ".json", String.class);
+        return ExchangeRateProvider.parse(baseCurrency, objectMapper.readTree(jsonResponse));
+    }
+}
@@ -5,7 +5,6 @@ import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Company;
 import com.banka1.banking.repository.AccountRepository;
 import com.banka1.banking.repository.CompanyRepository;
-import com.banka1.common.model.BusinessActivityCode;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
@@ -17,11 +16,13 @@ public class CompanyService {
     private final CompanyRepository companyRepository;
     private final ModelMapper modelMapper;
     private final AccountRepository accountRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
-    public CompanyService(CompanyRepository companyRepository, ModelMapper modelMapper, AccountRepository accountRepository) {
+    public CompanyService(CompanyRepository companyRepository, ModelMapper modelMapper, AccountRepository accountRepository, ReferenceDataRegistry referenceDataRegistry) {
         this.companyRepository = companyRepository;
         this.modelMapper = modelMapper;
         this.accountRepository = accountRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
     }
 
     public Company createCompany(CreateCompanyDTO createCompanyDTO) {
@@ -40,7 +41,7 @@ public class CompanyService {
     }
 
     public List<String> getBusinessActivityCodes() {
-        return BusinessActivityCode.getAll();
+        return referenceDataRegistry.getBusinessActivityCodes();
     }
 
     public List<Company> findAllByOwnerId(Long ownerId) {
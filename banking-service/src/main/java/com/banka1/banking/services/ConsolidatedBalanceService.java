@@ -0,0 +1,154 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.ConsolidatedBalanceDTO;
+import com.banka1.banking.dto.CurrencyBalanceDTO;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import com.banka1.banking.utils.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ukupno stanje svih racuna jednog klijenta ili kompanije, preracunato u izabranu valutu.
+ * <p>
+ * Po vlasniku se kesiraju zbirovi po valuti racuna, a preracun po aktivnoj kursnoj listi ({@link ExchangeRateCache})
+ * radi se pri svakom citanju, pa promena kursa ne zahteva brisanje kesa. Unos se brise pri svakoj promeni racuna
+ * vlasnika ({@link AccountBalanceListener}). Racuni banke se ne kesiraju, jer se njihovo stanje menja preko shardova.
+ * <p>
+ * Brisanje vidi samo cvor na kome je racun promenjen, pa unos vazi najvise {@code balances.consolidated.cache-ttl-ms};
+ * toliko najduze drugi cvorovi mogu da prikazuju staro stanje.
+ */
+@Service
+public class ConsolidatedBalanceService {
+
+    private record OwnerKey(boolean company, Long id) {
+    }
+
+    private record Totals(int accounts, long balance, long available) {
+    }
+
+    private record Entry(Map<CurrencyType, Totals> totals, long expiresAt) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final ExchangeRateCache exchangeRateCache;
+    private final HouseAccountService houseAccountService;
+    private final long ttlMs;
+    private final Map<OwnerKey, Entry> cache;
+    /** Broj brisanja; zbir ucitan dok je trajalo brisanje se ne upisuje u kes jer moze biti zastareo. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ConsolidatedBalanceService(AccountRepository accountRepository, ExchangeRateCache exchangeRateCache, HouseAccountService houseAccountService, @Value("${balances.consolidated.cache-size:10000}") int cacheSize, @Value("${balances.consolidated.cache-ttl-ms:5000}") long ttlMs) {
+        this.accountRepository = accountRepository;
+        this.exchangeRateCache = exchangeRateCache;
+        this.houseAccountService = houseAccountService;
+        this.ttlMs = ttlMs;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OwnerKey, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public ConsolidatedBalanceDTO getForOwner(Long ownerId, CurrencyType currency) {
+        return consolidate(new OwnerKey(false, ownerId), currency);
+    }
+
+    public ConsolidatedBalanceDTO getForCompany(Long companyId, CurrencyType currency) {
+        return consolidate(new OwnerKey(true, companyId), currency);
+    }
+
+    /**
+     * Brise zbirove vlasnika i kompanije racuna. Poziva se pri svakoj promeni racuna.
+     */
+    public void invalidate(Account account) {
+        invalidations.incrementAndGet();
+        cache.remove(new OwnerKey(false, account.getOwnerID()));
+        if (account.getCompany() != null)
+            cache.remove(new OwnerKey(true, account.getCompany().getId()));
+    }
+
+    private ConsolidatedBalanceDTO consolidate(OwnerKey key, CurrencyType currency) {
+        Entry cached = cache.get(key);
+        Map<CurrencyType, Totals> totals = cached != null && System.currentTimeMillis() < cached.expiresAt()
+                ? cached.totals()
+                : load(key);
+
+        ExchangeRateMatrix rates = exchangeRateCache.current();
+        long total = 0;
+        long available = 0;
+        List<CurrencyBalanceDTO> balances = new ArrayList<>(totals.size());
+
+        for (Map.Entry<CurrencyType, Totals> entry : totals.entrySet()) {
+            CurrencyType from = entry.getKey();
+            Totals part = entry.getValue();
+            double rate = from == currency ? 1.0 : rates.rate(from, currency);
+            if (Double.isNaN(rate))
+                throw new IllegalStateException("Kurs nije pronađen za konverziju " + from + " -> " + currency);
+
+            long converted = Money.convert(part.balance(), from, rate, currency);
+            total = Money.add(total, converted);
+            available = Money.add(available, Money.convert(part.available(), from, rate, currency));
+            balances.add(new CurrencyBalanceDTO(
+                    from.name(),
+                    part.accounts(),
+                    part.balance(),
+                    part.available(),
+                    rate,
+                    converted
+            ));
+        }
+
+        return new ConsolidatedBalanceDTO(
+                currency.name(),
+                total,
+                available,
+                rates.getDate(),
+                balances
+        );
+    }
+
+    private Map<CurrencyType, Totals> load(OwnerKey key) {
+        long generation = invalidations.get();
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        List<Account> accounts = key.company()
+                ? accountRepository.findByCompanyId(key.id())
+                : accountRepository.findByOwnerID(key.id());
+
+        Map<CurrencyType, Totals> totals = new EnumMap<>(CurrencyType.class);
+        boolean cacheable = true;
+        for (Account account : accounts) {
+            if (account.getStatus() == AccountStatus.CLOSED)
+                continue;
+
+            long balance = account.getBalance();
+            long available = FundsHoldService.availableBalance(account);
+            if (HouseAccountService.isHouseAccount(account)) {
+                long sharded = Money.subtract(houseAccountService.getTotalBalance(account), balance);
+                balance = Money.add(balance, sharded);
+                available = Money.add(available, sharded);
+                cacheable = false;
+            }
+
+            CurrencyType currencyType = account.getCurrencyType();
+            Totals previous = totals.getOrDefault(currencyType, new Totals(0, 0, 0));
+            totals.put(currencyType, new Totals(
+                    previous.accounts() + 1,
+                    Money.add(previous.balance(), balance),
+                    Money.add(previous.available(), available)
+            ));
+        }
+
+        Map<CurrencyType, Totals> result = Collections.unmodifiableMap(totals);
+        if (cacheable && generation == invalidations.get())
+            cache.put(key, new Entry(result, expiresAt));
+        return result;
+    }
+}
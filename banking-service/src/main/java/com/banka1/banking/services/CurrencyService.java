@@ -3,83 +3,269 @@ package com.banka1.banking.services;
 import com.banka1.banking.dto.ExchangePairDTO;
 import com.banka1.banking.models.Currency;
 import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.ExchangeRateSnapshot;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.repository.ExchangePairRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banka1.banking.repository.ExchangeRateHistoryRepository;
+import com.banka1.banking.repository.ExchangeRateSnapshotRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Kursna lista menjacnice.
+ * <p>
+ * Osvezavanje ide u koracima: kursevi svih baznih valuta se dohvataju paralelno (svaka sa svojim rokom),
+ * zatim se proverava cela matrica, pa se u jednoj transakciji upisuje kao nova verzija ({@link ExchangeRateSnapshot})
+ * i brisu verzije starije od poslednjih {@code exchange.rates.retained-versions}. U istoj transakciji se lista dopisuje u istoriju kurseva ({@link ExchangeRateHistoryService}).
+ * Tek posle commit-a nova lista se objavljuje u {@link ExchangeRateCache}.
+ * Ako bilo koji korak ne uspe, ostaje prethodna lista, i u bazi i u memoriji.
+ * <p>
+ * Pored dnevnog osvezavanja u ponoc, moze se ukljuciti i osvezavanje tokom dana
+ * ({@code exchange.rates.intraday.enabled}, {@code exchange.rates.intraday.interval-ms}). Lista koja se nije promenila
+ * se ne upisuje ponovo, pa cesto osvezavanje pravi novu verziju samo kada se kurs zaista promeni.
+ * <p>
+ * Svaki cvor osvezava listu za sebe, pa cvor koji jos nije osvezio i dalje cita svoju verziju iz baze. Zato se cuva
+ * nekoliko poslednjih verzija, a ako je verzija cvora ipak obrisana, citanje prelazi na poslednju upisanu.
+ */
 @Service
+@Slf4j
 public class CurrencyService {
+
+    /** Koliko proizvod kurseva a->b i b->a sme da odstupa od 1. */
+    private static final double RECIPROCAL_TOLERANCE = 0.02;
+    private static final List<CurrencyType> SUPPORTED_CURRENCIES = Arrays.asList(CurrencyType.values());
+
     private final ExchangePairRepository exchangePairRepository;
-    private final RestTemplate restTemplate;
     private final CurrencyRepository currencyRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private static final List<CurrencyType> SUPPORTED_CURRENCIES = Arrays.asList(CurrencyType.values());
+    private final ExchangeRateCache exchangeRateCache;
+    private final ExchangeRateSnapshotRepository exchangeRateSnapshotRepository;
+    private final ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final long fetchTimeoutMs;
+    private final boolean intradayEnabled;
+    private final int retainedVersions;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
 
-    public CurrencyService(ExchangePairRepository exchangePairRepository, RestTemplate restTemplate, CurrencyRepository currencyRepository) {
+    public CurrencyService(ExchangePairRepository exchangePairRepository, CurrencyRepository currencyRepository, ExchangeRateCache exchangeRateCache, ExchangeRateSnapshotRepository exchangeRateSnapshotRepository, ExchangeRateHistoryRepository exchangeRateHistoryRepository, ExchangeRateProvider exchangeRateProvider, PlatformTransactionManager transactionManager, @Value("${exchange.rates.fetch-timeout-ms:10000}") long fetchTimeoutMs, @Value("${exchange.rates.intraday.enabled:false}") boolean intradayEnabled, @Value("${exchange.rates.retained-versions:3}") int retainedVersions) {
         this.exchangePairRepository = exchangePairRepository;
-        this.restTemplate = restTemplate;
         this.currencyRepository = currencyRepository;
+        this.exchangeRateCache = exchangeRateCache;
+        this.exchangeRateSnapshotRepository = exchangeRateSnapshotRepository;
+        this.exchangeRateHistoryRepository = exchangeRateHistoryRepository;
+        this.exchangeRateProvider = exchangeRateProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fetchTimeoutMs = fetchTimeoutMs;
+        this.intradayEnabled = intradayEnabled;
+        this.retainedVersions = Math.max(1, retainedVersions);
     }
 
+    /**
+     * Osvezavanje tokom dana, ako je ukljuceno.
+     */
+    @Scheduled(fixedDelayString = "${exchange.rates.intraday.interval-ms:300000}", initialDelayString = "${exchange.rates.intraday.interval-ms:300000}")
+    public void refreshIntraday() {
+        if (intradayEnabled)
+            fetchExchangeRates();
+    }
+
+    /**
+     * Osvezava kursnu listu. Vraca {@code true} ako je nova verzija upisana i objavljena, ili ako se lista nije promenila.
+     * Ako osvezavanje ne uspe a u memoriji jos nema liste (npr. pri pokretanju), ucitava se poslednja verzija iz baze.
+     */
     @Scheduled(cron = "0 0 0 * * ?")// Svakog dana u ponoc
-    public void fetchExchangeRates() {
-        exchangePairRepository.deleteAll(); // Brisemo stare podatke
+    public boolean fetchExchangeRates() {
+        if (!refreshing.compareAndSet(false, true)) {
+            log.info("Osvezavanje kursne liste je vec u toku");
+            return false;
+        }
 
-        for (CurrencyType baseCurrencyCode : SUPPORTED_CURRENCIES) {
-            String url = "https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/"
-                    + baseCurrencyCode.name().toLowerCase() + ".json";
+        try {
+            Map<CurrencyType, Map<CurrencyType, Double>> rates = fetchAll();
+            validate(rates);
+            if (isUnchanged(exchangeRateCache.current(), rates))
+                return true;
+
+            ExchangeRateMatrix matrix = transactionTemplate.execute(status -> store(rates));
+            exchangeRateCache.publish(matrix);
+            return true;
+        } catch (Exception e) {
+            log.error("Osvezavanje kursne liste nije uspelo, ostaje prethodna lista: {}", e.getMessage());
+            if (exchangeRateCache.current().getVersion() == null)
+                loadActiveSnapshot();
+            return false;
+        } finally {
+            refreshing.set(false);
+        }
+    }
 
-            try {
-                String jsonResponse = restTemplate.getForObject(url, String.class);
-                JsonNode root = objectMapper.readTree(jsonResponse);
-                JsonNode ratesNode = root.get(baseCurrencyCode.name().toLowerCase());
+    private Map<CurrencyType, Map<CurrencyType, Double>> fetchAll() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(SUPPORTED_CURRENCIES.size(), runnable -> {
+            Thread thread = new Thread(runnable, "exchange-rate-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-                if (ratesNode != null) {
-                    Currency baseCurrency = currencyRepository.findByCode(baseCurrencyCode)
-                            .orElseThrow(() -> new RuntimeException("Base currency " + baseCurrencyCode + " not found"));
+        try {
+            Map<CurrencyType, CompletableFuture<Map<CurrencyType, Double>>> futures = new EnumMap<>(CurrencyType.class);
+            for (CurrencyType base : SUPPORTED_CURRENCIES) {
+                futures.put(base, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return exchangeRateProvider.fetchRates(base);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor).orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS));
+            }
 
-                    for (CurrencyType targetCurrencyCode : SUPPORTED_CURRENCIES) {
-                        if (!baseCurrencyCode.equals(targetCurrencyCode) &&
-                                ratesNode.has(targetCurrencyCode.name().toLowerCase())) {
+            Map<CurrencyType, Map<CurrencyType, Double>> rates = new EnumMap<>(CurrencyType.class);
+            for (Map.Entry<CurrencyType, CompletableFuture<Map<CurrencyType, Double>>> entry : futures.entrySet()) {
+                try {
+                    rates.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                            ? e.getCause().getCause() : e.getCause();
+                    String reason = cause instanceof TimeoutException ? "isteklo vreme" : String.valueOf(cause.getMessage());
+                    throw new IllegalStateException("Kursevi za baznu valutu " + entry.getKey() + " nisu dohvaceni: " + reason, cause);
+                }
+            }
+            return rates;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-                            double rate = ratesNode.get(targetCurrencyCode.name().toLowerCase()).asDouble();
+    /**
+     * Lista se prihvata samo ako je potpuna: svaka bazna valuta ima kurs prema svakoj drugoj, svi kursevi su
+     * pozitivni i konacni, a kursevi u dva smera su medjusobno priblizno reciprocni.
+     */
+    void validate(Map<CurrencyType, Map<CurrencyType, Double>> rates) {
+        for (CurrencyType base : SUPPORTED_CURRENCIES) {
+            Map<CurrencyType, Double> baseRates = rates.get(base);
+            if (baseRates == null)
+                throw new IllegalStateException("Nedostaju kursevi za baznu valutu " + base);
 
-                            Currency targetCurrency = currencyRepository.findByCode(targetCurrencyCode)
-                                    .orElseThrow(() -> new RuntimeException("Target currency " + targetCurrencyCode + " not found"));
+            for (CurrencyType target : SUPPORTED_CURRENCIES) {
+                if (base == target)
+                    continue;
 
-                            ExchangePair pair = new ExchangePair();
-                            pair.setBaseCurrency(baseCurrency);
-                            pair.setTargetCurrency(targetCurrency);
-                            pair.setExchangeRate(rate);
-                            pair.setDate(LocalDate.now());
+                Double rate = baseRates.get(target);
+                if (rate == null)
+                    throw new IllegalStateException("Nedostaje kurs " + base + " -> " + target);
+                if (!(rate > 0) || Double.isInfinite(rate))
+                    throw new IllegalStateException("Neispravan kurs " + base + " -> " + target + ": " + rate);
 
-                            exchangePairRepository.save(pair);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to fetch rates for base currency: " + baseCurrencyCode + ", " + e.getMessage());
+                Double reverse = rates.get(target) != null ? rates.get(target).get(base) : null;
+                if (reverse != null && Math.abs(rate * reverse - 1) > RECIPROCAL_TOLERANCE)
+                    throw new IllegalStateException("Kursevi " + base + " <-> " + target + " nisu reciprocni: " + rate + ", " + reverse);
             }
         }
     }
 
+    private static boolean isUnchanged(ExchangeRateMatrix current, Map<CurrencyType, Map<CurrencyType, Double>> rates) {
+        if (current.getVersion() == null)
+            return false;
+        for (Map.Entry<CurrencyType, Map<CurrencyType, Double>> base : rates.entrySet()) {
+            for (Map.Entry<CurrencyType, Double> target : base.getValue().entrySet()) {
+                if (current.rate(base.getKey(), target.getKey()) != target.getValue())
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private ExchangeRateMatrix store(Map<CurrencyType, Map<CurrencyType, Double>> rates) {
+        Map<CurrencyType, Currency> currencies = new EnumMap<>(CurrencyType.class);
+        for (Currency currency : currencyRepository.findAll())
+            currencies.put(currency.getCode(), currency);
+
+        LocalDate today = LocalDate.now();
+        ExchangeRateSnapshot snapshot = new ExchangeRateSnapshot();
+        snapshot.setDate(today);
+        snapshot.setCreatedAt(System.currentTimeMillis());
+        snapshot.setPairCount(rates.values().stream().mapToInt(Map::size).sum());
+        snapshot = exchangeRateSnapshotRepository.save(snapshot);
+        Long version = snapshot.getId();
+
+        List<ExchangePair> pairs = new ArrayList<>(snapshot.getPairCount());
+        rates.forEach((base, baseRates) -> baseRates.forEach((target, rate) -> {
+            ExchangePair pair = new ExchangePair();
+            pair.setBaseCurrency(requireCurrency(currencies, base));
+            pair.setTargetCurrency(requireCurrency(currencies, target));
+            pair.setExchangeRate(rate);
+            pair.setDate(today);
+            pair.setVersion(version);
+            pairs.add(pair);
+        }));
+
+        exchangePairRepository.saveAll(pairs);
+        List<Long> retained = exchangeRateSnapshotRepository.findLatestIds(PageRequest.of(0, retainedVersions));
+        exchangePairRepository.deleteByVersionLessThan(retained.isEmpty() ? version : retained.get(retained.size() - 1));
+
+        ExchangeRateMatrix matrix = ExchangeRateMatrix.of(pairs);
+        exchangeRateHistoryRepository.appendIfAbsent(today, version, matrix.encode(), snapshot.getCreatedAt());
+        return matrix;
+    }
+
+    private static Currency requireCurrency(Map<CurrencyType, Currency> currencies, CurrencyType code) {
+        Currency currency = currencies.get(code);
+        if (currency == null)
+            throw new IllegalStateException("Valuta " + code + " ne postoji u bazi");
+        return currency;
+    }
+
+    /**
+     * Objavljuje poslednju upisanu verziju iz baze (poslednja ispravna lista pre restarta).
+     */
+    public void loadActiveSnapshot() {
+        exchangeRateSnapshotRepository.findTopByOrderByIdDesc().ifPresent(snapshot -> {
+            List<ExchangePair> pairs = exchangePairRepository.findByVersion(snapshot.getId());
+            if (!pairs.isEmpty()) {
+                exchangeRateCache.publish(ExchangeRateMatrix.of(pairs));
+                log.info("Ucitana kursna lista verzije {} od {}", snapshot.getId(), snapshot.getDate());
+            }
+        });
+    }
+
+    /**
+     * Parovi verzije koju ovaj cvor koristi. Ako je tu verziju vec obrisao drugi cvor, citaju se parovi
+     * poslednje upisane verzije.
+     */
+    private List<ExchangePair> activePairs(Function<Long, List<ExchangePair>> byVersion) {
+        Long version = exchangeRateCache.current().getVersion();
+        if (version != null) {
+            List<ExchangePair> pairs = byVersion.apply(version);
+            if (!pairs.isEmpty())
+                return pairs;
+        }
+        return exchangeRateSnapshotRepository.findTopByOrderByIdDesc()
+                .filter(snapshot -> !snapshot.getId().equals(version))
+                .map(snapshot -> byVersion.apply(snapshot.getId()))
+                .orElse(List.of());
+    }
+
     public List<ExchangePairDTO> getAllExchangeRates() {
-        return exchangePairRepository.findAll().stream()
+        return activePairs(exchangePairRepository::findByVersion).stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
     public List<ExchangePairDTO> getExchangeRatesForBaseCurrency(CurrencyType baseCurrency) {
-        List<ExchangePair> pairs = exchangePairRepository.findByBaseCurrencyCode(baseCurrency);
+        List<ExchangePair> pairs = activePairs(version -> exchangePairRepository.findByVersionAndBaseCurrencyCode(version, baseCurrency));
 
         if (pairs.isEmpty()) {
             throw new RuntimeException("Nema dostupnih kurseva za baznu valutu: " + baseCurrency);
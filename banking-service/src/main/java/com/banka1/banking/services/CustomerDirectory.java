@@ -0,0 +1,139 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.dto.CustomerEventDTO;
+import com.banka1.common.listener.JmsRpcClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lokalna kopija imenika korisnika iz user-service-a, da ime, email i adresa vlasnika racuna ne bi zahtevali
+ * JMS poziv pri svakom transferu, menjacnici ili OTC poravnanju.
+ * <p>
+ * Pri pokretanju i zatim periodicno ({@code customers.directory.resync-interval-ms}) ceo imenik se ucitava po delovima,
+ * a izmedju toga se odrzava promenama koje user-service objavljuje na {@code destination.customer.events} topic.
+ * Korisnik promenjen dok ucitavanje traje zadrzava vrednost iz promene, jer je deo imenika koji ga sadrzi mozda stariji.
+ * Periodicno ucitavanje nadoknadjuje i promene propustene dok servis nije radio.
+ * <p>
+ * Cuvaju se samo polja koja banking-service koristi, a svako citanje vraca novi {@link CustomerDTO}.
+ * Korisnika kog nema u kopiji {@link UserServiceCustomer} trazi od user-service-a kao ranije.
+ */
+@Slf4j
+@Service
+public class CustomerDirectory {
+
+    private record Entry(String firstName, String lastName, String birthDate, String email, String phoneNumber, String address) {
+        static Entry of(CustomerDTO customer) {
+            return new Entry(customer.getFirstName(), customer.getLastName(), customer.getBirthDate(),
+                    customer.getEmail(), customer.getPhoneNumber(), customer.getAddress());
+        }
+
+        CustomerDTO toDto(Long id) {
+            return new CustomerDTO(id, firstName, lastName, birthDate, email, phoneNumber, address);
+        }
+    }
+
+    private final JmsRpcClient jmsRpcClient;
+    private final boolean enabled;
+    private final String snapshotDestination;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // ID-jevi promenjeni dok traje ucitavanje, null kada ucitavanje ne traje
+    private Set<Long> changedDuringReload;
+
+    public CustomerDirectory(JmsRpcClient jmsRpcClient,
+                             @Value("${customers.directory.enabled:true}") boolean enabled,
+                             @Value("${destination.customer.snapshot}") String snapshotDestination) {
+        this.jmsRpcClient = jmsRpcClient;
+        this.enabled = enabled;
+        this.snapshotDestination = snapshotDestination;
+    }
+
+    /**
+     * Korisnik iz lokalne kopije, ili {@code null} ako ga nema.
+     */
+    public CustomerDTO find(Long id) {
+        if (!enabled || id == null)
+            return null;
+        Entry entry = entries.get(id);
+        return entry == null ? null : entry.toDto(id);
+    }
+
+    public synchronized void apply(CustomerEventDTO event) {
+        if (!enabled || event.getId() == null)
+            return;
+
+        if (changedDuringReload != null)
+            changedDuringReload.add(event.getId());
+
+        if (event.getType() == CustomerEventDTO.Type.DELETED)
+            entries.remove(event.getId());
+        else if (event.getCustomer() != null)
+            entries.put(event.getId(), Entry.of(event.getCustomer()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${customers.directory.resync-interval-ms:3600000}", initialDelayString = "${customers.directory.resync-interval-ms:3600000}")
+    public void reload() {
+        if (!enabled || !reloadLock.tryLock())
+            return;
+
+        try {
+            synchronized (this) {
+                changedDuringReload = ConcurrentHashMap.newKeySet();
+            }
+
+            Map<Long, Entry> loaded;
+            try {
+                loaded = fetchAll();
+            } catch (RuntimeException e) {
+                log.warn("Ucitavanje imenika korisnika nije uspelo, koristi se postojeca kopija: {}", e.getMessage());
+                synchronized (this) {
+                    changedDuringReload = null;
+                }
+                return;
+            }
+
+            synchronized (this) {
+                Set<Long> changed = changedDuringReload;
+                entries.keySet().removeIf(id -> !loaded.containsKey(id) && !changed.contains(id));
+                loaded.forEach((id, entry) -> {
+                    if (!changed.contains(id))
+                        entries.put(id, entry);
+                });
+                changedDuringReload = null;
+            }
+            log.info("Ucitan imenik korisnika: {} korisnika", entries.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Map<Long, Entry> fetchAll() {
+        Map<Long, Entry> loaded = new HashMap<>();
+        long afterId = 0;
+        while (true) {
+            CustomerDTO[] page = jmsRpcClient.call(snapshotDestination, afterId, CustomerDTO[].class);
+            if (page == null)
+                throw new IllegalStateException("user-service nije vratio imenik korisnika");
+            if (page.length == 0)
+                return loaded;
+
+            for (CustomerDTO customer : page) {
+                loaded.put(customer.getId(), Entry.of(customer));
+                afterId = Math.max(afterId, customer.getId());
+            }
+        }
+    }
+}
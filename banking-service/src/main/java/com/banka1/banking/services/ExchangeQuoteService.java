@@ -0,0 +1,94 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.ExchangeQuote;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Skladiste ponuda menjacnice u memoriji.
+ * <p>
+ * Ponuda nastaje pri pregledu ({@link ExchangeService#createQuote}) i vazi {@code exchange.quotes.ttl-ms}.
+ * Ponuda je vezana za racun za koji je izdata. Pri kreiranju transfera, kada su svi ostali podaci provereni,
+ * ponuda se preuzima ({@link #claim}) i njen obracun se upisuje uz transfer
+ * ({@link com.banka1.banking.models.Transfer#getQuotedExchange()}), pa vazi dok transfer ceka OTP potvrdu,
+ * i posle restarta ili kada OTP potvrdi drugi cvor. Ako transfer ne uspe da se sacuva, ponuda se vraca ({@link #release}).
+ * <p>
+ * Nepreuzetih ponuda ima najvise {@code exchange.quotes.max-size}; kad je skladiste puno, izbacuje se najstarija.
+ */
+@Slf4j
+@Service
+public class ExchangeQuoteService {
+
+    private final Map<String, ExchangeQuote> offered;
+    private final long ttlMs;
+
+    public ExchangeQuoteService(@Value("${exchange.quotes.ttl-ms:60000}") long ttlMs, @Value("${exchange.quotes.max-size:10000}") int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Broj ponuda mora biti pozitivan");
+
+        this.ttlMs = ttlMs;
+        // redosled umetanja je i redosled isticanja, jer sve ponude imaju isti TTL
+        this.offered = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExchangeQuote> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public ExchangeQuote offer(Long fromAccountId, CurrencyType fromCurrency, CurrencyType toCurrency, long amount, ExchangeResult preview) {
+        ExchangeQuote quote = new ExchangeQuote(UUID.randomUUID().toString(), fromAccountId, fromCurrency, toCurrency, amount, preview, System.currentTimeMillis() + ttlMs);
+        offered.put(quote.getId(), quote);
+        return quote;
+    }
+
+    /**
+     * Preuzima ponudu za transfer. Ponuda moze da se preuzme samo jednom i mora da odgovara racunu, valutama i iznosu
+     * transfera. Ponuda koja ne odgovara ostaje na raspolaganju do isteka.
+     */
+    public ExchangeQuote claim(String quoteId, Long fromAccountId, CurrencyType fromCurrency, CurrencyType toCurrency, long amount) {
+        synchronized (offered) {
+            ExchangeQuote quote = offered.get(quoteId);
+            if (quote == null || quote.isExpired(System.currentTimeMillis()))
+                throw new IllegalArgumentException("Ponuda kursa je istekla ili ne postoji.");
+
+            if (!Objects.equals(quote.getFromAccountId(), fromAccountId) || quote.getFromCurrency() != fromCurrency
+                    || quote.getToCurrency() != toCurrency || quote.getAmount() != amount)
+                throw new IllegalArgumentException("Ponuda kursa ne odgovara transferu.");
+
+            offered.remove(quoteId);
+            return quote;
+        }
+    }
+
+    /**
+     * Vraca preuzetu ponudu ako transfer nije sacuvan, da bi mogla ponovo da se iskoristi do isteka.
+     */
+    public void release(ExchangeQuote quote) {
+        if (!quote.isExpired(System.currentTimeMillis()))
+            offered.putIfAbsent(quote.getId(), quote);
+    }
+
+    @Scheduled(fixedDelayString = "${exchange.quotes.sweep-interval-ms:10000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        synchronized (offered) {
+            Iterator<ExchangeQuote> iterator = offered.values().iterator();
+            while (iterator.hasNext() && iterator.next().isExpired(now)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+
+        if (removed > 0)
+            log.debug("Uklonjeno {} isteklih ponuda kursa", removed);
+    }
+}
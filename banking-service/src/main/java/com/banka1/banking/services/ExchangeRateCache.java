@@ -0,0 +1,45 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Drzi aktivnu kursnu listu u memoriji. {@link CurrencyService#fetchExchangeRates()} posle svakog
+ * osvezavanja pravi novu {@link ExchangeRateMatrix} i objavljuje je zamenom reference, pa citaoci
+ * nikad ne vide delimicno osvezenu listu i ne idu u bazu.
+ * <p>
+ * Posle svake zamene pozivaju se prijavljeni slusaoci sa prethodnom i novom listom
+ * (npr. {@link ExchangeRateStreamService} za slanje promena klijentima).
+ */
+@Service
+@Slf4j
+public class ExchangeRateCache {
+
+    private final AtomicReference<ExchangeRateMatrix> current = new AtomicReference<>(ExchangeRateMatrix.EMPTY);
+    private final List<BiConsumer<ExchangeRateMatrix, ExchangeRateMatrix>> listeners = new CopyOnWriteArrayList<>();
+
+    public ExchangeRateMatrix current() {
+        return current.get();
+    }
+
+    public void publish(ExchangeRateMatrix matrix) {
+        ExchangeRateMatrix previous = current.getAndSet(matrix);
+        for (BiConsumer<ExchangeRateMatrix, ExchangeRateMatrix> listener : listeners) {
+            try {
+                listener.accept(previous, matrix);
+            } catch (RuntimeException e) {
+                log.warn("Slusalac kursne liste nije uspeo: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void addListener(BiConsumer<ExchangeRateMatrix, ExchangeRateMatrix> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,95 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.ExchangePairDTO;
+import com.banka1.banking.dto.ExchangeRateHistoryDTO;
+import com.banka1.banking.models.ExchangeRateHistory;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.ExchangeRateHistoryRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Kursne liste po danima, za izvestaje i preracun transakcija po kursu sa datuma transakcije.
+ * <p>
+ * Dan se cita iz baze jednim redom i dekodira u {@link ExchangeRateMatrix}. Skoro trazeni dani se drze u LRU
+ * kesu ({@code exchange.rates.history.cache-size}). U kes ide samo odgovor koji se vise ne moze promeniti:
+ * dan za koji red postoji, ili dan pre danasnjeg, jer se istorija dopisuje samo za tekuci dan.
+ */
+@Service
+public class ExchangeRateHistoryService {
+
+    private final ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private final int maxRangeDays;
+    private final Map<LocalDate, ExchangeRateMatrix> cache;
+
+    public ExchangeRateHistoryService(ExchangeRateHistoryRepository exchangeRateHistoryRepository, @Value("${exchange.rates.history.cache-size:64}") int cacheSize, @Value("${exchange.rates.history.max-range-days:366}") int maxRangeDays) {
+        this.exchangeRateHistoryRepository = exchangeRateHistoryRepository;
+        this.maxRangeDays = maxRangeDays;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, ExchangeRateMatrix> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Kursna lista vazeca na dati dan: lista tog dana, ili poslednja pre njega ako tog dana nije osvezavana.
+     */
+    public Optional<ExchangeRateMatrix> getAsOf(LocalDate date) {
+        ExchangeRateMatrix cached = cache.get(date);
+        if (cached != null)
+            return Optional.of(cached);
+
+        Optional<ExchangeRateMatrix> matrix = exchangeRateHistoryRepository.findTopByDateLessThanEqualOrderByDateDesc(date)
+                .map(ExchangeRateHistoryService::decode);
+        matrix.ifPresent(m -> {
+            if (date.equals(m.getDate()) || date.isBefore(LocalDate.now()))
+                cache.put(date, m);
+        });
+        return matrix;
+    }
+
+    /**
+     * Sve dnevne liste izmedju dva datuma (ukljucivo), po redu. Dani bez osvezavanja se ne popunjavaju.
+     */
+    public List<ExchangeRateMatrix> getRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to))
+            throw new IllegalArgumentException("Pocetni datum je posle krajnjeg.");
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays)
+            throw new IllegalArgumentException("Period moze biti najvise " + maxRangeDays + " dana.");
+
+        List<ExchangeRateMatrix> result = new ArrayList<>();
+        for (ExchangeRateHistory row : exchangeRateHistoryRepository.findByDateBetweenOrderByDate(from, to)) {
+            ExchangeRateMatrix matrix = cache.computeIfAbsent(row.getDate(), date -> decode(row));
+            result.add(matrix);
+        }
+        return result;
+    }
+
+    /**
+     * Pretvara dnevnu listu u odgovor API-ja. Bazna i ciljna valuta su opcioni filteri.
+     */
+    public static ExchangeRateHistoryDTO toDTO(ExchangeRateMatrix matrix, CurrencyType base, CurrencyType target) {
+        List<ExchangePairDTO> rates = new ArrayList<>();
+        for (CurrencyType from : CurrencyType.values()) {
+            if (base != null && base != from)
+                continue;
+            for (CurrencyType to : CurrencyType.values()) {
+                if ((target != null && target != to) || !matrix.has(from, to))
+                    continue;
+                rates.add(new ExchangePairDTO(from.name(), to.name(), matrix.rate(from, to), matrix.getDate()));
+            }
+        }
+        return new ExchangeRateHistoryDTO(matrix.getDate(), matrix.getVersion(), rates);
+    }
+
+    private static ExchangeRateMatrix decode(ExchangeRateHistory row) {
+        return ExchangeRateMatrix.decode(row.getRates(), row.getDate(), row.getVersion());
+    }
+}
@@ -0,0 +1,37 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Izvor kurseva za {@link CurrencyService#fetchExchangeRates()}. Bira se preko {@code exchange.rates.provider}
+ * ({@code cdn}, {@code file} ili {@code stub}), a u testovima moze biti i obicna lambda.
+ */
+@FunctionalInterface
+public interface ExchangeRateProvider {
+
+    /**
+     * Vraca kurseve bazne valute prema ostalim podrzanim valutama. Valute koje izvor ne poznaje se izostavljaju.
+     */
+    Map<CurrencyType, Double> fetchRates(CurrencyType baseCurrency) throws Exception;
+
+    /**
+     * Cita kurseve iz formata {@code {"<baza>": {"<valuta>": kurs, ...}}}, koji koriste i CDN i lokalni fajlovi.
+     */
+    static Map<CurrencyType, Double> parse(CurrencyType baseCurrency, JsonNode root) {
+        Map<CurrencyType, Double> rates = new EnumMap<>(CurrencyType.class);
+        JsonNode ratesNode = root != null ? root.get(baseCurrency.name().toLowerCase()) : null;
+        if (ratesNode == null)
+            return rates;
+
+        for (CurrencyType target : CurrencyType.values()) {
+            JsonNode rate = ratesNode.get(target.name().toLowerCase());
+            if (target != baseCurrency && rate != null && rate.isNumber())
+                rates.put(target, rate.asDouble());
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,108 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.ExchangePairDTO;
+import com.banka1.banking.dto.ExchangeRateUpdateDTO;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Salje promene kursne liste prijavljenim klijentima preko Server-Sent Events, umesto da ekran menjacnice
+ * periodicno povlaci celu listu sa {@code /currency/exchange-rates}.
+ * <p>
+ * Pri prijavi klijent dobija celu aktivnu listu (dogadjaj {@code snapshot}). Posle svake objave u
+ * {@link ExchangeRateCache} salju se samo parovi ciji se kurs promenio (dogadjaj {@code rates}).
+ * Klijenti kojima slanje ne uspe se odjavljuju, a periodicni {@code heartbeat} otkriva prekinute veze
+ * i kada nema promena.
+ */
+@Service
+@Slf4j
+public class ExchangeRateStreamService {
+
+    private final ExchangeRateCache exchangeRateCache;
+    private final long timeoutMs;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public ExchangeRateStreamService(ExchangeRateCache exchangeRateCache, @Value("${exchange.rates.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.exchangeRateCache = exchangeRateCache;
+        this.timeoutMs = timeoutMs;
+        exchangeRateCache.addListener(this::onPublish);
+    }
+
+    /**
+     * Prijavljuje novog klijenta i odmah mu salje celu aktivnu listu.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        ExchangeRateMatrix current = exchangeRateCache.current();
+        send(emitter, "snapshot", new ExchangeRateUpdateDTO(current.getVersion(), current.getDate(), true, changes(ExchangeRateMatrix.EMPTY, current)));
+        return emitter;
+    }
+
+    void onPublish(ExchangeRateMatrix previous, ExchangeRateMatrix current) {
+        if (emitters.isEmpty())
+            return;
+
+        List<ExchangePairDTO> changes = changes(previous, current);
+        if (changes.isEmpty())
+            return;
+
+        ExchangeRateUpdateDTO update = new ExchangeRateUpdateDTO(current.getVersion(), current.getDate(), false, changes);
+        for (SseEmitter emitter : emitters)
+            send(emitter, "rates", update);
+    }
+
+    @Scheduled(fixedDelayString = "${exchange.rates.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (SseEmitter emitter : emitters)
+            send(emitter, "heartbeat", "");
+    }
+
+    int subscriberCount() {
+        return emitters.size();
+    }
+
+    /**
+     * Parovi iz nove liste ciji kurs ne postoji u prethodnoj ili se razlikuje od njega.
+     */
+    static List<ExchangePairDTO> changes(ExchangeRateMatrix previous, ExchangeRateMatrix current) {
+        List<ExchangePairDTO> changes = new ArrayList<>();
+        for (CurrencyType base : CurrencyType.values()) {
+            for (CurrencyType target : CurrencyType.values()) {
+                if (!current.has(base, target))
+                    continue;
+                double rate = current.rate(base, target);
+                if (rate != previous.rate(base, target))
+                    changes.add(new ExchangePairDTO(base.name(), target.name(), rate, current.getDate()));
+            }
+        }
+        return changes;
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException e) {
+            log.debug("Klijent kursne liste je odjavljen: {}", e.getMessage());
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            // emitter je vec zavrsen (istekao ili zatvoren)
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -2,17 +2,22 @@ package com.banka1.banking.services;
 
 import com.banka1.banking.dto.CustomerDTO;
 import com.banka1.banking.dto.ExchangeMoneyTransferDTO;
+import com.banka1.banking.dto.ExchangePreviewDTO;
 import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.dto.exchange.ExchangePreviewBatch;
+import com.banka1.banking.dto.exchange.ExchangePreviewItem;
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.dto.exchange.ForeignExchangeResult;
 import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Currency;
-import com.banka1.banking.models.ExchangePair;
 import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.*;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
-import com.banka1.banking.repository.ExchangePairRepository;
 import com.banka1.banking.repository.TransferRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
 import com.banka1.banking.utils.ExcludeFromGeneratedJacocoReport;
+import com.banka1.banking.utils.Money;
 import com.banka1.common.listener.MessageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +25,8 @@ import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,9 +34,19 @@ import java.util.Optional;
 @Slf4j
 public class ExchangeService {
 
+    /**
+     * Provizija menjacnice, 1%.
+     */
+    private static final long EXCHANGE_FEE_BASIS_POINTS = 100L;
+
+    /**
+     * Najveci broj stavki u jednom zbirnom pregledu konverzija.
+     */
+    static final int MAX_PREVIEW_BATCH_SIZE = 1000;
+
     private final AccountRepository accountRepository;
 
-    private final CurrencyRepository currencyRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     private final TransferRepository transferRepository;
 
@@ -43,18 +60,24 @@ public class ExchangeService {
 
     private final OtpTokenService otpTokenService;
 
-    private final ExchangePairRepository exchangePairRepository;
+    private final ExchangeRateCache exchangeRateCache;
+
+    private final ExchangeQuoteService exchangeQuoteService;
+
+    private final SpendingLimitService spendingLimitService;
 
-    public ExchangeService(AccountRepository accountRepository, CurrencyRepository currencyRepository, TransferRepository transferRepository, JmsTemplate jmsTemplate, MessageHelper messageHelper, @Value("send-email") String destinationEmail, UserServiceCustomer userServiceCustomer, OtpTokenService otpTokenService, ExchangePairRepository exchangePairRepository) {
+    public ExchangeService(AccountRepository accountRepository, ReferenceDataRegistry referenceDataRegistry, TransferRepository transferRepository, JmsTemplate jmsTemplate, MessageHelper messageHelper, @Value("send-email") String destinationEmail, UserServiceCustomer userServiceCustomer, OtpTokenService otpTokenService, ExchangeRateCache exchangeRateCache, ExchangeQuoteService exchangeQuoteService, SpendingLimitService spendingLimitService) {
         this.accountRepository = accountRepository;
-        this.currencyRepository = currencyRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
         this.transferRepository = transferRepository;
         this.jmsTemplate = jmsTemplate;
         this.messageHelper = messageHelper;
         this.destinationEmail = destinationEmail;
         this.userServiceCustomer = userServiceCustomer;
         this.otpTokenService = otpTokenService;
-        this.exchangePairRepository = exchangePairRepository;
+        this.exchangeRateCache = exchangeRateCache;
+        this.exchangeQuoteService = exchangeQuoteService;
+        this.spendingLimitService = spendingLimitService;
     }
 
     public boolean validateExchangeTransfer(ExchangeMoneyTransferDTO exchangeMoneyTransferDTO){
@@ -81,6 +104,9 @@ public class ExchangeService {
         if(exchangeMoneyTransferDTO.getAmount() <= 0){
             return false;
         }
+        if (spendingLimitService.exceedsLimit(fromAccount, exchangeMoneyTransferDTO.getAmount())) {
+            return false;
+        }
         return fromAccount.getOwnerID().equals(toAccount.getOwnerID());
     }
 
@@ -95,11 +121,11 @@ public class ExchangeService {
             throw new IllegalArgumentException("Transfer je moguc samo između računa istog korisnika");
         }
 
-        Currency fromCurrency = currencyRepository.findByCode(fromAccount.getCurrencyType())
+        Currency fromCurrency = referenceDataRegistry.findCurrency(fromAccount.getCurrencyType())
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Greska" + fromAccount.getAccountNumber()));
 
-        Currency toCurrency = currencyRepository.findByCode(toAccount.getCurrencyType())
+        Currency toCurrency = referenceDataRegistry.findCurrency(toAccount.getCurrencyType())
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Greska" + toAccount.getAccountNumber()));
 
@@ -116,8 +142,26 @@ public class ExchangeService {
         transfer.setToCurrency(toCurrency);
         transfer.setCreatedAt(System.currentTimeMillis());
 
+        // ponuda se preuzima tek kada je sve ostalo provereno, neposredno pre cuvanja transfera
+        ExchangeQuote quote = exchangeMoneyTransferDTO.getQuoteId() != null
+                ? exchangeQuoteService.claim(exchangeMoneyTransferDTO.getQuoteId(), fromAccount.getId(), fromAccount.getCurrencyType(), toAccount.getCurrencyType(), exchangeMoneyTransferDTO.getAmount())
+                : null;
+        if (quote != null) {
+            // obracun iz ponude se cuva uz transfer i vazi dok transfer ceka OTP potvrdu
+            transfer.setQuoteId(quote.getId());
+            transfer.setQuotedExchange(quote.getPreview());
+        }
+
         try {
             transferRepository.saveAndFlush(transfer);
+        } catch (Exception e) {
+            // transfer nije sacuvan, pa ponuda ostaje na raspolaganju do isteka
+            if (quote != null)
+                exchangeQuoteService.release(quote);
+            throw new IllegalArgumentException("Failed to create exchange transfer", e);
+        }
+
+        try {
             String otpCode = otpTokenService.generateOtp(transfer.getId());
             transfer.setOtp(otpCode);
             transfer = transferRepository.save(transfer);
@@ -160,16 +204,55 @@ public class ExchangeService {
         }
     }
 
+    /**
+     * Racuna pregled konverzije i cuva ga kao ponudu koja se moze iskoristiti za transfer sa racuna
+     * {@code accountFrom} dok ne istekne.
+     */
+    public ExchangeQuote createQuote(Long accountFrom, String fromCurrency, String toCurrency, Long amount) {
+        ExchangeResult preview = calculatePreviewExchangeAutomatic(fromCurrency, toCurrency, amount);
+        return exchangeQuoteService.offer(accountFrom, parseCurrency(fromCurrency), parseCurrency(toCurrency), amount, preview);
+    }
+
     @ExcludeFromGeneratedJacocoReport("Wrapper method")
-    public Map<String, Object> calculatePreviewExchangeAutomatic(String fromCurrency, String toCurrency, Double amount) {
-        if(fromCurrency.equals("RSD") || toCurrency.equals("RSD")){
-            return calculatePreviewExchange(fromCurrency, toCurrency, amount);
+    public ExchangeResult calculatePreviewExchangeAutomatic(String fromCurrency, String toCurrency, Long amount) {
+        return calculate(parseCurrency(fromCurrency), parseCurrency(toCurrency), amount, exchangeRateCache.current());
+    }
+
+    /**
+     * Zbirni pregled konverzija, npr. za vrednovanje portfolija. Kursna lista se cita jednom, pa su sve stavke
+     * obracunate iz iste verzije, a stavka koja ne uspe ne prekida ostale vec nosi svoju poruku greske.
+     * Ponude ({@link #createQuote}) se ne prave, jer pregled sluzi samo za prikaz.
+     */
+    public ExchangePreviewBatch calculatePreviewBatch(List<ExchangePreviewDTO> requests) {
+        if (requests == null || requests.isEmpty())
+            throw new IllegalArgumentException("Lista konverzija je prazna.");
+        if (requests.size() > MAX_PREVIEW_BATCH_SIZE)
+            throw new IllegalArgumentException("Najvise " + MAX_PREVIEW_BATCH_SIZE + " konverzija po zahtevu.");
+
+        ExchangeRateMatrix rates = exchangeRateCache.current();
+        List<ExchangePreviewItem> items = new ArrayList<>(requests.size());
+        for (ExchangePreviewDTO request : requests) {
+            String from = request.getFromCurrency();
+            String to = request.getToCurrency();
+            Long amount = request.getAmount();
+            try {
+                if (from == null || to == null || amount == null || amount <= 0)
+                    throw new IllegalArgumentException("Nevalidni podaci za konverziju.");
+                items.add(new ExchangePreviewItem(from, to, amount, calculate(parseCurrency(from), parseCurrency(to), amount, rates), null));
+            } catch (RuntimeException e) {
+                items.add(new ExchangePreviewItem(from, to, amount, null, e.getMessage()));
             }
-        else
-            return calculatePreviewExchangeForeign(fromCurrency, toCurrency, amount);
+        }
+        return new ExchangePreviewBatch(rates.getVersion(), rates.getDate(), items);
+    }
+
+    private ExchangeResult calculate(CurrencyType from, CurrencyType to, long amount, ExchangeRateMatrix rates) {
+        if (from == CurrencyType.RSD || to == CurrencyType.RSD)
+            return calculateDirect(from, to, amount, rates);
+        return calculateForeign(from, to, amount, rates);
     }
 
-    public Map<String, Object> calculatePreviewExchange(String fromCurrency, String toCurrency, Double amount) {
+    public DirectExchangeResult calculatePreviewExchange(String fromCurrency, String toCurrency, Long amount) {
         boolean isToRSD = toCurrency.equalsIgnoreCase("RSD");
         boolean isFromRSD = fromCurrency.equalsIgnoreCase("RSD");
 
@@ -177,104 +260,76 @@ public class ExchangeService {
             throw new RuntimeException("Ova funkcija podržava samo konverzije između RSD i druge valute.");
         }
 
-        CurrencyType base = parseCurrency(isToRSD ? fromCurrency : "RSD");
-        CurrencyType target = parseCurrency(isToRSD ? "RSD" : toCurrency);
+        return calculateDirect(parseCurrency(fromCurrency), parseCurrency(toCurrency), amount, exchangeRateCache.current());
+    }
 
-        Optional<ExchangePair> exchangePairOpt = exchangePairRepository
-                .findByBaseCurrencyCodeAndTargetCurrencyCode(base, target);
+    private DirectExchangeResult calculateDirect(CurrencyType from, CurrencyType to, long amount, ExchangeRateMatrix rates) {
+        boolean isToRSD = to == CurrencyType.RSD;
+        boolean isFromRSD = from == CurrencyType.RSD;
 
-        double exchangeRate;
-        if (exchangePairOpt.isPresent()) {
-            exchangeRate = exchangePairOpt.get().getExchangeRate();
-        } else {
-            Optional<ExchangePair> reverseOpt = exchangePairRepository
-                    .findByBaseCurrencyCodeAndTargetCurrencyCode(target, base);
+        CurrencyType base = isToRSD ? from : CurrencyType.RSD;
+        CurrencyType target = isToRSD ? CurrencyType.RSD : to;
 
-            if (reverseOpt.isEmpty()) {
-                throw new RuntimeException("Kurs nije pronađen za traženu konverziju.");
-            }
-            exchangeRate = 1 / reverseOpt.get().getExchangeRate();
+        // matrica vec sadrzi obrnut kurs tamo gde direktnog nema
+        double exchangeRate = rates.rate(base, target);
+        if (Double.isNaN(exchangeRate)) {
+            throw new RuntimeException("Kurs nije pronađen za traženu konverziju.");
         }
 
-        double convertedAmount = amount * exchangeRate;
-        double fee = (fromCurrency.equalsIgnoreCase("RSD") && toCurrency.equalsIgnoreCase("RSD")) ? 0.0 : convertedAmount * 0.01;
-        double finalAmount = convertedAmount - fee;
+        long convertedAmount = Money.convert(amount, from, exchangeRate, to);
+        long fee = (isFromRSD && isToRSD) ? 0L : Money.percent(convertedAmount, EXCHANGE_FEE_BASIS_POINTS);
+        long finalAmount = Money.subtract(convertedAmount, fee);
 
-
-        if (fromCurrency.equalsIgnoreCase("RSD")) {
+        if (isFromRSD) {
             exchangeRate = 1 / exchangeRate;
         }
 
-        return Map.of(
-                "exchangeRate", exchangeRate,
-                "convertedAmount", convertedAmount,
-                "fee", fee,
-                "provision", fee,
-                "finalAmount", finalAmount
-        );
+        return new DirectExchangeResult(exchangeRate, convertedAmount, fee, finalAmount);
     }
 
 
-    public Map<String, Object> calculatePreviewExchangeForeign(String fromCurrency, String toCurrency, Double amount) {
-        log.warn("Ova funkcija ne radi kako treba");
+    public ForeignExchangeResult calculatePreviewExchangeForeign(String fromCurrency, String toCurrency, Long amount) {
         if (fromCurrency.equalsIgnoreCase("RSD") || toCurrency.equalsIgnoreCase("RSD")) {
             throw new RuntimeException("Ova metoda je samo za konverziju strane valute u stranu valutu.");
         }
-        CurrencyType from = parseCurrency(fromCurrency);
-        CurrencyType to = parseCurrency(toCurrency);
-        CurrencyType rsd = CurrencyType.RSD;
-
-        Optional<ExchangePair> firstExchangeOpt = exchangePairRepository
-                .findByBaseCurrencyCodeAndTargetCurrencyCode(from, rsd);
+        // oba kursa se citaju iz iste verzije kursne liste
+        return calculateForeign(parseCurrency(fromCurrency), parseCurrency(toCurrency), amount, exchangeRateCache.current());
+    }
 
-        double firstExchangeRate;
-        if (firstExchangeOpt.isPresent()) {
-            firstExchangeRate = firstExchangeOpt.get().getExchangeRate();
-        } else {
-            Optional<ExchangePair> reverseFirstOpt = exchangePairRepository
-                    .findByBaseCurrencyCodeAndTargetCurrencyCode(rsd, from);
+    private ForeignExchangeResult calculateForeign(CurrencyType from, CurrencyType to, long amount, ExchangeRateMatrix rates) {
+        CurrencyType rsd = CurrencyType.RSD;
 
-            if (reverseFirstOpt.isEmpty()) {
-                throw new RuntimeException("Kurs za " + fromCurrency + " prema RSD nije pronađen.");
-            }
-            firstExchangeRate = 1 / reverseFirstOpt.get().getExchangeRate();
+        double firstExchangeRate = rates.rate(from, rsd);
+        if (Double.isNaN(firstExchangeRate)) {
+            throw new RuntimeException("Kurs za " + from + " prema RSD nije pronađen.");
         }
 
-        double amountInRSD = amount * firstExchangeRate;
-        double firstFee = amountInRSD * 0.01;
-        double remainingRSD = amountInRSD - firstFee;
-
-        Optional<ExchangePair> secondExchangeOpt = exchangePairRepository
-                .findByBaseCurrencyCodeAndTargetCurrencyCode(rsd, to);
+        long amountInRSD = Money.convert(amount, from, firstExchangeRate, rsd);
+        long firstFee = Money.percent(amountInRSD, EXCHANGE_FEE_BASIS_POINTS);
+        long remainingRSD = Money.subtract(amountInRSD, firstFee);
 
-        double secondExchangeRate;
-        if (secondExchangeOpt.isPresent()) {
-            secondExchangeRate = secondExchangeOpt.get().getExchangeRate();
-        } else {
-            Optional<ExchangePair> reverseSecondOpt = exchangePairRepository
-                    .findByBaseCurrencyCodeAndTargetCurrencyCode(to, rsd);
-
-            if (reverseSecondOpt.isEmpty()) {
-                throw new RuntimeException("Kurs za RSD prema " + toCurrency + " nije pronađen.");
-            }
-            secondExchangeRate = 1 / reverseSecondOpt.get().getExchangeRate();
+        double secondExchangeRate = rates.rate(rsd, to);
+        if (Double.isNaN(secondExchangeRate)) {
+            throw new RuntimeException("Kurs za RSD prema " + to + " nije pronađen.");
         }
 
-        double amountInTargetCurrency = remainingRSD * secondExchangeRate;
-        double secondFee = amountInTargetCurrency * 0.01;
-        double finalAmount = amountInTargetCurrency - secondFee;
-        double totalFee = firstFee * secondExchangeRate + secondFee;
+        long amountInTargetCurrency = Money.convert(remainingRSD, rsd, secondExchangeRate, to);
+        long secondFee = Money.percent(amountInTargetCurrency, EXCHANGE_FEE_BASIS_POINTS);
+        long finalAmount = Money.subtract(amountInTargetCurrency, secondFee);
+        long totalFee = Money.add(Money.convert(firstFee, rsd, secondExchangeRate, to), secondFee);
 
         // Prikazujemo obrnut kurs za prikaz klijentu
         double displayedSecondExchangeRate = 1 / secondExchangeRate;
 
-        return Map.of(
-                "firstExchangeRate", firstExchangeRate,
-                "secondExchangeRate", displayedSecondExchangeRate,
-                "totalFee", totalFee,
-                "provision", totalFee,
-                "fee", totalFee,
-                "finalAmount", finalAmount
+        // medjuiznos u RSD i provizije po koracima su potrebni za knjizenje transfera po ovom obracunu
+        return new ForeignExchangeResult(
+                firstExchangeRate,
+                displayedSecondExchangeRate,
+                remainingRSD,
+                firstFee,
+                secondFee,
+                totalFee,
+                finalAmount
         );
     }
 
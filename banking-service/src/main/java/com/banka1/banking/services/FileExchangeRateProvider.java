@@ -0,0 +1,32 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Kursevi iz lokalnih fajlova {@code <direktorijum>/<baza>.json}, u istom formatu kao CDN.
+ * Za lokalni rad i testove bez pristupa internetu.
+ */
+@Service
+@ConditionalOnProperty(name = "exchange.rates.provider", havingValue = "file")
+public class FileExchangeRateProvider implements ExchangeRateProvider {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path directory;
+
+    public FileExchangeRateProvider(@Value("${exchange.rates.file.directory}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @Override
+    public Map<CurrencyType, Double> fetchRates(CurrencyType baseCurrency) throws Exception {
+        Path file = directory.resolve(baseCurrency.name().toLowerCase() + ".json");
+        return ExchangeRateProvider.parse(baseCurrency, objectMapper.readTree(file.toFile()));
+    }
+}
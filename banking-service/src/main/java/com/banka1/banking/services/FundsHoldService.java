@@ -0,0 +1,184 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.FundsHold;
+import com.banka1.banking.models.helper.HoldStatus;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.FundsHoldRepository;
+import com.banka1.banking.utils.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Rezervacije sredstava nad {@link Account#getReservedBalance()}.
+ * <p>
+ * Tok je place -> capture ili release, a rezervacije koje niko ne zavrsi isticu
+ * ({@link #expireHolds()}) posle {@code holds.ttl-ms}. Rezervacije koje zavrsava druga banka
+ * ({@link #placeUntilResolved}) ne isticu. Raspolozivo stanje je uvek
+ * {@code balance - reservedBalance}, pa je provera konstantne slozenosti po racunu.
+ * <p>
+ * Kod capture i release se prvo zakljucava rezervacija, pa racun (videti {@link AccountLockService}).
+ * <p>
+ * Rezervacija moze u istoj transakciji da knjizi i limit potrosnje ({@link SpendingLimitService}): update potrosnje
+ * zakljucava isti red racuna, pa ne sme da ide u transakciji pozivaoca dok rezervacija ceka na taj red.
+ */
+@Slf4j
+@Service
+public class FundsHoldService {
+
+    private final FundsHoldRepository fundsHoldRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLockService accountLockService;
+    private final SpendingLimitService spendingLimitService;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMs;
+
+    public FundsHoldService(FundsHoldRepository fundsHoldRepository, AccountRepository accountRepository, AccountLockService accountLockService, SpendingLimitService spendingLimitService, PlatformTransactionManager transactionManager, @Value("${holds.ttl-ms:3600000}") long ttlMs) {
+        this.fundsHoldRepository = fundsHoldRepository;
+        this.accountRepository = accountRepository;
+        this.accountLockService = accountLockService;
+        this.spendingLimitService = spendingLimitService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMs = ttlMs;
+    }
+
+    public static long availableBalance(Account account) {
+        return Money.subtract(account.getBalance(), reserved(account));
+    }
+
+    /**
+     * Rezervise sredstva. Izvrsava se u zasebnoj transakciji, tako da se zakljucavanje racuna
+     * otpusta odmah, a ne tek kada pozivalac zavrsi (npr. posle poziva druge banke).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public FundsHold place(Account account, long amount, String reference) {
+        return place(account, amount, reference, ttlMs);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public FundsHold place(Account account, long amount, String reference, long ttlMs) {
+        return doPlace(account, amount, reference, System.currentTimeMillis() + ttlMs, false);
+    }
+
+    /**
+     * Rezervacija bez isteka, za pripremu interbank transfera: ostaje aktivna dok je commit druge banke
+     * ne skine ili rollback ne ponisti, koliko god to trajalo. Sweeper je ne dira, jer bi commit posle
+     * isteka vise nije mogao da naplati.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public FundsHold placeUntilResolved(Account account, long amount, String reference) {
+        return placeUntilResolved(account, amount, reference, false);
+    }
+
+    /**
+     * Kao {@link #placeUntilResolved(Account, long, String)}, a sa {@code consumeLimit} iznos se u istoj transakciji,
+     * posle zakljucavanja racuna, knjizi i na limit potrosnje. Ako bi limit bio prekoracen, baca
+     * {@link IllegalStateException} i rezervacija se ne pravi.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public FundsHold placeUntilResolved(Account account, long amount, String reference, boolean consumeLimit) {
+        return doPlace(account, amount, reference, null, consumeLimit);
+    }
+
+    private FundsHold doPlace(Account account, long amount, String reference, Long expiresAt, boolean consumeLimit) {
+        if (amount <= 0)
+            throw new IllegalArgumentException("Iznos rezervacije mora biti pozitivan");
+
+        Account locked = accountLockService.lock(account).get(0);
+        if (availableBalance(locked) < amount)
+            throw new RuntimeException("Nedovoljno raspoloživih sredstava za rezervaciju");
+        if (consumeLimit)
+            spendingLimitService.consume(locked, amount);
+
+        locked.setReservedBalance(Money.add(reserved(locked), amount));
+        accountRepository.save(locked);
+
+        FundsHold hold = new FundsHold();
+        hold.setAccount(locked);
+        hold.setAmount(amount);
+        hold.setReference(reference);
+        hold.setStatus(HoldStatus.ACTIVE);
+        hold.setCreatedAt(System.currentTimeMillis());
+        hold.setExpiresAt(expiresAt);
+        return fundsHoldRepository.save(hold);
+    }
+
+    /**
+     * Skida rezervisana sredstva sa racuna. Izvrsava se u transakciji pozivaoca.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public FundsHold capture(String reference) {
+        FundsHold hold = lockActive(reference);
+        Account account = hold.getAccount();
+
+        account.setReservedBalance(Money.subtract(reserved(account), hold.getAmount()));
+        account.setBalance(Money.subtract(account.getBalance(), hold.getAmount()));
+        accountRepository.save(account);
+
+        return resolve(hold, HoldStatus.CAPTURED);
+    }
+
+    /**
+     * Ponistava rezervaciju. Izvrsava se u zasebnoj transakciji, jer se koristi i kao kompenzacija
+     * kada transakcija pozivaoca ne uspe. Rezervacija koja vise nije aktivna se preskace.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String reference) {
+        release(reference, HoldStatus.RELEASED);
+    }
+
+    /**
+     * Ponistava istekle rezervacije. Svaka rezervacija se obradjuje u zasebnoj transakciji,
+     * da sweeper nikad ne drzi vise racuna zakljucano istovremeno.
+     */
+    @Scheduled(fixedRateString = "${holds.expiry-interval-ms:30000}")
+    public void expireHolds() {
+        List<FundsHold> expired = fundsHoldRepository.findTop500ByStatusAndExpiresAtLessThanOrderByIdAsc(HoldStatus.ACTIVE, System.currentTimeMillis());
+        for (FundsHold hold : expired) {
+            transactionTemplate.executeWithoutResult(status -> release(hold.getReference(), HoldStatus.EXPIRED));
+        }
+
+        if (!expired.isEmpty())
+            log.info("Isteklo {} rezervacija sredstava", expired.size());
+    }
+
+    private FundsHold lockActive(String reference) {
+        FundsHold hold = fundsHoldRepository.findByReferenceForUpdate(reference)
+                .orElseThrow(() -> new RuntimeException("Rezervacija " + reference + " nije pronađena"));
+        if (hold.getStatus() != HoldStatus.ACTIVE)
+            throw new RuntimeException("Rezervacija " + reference + " nije aktivna (" + hold.getStatus() + ")");
+
+        accountLockService.lock(hold.getAccount());
+        return hold;
+    }
+
+    private void release(String reference, HoldStatus status) {
+        FundsHold hold = fundsHoldRepository.findByReferenceForUpdate(reference).orElse(null);
+        if (hold == null || hold.getStatus() != HoldStatus.ACTIVE)
+            return;
+
+        Account account = hold.getAccount();
+        accountLockService.lock(account);
+        account.setReservedBalance(Money.subtract(reserved(account), hold.getAmount()));
+        accountRepository.save(account);
+        resolve(hold, status);
+    }
+
+    private FundsHold resolve(FundsHold hold, HoldStatus status) {
+        hold.setStatus(status);
+        hold.setResolvedAt(System.currentTimeMillis());
+        return fundsHoldRepository.save(hold);
+    }
+
+    private static long reserved(Account account) {
+        return account.getReservedBalance() != null ? account.getReservedBalance() : 0L;
+    }
+}
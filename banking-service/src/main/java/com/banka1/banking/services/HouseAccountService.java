@@ -0,0 +1,169 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.HouseAccountShard;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.HouseAccountShardRepository;
+import com.banka1.banking.utils.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Racuni banke (tip {@link AccountType#BANK}) su deljeni izmedju svih menjackih, poreskih, berzanskih
+ * i kreditnih tokova, pa bi svako knjizenje inace cekalo na isti red u tabeli {@code account}.
+ * <p>
+ * Zato se uplate i isplate sa racuna banke knjize kao atomski inkrement na jedan od N shardova
+ * ({@link HouseAccountShard}), izabran hesiranjem niti koja knjizi. Isplata skida sa sharda samo ako
+ * on ima dovoljno sredstava, pa shard nikad ne ide u minus. Ukupno stanje racuna banke je
+ * {@code account.balance} + zbir shardova, a {@link #rebalance()} periodicno prebacuje stanje
+ * shardova nazad na sam racun.
+ */
+@Slf4j
+@Service
+public class HouseAccountService {
+
+    private final HouseAccountShardRepository shardRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLockService accountLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int shardCount;
+
+    public HouseAccountService(HouseAccountShardRepository shardRepository, AccountRepository accountRepository, AccountLockService accountLockService, PlatformTransactionManager transactionManager, @Value("${bank.house-account.shards:8}") int shardCount) {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("Broj shardova mora biti pozitivan");
+
+        this.shardRepository = shardRepository;
+        this.accountRepository = accountRepository;
+        this.accountLockService = accountLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardCount = shardCount;
+    }
+
+    public static boolean isHouseAccount(Account account) {
+        return account != null && account.getType() == AccountType.BANK;
+    }
+
+    /**
+     * Uplata na racun banke.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Account houseAccount, long amount) {
+        post(houseAccount, amount);
+    }
+
+    /**
+     * Isplata sa racuna banke. Iznos se skida uslovnim update-om sa sharda niti, pa sa ostalih shardova.
+     * Ako nijedan shard nema dovoljno, shardovi se pod lock-om prebacuju na racun i isplata ide sa racuna.
+     *
+     * @throws IllegalStateException ako racun banke ni ukupno nema dovoljno sredstava
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void debit(Account houseAccount, long amount) {
+        requireHouseAccount(houseAccount);
+
+        int home = shardFor(Thread.currentThread().getId());
+        for (int offset = 0; offset < shardCount; offset++) {
+            if (shardRepository.debitShard(houseAccount.getId(), (home + offset) % shardCount, amount) > 0)
+                return;
+        }
+
+        Account account = fold(houseAccount);
+        if (account.getBalance() < amount)
+            throw new IllegalStateException("Nedovoljno sredstava na računu banke " + account.getAccountNumber());
+
+        account.setBalance(Money.subtract(account.getBalance(), amount));
+        accountRepository.save(account);
+    }
+
+    /**
+     * Ukupno stanje racuna banke, zajedno sa stanjem koje jos nije prebaceno sa shardova.
+     */
+    public long getTotalBalance(Account houseAccount) {
+        Long sharded = shardRepository.sumBalanceByAccountId(houseAccount.getId());
+        return Money.add(houseAccount.getBalance(), sharded != null ? sharded : 0L);
+    }
+
+    int shardFor(long routingKey) {
+        // Fibonacci hesiranje, da bi uzastopni ID-jevi niti zavrsili na razlicitim shardovima
+        return Math.floorMod(Long.hashCode(routingKey * 0x9E3779B97F4A7C15L), shardCount);
+    }
+
+    private static void requireHouseAccount(Account account) {
+        if (!isHouseAccount(account))
+            throw new IllegalArgumentException("Račun " + account.getAccountNumber() + " nije račun banke");
+    }
+
+    private void post(Account houseAccount, long delta) {
+        requireHouseAccount(houseAccount);
+
+        int shard = shardFor(Thread.currentThread().getId());
+        if (shardRepository.addToShard(houseAccount.getId(), shard, delta) > 0)
+            return;
+
+        // Shard jos nije kreiran (npr. povecan broj shardova), knjizimo direktno na racun
+        log.warn("Shard {} za racun {} ne postoji, knjizi se direktno na racun", shard, houseAccount.getId());
+        Account account = accountLockService.lock(houseAccount).get(0);
+        account.setBalance(Money.add(account.getBalance(), delta));
+        accountRepository.save(account);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createShards() {
+        for (Account account : accountRepository.findAllByType(AccountType.BANK)) {
+            for (int index = 0; index < shardCount; index++) {
+                if (!shardRepository.existsByAccountIdAndShardIndex(account.getId(), index))
+                    shardRepository.save(new HouseAccountShard(null, account, index, 0L));
+            }
+        }
+    }
+
+    /**
+     * Prebacuje stanje svih shardova na racun banke. Svaki racun se obradjuje u zasebnoj transakciji,
+     * tako da se shardovi jednog racuna nikad ne drze zakljucani dok se ceka na drugi racun.
+     */
+    @Scheduled(fixedRateString = "${bank.house-account.rebalance-interval-ms:60000}")
+    public void rebalance() {
+        for (Account account : accountRepository.findAllByType(AccountType.BANK)) {
+            transactionTemplate.executeWithoutResult(status -> fold(account));
+        }
+    }
+
+    /**
+     * Zakljucava racun banke pa njegove shardove (istim redosledom kao svaki drugi tok) i prebacuje
+     * stanje shardova na racun. Racun se zakljucava kroz {@link AccountLockService#lock}, koji ucitan
+     * racun osvezava iz baze, pa se shardovi ne dodaju na zastarelo stanje.
+     *
+     * @return zakljucan racun sa ukupnim stanjem
+     */
+    private Account fold(Account houseAccount) {
+        Long accountId = houseAccount.getId();
+        Account account = accountLockService.lock(houseAccount).get(0);
+        List<HouseAccountShard> shards = shardRepository.findAllForUpdate(accountId);
+
+        long folded = 0L;
+        for (HouseAccountShard shard : shards) {
+            folded = Money.add(folded, shard.getBalance());
+            shard.setBalance(0L);
+        }
+        if (folded == 0L)
+            return account;
+
+        account.setBalance(Money.add(account.getBalance(), folded));
+        accountRepository.save(account);
+        shardRepository.saveAll(shards);
+        log.debug("Racun banke {}: prebaceno {} sa {} shardova", accountId, folded, shards.size());
+        return account;
+    }
+}
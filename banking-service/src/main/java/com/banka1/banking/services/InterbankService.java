@@ -21,9 +21,9 @@ import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.models.helper.IdempotenceKey;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.services.requests.RequestBuilder;
 import com.banka1.banking.services.requests.RequestService;
+import com.banka1.banking.utils.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,17 +48,17 @@ public class InterbankService implements InterbankOperationService {
     private final ObjectMapper objectMapper;
     private final TransferService transferService;
     private final AccountRepository accountRepository;
-    private final CurrencyRepository currencyRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
     private final InterbankConfig config;
     private final RequestService requestService;
 
-    public InterbankService(EventService eventService, EventExecutorService eventExecutorService, ObjectMapper objectMapper, @Lazy TransferService transferService, AccountRepository accountRepository, CurrencyRepository currencyRepository, InterbankConfig config, RequestService requestService) {
+    public InterbankService(EventService eventService, EventExecutorService eventExecutorService, ObjectMapper objectMapper, @Lazy TransferService transferService, AccountRepository accountRepository, ReferenceDataRegistry referenceDataRegistry, InterbankConfig config, RequestService requestService) {
         this.eventService = eventService;
         this.eventExecutorService = eventExecutorService;
         this.objectMapper = objectMapper;
         this.transferService = transferService;
         this.accountRepository = accountRepository;
-        this.currencyRepository = currencyRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
         this.config = config;
         this.requestService = requestService;
     }
@@ -123,7 +123,7 @@ public class InterbankService implements InterbankOperationService {
                                 config.getRoutingNumber(),
                                 transfer.getFromAccountId().getAccountNumber()
                         ), ""),
-                        -transfer.getAmount(),
+                        -Money.toMajor(transfer.getAmount(), transfer.getFromCurrency().getCode()),
                         new MonetaryAssetDTO(
                                 new CurrencyAsset(transfer.getToCurrency().getCode().toString())
                         )
@@ -133,7 +133,7 @@ public class InterbankService implements InterbankOperationService {
                                 config.getForeignBankRoutingNumber(),
                                 transfer.getNote()
                         ), ""),
-                        transfer.getAmount(),
+                        Money.toMajor(transfer.getAmount(), transfer.getFromCurrency().getCode()),
                         new MonetaryAssetDTO(
                                 new CurrencyAsset(transfer.getFromCurrency().getCode().toString())
                         )
@@ -261,7 +261,7 @@ public class InterbankService implements InterbankOperationService {
                     MonetaryAssetDTO asset = (MonetaryAssetDTO) posting.getAsset();
                     if (asset.getAsset() instanceof CurrencyAsset) {
                         CurrencyType currencyType = CurrencyType.fromString(((CurrencyAsset) asset.getAsset()).getCurrency());
-                        Optional<Currency> currencyOpt = currencyRepository.findByCode(currencyType);
+                        Optional<Currency> currencyOpt = referenceDataRegistry.findCurrency(currencyType);
                         if (currencyOpt.isPresent()) {
                             localCurrency = currencyOpt.get();
                         } else {
@@ -284,7 +284,7 @@ public class InterbankService implements InterbankOperationService {
 
         Transfer transfer = transferService.receiveForeignBankTransfer(
                 localAccount.getAccountNumber(),
-                amount,
+                Money.toMinor(amount, localCurrency.getCode()),
                 originalMessage.getMessage(),
                 "Banka 4",
                 localCurrency
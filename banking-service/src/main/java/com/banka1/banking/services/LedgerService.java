@@ -0,0 +1,257 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.LedgerBalanceEntryDTO;
+import com.banka1.banking.models.*;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.PostingDirection;
+import com.banka1.banking.repository.AccountBalanceProjectionRepository;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.LedgerCheckpointRepository;
+import com.banka1.banking.repository.LedgerPostingRepository;
+import com.banka1.banking.utils.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Dnevnik knjizenja (double-entry).
+ * <p>
+ * Svaka sacuvana {@link Transaction} se u istoj bazi transakciji upisuje kao uravnotezeno knjizenje
+ * u {@code ledger_posting} (videti {@link TransactionJournalListener}), osim zbirnog reda transfera sa konverzijom
+ * ({@link Transaction#isSummary()}), jer su njegovi iznosi vec proknjizeni kroz redove pojedinacnih koraka. Stavke se samo dodaju i upisuju
+ * se zajedno, neposredno pre commit-a. Projektor zatim asinhrono sabira nove stavke u
+ * {@link AccountBalanceProjection}, a istorija stanja racuna moze u svakom trenutku da se ponovo
+ * izracuna iz dnevnika ({@link #replay(Long)}).
+ * <p>
+ * Dnevnik je zapis za reviziju i uskladjivanje: provere raspolozivog stanja i dalje citaju {@link Account#getBalance()}.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+
+    static final String PROJECTOR = "account-balance-projector";
+
+    private final LedgerPostingRepository postingRepository;
+    private final AccountBalanceProjectionRepository projectionRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final AccountRepository accountRepository;
+    private final long projectionLagMs;
+
+    public LedgerService(LedgerPostingRepository postingRepository, AccountBalanceProjectionRepository projectionRepository, LedgerCheckpointRepository checkpointRepository, AccountRepository accountRepository, @Value("${ledger.projection.lag-ms:5000}") long projectionLagMs) {
+        this.postingRepository = postingRepository;
+        this.projectionRepository = projectionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountRepository = accountRepository;
+        this.projectionLagMs = projectionLagMs;
+    }
+
+    /**
+     * Dodaje transakciju u knjizenja tekuce baza transakcije. Stavke se upisuju u jednom batch-u pre commit-a,
+     * a ako se transakcija ponisti, nista se ne upisuje.
+     * <p>
+     * Bafer je sinhronizacija same transakcije, pa ga {@code REQUIRES_NEW} suspenduje zajedno sa spoljnom
+     * transakcijom: unutrasnja transakcija upisuje samo svoje stavke, pri svom commit-u.
+     */
+    public void journal(Transaction transaction) {
+        if (transaction.isSummary())
+            return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(transaction));
+            return;
+        }
+
+        PendingPostings pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingPostings current) {
+                pending = current;
+                break;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingPostings();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.transactions.add(transaction);
+    }
+
+    private final class PendingPostings implements TransactionSynchronization {
+
+        private final List<Transaction> transactions = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            append(transactions);
+            transactions.clear();
+        }
+    }
+
+    public void append(Collection<Transaction> transactions) {
+        if (transactions.isEmpty())
+            return;
+
+        List<LedgerPosting> postings = new ArrayList<>();
+        for (Transaction transaction : transactions)
+            postings.addAll(postingsFor(transaction));
+
+        postingRepository.saveAll(postings);
+    }
+
+    /**
+     * Pravi stavke za jednu transakciju. Kada se valuta ili iznos razlikuju na dve strane (menjacnica),
+     * razlika se za svaku valutu zatvara preko kliringa, tako da je knjizenje uravnotezeno po valutama.
+     */
+    List<LedgerPosting> postingsFor(Transaction transaction) {
+        String entryId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        Account from = transaction.getFromAccountId();
+        Account to = transaction.getToAccountId();
+        CurrencyType transactionCurrency = transaction.getCurrency() != null ? transaction.getCurrency().getCode() : null;
+        CurrencyType fromCurrency = from != null ? from.getCurrencyType() : transactionCurrency;
+        CurrencyType toCurrency = to != null ? to.getCurrencyType() : transactionCurrency;
+
+        long amount = transaction.getAmount();
+        long finalAmount = transaction.getFinalAmount() != null ? transaction.getFinalAmount() : amount;
+
+        List<LedgerPosting> postings = new ArrayList<>(4);
+        postings.add(posting(entryId, now, transaction, from, PostingDirection.DEBIT, amount, fromCurrency));
+        if (fromCurrency != toCurrency || amount != finalAmount) {
+            postings.add(posting(entryId, now, transaction, null, PostingDirection.CREDIT, amount, fromCurrency));
+            postings.add(posting(entryId, now, transaction, null, PostingDirection.DEBIT, finalAmount, toCurrency));
+        }
+        postings.add(posting(entryId, now, transaction, to, PostingDirection.CREDIT, finalAmount, toCurrency));
+        return postings;
+    }
+
+    private LedgerPosting posting(String entryId, long createdAt, Transaction transaction, Account account, PostingDirection direction, long amount, CurrencyType currencyType) {
+        LedgerPosting posting = new LedgerPosting();
+        posting.setEntryId(entryId);
+        posting.setCreatedAt(createdAt);
+        posting.setTransaction(transaction);
+        posting.setAccount(account);
+        posting.setDirection(direction);
+        posting.setAmount(amount);
+        posting.setCurrencyType(currencyType);
+        return posting;
+    }
+
+    /**
+     * Pocetno stanje za racune koji jos nemaju nijednu stavku, da bi projekcija krenula od stvarnog stanja.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void openAccounts() {
+        long now = System.currentTimeMillis();
+        List<LedgerPosting> postings = new ArrayList<>();
+        for (Account account : accountRepository.findAll()) {
+            if (account.getBalance() == null || account.getBalance() == 0 || postingRepository.existsByAccountId(account.getId()))
+                continue;
+
+            String entryId = UUID.randomUUID().toString();
+            postings.add(posting(entryId, now, null, null, PostingDirection.DEBIT, account.getBalance(), account.getCurrencyType()));
+            postings.add(posting(entryId, now, null, account, PostingDirection.CREDIT, account.getBalance(), account.getCurrencyType()));
+        }
+        postingRepository.saveAll(postings);
+    }
+
+    /**
+     * Sabira nove stavke u projekcije stanja. Stavke mladje od {@code ledger.projection.lag-ms} se preskacu,
+     * jer transakcija sa manjim ID-jem moze jos uvek da ne bude commit-ovana.
+     */
+    @Scheduled(fixedDelayString = "${ledger.projection.interval-ms:1000}")
+    @Transactional
+    public void project() {
+        LedgerCheckpoint checkpoint = checkpointRepository.findForUpdate(PROJECTOR)
+                .orElseGet(() -> new LedgerCheckpoint(PROJECTOR, 0L));
+
+        long cutoff = System.currentTimeMillis() - projectionLagMs;
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Long> lastIds = new HashMap<>();
+        long lastPostingId = checkpoint.getLastPostingId();
+
+        for (LedgerPosting posting : postingRepository.findTop1000ByIdGreaterThanOrderByIdAsc(lastPostingId)) {
+            if (posting.getCreatedAt() > cutoff)
+                break;
+
+            lastPostingId = posting.getId();
+            if (posting.getAccount() == null)
+                continue;
+
+            Long accountId = posting.getAccount().getId();
+            deltas.merge(accountId, posting.signedAmount(), Math::addExact);
+            lastIds.put(accountId, posting.getId());
+        }
+
+        if (lastPostingId == checkpoint.getLastPostingId())
+            return;
+
+        long now = System.currentTimeMillis();
+        List<AccountBalanceProjection> projections = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            AccountBalanceProjection projection = projectionRepository.findById(delta.getKey())
+                    .orElseGet(() -> new AccountBalanceProjection(delta.getKey(), 0L, 0L, now));
+            projection.setBalance(Money.add(projection.getBalance(), delta.getValue()));
+            projection.setLastPostingId(lastIds.get(delta.getKey()));
+            projection.setUpdatedAt(now);
+            projections.add(projection);
+        }
+        projectionRepository.saveAll(projections);
+
+        checkpoint.setLastPostingId(lastPostingId);
+        checkpointRepository.save(checkpoint);
+        log.debug("Projektovano do stavke {} za {} racuna", lastPostingId, projections.size());
+    }
+
+    /**
+     * Stanje iz projekcije, dopunjeno stavkama koje projektor jos nije obradio.
+     */
+    public long getProjectedBalance(Long accountId) {
+        long projected = projectionRepository.findById(accountId)
+                .map(AccountBalanceProjection::getBalance)
+                .orElse(0L);
+        long checkpoint = checkpointRepository.findById(PROJECTOR)
+                .map(LedgerCheckpoint::getLastPostingId)
+                .orElse(0L);
+        Long unprojected = postingRepository.sumSignedAmountAfter(accountId, checkpoint);
+        return Money.add(projected, unprojected != null ? unprojected : 0L);
+    }
+
+    /**
+     * Raspolozivo stanje: projektovano stanje umanjeno za rezervisana sredstva.
+     */
+    public long getProjectedAvailableBalance(Account account) {
+        long reserved = account.getReservedBalance() != null ? account.getReservedBalance() : 0L;
+        return Money.subtract(getProjectedBalance(account.getId()), reserved);
+    }
+
+    /**
+     * Ponovo izracunava istoriju stanja racuna iz dnevnika, stavku po stavku.
+     */
+    public List<LedgerBalanceEntryDTO> replay(Long accountId) {
+        List<LedgerBalanceEntryDTO> history = new ArrayList<>();
+        long balance = 0L;
+        for (LedgerPosting posting : postingRepository.findAllByAccountIdOrderByIdAsc(accountId)) {
+            balance = Money.add(balance, posting.signedAmount());
+            history.add(new LedgerBalanceEntryDTO(
+                    posting.getId(),
+                    posting.getEntryId(),
+                    posting.getTransaction() != null ? posting.getTransaction().getId() : null,
+                    posting.getDirection(),
+                    posting.getAmount(),
+                    posting.getCurrencyType(),
+                    balance,
+                    posting.getCreatedAt()
+            ));
+        }
+        return history;
+    }
+}
@@ -9,6 +9,7 @@ import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Installment;
 import com.banka1.banking.models.Loan;
 import com.banka1.banking.models.RateChange;
+import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.models.helper.InterestType;
 import com.banka1.banking.models.helper.LoanType;
 import com.banka1.banking.models.helper.PaymentStatus;
@@ -16,6 +17,7 @@ import com.banka1.banking.repository.AccountRepository;
 import com.banka1.banking.repository.InstallmentsRepository;
 import com.banka1.banking.repository.LoanRepository;
 import com.banka1.banking.repository.RateChangeRepository;
+import com.banka1.banking.utils.Money;
 import com.banka1.common.listener.MessageHelper;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -169,11 +171,12 @@ public class LoanService {
     }
 
     public void calculateRemaining(Loan loan) {
-        loan.setRemainingAmount((loan.getNumberOfInstallments() - loan.getNumberOfPaidInstallments()) * loan.getMonthlyPayment());
+        loan.setRemainingAmount(Math.multiplyExact((long) (loan.getNumberOfInstallments() - loan.getNumberOfPaidInstallments()), loan.getMonthlyPayment()));
     }
 
     public Loan updateLoanRate(Loan loan, boolean save) {
-        var rate = calculateFixedRate(loan.getLoanAmount());
+        // pragovi fiksne stope su u celim jedinicama valute
+        var rate = calculateFixedRate(Money.toMajor(loan.getLoanAmount(), loan.getCurrencyType()));
         if (loan.getInterestType() == InterestType.VARIABLE)
             rate += getRateChange();
         rate += calculateMargin(loan.getLoanType()) + loan.getPenalty();
@@ -228,11 +231,11 @@ public class LoanService {
             String emailMessage;
             if (loanUpdateDTO.getApproved()) {
                 loan.setPaymentStatus(PaymentStatus.APPROVED);
-                emailMessage = "Vaš zahtev za kredit u iznosu " + loan.getLoanAmount() +
+                emailMessage = "Vaš zahtev za kredit u iznosu " + Money.toMajor(loan.getLoanAmount(), loan.getCurrencyType()) +
                               " " + loan.getCurrencyType() + " je odobren.";
             } else {
                 loan.setPaymentStatus(PaymentStatus.DENIED);
-                emailMessage = "Vaš zahtev za kredit u iznosu " + loan.getLoanAmount() +
+                emailMessage = "Vaš zahtev za kredit u iznosu " + Money.toMajor(loan.getLoanAmount(), loan.getCurrencyType()) +
                               " " + loan.getCurrencyType() + " je odbijen.";
 
                 // Store rejection reason if provided
@@ -268,17 +271,7 @@ public class LoanService {
                         null
                 );
 
-                if (!transferService.validateMoneyTransfer(transferDTO)) {
-                    log.error("Kreiran nevalidan transfer tokom isplate kredita");
-                    throw new RuntimeException("Interna greska: kreirani transfer nije bio validan.");
-                }
-
-                var transfer = transferService.createMoneyTransferEntity(
-                        bankAccount,
-                        acc,
-                        transferDTO);
-
-                transferService.processExternalTransfer(transfer.getId());
+                transferService.settleSystemTransfer(bankAccount, acc, transferDTO);
 
                 createNextInstallment(loan, 0);
 
@@ -400,7 +393,7 @@ public class LoanService {
                 installment.setRetryDate(LocalDate.now().plusDays(3));
 
                 if (installment.getAttemptCount() >= 2) {
-                    if (installment.getAmount() >= 100000) {
+                    if (installment.getAmount() >= Money.toMinor(100000, installment.getCurrencyType())) {
                         installment.setLawsuit(true);
 
                         NotificationDTO emailDTO = new NotificationDTO();
@@ -447,12 +440,7 @@ public class LoanService {
                     null
             );
 
-            if (!transferService.validateMoneyTransfer(transferDTO))
-                throw new RuntimeException("Kreiran nevalidan transfer");
-
-            var transfer = transferService.createMoneyTransferEntity(customerAccount, bankAccount, transferDTO);
-
-            transferService.processExternalTransfer(transfer.getId());
+            var transfer = transferService.settleSystemTransfer(customerAccount, bankAccount, transferDTO);
 
             installment.setTransaction(transactionService.findByTransfer(transfer));
 
@@ -461,12 +449,19 @@ public class LoanService {
         return false;
     }
 
-    public double calculateInstallment(double loanAmount, double monthlyInterestRate, int numberOfInstallments) {
+    /**
+     * Mesecna rata u najmanjim jedinicama valute kredita, zaokruzena HALF_EVEN.
+     */
+    public long calculateInstallment(long loanAmount, double monthlyInterestRate, int numberOfInstallments) {
+        return (long) Math.rint(installment(loanAmount, monthlyInterestRate, numberOfInstallments));
+    }
+
+    private static double installment(long loanAmount, double monthlyInterestRate, int numberOfInstallments) {
         monthlyInterestRate = monthlyInterestRate / 100;  // Kamatna stopa kao decimalni broj
 
         // Ako je mesečna kamatna stopa 0 (kredit bez kamate)
         if (monthlyInterestRate == 0) {
-            return loanAmount / numberOfInstallments; // Ako nema kamate, rata je samo podeljeni iznos kredita
+            return (double) loanAmount / numberOfInstallments; // Ako nema kamate, rata je samo podeljeni iznos kredita
         }
 
         // Izračunavanje mesečne rate koristeći formulu
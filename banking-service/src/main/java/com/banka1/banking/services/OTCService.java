@@ -9,6 +9,7 @@ import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.TransferStatus;
 import com.banka1.banking.repository.*;
 import com.banka1.banking.models.OTCTransaction;
+import com.banka1.banking.utils.Money;
 import com.banka1.common.listener.MessageHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +20,6 @@ import org.springframework.jms.JmsException;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -29,7 +29,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
-@Transactional(isolation = Isolation.SERIALIZABLE)
+@Transactional
 @Slf4j
 @RequiredArgsConstructor
 public class OTCService {
@@ -44,7 +44,8 @@ public class OTCService {
     private final TransactionRepository transactionRepository;
     private final TransferRepository transferRepository;
     private final UserServiceCustomer userServiceCustomer;
-    private final CurrencyRepository currencyRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final AccountLockService accountLockService;
 
     private void sendFailureMessage(String uid, String message) throws JmsException {
         jmsTemplate.convertAndSend(destinationOtcAck, messageHelper.createTextMessage(new OTCTransactionACKDTO(
@@ -84,11 +85,13 @@ public class OTCService {
         if(transaction == null)
             return;
 
+        accountLockService.lock(transaction.getSellerAccount(), transaction.getBuyerAccount());
+
         if(transaction.getAmountGiven() > 0)
-            transaction.getSellerAccount().setBalance(transaction.getSellerAccount().getBalance() - transaction.getAmountGiven());
+            transaction.getSellerAccount().setBalance(Money.subtract(transaction.getSellerAccount().getBalance(), transaction.getAmountGiven()));
 
         if(transaction.getAmountTaken() > 0)
-            transaction.getBuyerAccount().setBalance(transaction.getBuyerAccount().getBalance() + transaction.getAmountTaken());
+            transaction.getBuyerAccount().setBalance(Money.add(transaction.getBuyerAccount().getBalance(), transaction.getAmountTaken()));
 
         accountRepository.save(transaction.getSellerAccount());
         accountRepository.save(transaction.getBuyerAccount());
@@ -106,6 +109,8 @@ public class OTCService {
             if(transaction.getFailed())
                 return;
 
+            accountLockService.lock(transaction.getBuyerAccount(), transaction.getSellerAccount());
+
             if(transaction.getFinished()) {
                 log.info("Finishing transaction " + uid);
 
@@ -136,8 +141,8 @@ public class OTCService {
 
                 bankTransaction.setBankOnly(false);
                 bankTransaction.setFinalAmount(transaction.getAmount());
-                bankTransaction.setFee(0.0);
-                bankTransaction.setCurrency(currencyRepository.getByCode(fromAccount.getCurrencyType()));
+                bankTransaction.setFee(0L);
+                bankTransaction.setCurrency(referenceDataRegistry.getCurrency(fromAccount.getCurrencyType()));
                 bankTransaction.setAmount(transaction.getAmount());
                 bankTransaction.setDescription("OTC transakcija");
                 bankTransaction.setTimestamp(Instant.now().toEpochMilli());
@@ -168,7 +173,7 @@ public class OTCService {
             } else if(transaction.getAmountTaken() > 0) {
                 log.info("Transfer funds for " + uid);
 
-                transaction.getSellerAccount().setBalance(transaction.getSellerAccount().getBalance() + transaction.getAmount());
+                transaction.getSellerAccount().setBalance(Money.add(transaction.getSellerAccount().getBalance(), transaction.getAmount()));
                 transaction.setAmountGiven(transaction.getAmount());
 
                 accountRepository.save(transaction.getSellerAccount());
@@ -177,10 +182,10 @@ public class OTCService {
             } else {
                 log.info("Reserve funds for " + uid);
 
-                if(transaction.getBuyerAccount().getBalance() < transaction.getAmount())
+                if(FundsHoldService.availableBalance(transaction.getBuyerAccount()) < transaction.getAmount())
                     throw new Exception("Insufficient funds");
 
-                transaction.getBuyerAccount().setBalance(transaction.getBuyerAccount().getBalance() - transaction.getAmount());
+                transaction.getBuyerAccount().setBalance(Money.subtract(transaction.getBuyerAccount().getBalance(), transaction.getAmount()));
                 transaction.setAmountTaken(transaction.getAmount());
 
                 accountRepository.save(transaction.getBuyerAccount());
@@ -200,10 +205,11 @@ public class OTCService {
         try {
             OTCTransaction transaction = new OTCTransaction();
 
-            transaction.setAmount(amount);
             transaction.setUid(uid);
             transaction.setBuyerAccount(accountRepository.findById(buyerAccountId).orElseThrow());
             transaction.setSellerAccount(accountRepository.findById(sellerAccountId).orElseThrow());
+            // trading servis salje decimalni iznos
+            transaction.setAmount(Money.toMinor(amount, transaction.getBuyerAccount().getCurrencyType()));
 
             otcTransactionRepository.saveAndFlush(transaction);
 
@@ -215,19 +221,22 @@ public class OTCService {
         }
     }
 
-    public void payPremium(Long fromAccountId, Long toAccountId, Double amount) {
+    public void payPremium(Long fromAccountId, Long toAccountId, Double premium) {
         try {
             Account fromAccount = accountRepository.findById(fromAccountId).orElseThrow();
             Account toAccount = accountRepository.findById(toAccountId).orElseThrow();
+            accountLockService.lock(fromAccount, toAccount);
 
             if(fromAccount.getCurrencyType() != toAccount.getCurrencyType())
                 throw new Exception("Currency type mismatch");
 
-            if(fromAccount.getBalance() < amount)
+            long amount = Money.toMinor(premium, fromAccount.getCurrencyType());
+
+            if(FundsHoldService.availableBalance(fromAccount) < amount)
                 throw new Exception("Insufficient funds");
 
-            fromAccount.setBalance(fromAccount.getBalance() - amount);
-            toAccount.setBalance(toAccount.getBalance() + amount);
+            fromAccount.setBalance(Money.subtract(fromAccount.getBalance(), amount));
+            toAccount.setBalance(Money.add(toAccount.getBalance(), amount));
 
             MoneyTransferDTO dto = new MoneyTransferDTO();
             CustomerDTO customer = userServiceCustomer.getCustomerById(toAccount.getOwnerID());
@@ -253,8 +262,8 @@ public class OTCService {
 
             bankTransaction.setBankOnly(false);
             bankTransaction.setFinalAmount(amount);
-            bankTransaction.setFee(0.0);
-            bankTransaction.setCurrency(currencyRepository.getByCode(fromAccount.getCurrencyType()));
+            bankTransaction.setFee(0L);
+            bankTransaction.setCurrency(referenceDataRegistry.getCurrency(fromAccount.getCurrencyType()));
             bankTransaction.setAmount(amount);
             bankTransaction.setDescription("Premija za OTC transakciju");
             bankTransaction.setTimestamp(Instant.now().toEpochMilli());
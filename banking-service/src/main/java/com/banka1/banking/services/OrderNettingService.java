@@ -0,0 +1,392 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.OrderTransactionInitiationDTO;
+import com.banka1.banking.models.*;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.OrderFillStatus;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
+import com.banka1.banking.repository.*;
+import com.banka1.banking.utils.Money;
+import com.banka1.common.listener.MessageHelper;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Queue;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.command.ActiveMQDestination;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Neto poravnanje izvrsenja naloga iz trading servisa.
+ * <p>
+ * Umesto da se svako izvrsenje knjizi odmah ({@link OrderService#processOrderTransaction}), izvrsenje se
+ * upisuje u {@code order_fill}, a na svakih {@code orders.settlement.netting.window-ms} se sva izvrsenja
+ * na cekanju poravnavaju u jednoj transakciji: saldiraju se po paru racuna i valuti i za svaku neto poziciju
+ * se knjizi jedan transfer. Odgovor na JMS reply-to se salje po izvrsenju, tek posle commit-a.
+ * <p>
+ * Reply-to i ID korelacije se cuvaju uz izvrsenje, pa odgovor salje cvor koji ga je poravnao, bez obzira
+ * na to koji ga je cvor primio. Ako cvor padne izmedju commit-a i slanja, odgovor izostaje, kao i ranije.
+ * <p>
+ * Pokrice se proverava za ceo prozor: racun kupca mora da pokrije svoju neto promenu, a ako ne moze,
+ * odbijaju se sve njegove kupovine u tom prozoru ("Insufficient funds") i neto pozicije se racunaju ponovo.
+ */
+@Slf4j
+@Service
+public class OrderNettingService {
+
+    private static final String SETTLED_REPLY = "null";
+
+    private final OrderFillRepository orderFillRepository;
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final TransactionRepository transactionRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final SpendingLimitService spendingLimitService;
+    private final AccountLockService accountLockService;
+    private final HouseAccountService houseAccountService;
+    private final JmsTemplate jmsTemplate;
+    private final MessageHelper messageHelper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public OrderNettingService(OrderFillRepository orderFillRepository, AccountRepository accountRepository, TransferRepository transferRepository, TransactionRepository transactionRepository, ReferenceDataRegistry referenceDataRegistry, SpendingLimitService spendingLimitService, AccountLockService accountLockService, HouseAccountService houseAccountService, JmsTemplate jmsTemplate, MessageHelper messageHelper, PlatformTransactionManager transactionManager, @Value("${orders.settlement.netting.enabled:false}") boolean enabled, @Value("${orders.settlement.netting.batch-size:1000}") int batchSize) {
+        this.orderFillRepository = orderFillRepository;
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.transactionRepository = transactionRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.spendingLimitService = spendingLimitService;
+        this.accountLockService = accountLockService;
+        this.houseAccountService = houseAccountService;
+        this.jmsTemplate = jmsTemplate;
+        this.messageHelper = messageHelper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Upisuje izvrsenje za sledece poravnanje. Ponovljena poruka (isti {@code uid}) se ne upisuje drugi put:
+     * ako je izvrsenje vec obradjeno, odgovor se salje odmah, a inace se njen reply-to upisuje uz izvrsenje
+     * i odgovor ide kada se poravna.
+     */
+    public void submit(OrderTransactionInitiationDTO dto, Destination replyTo, String correlationId) throws JMSException {
+        String replyAddress = replyAddress(replyTo);
+        if (dto.getUid() != null) {
+            Optional<OrderFill> existing = orderFillRepository.findByUid(dto.getUid());
+            if (existing.isPresent()) {
+                Long id = existing.get().getId();
+                Integer updated = transactionTemplate.execute(status -> orderFillRepository.updatePendingReplyTo(id, replyAddress, correlationId));
+                if (updated == null || updated == 0) {
+                    // vec poravnato, mozda bas dok je poruka stizala
+                    OrderFill fill = orderFillRepository.findById(id).orElse(existing.get());
+                    reply(fill, replyAddress, correlationId);
+                }
+                return;
+            }
+        }
+
+        if (dto.getBuyerAccountId() == null || dto.getSellerAccountId() == null || dto.getAmount() == null || dto.getAmount() <= 0)
+            throw new IllegalArgumentException("Nevalidno izvršenje naloga");
+
+        OrderFill fill = new OrderFill();
+        fill.setUid(dto.getUid());
+        fill.setBuyerAccountId(dto.getBuyerAccountId());
+        fill.setSellerAccountId(dto.getSellerAccountId());
+        // trading servis salje decimalni iznos u valuti racuna kupca
+        CurrencyType currencyType = accountRepository.findById(dto.getBuyerAccountId()).map(Account::getCurrencyType).orElse(null);
+        fill.setCurrencyType(currencyType);
+        fill.setAmount(Money.toMinor(dto.getAmount(), currencyType));
+        fill.setStatus(OrderFillStatus.PENDING);
+        fill.setReceivedAt(System.currentTimeMillis());
+        fill.setReplyTo(replyAddress);
+        fill.setCorrelationId(correlationId);
+        orderFillRepository.save(fill);
+    }
+
+    /**
+     * Poravnava izvrsenja na cekanju, u delovima od {@code orders.settlement.netting.batch-size}.
+     */
+    @Scheduled(fixedDelayString = "${orders.settlement.netting.window-ms:200}")
+    public void settlePending() {
+        if (!enabled)
+            return;
+
+        List<OrderFill> processed;
+        do {
+            processed = transactionTemplate.execute(status -> settleBatch());
+            if (processed == null)
+                return;
+
+            for (OrderFill fill : processed) {
+                reply(fill, fill.getReplyTo(), fill.getCorrelationId());
+            }
+        } while (processed.size() == batchSize);
+    }
+
+    private List<OrderFill> settleBatch() {
+        List<OrderFill> fills = orderFillRepository.lockPending(batchSize);
+        if (fills.isEmpty())
+            return fills;
+
+        Set<Long> accountIds = new HashSet<>();
+        for (OrderFill fill : fills) {
+            accountIds.add(fill.getBuyerAccountId());
+            accountIds.add(fill.getSellerAccountId());
+        }
+
+        Map<Long, Account> accounts = new HashMap<>();
+        List<Account> customerAccounts = new ArrayList<>();
+        for (Account account : accountRepository.findAllById(accountIds)) {
+            accounts.put(account.getId(), account);
+            if (!HouseAccountService.isHouseAccount(account))
+                customerAccounts.add(account);
+        }
+
+        long now = System.currentTimeMillis();
+        List<OrderFill> accepted = new ArrayList<>();
+        for (OrderFill fill : fills) {
+            String error = validate(fill, accounts);
+            if (error != null) {
+                reject(fill, error, now);
+            } else {
+                fill.setCurrencyType(accounts.get(fill.getBuyerAccountId()).getCurrencyType());
+                accepted.add(fill);
+            }
+        }
+
+        accountLockService.lock(customerAccounts);
+        rejectUncovered(accepted, accounts, now);
+
+        Map<String, Position> positions = new LinkedHashMap<>();
+        for (OrderFill fill : accepted) {
+            Account buyer = accounts.get(fill.getBuyerAccountId());
+            Account seller = accounts.get(fill.getSellerAccountId());
+            boolean buyerIsLow = buyer.getId() < seller.getId();
+            Account low = buyerIsLow ? buyer : seller;
+            Account high = buyerIsLow ? seller : buyer;
+
+            Position position = positions.computeIfAbsent(low.getId() + ":" + high.getId() + ":" + fill.getCurrencyType(),
+                    key -> new Position(low, high, fill.getCurrencyType()));
+            long amount = fill.getAmount();
+            position.net = buyerIsLow ? Money.add(position.net, amount) : Money.subtract(position.net, amount);
+            position.fills.add(fill);
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        List<Transaction> transactions = new ArrayList<>();
+        for (Position position : positions.values()) {
+            Transfer settlement = null;
+            if (position.net != 0) {
+                Account payer = position.net > 0 ? position.low : position.high;
+                Account payee = position.net > 0 ? position.high : position.low;
+                long amount = Math.abs(position.net);
+                Currency currency = referenceDataRegistry.getCurrency(position.currencyType);
+
+                debit(payer, amount);
+                credit(payee, amount);
+
+                settlement = createSettlement(payer, payee, amount, currency, position.fills.size(), now);
+                transfers.add(settlement);
+                transactions.add(createTransaction(payer, payee, amount, currency, settlement));
+            }
+
+            for (OrderFill fill : position.fills) {
+                fill.setStatus(OrderFillStatus.SETTLED);
+                fill.setSettlement(settlement);
+                fill.setSettledAt(now);
+            }
+        }
+
+        transferRepository.saveAll(transfers);
+        transactionRepository.saveAll(transactions);
+        accountRepository.saveAll(customerAccounts);
+        orderFillRepository.saveAll(fills);
+
+        log.info("Neto poravnanje: {} izvršenja, {} pozicija, {} transfera", fills.size(), positions.size(), transfers.size());
+        return fills;
+    }
+
+    private static String validate(OrderFill fill, Map<Long, Account> accounts) {
+        Account buyer = accounts.get(fill.getBuyerAccountId());
+        Account seller = accounts.get(fill.getSellerAccountId());
+        if (buyer == null || seller == null)
+            return "Račun nije pronađen";
+        if (buyer.getId().equals(seller.getId()))
+            return "Kupac i prodavac su isti račun";
+        if (buyer.getCurrencyType() != seller.getCurrencyType())
+            return "Računi kupca i prodavca nisu u istoj valuti";
+        return null;
+    }
+
+    /**
+     * Odbija kupovine racuna koji ne mogu da pokriju svoju neto promenu u prozoru, ili kojima bi zbir kupovina
+     * prekoracio limit potrosnje, dok svi ne budu pokriveni. Zbir kupovina je gornja granica onoga sto se
+     * racunu skida po pozicijama. Svaki prolaz odbija bar jednu kupovinu, pa se petlja uvek zavrsava.
+     */
+    private void rejectUncovered(List<OrderFill> accepted, Map<Long, Account> accounts, long now) {
+        while (true) {
+            Map<Long, Long> netChange = new HashMap<>();
+            Map<Long, Long> purchases = new HashMap<>();
+            for (OrderFill fill : accepted) {
+                long amount = fill.getAmount();
+                netChange.merge(fill.getBuyerAccountId(), -amount, Math::addExact);
+                netChange.merge(fill.getSellerAccountId(), amount, Math::addExact);
+                purchases.merge(fill.getBuyerAccountId(), amount, Math::addExact);
+            }
+
+            Map<Long, String> uncovered = new HashMap<>();
+            netChange.forEach((accountId, change) -> {
+                Account account = accounts.get(accountId);
+                if (change < 0 && Money.add(balanceOf(account), change) < 0)
+                    uncovered.put(accountId, "Insufficient funds");
+            });
+            purchases.forEach((accountId, amount) -> {
+                Account account = accounts.get(accountId);
+                if (!uncovered.containsKey(accountId) && spendingLimitService.exceedsLimit(account, amount))
+                    uncovered.put(accountId, "Prekoračen limit potrošnje računa " + account.getAccountNumber());
+            });
+            if (uncovered.isEmpty())
+                return;
+
+            accepted.removeIf(fill -> {
+                String error = uncovered.get(fill.getBuyerAccountId());
+                if (error == null)
+                    return false;
+                reject(fill, error, now);
+                return true;
+            });
+        }
+    }
+
+    private static void reject(OrderFill fill, String error, long now) {
+        fill.setStatus(OrderFillStatus.REJECTED);
+        fill.setError(error);
+        fill.setSettledAt(now);
+    }
+
+    private long balanceOf(Account account) {
+        if (HouseAccountService.isHouseAccount(account))
+            return houseAccountService.getTotalBalance(account);
+        return FundsHoldService.availableBalance(account);
+    }
+
+    private void credit(Account account, long amount) {
+        if (HouseAccountService.isHouseAccount(account))
+            houseAccountService.credit(account, amount);
+        else
+            account.setBalance(Money.add(account.getBalance(), amount));
+    }
+
+    private void debit(Account account, long amount) {
+        if (HouseAccountService.isHouseAccount(account)) {
+            houseAccountService.debit(account, amount);
+        } else {
+            spendingLimitService.consume(account, amount);
+            account.setBalance(Money.subtract(account.getBalance(), amount));
+        }
+    }
+
+    private Transfer createSettlement(Account payer, Account payee, long amount, Currency currency, int fillCount, long now) {
+        Transfer transfer = new Transfer();
+        transfer.setFromAccountId(payer);
+        transfer.setToAccountId(payee);
+        transfer.setAmount(amount);
+        transfer.setReceiver("Order Execution Transfer");
+        transfer.setAdress("N/A");
+        transfer.setStatus(TransferStatus.COMPLETED);
+        transfer.setType(TransferType.EXTERNAL);
+        transfer.setFromCurrency(currency);
+        transfer.setToCurrency(currency);
+        transfer.setPaymentCode("999");
+        transfer.setPaymentReference("Auto");
+        transfer.setPaymentDescription("Neto poravnanje " + fillCount + " izvršenja naloga");
+        transfer.setCreatedAt(now);
+        transfer.setCompletedAt(now);
+        return transfer;
+    }
+
+    private Transaction createTransaction(Account payer, Account payee, long amount, Currency currency, Transfer transfer) {
+        Transaction transaction = new Transaction();
+        transaction.setFromAccountId(payer);
+        transaction.setToAccountId(payee);
+        transaction.setAmount(amount);
+        transaction.setFinalAmount(amount);
+        transaction.setFee(0L);
+        transaction.setCurrency(currency);
+        transaction.setBankOnly(false);
+        transaction.setTimestamp(System.currentTimeMillis());
+        LocalDateTime now = LocalDateTime.now();
+        String date = now.toLocalDate().toString();
+        date = date.substring(8, 10) + "-" + date.substring(5, 7) + "-" + date.substring(0, 4);
+        transaction.setDate(date);
+        transaction.setTime(now.toLocalTime().toString().substring(0, 5));
+        transaction.setDescription("Order Execution Transfer");
+        transaction.setTransfer(transfer);
+        return transaction;
+    }
+
+    private void reply(OrderFill fill, String replyAddress, String correlationId) {
+        if (replyAddress == null)
+            return;
+        String body = fill.getStatus() == OrderFillStatus.SETTLED ? SETTLED_REPLY : fill.getError();
+        try {
+            jmsTemplate.convertAndSend(replyDestination(replyAddress), messageHelper.createTextMessage(body), message -> {
+                if (correlationId != null)
+                    message.setJMSCorrelationID(correlationId);
+                return message;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Odgovor za izvršenje {} nije poslat: {}", fill.getUid(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reply-to kao tekst koji svaki cvor moze da pretvori nazad u odrediste ({@code queue://...},
+     * {@code temp-queue://...}), ukljucujuci privremene redove posiljaoca.
+     */
+    static String replyAddress(Destination destination) throws JMSException {
+        if (destination == null)
+            return null;
+        if (destination instanceof ActiveMQDestination activeMqDestination)
+            return activeMqDestination.getQualifiedName();
+        if (destination instanceof Queue queue)
+            return ActiveMQDestination.QUEUE_QUALIFIED_PREFIX + queue.getQueueName();
+        throw new IllegalArgumentException("Nepodržan reply-to: " + destination);
+    }
+
+    static Destination replyDestination(String replyAddress) {
+        return ActiveMQDestination.createDestination(replyAddress, ActiveMQDestination.QUEUE_TYPE);
+    }
+
+    /**
+     * Neto pozicija izmedju dva racuna u jednoj valuti. {@code net > 0} znaci da racun sa manjim ID-jem placa.
+     */
+    private static final class Position {
+        private final Account low;
+        private final Account high;
+        private final CurrencyType currencyType;
+        private final List<OrderFill> fills = new ArrayList<>();
+        private long net;
+
+        private Position(Account low, Account high, CurrencyType currencyType) {
+            this.low = low;
+            this.high = high;
+            this.currencyType = currencyType;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.banka1.banking.models.Transaction;
 import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.TransferStatus;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.services.implementation.AuthService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import com.banka1.banking.repository.TransactionRepository;
+import com.banka1.banking.utils.Money;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -32,9 +32,16 @@ public class OrderService {
     private final TransferService transferService;
     private final TransactionRepository transactionRepository;
     private final CurrencyService currencyService;
-    private final CurrencyRepository currencyRepository;
-
-    @Transactional
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final AccountLockService accountLockService;
+    private final HouseAccountService houseAccountService;
+    private final SpendingLimitService spendingLimitService;
+
+    /**
+     * Nalozi se knjize kao sistemski transferi ({@link TransferService#settleSystemTransfer}),
+     * a iznos i provizija u jednoj transakciji. Trading servis salje decimalne iznose u valuti racuna.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Double executeOrder(String direction, Long userId, Long accountId, Double amount, Double fee) {
         Account account = accountService.findById(accountId);
         Account bankAccount = bankAccountUtils.getBankAccountForCurrency(account.getCurrencyType());
@@ -43,64 +50,71 @@ public class OrderService {
             throw new RuntimeException("Korisnik nije vlasnik računa");
         }
 
-        if (direction.equalsIgnoreCase("buy") && account.getBalance() < amount + (fee != null ? fee : 0)) {
+        long price = Money.toMinor(amount, account.getCurrencyType());
+        long commission = fee != null ? Money.toMinor(fee, account.getCurrencyType()) : 0L;
+        long total = Money.add(price, commission);
+
+        long balance = HouseAccountService.isHouseAccount(account) ? houseAccountService.getTotalBalance(account) : FundsHoldService.availableBalance(account);
+        if (direction.equalsIgnoreCase("buy") && balance < total) {
             throw new IllegalArgumentException("Nedovoljno sredstava na računu za iznos + proviziju");
         }
 
         boolean sameAccount = Objects.equals(account.getId(), bankAccount.getId());
 
         if (sameAccount) {
+            // Banka trguje za sebe, knjizi se na shard racuna banke
             if (direction.equalsIgnoreCase("buy")) {
-                account.setBalance(account.getBalance() - amount - (fee != null ? fee : 0));
+                houseAccountService.debit(account, total);
             } else if (direction.equalsIgnoreCase("sell")) {
-                account.setBalance(account.getBalance() + amount);
+                houseAccountService.credit(account, price);
             } else {
                 throw new IllegalArgumentException("Nepoznata direkcija");
             }
-            accountRepository.save(account);
 
         } else {
             if (direction.equalsIgnoreCase("buy")) {
+                spendingLimitService.consume(account, total);
+
                 // Napravi transfer za kupovinu
                 MoneyTransferDTO transferDto = new MoneyTransferDTO();
                 transferDto.setFromAccountNumber(account.getAccountNumber());
                 transferDto.setRecipientAccount(bankAccount.getAccountNumber());
-                transferDto.setAmount(amount);
+                transferDto.setAmount(price);
                 transferDto.setReceiver("Order Execution");
                 transferDto.setAdress("System");
                 transferDto.setPayementCode("999");
                 transferDto.setPayementReference("Auto");
                 transferDto.setPayementDescription("Realizacija kupovine hartije");
 
-                transferService.createMoneyTransfer(transferDto);
+                transferService.settleSystemTransfer(account, bankAccount, transferDto);
 
                 // Napravi dodatni transfer za fee ako postoji
-                if (fee != null && fee > 0) {
+                if (commission > 0) {
                     MoneyTransferDTO feeTransferDto = new MoneyTransferDTO();
                     feeTransferDto.setFromAccountNumber(account.getAccountNumber());
                     feeTransferDto.setRecipientAccount(bankAccount.getAccountNumber());
-                    feeTransferDto.setAmount(fee);
+                    feeTransferDto.setAmount(commission);
                     feeTransferDto.setReceiver("Bank Fee");
                     feeTransferDto.setAdress("System");
                     feeTransferDto.setPayementCode("999");
                     feeTransferDto.setPayementReference("Fee");
                     feeTransferDto.setPayementDescription("Provizija za realizaciju naloga");
 
-                    transferService.createMoneyTransfer(feeTransferDto);
+                    transferService.settleSystemTransfer(account, bankAccount, feeTransferDto);
                 }
             } else if (direction.equalsIgnoreCase("sell")) {
                 // Za prodaju: novac ide od banke ka korisniku
                 MoneyTransferDTO transferDto = new MoneyTransferDTO();
                 transferDto.setFromAccountNumber(bankAccount.getAccountNumber());
                 transferDto.setRecipientAccount(account.getAccountNumber());
-                transferDto.setAmount(amount);
+                transferDto.setAmount(price);
                 transferDto.setReceiver("Order Execution - Sell");
                 transferDto.setAdress("System");
                 transferDto.setPayementCode("999");
                 transferDto.setPayementReference("Auto");
                 transferDto.setPayementDescription("Realizacija prodaje hartije");
 
-                transferService.createMoneyTransfer(transferDto);
+                transferService.settleSystemTransfer(bankAccount, account, transferDto);
             } else {
                 throw new IllegalArgumentException("Nepoznata direkcija");
             }
@@ -109,7 +123,7 @@ public class OrderService {
         return amount;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void processOrderTransaction(OrderTransactionInitiationDTO dto) {
         System.out.println("=== POČINJE processOrderTransaction ===");
         System.out.println("Buyer ID: " + dto.getBuyerAccountId());
@@ -118,16 +132,17 @@ public class OrderService {
 
         Account buyer = accountRepository.findById(dto.getBuyerAccountId()).orElseThrow();
         Account seller = accountRepository.findById(dto.getSellerAccountId()).orElseThrow();
+        accountLockService.lock(buyer, seller);
 
         System.out.println("Buyer Account found: " + buyer.getAccountNumber());
         System.out.println("Seller Account found: " + seller.getAccountNumber());
 
-        double buyerAmount = dto.getAmount();
-        double sellerAmount = dto.getAmount();
+        long buyerAmount = Money.toMinor(dto.getAmount(), buyer.getCurrencyType());
+        long sellerAmount = buyerAmount;
 
         System.out.println("Buyer current balance: " + buyer.getBalance());
         System.out.println("Buyer required amount: " + buyerAmount);
-        if (buyer.getBalance() < buyerAmount) {
+        if (FundsHoldService.availableBalance(buyer) < buyerAmount) {
             System.out.println("Greska: Insufficient funds kod buyer-a!");
             throw new IllegalArgumentException("Insufficient funds");
         }
@@ -136,8 +151,8 @@ public class OrderService {
         System.out.println("Pre transfera - Seller balance: " + seller.getBalance());
 
         // Skidanje i dodavanje
-        buyer.setBalance(buyer.getBalance() - buyerAmount);
-        seller.setBalance(seller.getBalance() + sellerAmount);
+        buyer.setBalance(Money.subtract(buyer.getBalance(), buyerAmount));
+        seller.setBalance(Money.add(seller.getBalance(), sellerAmount));
 
         accountRepository.save(buyer);
         accountRepository.save(seller);
@@ -149,22 +164,22 @@ public class OrderService {
         MoneyTransferDTO moneyTransferDTO = new MoneyTransferDTO();
         moneyTransferDTO.setFromAccountNumber(buyer.getAccountNumber());
         moneyTransferDTO.setRecipientAccount(seller.getAccountNumber());
-        moneyTransferDTO.setAmount(dto.getAmount());
+        moneyTransferDTO.setAmount(buyerAmount);
         moneyTransferDTO.setReceiver("Order Execution Transfer");
         moneyTransferDTO.setAdress("N/A");
         moneyTransferDTO.setPayementCode("999");
         moneyTransferDTO.setPayementReference("Auto");
         moneyTransferDTO.setPayementDescription("Transfer initiated via Orders");
 
-        Transfer transfer = transferService.createMoneyTransferEntity(buyer, seller, moneyTransferDTO);
+        Transfer transfer = transferService.createSystemTransferEntity(buyer, seller, moneyTransferDTO);
         transfer.setStatus(TransferStatus.COMPLETED);
 
         // Kreiraj transakciju
         Transaction transaction = new Transaction();
-        transaction.setAmount(dto.getAmount());
-        transaction.setFinalAmount(dto.getAmount());
-        transaction.setFee(0.0);
-        transaction.setCurrency(currencyRepository.getByCode(buyer.getCurrencyType())); // Transakcija je u USD
+        transaction.setAmount(buyerAmount);
+        transaction.setFinalAmount(buyerAmount);
+        transaction.setFee(0L);
+        transaction.setCurrency(referenceDataRegistry.getCurrency(buyer.getCurrencyType())); // Transakcija je u USD
         transaction.setDescription("Order Execution Transfer");
         transaction.setTimestamp(Instant.now().toEpochMilli());
         transaction.setFromAccountId(buyer);
@@ -0,0 +1,112 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.CurrencyRepository;
+import com.banka1.common.model.BusinessActivityCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Staticki podaci koji se citaju pri svakom transferu: valute, racuni banke i drzave po valuti i sifre delatnosti.
+ * <p>
+ * Podaci se ucitavaju jednom (pri pokretanju ili pri prvom pristupu) u nepromenljive {@link EnumMap}-e i zamenjuju
+ * se celi pri osvezavanju, pa je svako citanje jedan pristup nizu bez upita ka bazi. Lista se osvezava periodicno
+ * ({@code reference-data.refresh-interval-ms}) i odmah kada trazeni racun banke ili drzave ne postoji,
+ * npr. kada je racun za novu valutu dodat posle pokretanja.
+ */
+@Service
+@Slf4j
+public class ReferenceDataRegistry {
+
+    private record Snapshot(Map<CurrencyType, Currency> currencies,
+                            Map<CurrencyType, Long> bankAccountIds,
+                            Map<CurrencyType, Long> countryAccountIds) {
+    }
+
+    private static final List<String> BUSINESS_ACTIVITY_CODES = Arrays.stream(BusinessActivityCode.values())
+            .map(activity -> String.format("%s -> %s", activity.getCode(), activity.getDescription()))
+            .toList();
+
+    private final CurrencyRepository currencyRepository;
+    private final AccountRepository accountRepository;
+
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataRegistry(CurrencyRepository currencyRepository, AccountRepository accountRepository) {
+        this.currencyRepository = currencyRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reference-data.refresh-interval-ms:600000}", initialDelayString = "${reference-data.refresh-interval-ms:600000}")
+    public synchronized void refresh() {
+        Map<CurrencyType, Currency> currencies = new EnumMap<>(CurrencyType.class);
+        for (Currency currency : currencyRepository.findAll())
+            currencies.put(currency.getCode(), currency);
+
+        snapshot = new Snapshot(
+                Collections.unmodifiableMap(currencies),
+                accountIds(AccountType.BANK),
+                accountIds(AccountType.COUNTRY)
+        );
+        log.debug("Ucitani referentni podaci: {} valuta", currencies.size());
+    }
+
+    private Map<CurrencyType, Long> accountIds(AccountType type) {
+        Map<CurrencyType, Long> ids = new EnumMap<>(CurrencyType.class);
+        for (Account account : accountRepository.findAllByType(type))
+            ids.putIfAbsent(account.getCurrencyType(), account.getId());
+        return Collections.unmodifiableMap(ids);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null)
+                    refresh();
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    public Optional<Currency> findCurrency(CurrencyType code) {
+        return Optional.ofNullable(snapshot().currencies().get(code));
+    }
+
+    public Currency getCurrency(CurrencyType code) {
+        return findCurrency(code).orElseThrow(() -> new IllegalArgumentException("Valuta " + code + " ne postoji"));
+    }
+
+    public Optional<Long> findBankAccountId(CurrencyType currencyType) {
+        return findAccountId(currencyType, Snapshot::bankAccountIds);
+    }
+
+    public Optional<Long> findCountryAccountId(CurrencyType currencyType) {
+        return findAccountId(currencyType, Snapshot::countryAccountIds);
+    }
+
+    private Optional<Long> findAccountId(CurrencyType currencyType, Function<Snapshot, Map<CurrencyType, Long>> ids) {
+        Long id = ids.apply(snapshot()).get(currencyType);
+        if (id == null) {
+            refresh();
+            id = ids.apply(snapshot()).get(currencyType);
+        }
+        return Optional.ofNullable(id);
+    }
+
+    public List<String> getBusinessActivityCodes() {
+        return BUSINESS_ACTIVITY_CODES;
+    }
+}
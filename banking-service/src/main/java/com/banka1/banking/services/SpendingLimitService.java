@@ -0,0 +1,115 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.utils.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Dnevni i mesecni limit potrosnje racuna ({@link Account#getDailyLimit()}, {@link Account#getMonthlyLimit()}).
+ * Limit {@code 0} ili {@code null} znaci da limita nema, a racuni banke nemaju limit.
+ * <p>
+ * Potrosnja se knjizi jednim uslovnim update-om reda racuna ({@link AccountRepository#addSpent}), u transakciji
+ * isplate: inkrement i provera limita su u istoj naredbi, pa instance servisa ne mogu da pregaze jedna drugoj
+ * potrosnju, a ako se isplata ponisti, ponistava se i potrosnja. Kolone potrosnje su zato {@code updatable = false}
+ * na {@link Account}.
+ * <p>
+ * Red zna dan na koji se potrosnja odnosi ({@code spentDate}), pa se dnevna potrosnja prazni prvom isplatom novog
+ * dana, a mesecna prvom isplatom novog meseca, i kada {@link #resetPeriods()} kasni.
+ */
+@Slf4j
+@Service
+public class SpendingLimitService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SpendingLimitService(AccountRepository accountRepository, PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Provera pri validaciji transfera: da li bi isplata iznosa prekoracila dnevni ili mesecni limit racuna.
+     * Cita samo ucitan red racuna, bez upita; konacna provera je u {@link #consume(Account, long)}.
+     */
+    public boolean exceedsLimit(Account account, long amount) {
+        return exceedsLimit(account, amount, LocalDate.now());
+    }
+
+    boolean exceedsLimit(Account account, long amount, LocalDate today) {
+        return hasLimit(account) && violation(account, amount, today) != null;
+    }
+
+    /**
+     * Knjizi isplatu na potrosnju racuna, u transakciji pozivaoca, ili baca {@link IllegalStateException}
+     * ako bi isplata prekoracila limit.
+     */
+    public void consume(Account account, long amount) {
+        consume(account, amount, LocalDate.now());
+    }
+
+    void consume(Account account, long amount, LocalDate today) {
+        if (!hasLimit(account))
+            return;
+
+        if (accountRepository.addSpent(account.getId(), amount, today, today.withDayOfMonth(1)) == 0) {
+            String violation = violation(account, amount, today);
+            throw new IllegalStateException(violation != null ? violation : "Prekoračen limit računa " + account.getAccountNumber());
+        }
+
+        // kolone nisu updatable, pa ovo samo uskladjuje ucitan red sa bazom
+        account.setDailySpent(Money.add(dailySpent(account, today), amount));
+        account.setMonthlySpent(Money.add(monthlySpent(account, today), amount));
+        account.setSpentDate(today);
+    }
+
+    /**
+     * Pocetak novog dana (i meseca): prazni potrosnju u redovima racuna iz proslog perioda.
+     */
+    @Scheduled(cron = "${accounts.spending.reset-cron:0 0 0 * * ?}")
+    public void resetPeriods() {
+        resetPeriods(LocalDate.now());
+    }
+
+    void resetPeriods(LocalDate today) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // mesecna se prazni pre dnevne, jer dnevna pomera spentDate na danasnji dan
+            int monthly = accountRepository.resetMonthlySpent(today.withDayOfMonth(1));
+            int daily = accountRepository.resetDailySpent(today);
+            log.debug("Ispraznjena potrosnja: {} mesecnih, {} dnevnih", monthly, daily);
+        });
+    }
+
+    private static boolean hasLimit(Account account) {
+        return !HouseAccountService.isHouseAccount(account) && (isLimited(account.getDailyLimit()) || isLimited(account.getMonthlyLimit()));
+    }
+
+    private static boolean isLimited(Long limit) {
+        return limit != null && limit > 0;
+    }
+
+    private static String violation(Account account, long amount, LocalDate today) {
+        if (isLimited(account.getDailyLimit()) && Money.add(dailySpent(account, today), amount) > account.getDailyLimit())
+            return "Prekoračen dnevni limit računa " + account.getAccountNumber();
+        if (isLimited(account.getMonthlyLimit()) && Money.add(monthlySpent(account, today), amount) > account.getMonthlyLimit())
+            return "Prekoračen mesečni limit računa " + account.getAccountNumber();
+        return null;
+    }
+
+    private static long dailySpent(Account account, LocalDate today) {
+        return today.equals(account.getSpentDate()) && account.getDailySpent() != null ? account.getDailySpent() : 0L;
+    }
+
+    private static long monthlySpent(Account account, LocalDate today) {
+        LocalDate spentDate = account.getSpentDate();
+        return spentDate != null && YearMonth.from(spentDate).equals(YearMonth.from(today)) && account.getMonthlySpent() != null ? account.getMonthlySpent() : 0L;
+    }
+}
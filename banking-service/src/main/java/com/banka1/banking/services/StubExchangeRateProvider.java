@@ -0,0 +1,71 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lokalni izvor kurseva koji simulira promene tokom dana, za razvoj ekrana menjacnice bez pristupa internetu.
+ * <p>
+ * Za svaku valutu cuva vrednost jedne jedinice u RSD i najvise jednom u {@code exchange.rates.stub.drift-interval-ms}
+ * je pomera za slucajan procenat do {@code exchange.rates.stub.volatility}. Svi kursevi jednog osvezavanja
+ * se racunaju iz istih vrednosti, pa su medjusobno reciprocni i prolaze proveru u {@link CurrencyService}.
+ */
+@Service
+@ConditionalOnProperty(name = "exchange.rates.provider", havingValue = "stub")
+public class StubExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Map<CurrencyType, Double> INITIAL_RSD_VALUE = Map.of(
+            CurrencyType.RSD, 1.0,
+            CurrencyType.EUR, 117.2,
+            CurrencyType.USD, 108.4,
+            CurrencyType.CHF, 122.5,
+            CurrencyType.GBP, 140.1,
+            CurrencyType.JPY, 0.72,
+            CurrencyType.CAD, 78.3,
+            CurrencyType.AUD, 70.6
+    );
+
+    private final Map<CurrencyType, Double> rsdValue = new EnumMap<>(CurrencyType.class);
+    private final double volatility;
+    private final long driftIntervalMs;
+    private long lastDrift;
+
+    public StubExchangeRateProvider(@Value("${exchange.rates.stub.volatility:0.002}") double volatility,
+                                    @Value("${exchange.rates.stub.drift-interval-ms:60000}") long driftIntervalMs) {
+        this.volatility = volatility;
+        this.driftIntervalMs = driftIntervalMs;
+        for (CurrencyType currency : CurrencyType.values())
+            rsdValue.put(currency, INITIAL_RSD_VALUE.getOrDefault(currency, 100.0));
+        this.lastDrift = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized Map<CurrencyType, Double> fetchRates(CurrencyType baseCurrency) {
+        long now = System.currentTimeMillis();
+        if (volatility > 0 && now - lastDrift >= driftIntervalMs) {
+            drift();
+            lastDrift = now;
+        }
+
+        Map<CurrencyType, Double> rates = new EnumMap<>(CurrencyType.class);
+        for (CurrencyType target : CurrencyType.values()) {
+            if (target != baseCurrency)
+                rates.put(target, rsdValue.get(baseCurrency) / rsdValue.get(target));
+        }
+        return rates;
+    }
+
+    private void drift() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (CurrencyType currency : CurrencyType.values()) {
+            if (currency != CurrencyType.RSD)
+                rsdValue.compute(currency, (c, value) -> value * (1 + random.nextDouble(-volatility, volatility)));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.banka1.banking.services;
 
 import com.banka1.banking.dto.MoneyTransferDTO;
 import com.banka1.banking.dto.TaxCollectionDTO;
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
 import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Transaction;
 import com.banka1.banking.models.Transfer;
@@ -10,6 +11,7 @@ import com.banka1.banking.models.helper.TransferStatus;
 import com.banka1.banking.repository.AccountRepository;
 import com.banka1.banking.repository.TransactionRepository;
 import com.banka1.banking.repository.TransferRepository;
+import com.banka1.banking.utils.Money;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,7 +19,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Service
 @Slf4j
@@ -29,23 +30,29 @@ public class TaxService {
     private final TransactionRepository transactionRepository;
     private final TransferRepository transferRepository;
     private final ExchangeService exchangeService;
+    private final HouseAccountService houseAccountService;
+    private final AccountLockService accountLockService;
 
     @Transactional
     public void payTax(TaxCollectionDTO dto) {
         Account account = accountRepository.findById(dto.getAccountId()).orElseThrow();
+        Account bankAccount = bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD);
 
-        if(account.getBalance() < dto.getAmount())
-            throw new RuntimeException("Nedovoljno sredstava");
+        // racun banke koji je house account se knjizi kroz shard-ove, pa se ne zakljucava
+        accountLockService.lock(account, HouseAccountService.isHouseAccount(bankAccount) ? null : bankAccount);
 
-        Account bankAccount = bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD);
+        // trading servis salje decimalni iznos poreza u valuti racuna
+        long amount = Money.toMinor(dto.getAmount(), account.getCurrencyType());
+        if(FundsHoldService.availableBalance(account) < amount)
+            throw new RuntimeException("Nedovoljno sredstava");
 
-        account.setBalance(account.getBalance() - dto.getAmount());
-        Map<String, Object> exchangeMap = null;
+        account.setBalance(Money.subtract(account.getBalance(), amount));
+        DirectExchangeResult exchange = null;
 
         MoneyTransferDTO moneyTransferDTO = new MoneyTransferDTO();
 
         moneyTransferDTO.setAdress("");
-        moneyTransferDTO.setAmount(dto.getAmount());
+        moneyTransferDTO.setAmount(amount);
         moneyTransferDTO.setReceiver("Banka");
         moneyTransferDTO.setRecipientAccount(bankAccount.getAccountNumber());
         moneyTransferDTO.setFromAccountNumber(account.getAccountNumber());
@@ -53,33 +60,39 @@ public class TaxService {
         moneyTransferDTO.setPayementCode("253");
         moneyTransferDTO.setPayementReference(null);
 
-        Transfer transfer = transferService.createMoneyTransferEntity(
+        Transfer transfer = transferService.createSystemTransferEntity(
                 account,
                 bankAccount,
                 moneyTransferDTO
         );
 
+        long collected;
         if(account.getCurrencyType() == CurrencyType.RSD)
-            bankAccount.setBalance(bankAccount.getBalance() + dto.getAmount());
+            collected = amount;
         else {
-            exchangeMap = exchangeService.calculatePreviewExchangeAutomatic(account.getCurrencyType().toString(), "RSD", dto.getAmount());
-            bankAccount.setBalance(bankAccount.getBalance() + (Double) exchangeMap.get("finalAmount") + (Double) exchangeMap.get("fee"));
+            exchange = exchangeService.calculatePreviewExchange(account.getCurrencyType().toString(), "RSD", amount);
+            collected = Money.add(exchange.finalAmount(), exchange.fee());
         }
 
+        if(HouseAccountService.isHouseAccount(bankAccount))
+            houseAccountService.credit(bankAccount, collected);
+        else
+            bankAccount.setBalance(Money.add(bankAccount.getBalance(), collected));
+
         accountRepository.save(account);
         accountRepository.save(bankAccount);
 
         Transaction debitTransaction = new Transaction();
         debitTransaction.setFromAccountId(account);
         debitTransaction.setToAccountId(bankAccount);
-        debitTransaction.setAmount(dto.getAmount());
+        debitTransaction.setAmount(amount);
         debitTransaction.setCurrency(transfer.getFromCurrency());
-        debitTransaction.setFee(0.0);
+        debitTransaction.setFee(0L);
         debitTransaction.setBankOnly(true);
 
-        if(exchangeMap != null) {
-            log.info(exchangeMap.toString());
-            debitTransaction.setFinalAmount((Double) exchangeMap.get("finalAmount") + (Double) exchangeMap.get("fee"));
+        if(exchange != null) {
+            log.info(exchange.toString());
+            debitTransaction.setFinalAmount(collected);
         } else {
             debitTransaction.setFinalAmount(transfer.getAmount());
         }
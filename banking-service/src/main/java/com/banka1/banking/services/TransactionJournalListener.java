@@ -0,0 +1,26 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Transaction;
+import jakarta.persistence.PostPersist;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener koji svaku novu {@link Transaction} prosledjuje u dnevnik knjizenja.
+ * Hibernate ga dobija iz Spring konteksta, a {@link LedgerService} je lazy da se ne bi pravio ciklus
+ * sa {@code EntityManagerFactory}.
+ */
+@Component
+public class TransactionJournalListener {
+
+    private final LedgerService ledgerService;
+
+    public TransactionJournalListener(@Lazy LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    @PostPersist
+    public void onPersist(Transaction transaction) {
+        ledgerService.journal(transaction);
+    }
+}
@@ -0,0 +1,67 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.repository.OtpTokenRepository;
+import com.banka1.banking.repository.TransferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Otkazuje PENDING transfere cija OTP verifikacija nije zavrsena na vreme.
+ * <p>
+ * Transferi se otkazuju u delovima od {@code transfers.expiry.chunk-size} redova, jednom UPDATE naredbom
+ * po delu (indeks {@code transfer(status, created_at)}), a u istom prolazu isticu i njihovi OTP tokeni.
+ * Svaki deo je zasebna transakcija koja prvo uzima advisory lock, tako da u jednom trenutku cisti samo jedan cvor.
+ */
+@Slf4j
+@Service
+public class TransferExpiryService {
+
+    static final long SWEEPER_LOCK_KEY = 0x62616e6b615f7478L;
+
+    private final TransferRepository transferRepository;
+    private final OtpTokenRepository otpTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long pendingTtlMs;
+    private final int chunkSize;
+
+    public TransferExpiryService(TransferRepository transferRepository, OtpTokenRepository otpTokenRepository, PlatformTransactionManager transactionManager, @Value("${transfers.expiry.pending-ttl-ms:300000}") long pendingTtlMs, @Value("${transfers.expiry.chunk-size:500}") int chunkSize) {
+        this.transferRepository = transferRepository;
+        this.otpTokenRepository = otpTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pendingTtlMs = pendingTtlMs;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedRateString = "${transfers.expiry.interval-ms:10000}")
+    public void cancelExpiredTransfers() {
+        long cutoff = System.currentTimeMillis() - pendingTtlMs;
+        int total = 0;
+        Integer cancelled;
+        do {
+            cancelled = transactionTemplate.execute(status -> cancelChunk(cutoff));
+            total += cancelled != null ? cancelled : 0;
+        } while (cancelled != null && cancelled == chunkSize);
+
+        if (total > 0)
+            log.info("Otkazano {} isteklih transfera", total);
+    }
+
+    /**
+     * Vraca broj otkazanih transfera, ili 0 ako drugi cvor vec cisti.
+     */
+    private int cancelChunk(long cutoff) {
+        if (!transferRepository.tryAdvisoryXactLock(SWEEPER_LOCK_KEY))
+            return 0;
+
+        List<Long> cancelled = transferRepository.cancelPendingCreatedBefore(cutoff, chunkSize);
+        if (!cancelled.isEmpty())
+            otpTokenRepository.expireByTransferIds(cancelled, System.currentTimeMillis());
+        return cancelled.size();
+    }
+}
@@ -5,6 +5,9 @@ import com.banka1.banking.dto.CustomerDTO;
 import com.banka1.banking.dto.InternalTransferDTO;
 import com.banka1.banking.dto.MoneyTransferDTO;
 import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.dto.exchange.ForeignExchangeResult;
 import com.banka1.banking.models.*;
 import com.banka1.banking.models.Currency;
 import com.banka1.banking.models.helper.AccountStatus;
@@ -13,11 +16,11 @@ import com.banka1.banking.models.helper.IdempotenceKey;
 import com.banka1.banking.models.helper.TransferStatus;
 import com.banka1.banking.models.helper.TransferType;
 import com.banka1.banking.repository.*;
+import com.banka1.banking.utils.Money;
 import com.banka1.common.listener.MessageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jms.core.JmsTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,7 +42,7 @@ public class TransferService {
 
     private final TransferRepository transferRepository;
 
-    private final CurrencyRepository currencyRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     private final TransactionRepository transactionRepository;
 
@@ -61,12 +64,17 @@ public class TransferService {
     private final InterbankService interbankService;
     private final InterbankConfig config;
 
+    private final AccountLockService accountLockService;
+    private final HouseAccountService houseAccountService;
+    private final FundsHoldService fundsHoldService;
+    private final SpendingLimitService spendingLimitService;
 
-    public TransferService(AccountRepository accountRepository, TransferRepository transferRepository, TransactionRepository transactionRepository, CurrencyRepository currencyRepository, JmsTemplate jmsTemplate, MessageHelper messageHelper, @Value("${destination.email}") String destinationEmail, UserServiceCustomer userServiceCustomer, ExchangeService exchangeService, OtpTokenService otpTokenService, BankAccountUtils bankAccountUtils, ReceiverService receiverService, InterbankService interbankService, InterbankConfig config) {
+
+    public TransferService(AccountRepository accountRepository, TransferRepository transferRepository, TransactionRepository transactionRepository, ReferenceDataRegistry referenceDataRegistry, JmsTemplate jmsTemplate, MessageHelper messageHelper, @Value("${destination.email}") String destinationEmail, UserServiceCustomer userServiceCustomer, ExchangeService exchangeService, OtpTokenService otpTokenService, BankAccountUtils bankAccountUtils, ReceiverService receiverService, InterbankService interbankService, InterbankConfig config, AccountLockService accountLockService, HouseAccountService houseAccountService, FundsHoldService fundsHoldService, SpendingLimitService spendingLimitService) {
         this.accountRepository = accountRepository;
         this.transferRepository = transferRepository;
         this.transactionRepository = transactionRepository;
-        this.currencyRepository = currencyRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
         this.jmsTemplate = jmsTemplate;
         this.messageHelper = messageHelper;
         this.destinationEmail = destinationEmail;
@@ -77,9 +85,17 @@ public class TransferService {
         this.receiverService = receiverService;
         this.interbankService = interbankService;
         this.config = config;
+        this.accountLockService = accountLockService;
+        this.houseAccountService = houseAccountService;
+        this.fundsHoldService = fundsHoldService;
+        this.spendingLimitService = spendingLimitService;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    /**
+     * Izvrsava transfer. Racuni koje transfer dodiruje se zakljucavaju redom po ID-ju
+     * (videti {@link AccountLockService}), pa je READ COMMITTED dovoljan nivo izolacije.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public String processTransfer(Long transferId) {
         Transfer transfer = transferRepository.findById(transferId)
                 .orElseThrow(() -> new RuntimeException("Transfer not found"));
@@ -96,14 +112,17 @@ public class TransferService {
     /**
      * Completes a currency exchange transfer between two accounts with different currencies.
      * This method is called after the initial amount has been deducted from the source account.
+     * Uses the quote stored on the transfer if it was created with one, otherwise prices the
+     * exchange once against the active rates. A transfer created with a quote whose pricing
+     * is missing fails instead of being re-priced.
      *
      * @param transfer    The transfer details
      * @param fromAccount The source account
      * @param toAccount   The destination account
-     * @return Map containing exchange details
+     * @return exchange details
      */
     @Transactional
-    protected Map<String, Object> performCurrencyExchangeTransfer(
+    protected ExchangeResult performCurrencyExchangeTransfer(
             Transfer transfer,
             Account fromAccount,
             Account toAccount
@@ -116,15 +135,32 @@ public class TransferService {
         CurrencyType fromCurrencyType = fromAccount.getCurrencyType();
         CurrencyType toCurrencyType = toAccount.getCurrencyType();
 
+        ExchangeResult exchange;
+        if (transfer.getQuoteId() != null) {
+            exchange = transfer.getQuotedExchange();
+            if (exchange == null) {
+                transfer.setStatus(TransferStatus.FAILED);
+                transfer.setNote("Exchange quote " + transfer.getQuoteId() + " is no longer available");
+                transferRepository.save(transfer);
+                throw new IllegalStateException("Exchange quote " + transfer.getQuoteId() + " is no longer available");
+            }
+        } else {
+            exchange = exchangeService.calculatePreviewExchangeAutomatic(
+                    fromCurrencyType.toString(),
+                    toCurrencyType.toString(),
+                    transfer.getAmount()
+            );
+        }
+
         if (fromCurrencyType == CurrencyType.RSD) {
             log.debug("Performing RSD to Foreign exchange");
-            return performRsdToForeign(transfer.getAmount(), fromAccount, toAccount);
+            return performRsdToForeign(transfer.getAmount(), fromAccount, toAccount, (DirectExchangeResult) exchange);
         } else if (toCurrencyType == CurrencyType.RSD) {
             log.debug("Performing Foreign to RSD exchange");
-            return performForeignToRsd(transfer.getAmount(), fromAccount, toAccount);
+            return performForeignToRsd(transfer.getAmount(), fromAccount, toAccount, (DirectExchangeResult) exchange);
         }
         log.debug("Performing Foreign to Foreign exchange");
-        return performForeignToForeignExchange(transfer, fromAccount, toAccount);
+        return performForeignToForeignExchange(transfer, fromAccount, toAccount, (ForeignExchangeResult) exchange);
     }
 
     /**
@@ -136,48 +172,38 @@ public class TransferService {
      * 4) Transfer resulting USD from bank's USD account to customer's account
      * 5) "Spawn" exchange fees on bank's RSD account
      */
-    private Map<String, Object> performForeignToForeignExchange(
+    private ForeignExchangeResult performForeignToForeignExchange(
             Transfer transfer,
             Account fromAccount,
-            Account toAccount
+            Account toAccount,
+            ForeignExchangeResult exchange
     ) {
-        Currency rsd = currencyRepository.getByCode(CurrencyType.RSD);
-        Currency fromCurrency = currencyRepository.getByCode(fromAccount.getCurrencyType());
-        Currency toCurrency = currencyRepository.getByCode(toAccount.getCurrencyType());
+        Currency rsd = referenceDataRegistry.getCurrency(CurrencyType.RSD);
+        Currency fromCurrency = referenceDataRegistry.getCurrency(fromAccount.getCurrencyType());
+        Currency toCurrency = referenceDataRegistry.getCurrency(toAccount.getCurrencyType());
         CustomerDTO receiver = userServiceCustomer.getCustomerById(toAccount.getOwnerID());
 
         Account fromCurrencyBankAccount = bankAccountUtils.getBankAccountForCurrency(fromAccount.getCurrencyType());
         Account rsdBankAccount = bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD);
         Account toCurrencyBankAccount = bankAccountUtils.getBankAccountForCurrency(toAccount.getCurrencyType());
 
-        Map<String, Object> firstExchange = exchangeService.calculatePreviewExchangeAutomatic(
-                fromAccount.getCurrencyType().toString(),
-                "RSD",
-                transfer.getAmount()
-        );
-        Double firstExchangedAmount = (Double) firstExchange.get("finalAmount");
-        Double firstExchangeProvision = (Double) firstExchange.get("provision");
-        Double firstExchangeRate = (Double) firstExchange.get("exchangeRate");
-
-        Map<String, Object> secondExchange = exchangeService.calculatePreviewExchangeAutomatic(
-                "RSD",
-                toAccount.getCurrencyType().toString(),
-                firstExchangedAmount
-        );
-        Double secondExchangedAmount = (Double) secondExchange.get("finalAmount");
-        Double secondExchangeProvision = (Double) secondExchange.get("provision");
-        Double secondExchangeTotalFee = (Double) secondExchange.get("totalFee");
+        // oba koraka konverzije (strana -> RSD -> strana) su vec izracunata u ponudi
+        long firstExchangedAmount = exchange.rsdAmount();
+        long firstExchangeProvision = exchange.firstFee();
+        double firstExchangeRate = exchange.firstExchangeRate();
+        long secondExchangedAmount = exchange.finalAmount();
+        long secondExchangeProvision = exchange.secondFee();
 
         //skidamo korisniku EUR
-        fromAccount.setBalance(fromAccount.getBalance() - transfer.getAmount());
+        debit(fromAccount, transfer.getAmount());
         // i stavljamo direktno na racun banke za tu valutu
         fromCurrencyBankAccount.setBalance(fromCurrencyBankAccount.getBalance());
         // dodajemo konvertovanu svotu iz evra na racun dinara
-        rsdBankAccount.setBalance(rsdBankAccount.getBalance() + firstExchangeProvision);
+        credit(rsdBankAccount, firstExchangeProvision);
         //balance  - total + provision (finalAmount)
-        toCurrencyBankAccount.setBalance(toCurrencyBankAccount.getBalance() + secondExchangeProvision);
+        credit(toCurrencyBankAccount, secondExchangeProvision);
         //dodajemo pare na devizni racun korisnika
-        toAccount.setBalance(toAccount.getBalance() + secondExchangedAmount);
+        credit(toAccount, secondExchangedAmount);
 
         //from user -> bank (foreign currency)
         Transaction firstTransaction = createTransaction(
@@ -186,7 +212,7 @@ public class TransferService {
                 fromCurrencyBankAccount,
                 transfer.getAmount(),
                 fromCurrency,
-                0.0,
+                0L,
                 "Exchange: Foreign to RSD",
                 transfer
         );
@@ -196,9 +222,9 @@ public class TransferService {
                 true,
                 fromCurrencyBankAccount,
                 rsdBankAccount,
-                transfer.getAmount() * firstExchangeRate ,
+                Money.convert(transfer.getAmount(), fromAccount.getCurrencyType(), firstExchangeRate, CurrencyType.RSD),
                 rsd,
-                0.0,
+                0L,
                 "Provision: Foreign to RSD",
                 transfer
         );
@@ -210,7 +236,7 @@ public class TransferService {
                 toCurrencyBankAccount,
                 firstExchangedAmount,
                 rsd,
-                0.0,
+                0L,
                 "Provision: Foreign to RSD",
                 transfer
         );
@@ -222,7 +248,7 @@ public class TransferService {
                 toAccount,
                 secondExchangedAmount,
                 toCurrency,
-                0.0,
+                0L,
                 "Exchange: payment to customer",
                 transfer
         );
@@ -232,16 +258,21 @@ public class TransferService {
         transactionRepository.saveAll(transactions);
         transferRepository.save(transfer);
 
-
-        return exchangeService.calculatePreviewExchangeAutomatic(fromAccount.getCurrencyType().toString(),
-                toAccount.getCurrencyType().toString(),
-                transfer.getAmount());
+        return exchange;
     }
 
     /**
      * Performs an exchange from RSD to a foreign currency.
      */
-    public Map<String, Object> performRsdToForeign(Double amount, Account fromAccount, Account toAccount) {
+    public DirectExchangeResult performRsdToForeign(Long amount, Account fromAccount, Account toAccount) {
+        return performRsdToForeign(amount, fromAccount, toAccount, exchangeService.calculatePreviewExchange(
+                "RSD",
+                toAccount.getCurrencyType().toString(),
+                amount
+        ));
+    }
+
+    private DirectExchangeResult performRsdToForeign(Long amount, Account fromAccount, Account toAccount, DirectExchangeResult exchange) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
@@ -249,26 +280,20 @@ public class TransferService {
             throw new IllegalArgumentException("Invalid account currency types");
         }
 
-        Currency rsd = currencyRepository.getByCode(CurrencyType.RSD);
-        Currency toCurrency = currencyRepository.getByCode(toAccount.getCurrencyType());
+        Currency rsd = referenceDataRegistry.getCurrency(CurrencyType.RSD);
+        Currency toCurrency = referenceDataRegistry.getCurrency(toAccount.getCurrencyType());
         Account rsdBankAccount = bankAccountUtils.getBankAccountForCurrency(rsd.getCode());
         Account foreignBankAccount = bankAccountUtils.getBankAccountForCurrency(toAccount.getCurrencyType());
         CustomerDTO receiver = userServiceCustomer.getCustomerById(toAccount.getOwnerID());
 
-        Map<String, Object> exchange = exchangeService.calculatePreviewExchangeAutomatic(
-                "RSD",
-                toAccount.getCurrencyType().toString(),
-                amount
-        );
-
-        Double finalAmount = (Double) exchange.get("finalAmount");
-        Double provision = (Double) exchange.get("provision");
-        Double convertedAmount = (Double) exchange.get("convertedAmount");
+        long finalAmount = exchange.finalAmount();
+        long provision = exchange.fee();
+        long convertedAmount = exchange.convertedAmount();
 
 
-        fromAccount.setBalance(fromAccount.getBalance() - amount);
-        foreignBankAccount.setBalance(foreignBankAccount.getBalance() + provision);
-        toAccount.setBalance(toAccount.getBalance() + finalAmount);
+        debit(fromAccount, amount);
+        credit(foreignBankAccount, provision);
+        credit(toAccount, finalAmount);
 
         Transfer transferToBank = createTransfer(
                 fromAccount,
@@ -298,7 +323,7 @@ public class TransferService {
                 rsdBankAccount,
                 amount,
                 rsd,
-                0.0,
+                0L,
                 "Exchange transaction",
                 transferToBank
         );
@@ -309,7 +334,7 @@ public class TransferService {
                 foreignBankAccount,
                 convertedAmount,
                 toCurrency,
-                0.0,
+                0L,
                 "Exchange transaction",
                 transferToBank
         );
@@ -320,7 +345,7 @@ public class TransferService {
                 toAccount,
                 finalAmount,
                 toCurrency,
-                0.0,
+                0L,
                 "Exchange transaction",
                 transferFromBank
         );
@@ -338,7 +363,15 @@ public class TransferService {
     /**
      * Performs an exchange from a foreign currency to RSD.
      */
-    public Map<String, Object> performForeignToRsd(Double amount, Account fromAccount, Account toAccount) {
+    public DirectExchangeResult performForeignToRsd(Long amount, Account fromAccount, Account toAccount) {
+        return performForeignToRsd(amount, fromAccount, toAccount, exchangeService.calculatePreviewExchange(
+                fromAccount.getCurrencyType().toString(),
+                "RSD",
+                amount
+        ));
+    }
+
+    private DirectExchangeResult performForeignToRsd(Long amount, Account fromAccount, Account toAccount, DirectExchangeResult exchange) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
@@ -346,27 +379,21 @@ public class TransferService {
             throw new IllegalArgumentException("Invalid account currency types");
         }
 
-        Currency rsd = currencyRepository.getByCode(CurrencyType.RSD);
-        Currency fromCurrency = currencyRepository.getByCode(fromAccount.getCurrencyType());
-
-        Map<String, Object> exchange = exchangeService.calculatePreviewExchangeAutomatic(
-                fromAccount.getCurrencyType().toString(),
-                "RSD",
-                amount
-        );
+        Currency rsd = referenceDataRegistry.getCurrency(CurrencyType.RSD);
+        Currency fromCurrency = referenceDataRegistry.getCurrency(fromAccount.getCurrencyType());
 
-        Double finalAmount = (Double) exchange.get("finalAmount");
-        Double provision = (Double) exchange.get("provision");
-        Double convertedAmount = (Double) exchange.get("convertedAmount");
+        long finalAmount = exchange.finalAmount();
+        long provision = exchange.fee();
+        long convertedAmount = exchange.convertedAmount();
 
         CustomerDTO receiver = userServiceCustomer.getCustomerById(toAccount.getOwnerID());
 
         Account rsdBankAccount = bankAccountUtils.getBankAccountForCurrency(rsd.getCode());
         Account foreignBankAccount = bankAccountUtils.getBankAccountForCurrency(fromAccount.getCurrencyType());
 
-        fromAccount.setBalance(fromAccount.getBalance() - amount);
-        rsdBankAccount.setBalance(rsdBankAccount.getBalance() + provision);
-        toAccount.setBalance(toAccount.getBalance() + finalAmount);
+        debit(fromAccount, amount);
+        credit(rsdBankAccount, provision);
+        credit(toAccount, finalAmount);
 
         Transfer transferToBank = createTransfer(
                 fromAccount,
@@ -396,7 +423,7 @@ public class TransferService {
                 foreignBankAccount,
                 amount,
                 fromCurrency,
-                0.0,
+                0L,
                 "Exchange transaction",
                 transferToBank
         );
@@ -406,7 +433,7 @@ public class TransferService {
                 rsdBankAccount,
                 convertedAmount,
                 rsd,
-                0.0,
+                0L,
                 "Exchange transaction",
                 transferToBank
         );
@@ -417,7 +444,7 @@ public class TransferService {
                 toAccount,
                 finalAmount,
                 rsd,
-                0.0,
+                0L,
                 "Exchange transaction",
                 transferFromBank
         );
@@ -437,7 +464,7 @@ public class TransferService {
     private Transfer createTransfer(
             Account fromAccount,
             Account toAccount,
-            Double amount,
+            Long amount,
             String description,
             String receiver,
             Currency fromCurrency,
@@ -466,9 +493,9 @@ public class TransferService {
             boolean bankOnly,
             Account fromAccount,
             Account toAccount,
-            Double amount,
+            Long amount,
             Currency currency,
-            Double fee,
+            Long fee,
             String description,
             Transfer transfer
     ) {
@@ -478,7 +505,7 @@ public class TransferService {
         transaction.setToAccountId(toAccount);
         transaction.setAmount(amount);
         transaction.setCurrency(currency);
-        transaction.setFinalAmount(amount - fee);
+        transaction.setFinalAmount(Money.subtract(amount, fee));
         transaction.setFee(fee);
         transaction.setTimestamp(System.currentTimeMillis());
         LocalDateTime now = LocalDateTime.now();
@@ -500,7 +527,7 @@ public class TransferService {
     private Transaction createFeeTransaction(
             Account bankAccount,
             Account customerFromAccount,
-            Double feeAmount,
+            Long feeAmount,
             Currency currency,
             String description,
             Transfer transfer
@@ -512,7 +539,7 @@ public class TransferService {
         feeTransaction.setAmount(feeAmount);
         feeTransaction.setCurrency(currency);
         feeTransaction.setFinalAmount(feeAmount);
-        feeTransaction.setFee(0.0);
+        feeTransaction.setFee(0L);
         feeTransaction.setTimestamp(System.currentTimeMillis());
         feeTransaction.setDescription(description);
         feeTransaction.setTransfer(transfer);
@@ -533,6 +560,67 @@ public class TransferService {
         accountRepository.saveAll(accounts);
     }
 
+    /**
+     * Zakljucava racune klijenata koje transfer menja. Racuni banke se ne zakljucavaju,
+     * jer se na njih knjizi preko shardova (videti {@link HouseAccountService}).
+     */
+    private void lockTransferAccounts(Transfer transfer) {
+        lockTransferAccounts(transfer.getFromAccountId(), transfer.getToAccountId());
+    }
+
+    private void lockTransferAccounts(Account fromAccount, Account toAccount) {
+        List<Account> accounts = new ArrayList<>();
+        for (Account account : Arrays.asList(fromAccount, toAccount)) {
+            if (!HouseAccountService.isHouseAccount(account))
+                accounts.add(account);
+        }
+
+        accountLockService.lock(accounts);
+    }
+
+    private long balanceOf(Account account) {
+        if (HouseAccountService.isHouseAccount(account))
+            return houseAccountService.getTotalBalance(account);
+        return FundsHoldService.availableBalance(account);
+    }
+
+    /**
+     * Knjizi isplatu na dnevni i mesecni limit racuna (videti {@link SpendingLimitService}).
+     * Ako bi limit bio prekoracen, transfer se oznacava kao neuspesan.
+     */
+    private void consumeSpendingLimit(Transfer transfer, Account fromAccount, long amount) {
+        try {
+            spendingLimitService.consume(fromAccount, amount);
+        } catch (IllegalStateException e) {
+            throw spendingLimitExceeded(transfer, e);
+        }
+    }
+
+    private RuntimeException spendingLimitExceeded(Transfer transfer, IllegalStateException e) {
+        transfer.setStatus(TransferStatus.FAILED);
+        transfer.setNote(e.getMessage());
+        transferRepository.save(transfer);
+        return new RuntimeException(e.getMessage());
+    }
+
+    private static String holdReference(Transfer transfer) {
+        return "transfer:" + transfer.getId();
+    }
+
+    private void credit(Account account, long amount) {
+        if (HouseAccountService.isHouseAccount(account))
+            houseAccountService.credit(account, amount);
+        else
+            account.setBalance(Money.add(account.getBalance(), amount));
+    }
+
+    private void debit(Account account, long amount) {
+        if (HouseAccountService.isHouseAccount(account))
+            houseAccountService.debit(account, amount);
+        else
+            account.setBalance(Money.subtract(account.getBalance(), amount));
+    }
+
 
     @Transactional
     public String processForeignBankTransfer(Long transferId) {
@@ -548,21 +636,22 @@ public class TransferService {
         }
 
         Account fromAccount = transfer.getFromAccountId();
-        Double amount = transfer.getAmount();
+        Long amount = transfer.getAmount();
 
-        if (fromAccount.getBalance() < amount) {
+        if (balanceOf(fromAccount) < amount) {
             transfer.setStatus(TransferStatus.FAILED);
             transfer.setNote("Insufficient balance");
             transferRepository.save(transfer);
             throw new RuntimeException("Insufficient balance for transfer");
         }
 
+        boolean held = false;
         try {
-            System.out.println(fromAccount.getBalance() + " - " + amount);
-            fromAccount.setBalance(fromAccount.getBalance() - amount);
-            fromAccount.setReservedBalance(fromAccount.getReservedBalance() + amount);
-
-            accountRepository.save(fromAccount);
+            // Rezervacija se commit-uje odmah, da racun ne bi bio zakljucan dok druga banka odgovara,
+            // i ne istice dok druga banka ne posalje commit ili rollback. Limit potrosnje se knjizi
+            // u transakciji rezervacije, jer bi update reda racuna ovde cekao na zakljucavanje rezervacije.
+            fundsHoldService.placeUntilResolved(fromAccount, amount, holdReference(transfer), true);
+            held = true;
 
             interbankService.sendNewTXMessage(transfer);
 
@@ -576,6 +665,11 @@ public class TransferService {
 
             return "Transfer reserved successfully";
         } catch (Exception e) {
+            if (held)
+                fundsHoldService.release(holdReference(transfer));
+            else if (e instanceof IllegalStateException limitExceeded)
+                throw spendingLimitExceeded(transfer, limitExceeded);
+
             transfer.setStatus(TransferStatus.FAILED);
             transfer.setNote("Error during processing: " + e.getMessage());
             log.error(e.getMessage());
@@ -601,23 +695,26 @@ public class TransferService {
         Account fromAccount = transfer.getFromAccountId();
         Account toAccount = transfer.getToAccountId();
 
+        lockTransferAccounts(transfer);
+
         //Ukoliko na racunu ne postoji dovoljno sredstava za izvrsenje
-        if (fromAccount.getBalance() < transfer.getAmount()) {
+        if (balanceOf(fromAccount) < transfer.getAmount()) {
             transfer.setStatus(TransferStatus.FAILED);
             transferRepository.save(transfer);
             throw new RuntimeException("Insufficient funds");
         }
+        consumeSpendingLimit(transfer, fromAccount, transfer.getAmount());
 
         try{
             // Azuriranje balansa
-            Map<String, Object> exchangeMap = null;
+            ExchangeResult exchange = null;
 
             if(transfer.getType().equals(TransferType.INTERNAL)) {
-                fromAccount.setBalance(fromAccount.getBalance() - transfer.getAmount());
-                toAccount.setBalance(toAccount.getBalance() + transfer.getAmount());
+                debit(fromAccount, transfer.getAmount());
+                credit(toAccount, transfer.getAmount());
             }
             else {
-                exchangeMap = performCurrencyExchangeTransfer(transfer, fromAccount, toAccount);
+                exchange = performCurrencyExchangeTransfer(transfer, fromAccount, toAccount);
             }
 
             accountRepository.save(fromAccount);
@@ -629,11 +726,12 @@ public class TransferService {
             debitTransaction.setToAccountId(toAccount);
             debitTransaction.setAmount(transfer.getAmount());
             debitTransaction.setCurrency(transfer.getFromCurrency());
-            if(exchangeMap != null) {
-                debitTransaction.setFee((Double) exchangeMap.get("fee"));
-                debitTransaction.setFinalAmount((Double) exchangeMap.get("finalAmount"));
+            if(exchange != null) {
+                debitTransaction.setFee(exchange.fee());
+                debitTransaction.setFinalAmount(exchange.finalAmount());
+                debitTransaction.setSummary(true);
             } else {
-                debitTransaction.setFee(0.0);
+                debitTransaction.setFee(0L);
                 debitTransaction.setFinalAmount(transfer.getAmount());
             }
             debitTransaction.setTimestamp(System.currentTimeMillis());
@@ -680,23 +778,27 @@ public class TransferService {
 
         Account fromAccount = transfer.getFromAccountId();
         Account toAccount = transfer.getToAccountId();
-        Double amount = transfer.getAmount();
+        Long amount = transfer.getAmount();
+
+        lockTransferAccounts(transfer);
 
-        if (fromAccount.getBalance() < amount) {
+        if (balanceOf(fromAccount) < amount) {
             transfer.setStatus(TransferStatus.FAILED);
             transfer.setNote("Insufficient balance");
             transferRepository.save(transfer);
             throw new RuntimeException("Insufficient balance for transfer");
         }
+        consumeSpendingLimit(transfer, fromAccount, amount);
 
         try {
-            fromAccount.setBalance(fromAccount.getBalance() - amount);
-            Map<String, Object> exchangeMap = null;
+            ExchangeResult exchange = null;
 
-            if(transfer.getType().equals(TransferType.EXTERNAL))
-                toAccount.setBalance(toAccount.getBalance() + transfer.getAmount());
-            else {
-                exchangeMap = performCurrencyExchangeTransfer(transfer, fromAccount, toAccount);
+            // kod konverzije racun platioca zaduzuje korak konverzije (performCurrencyExchangeTransfer)
+            if(transfer.getType().equals(TransferType.EXTERNAL)) {
+                debit(fromAccount, amount);
+                credit(toAccount, transfer.getAmount());
+            } else {
+                exchange = performCurrencyExchangeTransfer(transfer, fromAccount, toAccount);
             }
 
             accountRepository.save(fromAccount);
@@ -707,12 +809,13 @@ public class TransferService {
             debitTransaction.setToAccountId(toAccount);
             debitTransaction.setAmount(amount);
             debitTransaction.setCurrency(transfer.getFromCurrency());
-            if(exchangeMap != null) {
-                log.info(exchangeMap.toString());
-                debitTransaction.setFee((Double) exchangeMap.get("fee"));
-                debitTransaction.setFinalAmount((Double) exchangeMap.get("finalAmount"));
+            if(exchange != null) {
+                log.info(exchange.toString());
+                debitTransaction.setFee(exchange.fee());
+                debitTransaction.setFinalAmount(exchange.finalAmount());
+                debitTransaction.setSummary(true);
             } else {
-                debitTransaction.setFee(0.0);
+                debitTransaction.setFee(0L);
                 debitTransaction.setFinalAmount(transfer.getAmount());
             }
             debitTransaction.setTimestamp(Instant.now().toEpochMilli());
@@ -761,6 +864,9 @@ public class TransferService {
         if(!fromAccount.getCurrencyType().equals(toAccount.getCurrencyType())){
             return false;
         }
+        if (transferDTO.getAmount() != null && spendingLimitService.exceedsLimit(fromAccount, transferDTO.getAmount())) {
+            return false;
+        }
         return fromAccount.getOwnerID().equals(toAccount.getOwnerID());
     }
 
@@ -776,7 +882,11 @@ public class TransferService {
 
         Account fromAccount = fromAccountOtp.get();
 
-        if(transferDTO.getAmount() <= 0){
+        if(!isValidAmount(transferDTO.getAmount())){
+            return false;
+        }
+
+        if (spendingLimitService.exceedsLimit(fromAccount, transferDTO.getAmount())) {
             return false;
         }
 
@@ -791,17 +901,28 @@ public class TransferService {
 
         if (!toAccountOtp.isEmpty()) {
             Account toAccount = toAccountOtp.get();
-            return !fromAccount.getOwnerID().equals(toAccount.getOwnerID());
+            return isValidCounterparty(fromAccount, toAccount);
         }
 
         return true;
     }
 
+    /**
+     * Pravila koja vaze i za transfere klijenata i za sistemske transfere ({@link #settleSystemTransfer}).
+     */
+    private static boolean isValidAmount(Long amount) {
+        return amount != null && amount > 0;
+    }
+
+    private static boolean isValidCounterparty(Account fromAccount, Account toAccount) {
+        return !fromAccount.getOwnerID().equals(toAccount.getOwnerID());
+    }
+
     public Transfer createInternalTransferEntity(Account fromAccount, Account toAccount,InternalTransferDTO internalTransferDTO, CustomerDTO customerData, String description) {
-        Currency fromCurrency = currencyRepository.findByCode(fromAccount.getCurrencyType())
+        Currency fromCurrency = referenceDataRegistry.findCurrency(fromAccount.getCurrencyType())
                 .orElseThrow(() -> new IllegalArgumentException("Greska"));
 
-        Currency toCurrency = currencyRepository.findByCode(toAccount.getCurrencyType())
+        Currency toCurrency = referenceDataRegistry.findCurrency(toAccount.getCurrencyType())
                 .orElseThrow(() -> new IllegalArgumentException("Greska"));
 
         String firstName = customerData.getFirstName();
@@ -876,12 +997,6 @@ public class TransferService {
     }
 
     public Transfer createMoneyTransferEntity(Account fromAccount, Account toAccount, MoneyTransferDTO moneyTransferDTO) {
-        Currency fromCurrency = currencyRepository.findByCode(fromAccount.getCurrencyType())
-                .orElseThrow(() -> new IllegalArgumentException("Greska"));
-
-        Currency toCurrency = currencyRepository.findByCode(toAccount.getCurrencyType())
-                .orElseThrow(() -> new IllegalArgumentException("Greska"));
-
         Long customerId = fromAccount.getOwnerID();
         CustomerDTO customerData = userServiceCustomer.getCustomerById(customerId);
 
@@ -889,6 +1004,24 @@ public class TransferService {
             throw new IllegalArgumentException("Korisnik nije pronađen");
         }
 
+        return createSystemTransferEntity(fromAccount, toAccount, moneyTransferDTO);
+    }
+
+    /**
+     * Isto kao {@link #createMoneyTransferEntity}, ali bez provere korisnika preko user servisa.
+     * Koristi se za transfere koje pokrece sam sistem (nalozi, rate, porez).
+     */
+    public Transfer createSystemTransferEntity(Account fromAccount, Account toAccount, MoneyTransferDTO moneyTransferDTO) {
+        return transferRepository.saveAndFlush(buildSystemTransfer(fromAccount, toAccount, moneyTransferDTO));
+    }
+
+    private Transfer buildSystemTransfer(Account fromAccount, Account toAccount, MoneyTransferDTO moneyTransferDTO) {
+        Currency fromCurrency = referenceDataRegistry.findCurrency(fromAccount.getCurrencyType())
+                .orElseThrow(() -> new IllegalArgumentException("Greska"));
+
+        Currency toCurrency = referenceDataRegistry.findCurrency(toAccount.getCurrencyType())
+                .orElseThrow(() -> new IllegalArgumentException("Greska"));
+
         Transfer transfer = new Transfer();
         transfer.setFromAccountId(fromAccount);
         transfer.setToAccountId(toAccount);
@@ -906,11 +1039,52 @@ public class TransferService {
 
         transfer.setSavedReceiverId(moneyTransferDTO.getSavedReceiverId());
 
-        return transferRepository.saveAndFlush(transfer);
+        return transfer;
+    }
+
+    /**
+     * Sistemski transfer: knjizi se odmah i atomicno, bez OTP-a, notifikacija i poziva ka user servisu.
+     * Validacija je ista kao za transfere klijenata, uz uslov da su oba racuna u istoj valuti.
+     * Transfer se upisuje jednom, odmah kao zavrsen.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Transfer settleSystemTransfer(Account fromAccount, Account toAccount, MoneyTransferDTO moneyTransferDTO) {
+        if (fromAccount == null || toAccount == null || !isValidAmount(moneyTransferDTO.getAmount()) || !isValidCounterparty(fromAccount, toAccount))
+            throw new IllegalArgumentException("Nevalidan sistemski transfer");
+        if (fromAccount.getCurrencyType() != toAccount.getCurrencyType())
+            throw new IllegalArgumentException("Sistemski transfer mora biti u jednoj valuti");
+
+        long amount = moneyTransferDTO.getAmount();
+
+        lockTransferAccounts(fromAccount, toAccount);
+        if (balanceOf(fromAccount) < amount)
+            throw new RuntimeException("Insufficient balance for transfer");
+
+        debit(fromAccount, amount);
+        credit(toAccount, amount);
+        accountRepository.saveAll(List.of(fromAccount, toAccount));
+
+        Transfer transfer = buildSystemTransfer(fromAccount, toAccount, moneyTransferDTO);
+        transfer.setStatus(TransferStatus.COMPLETED);
+        transfer.setCompletedAt(Instant.now().toEpochMilli());
+        transfer = transferRepository.save(transfer);
+
+        transactionRepository.save(createTransaction(
+                false,
+                fromAccount,
+                toAccount,
+                amount,
+                transfer.getFromCurrency(),
+                0L,
+                moneyTransferDTO.getPayementDescription(),
+                transfer
+        ));
+
+        return transfer;
     }
 
     public Transfer createForeignBankMoneyTransferEntity(Account fromAccount, String foreignBankAccount, MoneyTransferDTO moneyTransferDTO) {
-        Currency fromCurrency = currencyRepository.findByCode(fromAccount.getCurrencyType())
+        Currency fromCurrency = referenceDataRegistry.findCurrency(fromAccount.getCurrencyType())
                 .orElseThrow(() -> new IllegalArgumentException("Greska"));
 
         Long customerId = fromAccount.getOwnerID();
@@ -1058,20 +1232,6 @@ public class TransferService {
 
     }
 
-    @Scheduled(fixedRate = 10000)
-    public void cancelExpiredTransfers(){
-
-        long expirationTime = System.currentTimeMillis() - (5*60*1000);
-
-        List<Transfer> expiredTransfers = transferRepository.findAllByStatusAndCreatedAtBefore(TransferStatus.PENDING,expirationTime);
-
-        for (Transfer transfer : expiredTransfers){
-            transfer.setStatus(TransferStatus.CANCELLED);
-            transferRepository.save(transfer);
-        }
-
-    }
-
     public Transfer findById(Long transferId) {
         return transferRepository.findById(transferId)
                 .orElseThrow(() -> new RuntimeException("Transfer sa ID-jem " + transferId + " nije pronađen"));
@@ -1081,6 +1241,7 @@ public class TransferService {
         return transferRepository.findAllByFromAccountId_OwnerID(userId);
     }
 
+    @Transactional
     public Transfer commitForeignBankTransfer(IdempotenceKey idempotenceKey) {
         Long transferID = Long.valueOf(idempotenceKey.getLocallyGeneratedKey());
         Transfer transfer = transferRepository.findById(transferID)
@@ -1103,7 +1264,7 @@ public class TransferService {
             transaction.setAmount(transfer.getAmount());
             transaction.setCurrency(transfer.getFromCurrency());
             transaction.setFinalAmount(transfer.getAmount());
-            transaction.setFee(0.0);
+            transaction.setFee(0L);
             transaction.setTimestamp(System.currentTimeMillis());
             transaction.setDescription("Foreign bank transfer");
             transaction.setTransfer(transfer);
@@ -1116,10 +1277,9 @@ public class TransferService {
             time = time.substring(0, 5);
             transaction.setTime(time);
 
-            transactionRepository.save(transaction);
+            fundsHoldService.capture(holdReference(transfer));
 
-            Account fromAccount = transfer.getFromAccountId();
-            fromAccount.setReservedBalance(fromAccount.getReservedBalance() - transfer.getAmount());
+            transactionRepository.save(transaction);
 
             transfer.setStatus(TransferStatus.COMPLETED);
             transfer.setCompletedAt(System.currentTimeMillis());
@@ -1130,6 +1290,7 @@ public class TransferService {
         }
     }
 
+    @Transactional
     public Transfer rollbackForeignBankTransfer(IdempotenceKey idempotenceKey) {
         Long transferID = Long.valueOf(idempotenceKey.getLocallyGeneratedKey());
         Transfer transfer = transferRepository.findById(transferID)
@@ -1144,9 +1305,7 @@ public class TransferService {
         }
 
         try {
-            Account fromAccount = transfer.getFromAccountId();
-            fromAccount.setReservedBalance(fromAccount.getReservedBalance() - transfer.getAmount());
-            fromAccount.setBalance(fromAccount.getBalance() + transfer.getAmount());
+            fundsHoldService.release(holdReference(transfer));
 
             transfer.setStatus(TransferStatus.CANCELLED);
             transferRepository.save(transfer);
@@ -1157,11 +1316,12 @@ public class TransferService {
     }
 
     @Transactional
-    public Transfer receiveForeignBankTransfer(String accountNumber, double amount, String description, String senderName, Currency currency) {
+    public Transfer receiveForeignBankTransfer(String accountNumber, long amount, String description, String senderName, Currency currency) {
         Account toAccount = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Destination account not found: " + accountNumber));
 
-        toAccount.setBalance(toAccount.getBalance() + amount);
+        accountLockService.lock(toAccount);
+        credit(toAccount, amount);
         accountRepository.save(toAccount);
 
         Transfer transfer = new Transfer();
@@ -1184,7 +1344,7 @@ public class TransferService {
         transaction.setAmount(amount);
         transaction.setCurrency(currency);
         transaction.setFinalAmount(amount);
-        transaction.setFee(0.0);
+        transaction.setFee(0L);
         transaction.setTimestamp(System.currentTimeMillis());
         transaction.setDescription("Received transfer from foreign bank");
         transaction.setTransfer(transfer);
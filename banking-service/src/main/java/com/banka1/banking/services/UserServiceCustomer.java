@@ -1,48 +1,90 @@
 package com.banka1.banking.services;
 import com.banka1.banking.dto.CustomerDTO;
-import com.banka1.common.listener.MessageHelper;
-import jakarta.jms.JMSException;
+import com.banka1.common.listener.JmsRpcClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceCustomer {
-    private final JmsTemplate jmsTemplate;
-    private final MessageHelper messageHelper;
+
+    /**
+     * Najveci broj ID-jeva u jednoj poruci ka user-service-u.
+     */
+    static final int MAX_IDS_PER_REQUEST = 500;
+
+    private final JmsRpcClient jmsRpcClient;
+    private final CustomerDirectory customerDirectory;
 
     @Value("${destination.customer}")
     private String destination;
     @Value("${destination.customer.email}")
     private String destinationEmail;
+    @Value("${destination.customer.bulk}")
+    private String destinationBulk;
 
     public CustomerDTO getCustomerById(Long customerId) {
-        var message = jmsTemplate.sendAndReceive(destination, session -> session.createTextMessage(messageHelper.createTextMessage(customerId)));
-        CustomerDTO response;
-        try {
-            response = messageHelper.getMessage(message, CustomerDTO.class);
-        } catch (JMSException e) {
-            throw new RuntimeException(e);
+        CustomerDTO local = customerDirectory.find(customerId);
+        if (local != null)
+            return local;
+        return found(jmsRpcClient.call(destination, customerId, CustomerDTO.class));
+    }
+
+    /**
+     * Kao {@link #getCustomerById}, ali ne ceka odgovor, pa pozivalac moze da posalje vise zahteva odjednom.
+     */
+    public CompletableFuture<CustomerDTO> getCustomerByIdAsync(Long customerId) {
+        CustomerDTO local = customerDirectory.find(customerId);
+        if (local != null)
+            return CompletableFuture.completedFuture(local);
+        return jmsRpcClient.request(destination, customerId, CustomerDTO.class).thenApply(UserServiceCustomer::found);
+    }
+
+    /**
+     * Dohvata vise korisnika jednim JMS zahtevom (za vise od {@link #MAX_IDS_PER_REQUEST} ID-jeva, jednim zahtevom po delu),
+     * umesto po jednog {@link #getCustomerById} za svaki ID. Korisnici koji ne postoje nisu u rezultatu.
+     * Delovi se salju odjednom i cekaju zajedno, pa ukupno vreme ne raste sa brojem delova.
+     * Korisnici iz {@link CustomerDirectory} se ne traze od user-service-a.
+     */
+    public Map<Long, CustomerDTO> getCustomersByIds(Collection<Long> customerIds) {
+        Map<Long, CustomerDTO> customers = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(customerIds)) {
+            CustomerDTO local = customerDirectory.find(id);
+            if (local != null)
+                customers.put(id, local);
+            else
+                ids.add(id);
         }
 
-        if (response == null) {
-            throw new IllegalArgumentException("Korisnik nije pronađen ili API nije vratio očekivani format.");
+        List<CompletableFuture<CustomerDTO[]>> requests = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_REQUEST) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, ids.size()));
+            requests.add(jmsRpcClient.request(destinationBulk, chunk, CustomerDTO[].class));
         }
 
-        return response;
+        for (CompletableFuture<CustomerDTO[]> request : requests) {
+            CustomerDTO[] response = request.join();
+            if (response == null) {
+                throw new IllegalArgumentException("Korisnici nisu pronađeni ili API nije vratio očekivani format.");
+            }
+
+            for (CustomerDTO customer : response)
+                customers.put(customer.getId(), customer);
+        }
+        return customers;
     }
 
     public CustomerDTO getCustomerByEmail(String email){
-        var message = jmsTemplate.sendAndReceive(destinationEmail, session -> session.createTextMessage(messageHelper.createTextMessage(destinationEmail)));
-        CustomerDTO response;
-        try {
-            response = messageHelper.getMessage(message, CustomerDTO.class);
-        } catch (JMSException e) {
-            throw new RuntimeException(e);
-        }
+        return found(jmsRpcClient.call(destinationEmail, email, CustomerDTO.class));
+    }
+
+    private static CustomerDTO found(CustomerDTO response) {
         if (response == null) {
             throw new IllegalArgumentException("Korisnik nije pronađen ili API nije vratio očekivani format.");
         }
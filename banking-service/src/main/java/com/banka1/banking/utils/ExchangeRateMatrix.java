@@ -0,0 +1,143 @@
+package com.banka1.banking.utils;
+
+import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.helper.CurrencyType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Nepromenljiva kursna lista, indeksirana po {@link CurrencyType#ordinal()} bazne i ciljne valute.
+ * <p>
+ * Pri pravljenju se za svaki par bez direktnog kursa upisuje obrnuti ({@code 1 / kurs(cilj, baza)}),
+ * isto kao sto je {@code ExchangeService} ranije radio sa dva upita, pa je {@link #rate} samo jedno citanje iz niza.
+ * Ako kurs ne postoji ni u jednom smeru, vrednost je {@link Double#NaN}.
+ */
+public final class ExchangeRateMatrix {
+
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+    private static final int SIZE = CURRENCIES.length;
+
+    public static final ExchangeRateMatrix EMPTY = new ExchangeRateMatrix(emptyRates(), null, null);
+
+    private final double[] rates;
+    private final LocalDate date;
+    private final Long version;
+
+    private ExchangeRateMatrix(double[] rates, LocalDate date, Long version) {
+        this.rates = rates;
+        this.date = date;
+        this.version = version;
+    }
+
+    private static double[] emptyRates() {
+        double[] rates = new double[SIZE * SIZE];
+        Arrays.fill(rates, Double.NaN);
+        return rates;
+    }
+
+    private static int index(CurrencyType base, CurrencyType target) {
+        return base.ordinal() * SIZE + target.ordinal();
+    }
+
+    /**
+     * Pravi matricu od kursnih parova. Datum i verzija matrice su najnoviji datum i verzija medju parovima.
+     */
+    public static ExchangeRateMatrix of(Collection<ExchangePair> pairs) {
+        double[] rates = emptyRates();
+        LocalDate date = null;
+        Long version = null;
+
+        for (ExchangePair pair : pairs) {
+            Double rate = pair.getExchangeRate();
+            if (rate == null || !(rate > 0) || Double.isInfinite(rate))
+                continue;
+
+            rates[index(pair.getBaseCurrency().getCode(), pair.getTargetCurrency().getCode())] = rate;
+            if (pair.getDate() != null && (date == null || pair.getDate().isAfter(date)))
+                date = pair.getDate();
+            if (pair.getVersion() != null && (version == null || pair.getVersion() > version))
+                version = pair.getVersion();
+        }
+
+        // direktan kurs ima prednost, obrnuti se upisuje samo gde direktnog nema
+        double[] direct = rates.clone();
+        for (CurrencyType base : CURRENCIES) {
+            for (CurrencyType target : CURRENCIES) {
+                if (base == target || !Double.isNaN(direct[index(base, target)]))
+                    continue;
+
+                double reverse = direct[index(target, base)];
+                if (!Double.isNaN(reverse))
+                    rates[index(base, target)] = 1 / reverse;
+            }
+        }
+
+        return new ExchangeRateMatrix(rates, date, version);
+    }
+
+    /**
+     * Kompaktan zapis cele matrice za istoriju kurseva: broj valuta (1 bajt), njihove sifre (po 3 ASCII znaka)
+     * i zatim {@code n * n} kurseva kao {@code double}, red po bazna valuta. Sifre se cuvaju da bi stari zapisi
+     * ostali citljivi i ako se {@link CurrencyType} kasnije prosiri ili preuredi.
+     */
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + SIZE * 3 + SIZE * SIZE * Double.BYTES);
+        buffer.put((byte) SIZE);
+        for (CurrencyType currency : CURRENCIES)
+            buffer.put(currency.name().getBytes(StandardCharsets.US_ASCII));
+        for (double rate : rates)
+            buffer.putDouble(rate);
+        return buffer.array();
+    }
+
+    /**
+     * Cita zapis iz {@link #encode()}. Valute koje vise ne postoje u {@link CurrencyType} se preskacu.
+     */
+    public static ExchangeRateMatrix decode(byte[] encoded, LocalDate date, Long version) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int size = Byte.toUnsignedInt(buffer.get());
+        CurrencyType[] currencies = new CurrencyType[size];
+        byte[] code = new byte[3];
+        for (int i = 0; i < size; i++) {
+            buffer.get(code);
+            String name = new String(code, StandardCharsets.US_ASCII);
+            currencies[i] = Arrays.stream(CURRENCIES).filter(c -> c.name().equals(name)).findFirst().orElse(null);
+        }
+
+        double[] rates = emptyRates();
+        for (int base = 0; base < size; base++) {
+            for (int target = 0; target < size; target++) {
+                double rate = buffer.getDouble();
+                if (currencies[base] != null && currencies[target] != null)
+                    rates[index(currencies[base], currencies[target])] = rate;
+            }
+        }
+        return new ExchangeRateMatrix(rates, date, version);
+    }
+
+    /**
+     * Kurs iz bazne u ciljnu valutu, ili {@link Double#NaN} ako ne postoji.
+     */
+    public double rate(CurrencyType base, CurrencyType target) {
+        return rates[index(base, target)];
+    }
+
+    public boolean has(CurrencyType base, CurrencyType target) {
+        return !Double.isNaN(rate(base, target));
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Verzija kursne liste iz baze, ili {@code null} ako matrica nije ucitana.
+     */
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,98 @@
+package com.banka1.banking.utils;
+
+import com.banka1.banking.models.helper.CurrencyType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Novac kao {@code long} broj najmanjih jedinica valute (para, cent, jen...).
+ * <p>
+ * Iznosi u entitetima, REST DTO-ovima i porukama izmedju banking i user servisa su u najmanjim jedinicama valute
+ * racuna, pa su sabiranje i oduzimanje tacni. Zaokruzuje se samo tamo gde iznos nastaje racunom (konverzija po kursu,
+ * procenat, rata kredita), uvek na broj decimala valute ({@link CurrencyType#getMinorUnits()}) i uvek bankarski
+ * (HALF_EVEN).
+ * <p>
+ * Decimalni iznosi ostaju samo na granici ka sistemima koji ih tako salju: trading servis (nalozi, OTC, porez)
+ * i medjubankarski protokol. Na ulazu se pretvaraju sa {@link #toMinor}, a na izlazu sa {@link #toMajor}.
+ */
+public final class Money {
+
+    /**
+     * Ako valuta nije poznata, racuna se kao da ima dve decimale.
+     */
+    private static final int DEFAULT_MINOR_UNITS = 2;
+
+    private static final double[] POWERS_OF_TEN = {1d, 10d, 100d, 1_000d, 10_000d, 100_000d, 1_000_000d};
+
+    /**
+     * Iznad ove vrednosti {@code double} vise ne moze tacno da predstavi svaku najmanju jedinicu.
+     */
+    private static final double MAX_EXACT = 1e15;
+
+    private static final long BASIS_POINTS = 10_000L;
+
+    private Money() {
+    }
+
+    public static int minorUnits(CurrencyType currency) {
+        return currency != null ? currency.getMinorUnits() : DEFAULT_MINOR_UNITS;
+    }
+
+    /**
+     * Pretvara iznos u najmanje jedinice valute, zaokruzeno HALF_EVEN.
+     * Proizvod u {@code double}-u se koristi direktno, osim kada je blizu polovine jedinice,
+     * jer tada binarna greska moze da promeni smer zaokruzivanja; tada se racuna decimalno.
+     */
+    public static long toMinor(double amount, CurrencyType currency) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount))
+            throw new IllegalArgumentException("Iznos nije konacan broj: " + amount);
+
+        int scale = minorUnits(currency);
+        double scaled = amount * POWERS_OF_TEN[scale];
+        double fraction = Math.abs(scaled - Math.floor(scaled));
+        if (Math.abs(scaled) >= MAX_EXACT || Math.abs(fraction - 0.5) < 1e-6)
+            return BigDecimal.valueOf(amount).setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        return (long) Math.rint(scaled);
+    }
+
+    public static double toMajor(long minor, CurrencyType currency) {
+        return minor / POWERS_OF_TEN[minorUnits(currency)];
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Deo iznosa u baznim poenima (100 = 1%), zaokruzeno HALF_EVEN.
+     */
+    public static long percent(long minor, long basisPoints) {
+        return divideHalfEven(Math.multiplyExact(minor, basisPoints), BASIS_POINTS);
+    }
+
+    /**
+     * Preracunava iznos iz najmanjih jedinica jedne valute u najmanje jedinice druge po kursu
+     * {@code 1 from = rate to}, vodeci racuna o razlici u broju decimala (npr. EUR -> JPY).
+     */
+    public static long convert(long minor, CurrencyType from, double rate, CurrencyType to) {
+        int shift = minorUnits(to) - minorUnits(from);
+        double value = minor * rate;
+        value = shift >= 0 ? value * POWERS_OF_TEN[shift] : value / POWERS_OF_TEN[-shift];
+        if (Double.isNaN(value) || Math.abs(value) >= Long.MAX_VALUE)
+            throw new ArithmeticException("Iznos je van opsega posle konverzije");
+        return (long) Math.rint(value);
+    }
+
+    static long divideHalfEven(long dividend, long divisor) {
+        long quotient = Math.floorDiv(dividend, divisor);
+        long twiceRemainder = 2 * Math.floorMod(dividend, divisor);
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0))
+            quotient++;
+        return quotient;
+    }
+}
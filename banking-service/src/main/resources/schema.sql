@@ -27,13 +27,14 @@ create table company
 drop table if exists account cascade;
 create table account
 (
-    balance                 double precision not null,
-    daily_limit             double precision not null,
-    daily_spent             double precision not null,
-    monthly_limit           double precision not null,
-    monthly_maintenance_fee double precision not null,
-    monthly_spent           double precision not null,
-    reserved_balance        double precision not null,
+    balance                 bigint not null,
+    daily_limit             bigint not null,
+    daily_spent             bigint not null,
+    monthly_limit           bigint not null,
+    monthly_maintenance_fee bigint not null,
+    monthly_spent           bigint not null,
+    spent_date              date,
+    reserved_balance        bigint not null,
     company_id              bigint
         constraint fkyx9qhair86pc6tnbh322xjg4
             references company,
@@ -70,7 +71,7 @@ create table card
 (
     active               boolean          not null,
     blocked              boolean          not null,
-    card_limit           double precision not null,
+    card_limit           bigint not null,
     account_id           bigint           not null
         constraint fk8v67eys6tqflsm6hrdgru2phu
             references account,
@@ -112,7 +113,22 @@ create table currency
 );
 
 
+drop table if exists exchange_rate_snapshot cascade;
+drop sequence if exists exchange_rate_snapshot_id_seq cascade;
+create sequence exchange_rate_snapshot_id_seq start with 1 increment by 1;
+create table exchange_rate_snapshot
+(
+    id         bigint default nextval('exchange_rate_snapshot_id_seq')
+        primary key,
+    date       date    not null,
+    pair_count integer not null,
+    created_at bigint  not null
+);
+
+
 drop table if exists exchange_pair cascade;
+drop sequence if exists exchange_pair_id_seq cascade;
+create sequence exchange_pair_id_seq start with 1 increment by 50;
 create table exchange_pair
 (
     date               date             not null,
@@ -120,25 +136,45 @@ create table exchange_pair
     base_currency_id   bigint           not null
         constraint fkkg59kymnfgyny7rsqufplwun4
             references currency,
-    id                 bigint generated by default as identity
+    id                 bigint default nextval('exchange_pair_id_seq')
         primary key,
     target_currency_id bigint           not null
         constraint fkef7bcvui45w4576jmvspq8u9h
-            references currency
+            references currency,
+    version            bigint           not null
 );
+create index exchange_pair_version_base_idx on exchange_pair (version, base_currency_id);
+
+
+-- Istorija kurseva: jedan red po danu sa celom matricom (ExchangeRateMatrix.encode), samo se dopisuje.
+-- Particionisano po godinama; redovi van navedenih godina idu u podrazumevanu particiju.
+drop table if exists exchange_rate_history cascade;
+create table exchange_rate_history
+(
+    date       date   not null
+        primary key,
+    version    bigint not null,
+    rates      bytea  not null,
+    created_at bigint not null
+) partition by range (date);
+create table exchange_rate_history_2025 partition of exchange_rate_history
+    for values from ('2025-01-01') to ('2026-01-01');
+create table exchange_rate_history_2026 partition of exchange_rate_history
+    for values from ('2026-01-01') to ('2027-01-01');
+create table exchange_rate_history_default partition of exchange_rate_history default;
 
 
 drop table if exists loan cascade;
 create table loan
 (
     effective_rate              double precision not null,
-    loan_amount                 double precision not null,
-    monthly_payment             double precision not null,
+    loan_amount                 bigint not null,
+    monthly_payment             bigint not null,
     nominal_rate                double precision not null,
     penalty                     double precision not null DEFAULT 0,
     number_of_installments      integer          not null,
     number_of_paid_installments integer          not null DEFAULT 0,
-    remaining_amount            double precision not null,
+    remaining_amount            bigint not null,
     account_id                  bigint           not null
         constraint fkgv9cgsh4k76wmaf83ktoekpub
             references account,
@@ -179,6 +215,7 @@ create table otp_token
     transfer_id     bigint       not null,
     otp_code        varchar(255) not null
 );
+create index otp_token_transfer_id_idx on otp_token (transfer_id);
 
 
 drop table if exists receiver cascade;
@@ -196,9 +233,11 @@ create table receiver
 
 
 drop table if exists transfer cascade;
+drop sequence if exists transfer_id_seq cascade;
+create sequence transfer_id_seq start with 1 increment by 50;
 create table transfer
 (
-    amount              double precision not null,
+    amount              bigint not null,
     completed_at        bigint,
     created_at          bigint,
     from_account_id     bigint
@@ -207,7 +246,7 @@ create table transfer
     from_currency_id    bigint           not null
         constraint fkc6agh3nies7d6f97aapxdhg06
             references currency,
-    id                  bigint generated by default as identity
+    id                  bigint default nextval('transfer_id_seq')
         primary key,
     to_account_id       bigint
         constraint fkrppn0djf9uip7gj308swxq54j
@@ -223,6 +262,8 @@ create table transfer
     payment_reference   varchar(255),
     receiver            varchar(255),
     status              varchar(255),
+    quote_id            varchar(255),
+    quoted_exchange     varchar(1000),
     saved_receiver_id   bigint
         constraint transfer_status_check
             check ((status)::text = ANY
@@ -231,16 +272,19 @@ create table transfer
     type                varchar(255)
         constraint transfer_type_check
             check ((type)::text = ANY
-                   ((ARRAY ['INTERNAL'::character varying, 'EXTERNAL'::character varying, 'EXCHANGE'::character varying, 'FOREIGN'::character varying, 'FOREIGN_BANK'::character varying])::text[]))
+                   ((ARRAY ['INTERNAL'::character varying, 'EXTERNAL'::character varying, 'EXCHANGE'::character varying, 'FOREIGN'::character varying, 'FOREIGN_BANK'::character varying, 'BULK'::character varying])::text[]))
 );
+create index transfer_status_created_at_idx on transfer (status, created_at);
 
 
 drop table if exists transaction cascade;
+drop sequence if exists transaction_id_seq cascade;
+create sequence transaction_id_seq start with 1 increment by 50;
 create table transaction
 (
-    amount          double precision not null,
-    final_amount    double precision not null,
-    fee             double precision not null,
+    amount          bigint not null,
+    final_amount    bigint not null,
+    fee             bigint not null,
     bank_only       boolean          not null,
     currency_id     bigint           not null
         constraint fklcx7g8g7x4fyns9k6vesu3n9n
@@ -248,7 +292,7 @@ create table transaction
     from_account_id bigint
         constraint fkrff4jlxetafju1e5cks5mfcnk
             references account,
-    id              bigint generated by default as identity
+    id              bigint default nextval('transaction_id_seq')
         primary key,
     timestamp       bigint           not null,
     date    varchar(255)           not null,
@@ -264,9 +308,11 @@ create table transaction
 
 
 drop table if exists installment cascade;
+drop sequence if exists installment_id_seq cascade;
+create sequence installment_id_seq start with 1 increment by 50;
 create table installment
 (
-    amount             double precision not null,
+    amount             bigint not null,
     attempt_count      integer          not null,
     installment_number integer          not null,
     currency_type      smallint         not null
@@ -277,7 +323,7 @@ create table installment
     lawsuit            boolean          not null DEFAULT FALSE,
     actual_due_date    bigint,
     expected_due_date  varchar(255)     not null,
-    id                 bigint generated by default as identity
+    id                 bigint default nextval('installment_id_seq')
         primary key,
     loan_id            bigint           not null
         constraint fkddvr1rongdlfl3pmj87eg48cy
@@ -309,13 +355,13 @@ create table otc_transaction
 (
     id                bigint generated by default as identity
         primary key,
-    amount            double precision not null,
+    amount            bigint not null,
     uid               varchar(255)     not null
         unique,
     failed            boolean          not null DEFAULT false,
     finished          boolean          not null DEFAULT false,
-    amount_taken      double precision not null DEFAULT -1,
-    amount_given      double precision not null DEFAULT -1,
+    amount_taken      bigint not null DEFAULT -1,
+    amount_given      bigint not null DEFAULT -1,
     seller_account_id bigint
         constraint fk5fp8nocwl0ei3m0ffmfa1bmdq
             references account,
@@ -327,11 +373,15 @@ create table otc_transaction
 
 -- Drop if exists (za sigurnost)
 drop table if exists event_delivery cascade;
+drop sequence if exists event_delivery_id_seq cascade;
+create sequence event_delivery_id_seq start with 1 increment by 50;
 drop table if exists event cascade;
+drop sequence if exists event_id_seq cascade;
+create sequence event_id_seq start with 1 increment by 50;
 
 -- Tabela: event
 create table event (
-                       id bigint generated by default as identity primary key,
+                       id bigint default nextval('event_id_seq') primary key,
                        message_type varchar(255),
                        payload text,
                        url varchar(255),
@@ -345,7 +395,7 @@ create table event (
 
 -- Tabela: event_delivery
 create table event_delivery (
-                                id bigint generated by default as identity primary key,
+                                id bigint default nextval('event_delivery_id_seq') primary key,
                                 event_id bigint not null
                                     references event(id) on delete cascade,
                                 sent_at timestamp,
@@ -353,4 +403,158 @@ create table event_delivery (
                                 http_status integer,
                                 response_body text,
                                 duration_ms bigint
-);
\ No newline at end of file
+);
+
+drop table if exists house_account_shard cascade;
+create table house_account_shard
+(
+    id          bigint generated by default as identity
+        primary key,
+    account_id  bigint           not null
+        references account,
+    shard_index integer          not null,
+    balance     bigint not null DEFAULT 0,
+    unique (account_id, shard_index)
+);
+
+
+drop table if exists ledger_posting cascade;
+drop sequence if exists ledger_posting_id_seq cascade;
+create sequence ledger_posting_id_seq start with 1 increment by 1;
+create table ledger_posting
+(
+    id             bigint default nextval('ledger_posting_id_seq')
+        primary key,
+    entry_id       varchar(255)     not null,
+    account_id     bigint
+        references account,
+    transaction_id bigint
+        references transaction,
+    direction      varchar(255)     not null
+        constraint ledger_posting_direction_check
+            check ((direction)::text = ANY ((ARRAY ['DEBIT'::character varying, 'CREDIT'::character varying])::text[])),
+    amount         bigint not null,
+    currency_type  varchar(255)     not null,
+    created_at     bigint           not null
+);
+create index ledger_posting_account_id_idx on ledger_posting (account_id, id);
+create index ledger_posting_entry_id_idx on ledger_posting (entry_id);
+
+
+drop table if exists account_balance_projection cascade;
+create table account_balance_projection
+(
+    account_id      bigint           not null
+        primary key,
+    balance         bigint not null,
+    last_posting_id bigint           not null,
+    updated_at      bigint           not null
+);
+
+
+drop table if exists ledger_checkpoint cascade;
+create table ledger_checkpoint
+(
+    name            varchar(255) not null
+        primary key,
+    last_posting_id bigint       not null
+);
+
+
+drop table if exists funds_hold cascade;
+create table funds_hold
+(
+    id          bigint generated by default as identity
+        primary key,
+    account_id  bigint           not null
+        references account,
+    amount      bigint not null,
+    reference   varchar(255)     not null
+        unique,
+    status      varchar(255)     not null
+        constraint funds_hold_status_check
+            check ((status)::text = ANY ((ARRAY ['ACTIVE'::character varying, 'CAPTURED'::character varying, 'RELEASED'::character varying, 'EXPIRED'::character varying])::text[])),
+    created_at  bigint           not null,
+    expires_at  bigint,
+    resolved_at bigint
+);
+create index funds_hold_status_expires_at_idx on funds_hold (status, expires_at);
+
+
+drop table if exists bulk_payment cascade;
+drop sequence if exists bulk_payment_id_seq cascade;
+create sequence bulk_payment_id_seq start with 1 increment by 50;
+create table bulk_payment
+(
+    id                bigint default nextval('bulk_payment_id_seq')
+        primary key,
+    company_id        bigint           not null
+        references company,
+    source_account_id bigint           not null
+        references account,
+    transfer_id       bigint           not null
+        unique
+        references transfer,
+    total_amount      bigint not null,
+    line_count        integer          not null,
+    completed_count   integer          not null,
+    failed_count      integer          not null,
+    refunded_amount   bigint not null,
+    status            varchar(255)     not null
+        constraint bulk_payment_status_check
+            check ((status)::text = ANY ((ARRAY ['PENDING'::character varying, 'PROCESSING'::character varying, 'COMPLETED'::character varying, 'PARTIALLY_COMPLETED'::character varying, 'FAILED'::character varying])::text[])),
+    created_at        bigint           not null,
+    completed_at      bigint
+);
+
+
+drop table if exists bulk_payment_line cascade;
+drop sequence if exists bulk_payment_line_id_seq cascade;
+create sequence bulk_payment_line_id_seq start with 1 increment by 50;
+create table bulk_payment_line
+(
+    id                  bigint default nextval('bulk_payment_line_id_seq')
+        primary key,
+    bulk_payment_id     bigint       not null
+        references bulk_payment,
+    line_number         integer      not null,
+    recipient_account   varchar(255) not null,
+    receiver            varchar(255),
+    amount              bigint,
+    payment_reference   varchar(255),
+    payment_description varchar(255),
+    status              varchar(255) not null
+        constraint bulk_payment_line_status_check
+            check ((status)::text = ANY ((ARRAY ['PENDING'::character varying, 'COMPLETED'::character varying, 'FAILED'::character varying, 'REJECTED'::character varying])::text[])),
+    error               varchar(255),
+    processed_at        bigint
+);
+create index bulk_payment_line_bulk_payment_id_idx on bulk_payment_line (bulk_payment_id, id);
+create index bulk_payment_line_bulk_payment_id_status_idx on bulk_payment_line (bulk_payment_id, status, id);
+
+
+drop table if exists order_fill cascade;
+drop sequence if exists order_fill_id_seq cascade;
+create sequence order_fill_id_seq start with 1 increment by 50;
+create table order_fill
+(
+    id                     bigint default nextval('order_fill_id_seq')
+        primary key,
+    uid                    varchar(255)
+        unique,
+    buyer_account_id       bigint           not null,
+    seller_account_id      bigint           not null,
+    amount                 bigint not null,
+    currency_type          varchar(255),
+    status                 varchar(255)     not null
+        constraint order_fill_status_check
+            check ((status)::text = ANY ((ARRAY ['PENDING'::character varying, 'SETTLED'::character varying, 'REJECTED'::character varying])::text[])),
+    error                  varchar(255),
+    settlement_transfer_id bigint
+        references transfer,
+    reply_to               varchar(255),
+    correlation_id         varchar(255),
+    received_at            bigint           not null,
+    settled_at             bigint
+);
+create index order_fill_pending_idx on order_fill (id) where status = 'PENDING';
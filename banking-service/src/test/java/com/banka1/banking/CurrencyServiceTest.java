@@ -3,32 +3,48 @@ package com.banka1.banking;
 import com.banka1.banking.dto.ExchangePairDTO;
 import com.banka1.banking.models.Currency;
 import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.ExchangeRateSnapshot;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.repository.ExchangePairRepository;
+import com.banka1.banking.repository.ExchangeRateHistoryRepository;
+import com.banka1.banking.repository.ExchangeRateSnapshotRepository;
 import com.banka1.banking.services.CurrencyService;
+import com.banka1.banking.services.ExchangeRateCache;
+import com.banka1.banking.services.ExchangeRateProvider;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyServiceTest {
 
+    /** Vrednost jedne jedinice valute u RSD, iz koje se prave medjusobno reciprocni kursevi. */
+    private static final Map<CurrencyType, Double> RSD_VALUE = Map.of(
+            CurrencyType.RSD, 1.0,
+            CurrencyType.EUR, 117.3,
+            CurrencyType.USD, 108.5,
+            CurrencyType.CHF, 122.0,
+            CurrencyType.GBP, 140.0,
+            CurrencyType.JPY, 0.72,
+            CurrencyType.CAD, 78.0,
+            CurrencyType.AUD, 70.0
+    );
+
     @Mock
     private ExchangePairRepository exchangePairRepository;
 
@@ -36,72 +52,173 @@ class CurrencyServiceTest {
     private CurrencyRepository currencyRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private ExchangeRateCache exchangeRateCache;
+
+    @Mock
+    private ExchangeRateSnapshotRepository exchangeRateSnapshotRepository;
+
+    @Mock
+    private ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<CurrencyType, Map<CurrencyType, Double>> providedRates = new EnumMap<>(CurrencyType.class);
+    private ExchangeRateProvider provider = base -> providedRates.getOrDefault(base, Map.of());
 
-    @InjectMocks
     private CurrencyService currencyService;
 
+    @BeforeEach
+    void setUp() {
+        for (CurrencyType base : CurrencyType.values()) {
+            Map<CurrencyType, Double> rates = new EnumMap<>(CurrencyType.class);
+            for (CurrencyType target : CurrencyType.values()) {
+                if (base != target)
+                    rates.put(target, RSD_VALUE.get(base) / RSD_VALUE.get(target));
+            }
+            providedRates.put(base, rates);
+        }
+        currencyService = newService();
+    }
+
+    private CurrencyService newService() {
+        return new CurrencyService(exchangePairRepository, currencyRepository, exchangeRateCache,
+                exchangeRateSnapshotRepository, exchangeRateHistoryRepository, base -> provider.fetchRates(base), transactionManager, 1_000, false, 3);
+    }
+
+    private static Currency currency(CurrencyType code) {
+        Currency currency = new Currency();
+        currency.setCode(code);
+        return currency;
+    }
+
+    private static ExchangePair pair(CurrencyType base, CurrencyType target, double rate) {
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(currency(base));
+        pair.setTargetCurrency(currency(target));
+        pair.setExchangeRate(rate);
+        pair.setDate(LocalDate.now());
+        return pair;
+    }
+
     @Test
     @DisplayName("Test: fetchExchangeRates() - Uspešno generisanje kursne liste")
     void testFetchExchangeRates_Success() {
-        // Mock API response
-        Map<String, Double> mockRates = Map.of(
-                "EUR", 117.3,
-                "USD", 108.5
-        );
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.EMPTY);
+        when(currencyRepository.findAll()).thenReturn(Arrays.stream(CurrencyType.values()).map(CurrencyServiceTest::currency).toList());
+        when(exchangeRateSnapshotRepository.save(any(ExchangeRateSnapshot.class))).thenAnswer(invocation -> {
+            ExchangeRateSnapshot snapshot = invocation.getArgument(0);
+            snapshot.setId(7L);
+            return snapshot;
+        });
+        when(exchangeRateSnapshotRepository.findLatestIds(any())).thenReturn(List.of(7L, 6L, 5L));
+
+        assertTrue(currencyService.fetchExchangeRates());
+
+        int size = CurrencyType.values().length;
+        // cela lista se upisuje jednim saveAll kao verzija 7, a posle toga se brisu verzije starije od poslednje tri
+        verify(exchangePairRepository).saveAll(argThat((Iterable<ExchangePair> pairs) -> {
+            List<ExchangePair> list = new ArrayList<>();
+            pairs.forEach(list::add);
+            return list.size() == size * (size - 1) && list.stream().allMatch(pair -> pair.getVersion() == 7L);
+        }));
+        verify(exchangePairRepository).deleteByVersionLessThan(5L);
+        verify(exchangePairRepository, never()).deleteAll();
+        // dan se dopisuje u istoriju kao cela matrica
+        verify(exchangeRateHistoryRepository).appendIfAbsent(eq(LocalDate.now()), eq(7L),
+                argThat(bytes -> ExchangeRateMatrix.decode(bytes, LocalDate.now(), 7L).rate(CurrencyType.EUR, CurrencyType.RSD) == 117.3), anyLong());
+
+        // nova kursna lista se objavljuje menjacnici
+        verify(exchangeRateCache).publish(argThat(matrix ->
+                matrix.getVersion() == 7L && matrix.rate(CurrencyType.EUR, CurrencyType.RSD) == 117.3
+        ));
+    }
 
-        // Simulacija API poziva
-        when(restTemplate.getForObject(eq("https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/rsd.json"), eq(String.class)))
-                .thenReturn("{\"rsd\":{\"eur\":117.3,\"usd\":108.5}}");
+    @Test
+    @DisplayName("Test: fetchExchangeRates() - Nepromenjena lista se ne upisuje ponovo")
+    void testFetchExchangeRates_UnchangedRatesAreNotStored() {
+        List<ExchangePair> active = new ArrayList<>();
+        providedRates.forEach((base, rates) -> rates.forEach((target, rate) -> {
+            ExchangePair pair = pair(base, target, rate);
+            pair.setVersion(7L);
+            active.add(pair);
+        }));
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(active));
+
+        assertTrue(currencyService.fetchExchangeRates());
+
+        verify(exchangeRateSnapshotRepository, never()).save(any());
+        verify(exchangePairRepository, never()).saveAll(any());
+        verify(exchangeRateCache, never()).publish(any());
+    }
 
-        // Mock baze valuta
-        Currency rsd = new Currency();
-        rsd.setCode(CurrencyType.RSD);
+    @Test
+    @DisplayName("Test: refreshIntraday() - Osvezavanje tokom dana radi samo kada je ukljuceno")
+    void testRefreshIntraday_DisabledByDefault() {
+        currencyService.refreshIntraday();
 
-        Currency eur = new Currency();
-        eur.setCode(CurrencyType.EUR);
+        verifyNoInteractions(exchangeRateCache, exchangePairRepository);
+    }
 
-        Currency usd = new Currency();
-        usd.setCode(CurrencyType.USD);
+    @Test
+    @DisplayName("Test: fetchExchangeRates() - Nepotpuna lista ne menja postojeću")
+    void testFetchExchangeRates_IncompleteMatrixKeepsPreviousRates() {
+        providedRates.get(CurrencyType.USD).remove(CurrencyType.JPY);
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of()));
 
-        when(currencyRepository.findByCode(CurrencyType.RSD)).thenReturn(Optional.of(rsd));
-        when(currencyRepository.findByCode(CurrencyType.EUR)).thenReturn(Optional.of(eur));
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(usd));
+        assertFalse(currencyService.fetchExchangeRates());
 
-        // Poziv testirane metode
-        currencyService.fetchExchangeRates();
+        verifyNoInteractions(exchangePairRepository, transactionManager);
+        verify(exchangeRateCache, never()).publish(any());
+        verifyNoInteractions(exchangeRateHistoryRepository);
+    }
 
-        // Provera da li su kursni parovi sačuvani u bazi
-        verify(exchangePairRepository, times(1)).save(argThat(pair ->
-                pair.getBaseCurrency().getCode() == CurrencyType.RSD &&
-                        pair.getTargetCurrency().getCode() == CurrencyType.EUR &&
-                        pair.getExchangeRate() == 117.3
-        ));
+    @Test
+    @DisplayName("Test: fetchExchangeRates() - Greška izvora ne briše postojeću listu")
+    void testFetchExchangeRates_ProviderFailureKeepsPreviousRates() {
+        provider = base -> {
+            if (base == CurrencyType.CHF)
+                throw new IllegalStateException("503");
+            return providedRates.get(base);
+        };
+        ExchangePair active = pair(CurrencyType.EUR, CurrencyType.RSD, 117.3);
+        active.setVersion(3L);
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(active)));
+
+        assertFalse(currencyService.fetchExchangeRates());
+
+        verify(exchangePairRepository, never()).saveAll(any());
+        verify(exchangePairRepository, never()).deleteByVersionLessThan(any());
+        verify(exchangeRateCache, never()).publish(any());
+    }
 
-        verify(exchangePairRepository, times(1)).save(argThat(pair ->
-                pair.getBaseCurrency().getCode() == CurrencyType.RSD &&
-                        pair.getTargetCurrency().getCode() == CurrencyType.USD &&
-                        pair.getExchangeRate() == 108.5
-        ));
+    @Test
+    @DisplayName("Test: fetchExchangeRates() - Pri pokretanju bez izvora učitava se poslednja verzija iz baze")
+    void testFetchExchangeRates_FailureOnStartupLoadsStoredSnapshot() {
+        provider = base -> {
+            throw new IllegalStateException("offline");
+        };
+        ExchangeRateSnapshot snapshot = new ExchangeRateSnapshot();
+        snapshot.setId(4L);
+        ExchangePair stored = pair(CurrencyType.EUR, CurrencyType.RSD, 117.3);
+        stored.setVersion(4L);
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.EMPTY);
+        when(exchangeRateSnapshotRepository.findTopByOrderByIdDesc()).thenReturn(Optional.of(snapshot));
+        when(exchangePairRepository.findByVersion(4L)).thenReturn(List.of(stored));
+
+        assertFalse(currencyService.fetchExchangeRates());
+
+        verify(exchangeRateCache).publish(argThat(matrix -> matrix.getVersion() == 4L));
     }
 
     @Test
     @DisplayName("Test: getExchangeRatesForBaseCurrency() - Prikaz kursne liste u odnosu na EUR")
     void testGetExchangeRatesForBaseCurrency_Success() {
-        // Mock podataka iz baze
-        Currency eur = new Currency();
-        eur.setCode(CurrencyType.EUR);
-
-        Currency usd = new Currency();
-        usd.setCode(CurrencyType.USD);
-
-        ExchangePair eurToUsd = new ExchangePair();
-        eurToUsd.setBaseCurrency(eur);
-        eurToUsd.setTargetCurrency(usd);
-        eurToUsd.setExchangeRate(1.1);
-        eurToUsd.setDate(LocalDate.now());
+        ExchangePair eurToUsd = pair(CurrencyType.EUR, CurrencyType.USD, 1.1);
+        eurToUsd.setVersion(5L);
 
-        when(exchangePairRepository.findByBaseCurrencyCode(CurrencyType.EUR))
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(eurToUsd)));
+        when(exchangePairRepository.findByVersionAndBaseCurrencyCode(5L, CurrencyType.EUR))
                 .thenReturn(List.of(eurToUsd));
 
         // Poziv metode
@@ -114,6 +231,27 @@ class CurrencyServiceTest {
         assertEquals(1.1, result.get(0).getExchangeRate());
     }
 
+    @Test
+    @DisplayName("Test: getAllExchangeRates() - Verzija koju je obrisao drugi cvor se zamenjuje poslednjom upisanom")
+    void testGetAllExchangeRates_DeletedVersionFallsBackToLatestSnapshot() {
+        ExchangePair served = pair(CurrencyType.EUR, CurrencyType.RSD, 117.3);
+        served.setVersion(5L);
+        ExchangePair latest = pair(CurrencyType.EUR, CurrencyType.RSD, 117.4);
+        latest.setVersion(9L);
+        ExchangeRateSnapshot snapshot = new ExchangeRateSnapshot();
+        snapshot.setId(9L);
+
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(served)));
+        when(exchangePairRepository.findByVersion(5L)).thenReturn(List.of());
+        when(exchangeRateSnapshotRepository.findTopByOrderByIdDesc()).thenReturn(Optional.of(snapshot));
+        when(exchangePairRepository.findByVersion(9L)).thenReturn(List.of(latest));
+
+        List<ExchangePairDTO> result = currencyService.getAllExchangeRates();
+
+        assertEquals(1, result.size());
+        assertEquals(117.4, result.get(0).getExchangeRate());
+    }
+
     @Test
     @DisplayName("Test: testGetAvailableCurrencies() - Provera dobijanja svih dostupnih valuta")
     void testGetAvailableCurrencies() {
@@ -136,22 +274,13 @@ class CurrencyServiceTest {
     }
 
     @Test
-    @DisplayName("Test: getAllExchangeRates() - Provera dobijanja svih kurseva")
+    @DisplayName("Test: getAllExchangeRates() - Provera dobijanja svih kurseva aktivne verzije")
     void testGetAllExchangeRates() {
-        // Mock podaci
-        Currency rsd = new Currency();
-        rsd.setCode(CurrencyType.RSD);
-
-        Currency eur = new Currency();
-        eur.setCode(CurrencyType.EUR);
-
-        ExchangePair pair = new ExchangePair();
-        pair.setBaseCurrency(rsd);
-        pair.setTargetCurrency(eur);
-        pair.setExchangeRate(117.3);
-        pair.setDate(LocalDate.now());
+        ExchangePair pair = pair(CurrencyType.RSD, CurrencyType.EUR, 117.3);
+        pair.setVersion(5L);
 
-        when(exchangePairRepository.findAll()).thenReturn(List.of(pair));
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(pair)));
+        when(exchangePairRepository.findByVersion(5L)).thenReturn(List.of(pair));
 
         // Poziv metode
         List<ExchangePairDTO> result = currencyService.getAllExchangeRates();
@@ -166,14 +295,14 @@ class CurrencyServiceTest {
     @Test
     @DisplayName("Test: fetchExchangeRates() - API vraća prazan odgovor")
     void testFetchExchangeRates_EmptyResponse() {
-        // Simulacija praznog API odgovora
-        when(restTemplate.getForObject(eq("https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/rsd.json"), eq(String.class)))
-                .thenReturn("{\"rsd\":{}}");
+        providedRates.put(CurrencyType.RSD, Map.of());
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.EMPTY);
 
         // Pokretanje metode
-        currencyService.fetchExchangeRates();
+        assertFalse(currencyService.fetchExchangeRates());
 
         // Provera da se ništa ne čuva u bazi jer API nije vratio podatke
+        verify(exchangePairRepository, never()).saveAll(any());
         verify(exchangePairRepository, never()).save(any(ExchangePair.class));
     }
 }
@@ -25,7 +25,7 @@ class ExchangeControllerTest {
     @Test
     void testExchangeMoneyTransfer_Success() {
         ExchangeMoneyTransferDTO dto = new ExchangeMoneyTransferDTO();
-        dto.setAmount(100.0);
+        dto.setAmount(10000L);
         
         when(exchangeService.validateExchangeTransfer(dto)).thenReturn(true);
         when(exchangeService.createExchangeTransfer(dto)).thenReturn(123L);
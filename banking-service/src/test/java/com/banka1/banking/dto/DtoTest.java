@@ -73,11 +73,12 @@ public class DtoTest {
 
         
         // Test ExchangePreviewDTO
-        ExchangePreviewDTO exchangePreviewDTO = new ExchangePreviewDTO("USD", "EUR", 100.0);
+        ExchangePreviewDTO exchangePreviewDTO = new ExchangePreviewDTO("USD", "EUR", 10000L, 1L);
         ExchangePreviewDTO emptyExchangePreviewDTO = new ExchangePreviewDTO();
         emptyExchangePreviewDTO.setFromCurrency("USD");
         emptyExchangePreviewDTO.setToCurrency("EUR");
-        emptyExchangePreviewDTO.setAmount(100.0);
+        emptyExchangePreviewDTO.setAmount(10000L);
+        emptyExchangePreviewDTO.setAccountFrom(1L);
 
         // Test toString methods
         assertNotNull(authorizedPersonDTO.toString());
@@ -0,0 +1,114 @@
+package com.banka1.banking.listener;
+
+import com.banka1.common.listener.JmsRpcClient;
+import com.banka1.common.listener.MessageHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageListener;
+import jakarta.validation.Validation;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link JmsRpcClient} sa ugradjenim brokerom. Listener-i imaju transakcione sesije, kao sto ih pravi Spring Boot.
+ */
+class JmsRpcClientTest {
+
+    private final MessageHelper messageHelper = new MessageHelper(
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+    private final List<DefaultMessageListenerContainer> containers = new ArrayList<>();
+
+    private BrokerService broker;
+    private CachingConnectionFactory connectionFactory;
+    private JmsTemplate jmsTemplate;
+    private JmsRpcClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName("rpc-test");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        broker.waitUntilStarted();
+
+        connectionFactory = new CachingConnectionFactory(new ActiveMQConnectionFactory("vm://rpc-test?create=false"));
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        client = new JmsRpcClient(connectionFactory, messageHelper, Duration.ofSeconds(3));
+
+        // odgovara kao user-service na get-customer
+        listen("get-customer", message -> {
+            try {
+                messageHelper.sendReply(jmsTemplate, message, "Korisnik " + messageHelper.getMessage(message, Long.class));
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        containers.forEach(DefaultMessageListenerContainer::shutdown);
+        connectionFactory.destroy();
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Test
+    void testCall() {
+        assertEquals("Korisnik 7", client.call("get-customer", 7L, String.class));
+    }
+
+    @Test
+    void testCallFromTransactedListener() throws Exception {
+        // kao AccountListener: usred obrade poruke trazi korisnika od user-service-a
+        CompletableFuture<String> result = new CompletableFuture<>();
+        listen("create-account", message -> {
+            try {
+                result.complete(client.call("get-customer", 42L, String.class));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        jmsTemplate.convertAndSend("create-account", "{}");
+
+        assertEquals("Korisnik 42", result.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRequestTimesOutWithoutReply() {
+        CompletableFuture<String> result = client.request("nobody-listens", 1L, String.class);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    private void listen(String destination, MessageListener listener) {
+        DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(destination);
+        container.setSessionTransacted(true);
+        container.setMessageListener(listener);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+    }
+}
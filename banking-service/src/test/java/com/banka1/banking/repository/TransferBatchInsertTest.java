@@ -0,0 +1,127 @@
+package com.banka1.banking.repository;
+
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.Transaction;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
+import com.banka1.banking.services.LedgerService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Broji SQL naredbe koje upis jednog transfera salje bazi. Sa ID-jevima iz sekvence Hibernate moze
+ * da grupise insert-e iste tabele u jedan JDBC batch, pa broj naredbi zavisi od broja tabela, a ne redova.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransferBatchInsertTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    private Statistics statistics;
+
+    private Currency rsd;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        rsd = new Currency();
+        rsd.setName("Serbian Dinar");
+        rsd.setCode(CurrencyType.RSD);
+        rsd.setCountry("Serbia");
+        rsd.setSymbol("RSD");
+        currencyRepository.saveAndFlush(rsd);
+
+        // Prvi upis uzima blok ID-jeva iz sekvence; to se ne racuna u naredbe po transferu
+        Transfer warmup = transferRepository.saveAndFlush(transfer());
+        transactionRepository.saveAndFlush(transaction(warmup));
+        statistics.clear();
+    }
+
+    private Transfer transfer() {
+        Transfer transfer = new Transfer();
+        transfer.setAmount(10000L);
+        transfer.setFromCurrency(rsd);
+        transfer.setToCurrency(rsd);
+        transfer.setType(TransferType.EXCHANGE);
+        transfer.setStatus(TransferStatus.COMPLETED);
+        transfer.setCreatedAt(System.currentTimeMillis());
+        return transfer;
+    }
+
+    private Transaction transaction(Transfer transfer) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(10000L);
+        transaction.setFinalAmount(10000L);
+        transaction.setFee(0L);
+        transaction.setBankOnly(true);
+        transaction.setCurrency(rsd);
+        transaction.setTimestamp(System.currentTimeMillis());
+        transaction.setDate("01/01/2025");
+        transaction.setTime("12:00");
+        transaction.setTransfer(transfer);
+        return transaction;
+    }
+
+    @Test
+    void internalTransfer_oneStatementPerTable() {
+        Transfer transfer = transferRepository.save(transfer());
+        transactionRepository.save(transaction(transfer));
+        entityManager.flush();
+
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void foreignToForeignExchange_fourTransactionsInOneBatch() {
+        Transfer transfer = transferRepository.saveAndFlush(transfer());
+        statistics.clear();
+
+        transactionRepository.saveAll(List.of(transaction(transfer), transaction(transfer), transaction(transfer), transaction(transfer)));
+        entityManager.flush();
+
+        assertEquals(4, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rsdToForeignExchange_interleavedInsertsAreOrderedByTable() {
+        Transfer toBank = transferRepository.save(transfer());
+        transactionRepository.save(transaction(toBank));
+        Transfer fromBank = transferRepository.save(transfer());
+        transactionRepository.saveAll(List.of(transaction(toBank), transaction(fromBank)));
+        entityManager.flush();
+
+        assertEquals(5, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -56,15 +56,15 @@ class LoanPaymentSchedulerTest {
 	@BeforeEach
 	void setUp() {
 		userAccount = new Account();
-		userAccount.setBalance(5000.0);
+		userAccount.setBalance(500000L);
 		userAccount.setCurrencyType(CurrencyType.AUD);
 
 		bankAccount = new Account();
-		bankAccount.setBalance(10000.0);
+		bankAccount.setBalance(1_000_000L);
 		bankAccount.setCurrencyType(CurrencyType.AUD);
 
 		loan = new Loan();
-		loan.setLoanAmount(1000.0);
+		loan.setLoanAmount(100000L);
 		loan.setEffectiveRate(4.45);
 		loan.setInterestType(InterestType.FIXED);
 		loan.setLoanType(LoanType.CASH);
@@ -99,8 +99,7 @@ class LoanPaymentSchedulerTest {
 		when(installmentsRepository.getDueInstallments(any(LocalDate.class))).thenReturn(Arrays.asList(installment1,
 				installment2));
 		when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.AUD)).thenReturn(bankAccount);
-		when(transferService.validateMoneyTransfer(any(MoneyTransferDTO.class))).thenReturn(true);
-		when(transferService.createMoneyTransferEntity(eq(userAccount), eq(bankAccount), any(MoneyTransferDTO.class))).thenReturn(transfer);
+		when(transferService.settleSystemTransfer(eq(userAccount), eq(bankAccount), any(MoneyTransferDTO.class))).thenReturn(transfer);
 		when(loanRepository.save(any(Loan.class))).then(invocationOnMock -> invocationOnMock.getArgument(0));
 
 		installment1.setAmount(loanService.calculateInstallment(loan.getLoanAmount(), installment1.getInterestRate(), loan.getNumberOfInstallments()));
@@ -123,7 +122,7 @@ class LoanPaymentSchedulerTest {
 				installment2));
 		when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.AUD)).thenReturn(bankAccount);
 
-		userAccount.setBalance(50.0);
+		userAccount.setBalance(5000L);
 
 		installment1.setAmount(loanService.calculateInstallment(loan.getLoanAmount(), installment1.getInterestRate(), loan.getNumberOfInstallments()));
 		installment2.setAmount(loanService.calculateInstallment(loan.getLoanAmount(), installment2.getInterestRate(), loan.getNumberOfInstallments()));
@@ -143,7 +142,7 @@ class LoanPaymentSchedulerTest {
 	void testProcessLoanPaymentsInvalidTransfer() {
 		when(installmentsRepository.getDueInstallments(any(LocalDate.class))).thenReturn(Arrays.asList(installment1,
 				installment2));
-		when(transferService.validateMoneyTransfer(any(MoneyTransferDTO.class))).thenReturn(false);
+		when(transferService.settleSystemTransfer(any(), any(), any(MoneyTransferDTO.class))).thenThrow(new IllegalArgumentException("Nevalidan sistemski transfer"));
 		when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.AUD)).thenReturn(bankAccount);
 
 		installment1.setAmount(loanService.calculateInstallment(loan.getLoanAmount(), installment1.getInterestRate(), loan.getNumberOfInstallments()));
@@ -168,25 +167,25 @@ class LoanPaymentSchedulerTest {
 
 	@Test
 	void testCalculateInstallment_WithInterest() {
-		Double loanAmount = 1000.0;
+		Long loanAmount = 100000L;
 		Double annualInterestRate = 12.0; // 12%
 		Integer numberOfInstallments = 12;
 
-		Double installment = loanService.calculateInstallment(loanAmount, annualInterestRate / 12, numberOfInstallments);
+		long installment = loanService.calculateInstallment(loanAmount, annualInterestRate / 12, numberOfInstallments);
 
 		// Expected monthly payment with 1% monthly interest rate
 		// Using formula: P * [r(1+r)^n]/[(1+r)^n-1]
-		assertTrue(installment > 83.0 && installment < 89.0); // Approximate value should be around 88.85
+		assertTrue(installment > 8300 && installment < 8900); // Approximate value should be around 8885
 	}
 
 	@Test
 	void testCalculateInstallment_ZeroInterest() {
-		Double loanAmount = 1000.0;
+		Long loanAmount = 100000L;
 		Double annualInterestRate = 0.0;
 		Integer numberOfInstallments = 10;
 
-		Double installment = loanService.calculateInstallment(loanAmount, annualInterestRate, numberOfInstallments);
+		long installment = loanService.calculateInstallment(loanAmount, annualInterestRate, numberOfInstallments);
 
-		assertEquals(100.0, installment);
+		assertEquals(10000L, installment);
 	}
 }
\ No newline at end of file
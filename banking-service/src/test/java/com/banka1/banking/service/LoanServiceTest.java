@@ -46,7 +46,7 @@ public class LoanServiceTest {
     void setUp() {
         createLoanDTO = new CreateLoanDTO();
         createLoanDTO.setAccountId(1L);
-        createLoanDTO.setLoanAmount(20000.0);
+        createLoanDTO.setLoanAmount(2_000_000L);
         createLoanDTO.setInterestType(InterestType.FIXED);
         createLoanDTO.setNumberOfInstallments(12);
         createLoanDTO.setLoanType(LoanType.CASH);
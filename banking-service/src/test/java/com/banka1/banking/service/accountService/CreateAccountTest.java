@@ -76,8 +76,8 @@ public class CreateAccountTest {
         createAccountDTO.setCurrency(CurrencyType.RSD);
         createAccountDTO.setType(AccountType.CURRENT);
         createAccountDTO.setSubtype(AccountSubtype.PERSONAL);
-        createAccountDTO.setDailyLimit(0.0);
-        createAccountDTO.setMonthlyLimit(0.0);
+        createAccountDTO.setDailyLimit(0L);
+        createAccountDTO.setMonthlyLimit(0L);
         createAccountDTO.setStatus(AccountStatus.ACTIVE);
         createAccountDTO.setCreateCard(true);
 
@@ -87,8 +87,8 @@ public class CreateAccountTest {
         acc.setCurrencyType(CurrencyType.RSD);
         acc.setType(AccountType.CURRENT);
         acc.setSubtype(AccountSubtype.PERSONAL);
-        acc.setDailyLimit(0.0);
-        acc.setMonthlyLimit(0.0);
+        acc.setDailyLimit(0L);
+        acc.setMonthlyLimit(0L);
         acc.setStatus(AccountStatus.ACTIVE);
         acc.setAccountNumber("111000112345678911");
 
@@ -48,7 +48,7 @@ public class UpdateAccountTest {
     @Test
     public void testUpdateAccountLimit() {
         Long accountId = 1L;
-        Double newLimit = 1000.5;
+        Long newLimit = 100050L;
         Account acc = new Account();
         acc.setDailyLimit(newLimit);
 
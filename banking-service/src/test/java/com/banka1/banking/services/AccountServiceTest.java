@@ -25,7 +25,9 @@ import org.springframework.jms.core.JmsTemplate;
 
 import javax.jms.TextMessage;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
@@ -101,7 +103,7 @@ public class AccountServiceTest {
         customer.setFirstName("John");
         customer.setLastName("Doe");
 
-        when(userServiceCustomer.getCustomerById(any())).thenReturn(customer);
+        when(userServiceCustomer.getCustomersByIds(Set.of(100L))).thenReturn(Map.of(100L, customer));
 
 
         List<TransactionResponseDTO> result = accountService.getTransactionsForAccount(accountId);
@@ -113,6 +115,8 @@ public class AccountServiceTest {
         verify(accountRepository).findById(accountId);
         verify(transactionRepository).findByFromAccountId(account);
         verify(transactionRepository).findByToAccountId(account);
+        // jedan zahtev za sve vlasnike umesto dva po transakciji
+        verify(userServiceCustomer, never()).getCustomerById(any());
     }
 
     @Test
@@ -141,7 +145,7 @@ public class AccountServiceTest {
         Account mappedAccount = new Account();
         mappedAccount.setSubtype(AccountSubtype.BUSINESS);
         mappedAccount.setCurrencyType(CurrencyType.RSD);
-        mappedAccount.setBalance(100.0);
+        mappedAccount.setBalance(10000L);
 
         Company company = new Company();
         company.setOwnerID(ownerId);
@@ -0,0 +1,271 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.BulkPaymentLineDTO;
+import com.banka1.banking.dto.CreateBulkPaymentDTO;
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.models.*;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.helper.*;
+import com.banka1.banking.repository.*;
+import com.banka1.common.listener.MessageHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkPaymentServiceTest {
+
+    @Mock
+    private BulkPaymentRepository bulkPaymentRepository;
+
+    @Mock
+    private BulkPaymentLineRepository bulkPaymentLineRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private OtpTokenService otpTokenService;
+
+    @Mock
+    private UserServiceCustomer userServiceCustomer;
+
+    @Mock
+    private JmsTemplate jmsTemplate;
+
+    @Mock
+    private MessageHelper messageHelper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkPaymentService bulkPaymentService;
+
+    private Account sourceAccount;
+    private Currency rsd;
+
+    @BeforeEach
+    void setUp() {
+        bulkPaymentService = new BulkPaymentService(bulkPaymentRepository, bulkPaymentLineRepository, accountRepository, transferRepository, transactionRepository, referenceDataRegistry, spendingLimitService, accountLockService, houseAccountService, otpTokenService, userServiceCustomer, jmsTemplate, messageHelper, "email-queue", transactionManager, 100, 2);
+
+        Company company = new Company();
+        company.setId(1L);
+        company.setName("Firma d.o.o.");
+
+        sourceAccount = account(1L, "111000100011000110", 100000L);
+        sourceAccount.setCompany(company);
+
+        rsd = new Currency();
+        rsd.setCode(CurrencyType.RSD);
+    }
+
+    private Account account(Long id, String accountNumber, long balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setOwnerID(id * 10);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(balance);
+        account.setReservedBalance(0L);
+        account.setCurrencyType(CurrencyType.RSD);
+        account.setType(AccountType.CURRENT);
+        account.setStatus(AccountStatus.ACTIVE);
+        return account;
+    }
+
+    private BulkPaymentLine line(long id, String recipientAccount, long amount) {
+        BulkPaymentLine line = new BulkPaymentLine();
+        line.setId(id);
+        line.setLineNumber((int) id);
+        line.setRecipientAccount(recipientAccount);
+        line.setAmount(amount);
+        return line;
+    }
+
+    private BulkPayment processingBulkPayment(BulkPaymentStatus status, long total) {
+        Transfer transfer = new Transfer();
+        transfer.setId(50L);
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setType(TransferType.BULK);
+        transfer.setFromCurrency(rsd);
+
+        BulkPayment bulkPayment = new BulkPayment();
+        bulkPayment.setId(7L);
+        bulkPayment.setSourceAccount(sourceAccount);
+        bulkPayment.setTransfer(transfer);
+        bulkPayment.setTotalAmount(total);
+        bulkPayment.setLineCount(3);
+        bulkPayment.setStatus(status);
+        return bulkPayment;
+    }
+
+    @Test
+    void createBulkPayment_rejectsInvalidLinesAndSendsOneOtp() {
+        CreateBulkPaymentDTO dto = new CreateBulkPaymentDTO("111000100011000110", "240", "Plate", List.of(
+                new BulkPaymentLineDTO("111000100000000210", "A", 10000L, "1", null),
+                new BulkPaymentLineDTO("111000100000000310", "B", 20000L, "2", null),
+                new BulkPaymentLineDTO("111000100000000410", "C", -500L, "3", null)
+        ));
+        CustomerDTO customer = new CustomerDTO();
+        customer.setEmail("firma@banka.rs");
+
+        when(accountRepository.findByAccountNumber("111000100011000110")).thenReturn(Optional.of(sourceAccount));
+        when(userServiceCustomer.getCustomerById(10L)).thenReturn(customer);
+        when(referenceDataRegistry.findCurrency(CurrencyType.RSD)).thenReturn(Optional.of(rsd));
+        when(transferRepository.saveAndFlush(any(Transfer.class))).thenAnswer(i -> {
+            Transfer transfer = i.getArgument(0);
+            transfer.setId(50L);
+            return transfer;
+        });
+        when(otpTokenService.generateOtp(50L)).thenReturn("123456");
+
+        BulkPayment bulkPayment = bulkPaymentService.createBulkPayment(dto);
+
+        assertEquals(30000L, bulkPayment.getTotalAmount());
+        assertEquals(3, bulkPayment.getLineCount());
+        assertEquals(1, bulkPayment.getFailedCount());
+        assertEquals(TransferType.BULK, bulkPayment.getTransfer().getType());
+        assertEquals(TransferStatus.PENDING, bulkPayment.getTransfer().getStatus());
+        assertEquals("123456", bulkPayment.getTransfer().getOtp());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BulkPaymentLine>> lines = ArgumentCaptor.forClass(List.class);
+        verify(bulkPaymentLineRepository).saveAll(lines.capture());
+        assertEquals(10000L, lines.getValue().get(0).getAmount());
+        assertEquals("Plate", lines.getValue().get(0).getPaymentDescription());
+        assertEquals(BulkPaymentLineStatus.REJECTED, lines.getValue().get(2).getStatus());
+
+        verify(otpTokenService, times(1)).generateOtp(50L);
+        verify(jmsTemplate, times(2)).convertAndSend(eq("email-queue"), nullable(Object.class));
+    }
+
+    @Test
+    void createBulkPayment_nonCompanyAccount_throws() {
+        sourceAccount.setCompany(null);
+        CreateBulkPaymentDTO dto = new CreateBulkPaymentDTO("111000100011000110", "240", "Plate", List.of(
+                new BulkPaymentLineDTO("111000100000000210", "A", 10000L, "1", null)
+        ));
+        when(accountRepository.findByAccountNumber("111000100011000110")).thenReturn(Optional.of(sourceAccount));
+
+        assertThrows(IllegalArgumentException.class, () -> bulkPaymentService.createBulkPayment(dto));
+        verifyNoInteractions(transferRepository, otpTokenService, jmsTemplate);
+    }
+
+    @Test
+    void executeBulkPayment_singleDebitChunkedLinesAndRefund() {
+        BulkPayment bulkPayment = processingBulkPayment(BulkPaymentStatus.PENDING, 30000L);
+        Account first = account(2L, "111000100000000210", 0L);
+        Account second = account(3L, "111000100000000310", 0L);
+        BulkPaymentLine line1 = line(1L, first.getAccountNumber(), 10000L);
+        BulkPaymentLine line2 = line(2L, second.getAccountNumber(), 15000L);
+        BulkPaymentLine line3 = line(3L, "111000100000000999", 5000L);
+
+        when(bulkPaymentRepository.findByTransferId(50L)).thenReturn(Optional.of(bulkPayment));
+        when(bulkPaymentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(bulkPayment));
+        when(bulkPaymentRepository.save(bulkPayment)).thenReturn(bulkPayment);
+        when(accountLockService.lock(sourceAccount)).thenReturn(List.of(sourceAccount));
+        when(bulkPaymentLineRepository.findByBulkPaymentIdAndStatusOrderByIdAsc(eq(7L), eq(BulkPaymentLineStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(line1, line2))
+                .thenReturn(List.of(line3));
+        when(accountRepository.findByAccountNumberIn(anyCollection()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of());
+
+        BulkPayment result = bulkPaymentService.executeBulkPayment(50L);
+
+        assertEquals(75000L, sourceAccount.getBalance());
+        verify(spendingLimitService).consume(sourceAccount, 30000L);
+        assertEquals(10000L, first.getBalance());
+        assertEquals(15000L, second.getBalance());
+        assertEquals(BulkPaymentLineStatus.COMPLETED, line1.getStatus());
+        assertEquals(BulkPaymentLineStatus.FAILED, line3.getStatus());
+        assertNotNull(line3.getError());
+
+        assertEquals(BulkPaymentStatus.PARTIALLY_COMPLETED, result.getStatus());
+        assertEquals(2, result.getCompletedCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(5000L, result.getRefundedAmount());
+        assertEquals(TransferStatus.COMPLETED, result.getTransfer().getStatus());
+
+        // jedno zaduzenje i jedan povracaj na racunu kompanije, stavke u batch-u po delu
+        verify(transactionRepository, times(2)).save(any(Transaction.class));
+        verify(transactionRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void executeBulkPayment_insufficientBalance_failsWithoutProcessingLines() {
+        BulkPayment bulkPayment = processingBulkPayment(BulkPaymentStatus.PENDING, 500000L);
+        when(bulkPaymentRepository.findByTransferId(50L)).thenReturn(Optional.of(bulkPayment));
+        when(bulkPaymentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(bulkPayment));
+        when(accountLockService.lock(sourceAccount)).thenReturn(List.of(sourceAccount));
+
+        assertThrows(RuntimeException.class, () -> bulkPaymentService.executeBulkPayment(50L));
+
+        assertEquals(100000L, sourceAccount.getBalance());
+        assertEquals(BulkPaymentStatus.FAILED, bulkPayment.getStatus());
+        assertEquals(TransferStatus.FAILED, bulkPayment.getTransfer().getStatus());
+        verifyNoInteractions(bulkPaymentLineRepository, transactionRepository);
+    }
+
+    @Test
+    void executeBulkPayment_spendingLimitExceeded_failsWithoutDebit() {
+        BulkPayment bulkPayment = processingBulkPayment(BulkPaymentStatus.PENDING, 30000L);
+        when(bulkPaymentRepository.findByTransferId(50L)).thenReturn(Optional.of(bulkPayment));
+        when(bulkPaymentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(bulkPayment));
+        when(accountLockService.lock(sourceAccount)).thenReturn(List.of(sourceAccount));
+        doThrow(new IllegalStateException("Prekoračen dnevni limit računa")).when(spendingLimitService).consume(sourceAccount, 30000L);
+
+        assertThrows(RuntimeException.class, () -> bulkPaymentService.executeBulkPayment(50L));
+
+        assertEquals(100000L, sourceAccount.getBalance());
+        assertEquals(BulkPaymentStatus.FAILED, bulkPayment.getStatus());
+        assertEquals("Prekoračen dnevni limit računa", bulkPayment.getTransfer().getNote());
+        verifyNoInteractions(bulkPaymentLineRepository, transactionRepository);
+    }
+
+    @Test
+    void executeBulkPayment_resumesProcessingWithoutDebitingAgain() {
+        BulkPayment bulkPayment = processingBulkPayment(BulkPaymentStatus.PROCESSING, 30000L);
+        bulkPayment.setCompletedCount(3);
+        when(bulkPaymentRepository.findByTransferId(50L)).thenReturn(Optional.of(bulkPayment));
+        when(bulkPaymentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(bulkPayment));
+        when(bulkPaymentRepository.save(bulkPayment)).thenReturn(bulkPayment);
+        when(bulkPaymentLineRepository.findByBulkPaymentIdAndStatusOrderByIdAsc(eq(7L), eq(BulkPaymentLineStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        BulkPayment result = bulkPaymentService.executeBulkPayment(50L);
+
+        assertEquals(100000L, sourceAccount.getBalance());
+        assertEquals(BulkPaymentStatus.COMPLETED, result.getStatus());
+        verifyNoInteractions(accountLockService, transactionRepository);
+    }
+}
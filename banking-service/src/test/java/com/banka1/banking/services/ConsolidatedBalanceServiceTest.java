@@ -0,0 +1,127 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.ConsolidatedBalanceDTO;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Company;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsolidatedBalanceServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    private final ExchangeRateCache exchangeRateCache = new ExchangeRateCache();
+
+    private ConsolidatedBalanceService consolidatedBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(ExchangeRateMatrix.of(List.of(pair(CurrencyType.EUR, CurrencyType.RSD, 117.0))));
+        consolidatedBalanceService = new ConsolidatedBalanceService(accountRepository, exchangeRateCache, houseAccountService, 100, 60_000);
+    }
+
+    private static ExchangePair pair(CurrencyType base, CurrencyType target, double rate) {
+        Currency baseCurrency = new Currency();
+        baseCurrency.setCode(base);
+        Currency targetCurrency = new Currency();
+        targetCurrency.setCode(target);
+
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(baseCurrency);
+        pair.setTargetCurrency(targetCurrency);
+        pair.setExchangeRate(rate);
+        pair.setDate(LocalDate.now());
+        return pair;
+    }
+
+    private static Account account(CurrencyType currency, long balance, long reserved) {
+        Account account = new Account();
+        account.setOwnerID(5L);
+        account.setType(AccountType.CURRENT);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCurrencyType(currency);
+        account.setBalance(balance);
+        account.setReservedBalance(reserved);
+        return account;
+    }
+
+    @Test
+    void getForOwner_sumsAccountsInChosenCurrency() {
+        when(accountRepository.findByOwnerID(5L)).thenReturn(List.of(
+                account(CurrencyType.RSD, 1_000_000L, 100_000L),
+                account(CurrencyType.EUR, 10_000L, 0L),
+                account(CurrencyType.EUR, 5_050L, 0L)
+        ));
+
+        ConsolidatedBalanceDTO inRsd = consolidatedBalanceService.getForOwner(5L, CurrencyType.RSD);
+        ConsolidatedBalanceDTO inEur = consolidatedBalanceService.getForOwner(5L, CurrencyType.EUR);
+
+        assertEquals(1_000_000L + 15_050L * 117, inRsd.getTotalBalance());
+        assertEquals(900_000L + 15_050L * 117, inRsd.getTotalAvailableBalance());
+        assertEquals(2, inRsd.getBalances().size());
+        assertEquals(15_050L + 8_547L, inEur.getTotalBalance());
+        // drugi poziv, u drugoj valuti, koristi kesirane zbirove
+        verify(accountRepository, times(1)).findByOwnerID(5L);
+    }
+
+    @Test
+    void invalidate_reloadsOwnerAndCompanyAfterBalanceChange() {
+        Company company = new Company();
+        company.setId(9L);
+        Account account = account(CurrencyType.RSD, 100_000L, 0L);
+        account.setCompany(company);
+        when(accountRepository.findByCompanyId(9L)).thenReturn(List.of(account));
+
+        assertEquals(100_000L, consolidatedBalanceService.getForCompany(9L, CurrencyType.RSD).getTotalBalance());
+        account.setBalance(40000L);
+        consolidatedBalanceService.invalidate(account);
+
+        assertEquals(40000L, consolidatedBalanceService.getForCompany(9L, CurrencyType.RSD).getTotalBalance());
+        verify(accountRepository, times(2)).findByCompanyId(9L);
+    }
+
+    @Test
+    void getForOwner_expiredEntryIsReloadedWithoutInvalidation() {
+        // promena na drugom cvoru ne brise kes ovog cvora, pa unos mora da istekne sam
+        ConsolidatedBalanceService shortLived = new ConsolidatedBalanceService(accountRepository, exchangeRateCache, houseAccountService, 100, 0);
+        Account account = account(CurrencyType.RSD, 100_000L, 0L);
+        when(accountRepository.findByOwnerID(5L)).thenReturn(List.of(account));
+
+        assertEquals(100_000L, shortLived.getForOwner(5L, CurrencyType.RSD).getTotalBalance());
+        account.setBalance(40000L);
+
+        assertEquals(40000L, shortLived.getForOwner(5L, CurrencyType.RSD).getTotalBalance());
+        verify(accountRepository, times(2)).findByOwnerID(5L);
+    }
+
+    @Test
+    void getForOwner_missingRateIsRejectedAndClosedAccountsSkipped() {
+        Account closed = account(CurrencyType.USD, 1000L, 0L);
+        closed.setStatus(AccountStatus.CLOSED);
+        when(accountRepository.findByOwnerID(5L)).thenReturn(List.of(account(CurrencyType.EUR, 100L, 0L), closed));
+
+        assertThrows(IllegalStateException.class, () -> consolidatedBalanceService.getForOwner(5L, CurrencyType.JPY));
+        assertEquals(1, consolidatedBalanceService.getForOwner(5L, CurrencyType.EUR).getBalances().size());
+    }
+}
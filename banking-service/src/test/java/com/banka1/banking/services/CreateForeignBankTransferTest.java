@@ -37,7 +37,7 @@ class CreateForeignBankTransferTest {
     /* ---------- collaborators ---------- */
     @Mock private AccountRepository        accountRepo;
     @Mock private TransferRepository       transferRepo;
-    @Mock private CurrencyRepository       currencyRepo;
+    @Mock private ReferenceDataRegistry       referenceDataRegistry;
     @Mock private TransactionRepository    transactionRepo;
     @Mock private JmsTemplate              jms;
     @Mock private MessageHelper            msgHelper;
@@ -48,6 +48,10 @@ class CreateForeignBankTransferTest {
     @Mock private ReceiverService          receiverSvc;
     @Mock private InterbankService         interbankSvc;
     @Mock private InterbankConfig          cfg;
+    @Mock private AccountLockService       accountLockSvc;
+    @Mock private HouseAccountService      houseAccountSvc;
+    @Mock private FundsHoldService         fundsHoldSvc;
+    @Mock private SpendingLimitService     spendingLimitSvc;
 
     /** service under test */
     private TransferService service;
@@ -62,9 +66,9 @@ class CreateForeignBankTransferTest {
     void setUp() {
         // create service manually to inject "destinationEmail"
         service = new TransferService(
-                accountRepo, transferRepo, transactionRepo, currencyRepo,
+                accountRepo, transferRepo, transactionRepo, referenceDataRegistry,
                 jms, msgHelper, "email.queue", userSvc, exchangeSvc, otpSvc,
-                bankUtils, receiverSvc, interbankSvc, cfg);
+                bankUtils, receiverSvc, interbankSvc, cfg, accountLockSvc, houseAccountSvc, fundsHoldSvc, spendingLimitSvc);
 
         // message helper – return dummy JMS payload so convertAndSend() succeeds
         when(msgHelper.createTextMessage(any(NotificationDTO.class))).thenReturn("msg");
@@ -85,7 +89,7 @@ class CreateForeignBankTransferTest {
         dtoOk = new MoneyTransferDTO();
         dtoOk.setFromAccountNumber("123456789");
         dtoOk.setRecipientAccount("FOREIGN-IBAN-987");
-        dtoOk.setAmount(500.0);
+        dtoOk.setAmount(50000L);
         dtoOk.setReceiver("Overseas Receiver");
     }
 
@@ -99,7 +103,7 @@ class CreateForeignBankTransferTest {
         when(accountRepo.findByAccountNumber("123456789"))
                 .thenReturn(Optional.of(srcAcc));
 
-        when(currencyRepo.findByCode(CurrencyType.USD))
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD))
                 .thenReturn(Optional.of(usd));                // used inside sub-method
         when(userSvc.getCustomerById(1L)).thenReturn(customer);
 
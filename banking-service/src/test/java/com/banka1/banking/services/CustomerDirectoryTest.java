@@ -0,0 +1,73 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.dto.CustomerEventDTO;
+import com.banka1.common.listener.JmsRpcClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDirectoryTest {
+
+    private static final String SNAPSHOT = "get-customer-snapshot";
+
+    @Mock
+    private JmsRpcClient jmsRpcClient;
+
+    private CustomerDirectory customerDirectory;
+
+    @BeforeEach
+    void setUp() {
+        customerDirectory = new CustomerDirectory(jmsRpcClient, true, SNAPSHOT);
+    }
+
+    private static CustomerDTO customer(long id, String firstName) {
+        return new CustomerDTO(id, firstName, "Petrovic", "2000-01-01", "korisnik" + id + "@banka.rs", "0601234567", "Adresa " + id);
+    }
+
+    @Test
+    void reload_loadsAllPages() {
+        when(jmsRpcClient.call(SNAPSHOT, 0L, CustomerDTO[].class)).thenReturn(new CustomerDTO[]{customer(1, "Petar"), customer(2, "Marko")});
+        when(jmsRpcClient.call(SNAPSHOT, 2L, CustomerDTO[].class)).thenReturn(new CustomerDTO[0]);
+
+        customerDirectory.reload();
+
+        assertEquals("Petar", customerDirectory.find(1L).getFirstName());
+        assertEquals("Marko", customerDirectory.find(2L).getFirstName());
+        assertNull(customerDirectory.find(3L));
+    }
+
+    @Test
+    void reload_keepsChangesThatArrivedDuringLoad() {
+        customerDirectory.apply(new CustomerEventDTO(CustomerEventDTO.Type.CREATED, 3L, customer(3, "Jovan")));
+        when(jmsRpcClient.call(SNAPSHOT, 0L, CustomerDTO[].class)).thenAnswer(invocation -> {
+            customerDirectory.apply(new CustomerEventDTO(CustomerEventDTO.Type.UPDATED, 1L, customer(1, "Petra")));
+            customerDirectory.apply(new CustomerEventDTO(CustomerEventDTO.Type.DELETED, 2L, null));
+            return new CustomerDTO[]{customer(1, "Petar"), customer(2, "Marko")};
+        });
+        when(jmsRpcClient.call(SNAPSHOT, 2L, CustomerDTO[].class)).thenReturn(new CustomerDTO[0]);
+
+        customerDirectory.reload();
+
+        assertEquals("Petra", customerDirectory.find(1L).getFirstName());
+        assertNull(customerDirectory.find(2L));
+        // nema ga u imeniku, a nije menjan tokom ucitavanja
+        assertNull(customerDirectory.find(3L));
+    }
+
+    @Test
+    void reload_failureKeepsExistingCopy() {
+        customerDirectory.apply(new CustomerEventDTO(CustomerEventDTO.Type.CREATED, 1L, customer(1, "Petar")));
+        when(jmsRpcClient.call(SNAPSHOT, 0L, CustomerDTO[].class)).thenReturn(null);
+
+        customerDirectory.reload();
+
+        assertEquals("Petar", customerDirectory.find(1L).getFirstName());
+    }
+}
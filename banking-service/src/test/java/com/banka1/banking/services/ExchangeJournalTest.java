@@ -0,0 +1,186 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.config.InterbankConfig;
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Company;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountSubtype;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.CompanyRepository;
+import com.banka1.banking.repository.CurrencyRepository;
+import com.banka1.banking.repository.TransferRepository;
+import com.banka1.common.listener.MessageHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transfer sa konverzijom nad pravom bazom i pravim dnevnikom: projektovano stanje racuna klijenata mora da bude
+ * jednako {@link Account#getBalance()}, tj. zbirni red transfera ne sme da se knjizi pored redova koraka konverzije.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:exchange-journal;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "destination.email=email-queue"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TransferService.class, AccountLockService.class, LedgerService.class, TransactionJournalListener.class})
+class ExchangeJournalTest {
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @MockitoBean
+    private BankAccountUtils bankAccountUtils;
+
+    @MockitoBean
+    private ConsolidatedBalanceService consolidatedBalanceService;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private MessageHelper messageHelper;
+
+    @MockitoBean
+    private UserServiceCustomer userServiceCustomer;
+
+    @MockitoBean
+    private ExchangeService exchangeService;
+
+    @MockitoBean
+    private OtpTokenService otpTokenService;
+
+    @MockitoBean
+    private ReceiverService receiverService;
+
+    @MockitoBean
+    private InterbankService interbankService;
+
+    @MockitoBean
+    private InterbankConfig interbankConfig;
+
+    @MockitoBean
+    private HouseAccountService houseAccountService;
+
+    @MockitoBean
+    private FundsHoldService fundsHoldService;
+
+    @MockitoBean
+    private SpendingLimitService spendingLimitService;
+
+    @Test
+    void exchangeTransfer_projectedBalanceMatchesAccountBalance() {
+        Currency rsd = currencyRepository.save(currency(CurrencyType.RSD));
+        Currency eur = currencyRepository.save(currency(CurrencyType.EUR));
+        Company bank = new Company();
+        bank.setName("Banka 1");
+        bank = companyRepository.save(bank);
+
+        Account rsdAccount = accountRepository.save(account("111000000000000301", CurrencyType.RSD, AccountType.CURRENT, 1_000_000L, null));
+        Account eurAccount = accountRepository.save(account("111000000000000302", CurrencyType.EUR, AccountType.FOREIGN_CURRENCY, 10000L, null));
+        Account rsdBankAccount = accountRepository.save(account("111000000000000001", CurrencyType.RSD, AccountType.BANK, 100_000_000L, bank));
+        Account eurBankAccount = accountRepository.save(account("111000000000000002", CurrencyType.EUR, AccountType.BANK, 100_000_000L, bank));
+        ledgerService.openAccounts();
+
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(rsd);
+        when(referenceDataRegistry.getCurrency(CurrencyType.EUR)).thenReturn(eur);
+        when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(rsdBankAccount);
+        when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.EUR)).thenReturn(eurBankAccount);
+        when(userServiceCustomer.getCustomerById(1L)).thenReturn(new CustomerDTO(1L, "Petar", "Petrovic", "2000-01-01", "petar@banka.rs", "0601234567", "Adresa 1"));
+        when(exchangeService.calculatePreviewExchangeAutomatic("RSD", "EUR", 117_000L)).thenReturn(new DirectExchangeResult(117.0, 1000L, 10L, 990L));
+
+        Transfer transfer = transferRepository.save(transfer(rsdAccount, eurAccount, rsd, eur));
+        assertEquals("Transfer completed successfully", transferService.processTransfer(transfer.getId()));
+
+        for (Account account : new Account[]{rsdAccount, eurAccount}) {
+            long balance = accountRepository.findById(account.getId()).orElseThrow().getBalance();
+            assertEquals(balance, ledgerService.getProjectedBalance(account.getId()));
+        }
+        assertEquals(883_000L, accountRepository.findById(rsdAccount.getId()).orElseThrow().getBalance());
+        assertEquals(10990L, accountRepository.findById(eurAccount.getId()).orElseThrow().getBalance());
+    }
+
+    private static Currency currency(CurrencyType code) {
+        Currency currency = new Currency();
+        currency.setName(code.toString());
+        currency.setCode(code);
+        currency.setCountry("Srbija");
+        currency.setSymbol(code.toString());
+        return currency;
+    }
+
+    private static Account account(String number, CurrencyType currencyType, AccountType type, long balance, Company company) {
+        Account account = new Account();
+        account.setOwnerID(1L);
+        account.setAccountNumber(number);
+        account.setBalance(balance);
+        account.setReservedBalance(0L);
+        account.setType(type);
+        account.setCurrencyType(currencyType);
+        account.setSubtype(AccountSubtype.STANDARD);
+        account.setCreatedDate(0L);
+        account.setExpirationDate(0L);
+        account.setDailyLimit(0L);
+        account.setMonthlyLimit(0L);
+        account.setDailySpent(0L);
+        account.setMonthlySpent(0L);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setEmployeeID(1L);
+        account.setMonthlyMaintenanceFee(0L);
+        account.setCompany(company);
+        return account;
+    }
+
+    private static Transfer transfer(Account from, Account to, Currency fromCurrency, Currency toCurrency) {
+        Transfer transfer = new Transfer();
+        transfer.setFromAccountId(from);
+        transfer.setToAccountId(to);
+        transfer.setAmount(117_000L);
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setType(TransferType.EXCHANGE);
+        transfer.setPaymentDescription("Promena valute");
+        transfer.setReceiver("Petar Petrovic");
+        transfer.setFromCurrency(fromCurrency);
+        transfer.setToCurrency(toCurrency);
+        transfer.setCreatedAt(System.currentTimeMillis());
+        return transfer;
+    }
+}
@@ -0,0 +1,71 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.ExchangeQuote;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeQuoteServiceTest {
+
+    private static final ExchangeResult PREVIEW = new DirectExchangeResult(117.0, 855L, 9L, 846L);
+
+    @Test
+    void claim_quoteCanBeUsedOnlyOnce() {
+        ExchangeQuoteService service = new ExchangeQuoteService(60_000, 10);
+        ExchangeQuote quote = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 100000L, PREVIEW);
+
+        assertSame(quote, service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100000L));
+        assertThrows(IllegalArgumentException.class, () -> service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100000L));
+    }
+
+    @Test
+    void claim_rejectsQuoteForDifferentTransfer() {
+        ExchangeQuoteService service = new ExchangeQuoteService(60_000, 10);
+        ExchangeQuote quote = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 100000L, PREVIEW);
+
+        assertThrows(IllegalArgumentException.class, () -> service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 200000L));
+    }
+
+    @Test
+    void claim_mismatchKeepsQuoteForItsAccount() {
+        ExchangeQuoteService service = new ExchangeQuoteService(60_000, 10);
+        ExchangeQuote quote = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 100000L, PREVIEW);
+
+        assertThrows(IllegalArgumentException.class, () -> service.claim(quote.getId(), 2L, CurrencyType.RSD, CurrencyType.EUR, 100000L));
+        assertThrows(IllegalArgumentException.class, () -> service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 200000L));
+        assertSame(quote, service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100000L));
+    }
+
+    @Test
+    void release_quoteCanBeClaimedAgain() {
+        ExchangeQuoteService service = new ExchangeQuoteService(60_000, 10);
+        ExchangeQuote quote = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 100000L, PREVIEW);
+        service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100000L);
+
+        service.release(quote);
+
+        assertSame(quote, service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100000L));
+    }
+
+    @Test
+    void claim_expiredQuoteIsRejected() {
+        ExchangeQuoteService service = new ExchangeQuoteService(0, 10);
+        ExchangeQuote quote = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 100000L, PREVIEW);
+
+        assertThrows(IllegalArgumentException.class, () -> service.claim(quote.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100000L));
+    }
+
+    @Test
+    void offer_evictsOldestWhenFull() {
+        ExchangeQuoteService service = new ExchangeQuoteService(60_000, 2);
+        ExchangeQuote oldest = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 100L, PREVIEW);
+        ExchangeQuote second = service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 200L, PREVIEW);
+        service.offer(1L, CurrencyType.RSD, CurrencyType.EUR, 300L, PREVIEW);
+
+        assertThrows(IllegalArgumentException.class, () -> service.claim(oldest.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 100L));
+        assertSame(second, service.claim(second.getId(), 1L, CurrencyType.RSD, CurrencyType.EUR, 200L));
+    }
+}
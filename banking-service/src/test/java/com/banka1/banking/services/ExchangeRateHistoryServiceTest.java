@@ -0,0 +1,106 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.ExchangeRateHistoryDTO;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.ExchangeRateHistory;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.ExchangeRateHistoryRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateHistoryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Mock
+    private ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateHistoryService = new ExchangeRateHistoryService(exchangeRateHistoryRepository, 2, 31);
+    }
+
+    private static ExchangeRateHistory row(LocalDate date, double eurRate) {
+        Currency eur = new Currency();
+        eur.setCode(CurrencyType.EUR);
+        Currency rsd = new Currency();
+        rsd.setCode(CurrencyType.RSD);
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(eur);
+        pair.setTargetCurrency(rsd);
+        pair.setExchangeRate(eurRate);
+        pair.setDate(date);
+
+        ExchangeRateHistory row = new ExchangeRateHistory();
+        row.setDate(date);
+        row.setVersion(1L);
+        row.setRates(ExchangeRateMatrix.of(List.of(pair)).encode());
+        row.setCreatedAt(0L);
+        return row;
+    }
+
+    @Test
+    void getAsOf_usesLastListBeforeDayAndCachesPastDays() {
+        LocalDate sunday = DAY.minusDays(1);
+        when(exchangeRateHistoryRepository.findTopByDateLessThanEqualOrderByDateDesc(sunday))
+                .thenReturn(Optional.of(row(DAY.minusDays(3), 117.1)));
+
+        ExchangeRateMatrix first = exchangeRateHistoryService.getAsOf(sunday).orElseThrow();
+        ExchangeRateMatrix second = exchangeRateHistoryService.getAsOf(sunday).orElseThrow();
+
+        assertEquals(117.1, first.rate(CurrencyType.EUR, CurrencyType.RSD));
+        assertSame(first, second);
+        verify(exchangeRateHistoryRepository, times(1)).findTopByDateLessThanEqualOrderByDateDesc(sunday);
+    }
+
+    @Test
+    void getAsOf_evictsLeastRecentlyUsedDay() {
+        LocalDate a = DAY, b = DAY.plusDays(1), c = DAY.plusDays(2);
+        for (LocalDate day : List.of(a, b, c))
+            when(exchangeRateHistoryRepository.findTopByDateLessThanEqualOrderByDateDesc(day)).thenReturn(Optional.of(row(day, 117.0)));
+
+        exchangeRateHistoryService.getAsOf(a);
+        exchangeRateHistoryService.getAsOf(b);
+        exchangeRateHistoryService.getAsOf(a);
+        exchangeRateHistoryService.getAsOf(c);
+        exchangeRateHistoryService.getAsOf(a);
+        exchangeRateHistoryService.getAsOf(b);
+
+        verify(exchangeRateHistoryRepository, times(1)).findTopByDateLessThanEqualOrderByDateDesc(a);
+        verify(exchangeRateHistoryRepository, times(2)).findTopByDateLessThanEqualOrderByDateDesc(b);
+    }
+
+    @Test
+    void getRange_rejectsTooLongPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateHistoryService.getRange(DAY, DAY.plusDays(31)));
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateHistoryService.getRange(DAY, DAY.minusDays(1)));
+        verifyNoInteractions(exchangeRateHistoryRepository);
+    }
+
+    @Test
+    void toDTO_filtersByBaseAndTarget() {
+        ExchangeRateMatrix matrix = ExchangeRateMatrix.decode(row(DAY, 117.0).getRates(), DAY, 1L);
+
+        ExchangeRateHistoryDTO dto = ExchangeRateHistoryService.toDTO(matrix, CurrencyType.RSD, null);
+
+        assertEquals(DAY, dto.getDate());
+        assertEquals(1, dto.getRates().size());
+        assertEquals("EUR", dto.getRates().get(0).getTargetCurrency());
+        assertEquals(1 / 117.0, dto.getRates().get(0).getExchangeRate());
+    }
+}
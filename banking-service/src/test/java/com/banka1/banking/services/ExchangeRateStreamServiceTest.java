@@ -0,0 +1,72 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.ExchangePairDTO;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateStreamServiceTest {
+
+    private static ExchangePair pair(CurrencyType base, CurrencyType target, double rate, long version) {
+        Currency baseCurrency = new Currency();
+        baseCurrency.setCode(base);
+        Currency targetCurrency = new Currency();
+        targetCurrency.setCode(target);
+
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(baseCurrency);
+        pair.setTargetCurrency(targetCurrency);
+        pair.setExchangeRate(rate);
+        pair.setDate(LocalDate.of(2025, 3, 1));
+        pair.setVersion(version);
+        return pair;
+    }
+
+    @Test
+    void changes_containsOnlyChangedPairs() {
+        ExchangeRateMatrix previous = ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.0, 1L),
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0, 1L)
+        ));
+        ExchangeRateMatrix current = ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.5, 2L),
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0, 2L)
+        ));
+
+        List<ExchangePairDTO> changes = ExchangeRateStreamService.changes(previous, current);
+
+        // EUR->RSD i obrnuti RSD->EUR, USD je ostao isti
+        assertEquals(2, changes.size());
+        assertTrue(changes.stream().allMatch(change -> change.getBaseCurrency().equals("EUR") || change.getTargetCurrency().equals("EUR")));
+        assertTrue(ExchangeRateStreamService.changes(current, current).isEmpty());
+    }
+
+    @Test
+    void changes_fromEmptyIsWholeList() {
+        ExchangeRateMatrix current = ExchangeRateMatrix.of(List.of(pair(CurrencyType.EUR, CurrencyType.RSD, 117.0, 1L)));
+
+        assertEquals(2, ExchangeRateStreamService.changes(ExchangeRateMatrix.EMPTY, current).size());
+    }
+
+    @Test
+    void publish_closedSubscriberIsRemoved() {
+        ExchangeRateCache cache = new ExchangeRateCache();
+        ExchangeRateStreamService service = new ExchangeRateStreamService(cache, 60_000);
+        SseEmitter closed = service.subscribe();
+        service.subscribe();
+        assertEquals(2, service.subscriberCount());
+
+        closed.complete();
+        cache.publish(ExchangeRateMatrix.of(List.of(pair(CurrencyType.EUR, CurrencyType.RSD, 117.0, 1L))));
+
+        assertEquals(1, service.subscriberCount());
+    }
+}
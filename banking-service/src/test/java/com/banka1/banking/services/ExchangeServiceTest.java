@@ -2,27 +2,37 @@ package com.banka1.banking.services;
 
 import com.banka1.banking.dto.CustomerDTO;
 import com.banka1.banking.dto.ExchangeMoneyTransferDTO;
+import com.banka1.banking.dto.ExchangePreviewDTO;
 import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.dto.exchange.ExchangePreviewBatch;
+import com.banka1.banking.dto.exchange.ExchangeResult;
+import com.banka1.banking.dto.exchange.ForeignExchangeResult;
 import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Currency;
 import com.banka1.banking.models.ExchangePair;
 import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.AccountStatus;
 import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.ExchangeQuote;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
-import com.banka1.banking.repository.ExchangePairRepository;
 import com.banka1.banking.repository.TransferRepository;
+import com.banka1.banking.utils.ExchangeRateMatrix;
+import com.banka1.banking.utils.Money;
 import com.banka1.common.listener.MessageHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -40,7 +50,7 @@ public class ExchangeServiceTest {
     private TransferRepository transferRepository;
 
     @Mock
-    private CurrencyRepository currencyRepository;
+    private ReferenceDataRegistry referenceDataRegistry;
 
     @Mock
     private JmsTemplate jmsTemplate;
@@ -55,7 +65,13 @@ public class ExchangeServiceTest {
     private OtpTokenService otpTokenService;
 
     @Mock
-    private ExchangePairRepository exchangePairRepository;
+    private ExchangeRateCache exchangeRateCache;
+
+    @Mock
+    private ExchangeQuoteService exchangeQuoteService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
 
     @InjectMocks
     private ExchangeService exchangeService;
@@ -88,7 +104,7 @@ public class ExchangeServiceTest {
         exchangeMoneyTransferDTO = new ExchangeMoneyTransferDTO();
         exchangeMoneyTransferDTO.setAccountFrom(1L);
         exchangeMoneyTransferDTO.setAccountTo(2L);
-        exchangeMoneyTransferDTO.setAmount(500.0);
+        exchangeMoneyTransferDTO.setAmount(50000L);
          customerDTO = new CustomerDTO(10L,"Marko","Markovic","2025-01-01","test@test.com","0101010101","MARSALA TULBUHINA");
 
 
@@ -112,7 +128,7 @@ public class ExchangeServiceTest {
         exchangeMoneyTransferDTO = new ExchangeMoneyTransferDTO();
         exchangeMoneyTransferDTO.setAccountFrom(1L);
         exchangeMoneyTransferDTO.setAccountTo(2L);
-        exchangeMoneyTransferDTO.setAmount(500.0);
+        exchangeMoneyTransferDTO.setAmount(50000L);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
@@ -121,6 +137,17 @@ public class ExchangeServiceTest {
         assertTrue(result);
     }
 
+    @Test
+    void validateExchangeTransferOverSpendingLimitReturnsFalse() {
+        fromAccount.setStatus(AccountStatus.ACTIVE);
+        toAccount.setStatus(AccountStatus.ACTIVE);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(spendingLimitService.exceedsLimit(fromAccount, exchangeMoneyTransferDTO.getAmount())).thenReturn(true);
+
+        assertFalse(exchangeService.validateExchangeTransfer(exchangeMoneyTransferDTO));
+    }
+
     @Test
     void validateExchangeTransferSameCurrencyReturnsFalse() {
         toAccount.setCurrencyType(CurrencyType.EUR);
@@ -135,8 +162,8 @@ public class ExchangeServiceTest {
     void createExchangeTransferSuccess() {
         when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
-        when(currencyRepository.findByCode(CurrencyType.EUR)).thenReturn(Optional.of(currencyEUR));
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(currencyUSD));
+        when(referenceDataRegistry.findCurrency(CurrencyType.EUR)).thenReturn(Optional.of(currencyEUR));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(currencyUSD));
         when(userServiceCustomer.getCustomerById(10L)).thenReturn(customerDTO);
         doReturn("123456").when(otpTokenService).generateOtp(anyLong());
 
@@ -157,44 +184,166 @@ public class ExchangeServiceTest {
         verify(jmsTemplate, times(2)).convertAndSend(eq("test-destination"), eq("Simulirana poruka"));
     }
 
+    private ExchangePair pair(CurrencyType base, CurrencyType target, double rate) {
+        Currency baseCurrency = new Currency();
+        baseCurrency.setCode(base);
+        Currency targetCurrency = new Currency();
+        targetCurrency.setCode(target);
+
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(baseCurrency);
+        pair.setTargetCurrency(targetCurrency);
+        pair.setExchangeRate(rate);
+        pair.setDate(LocalDate.now());
+        return pair;
+    }
+
+    @Test
+    void createExchangeTransfer_withQuote_storesQuoteOnTransfer() {
+        exchangeMoneyTransferDTO.setQuoteId("q-1");
+        ExchangeQuote quote = new ExchangeQuote("q-1", 1L, CurrencyType.EUR, CurrencyType.USD, 50000L,
+                new ForeignExchangeResult(117.0, 1 / 108.0, 5_791_500L, 58500L, 536L, 1078L, 53089L), Long.MAX_VALUE);
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(referenceDataRegistry.findCurrency(CurrencyType.EUR)).thenReturn(Optional.of(currencyEUR));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(currencyUSD));
+        when(exchangeQuoteService.claim("q-1", 1L, CurrencyType.EUR, CurrencyType.USD, 50000L)).thenReturn(quote);
+        when(userServiceCustomer.getCustomerById(10L)).thenReturn(customerDTO);
+        doReturn("123456").when(otpTokenService).generateOtp(anyLong());
+        when(transferRepository.saveAndFlush(any(Transfer.class))).thenAnswer(invocation -> {
+            Transfer savedTransfer = invocation.getArgument(0);
+            savedTransfer.setId(102L);
+            return savedTransfer;
+        });
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        exchangeService.createExchangeTransfer(exchangeMoneyTransferDTO);
+
+        ArgumentCaptor<Transfer> saved = ArgumentCaptor.forClass(Transfer.class);
+        verify(transferRepository).saveAndFlush(saved.capture());
+        assertEquals("q-1", saved.getValue().getQuoteId());
+        assertSame(quote.getPreview(), saved.getValue().getQuotedExchange());
+    }
+
+    @Test
+    void createExchangeTransfer_expiredQuote_doesNotSaveTransfer() {
+        exchangeMoneyTransferDTO.setQuoteId("q-1");
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(referenceDataRegistry.findCurrency(CurrencyType.EUR)).thenReturn(Optional.of(currencyEUR));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(currencyUSD));
+        when(userServiceCustomer.getCustomerById(10L)).thenReturn(customerDTO);
+        when(exchangeQuoteService.claim("q-1", 1L, CurrencyType.EUR, CurrencyType.USD, 50000L))
+                .thenThrow(new IllegalArgumentException("Ponuda kursa je istekla ili ne postoji."));
+
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.createExchangeTransfer(exchangeMoneyTransferDTO));
+        verifyNoInteractions(transferRepository, otpTokenService);
+    }
+
+    @Test
+    void createExchangeTransfer_saveFails_releasesQuote() {
+        exchangeMoneyTransferDTO.setQuoteId("q-1");
+        ExchangeQuote quote = new ExchangeQuote("q-1", 1L, CurrencyType.EUR, CurrencyType.USD, 50000L,
+                new ForeignExchangeResult(117.0, 1 / 108.0, 5_791_500L, 58500L, 536L, 1078L, 53089L), Long.MAX_VALUE);
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(referenceDataRegistry.findCurrency(CurrencyType.EUR)).thenReturn(Optional.of(currencyEUR));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(currencyUSD));
+        when(userServiceCustomer.getCustomerById(10L)).thenReturn(customerDTO);
+        when(exchangeQuoteService.claim("q-1", 1L, CurrencyType.EUR, CurrencyType.USD, 50000L)).thenReturn(quote);
+        when(transferRepository.saveAndFlush(any(Transfer.class))).thenThrow(new RuntimeException("db"));
+
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.createExchangeTransfer(exchangeMoneyTransferDTO));
+        verify(exchangeQuoteService).release(quote);
+        verifyNoInteractions(otpTokenService);
+    }
+
+    @Test
+    void createQuote_offersCalculatedPreview() {
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.0))));
+        when(exchangeQuoteService.offer(eq(1L), eq(CurrencyType.EUR), eq(CurrencyType.RSD), eq(10000L), any(ExchangeResult.class)))
+                .thenAnswer(i -> new ExchangeQuote("q-1", 1L, CurrencyType.EUR, CurrencyType.RSD, 10000L, i.getArgument(4), Long.MAX_VALUE));
+
+        ExchangeQuote quote = exchangeService.createQuote(1L, "EUR", "RSD", 10000L);
+
+        assertEquals(1_158_300L, quote.getPreview().finalAmount());
+    }
+
     @Test
     void calculatePreviewExchange_withDirectPair() {
-        ExchangePair pair = new ExchangePair();
-        pair.setExchangeRate(117.2332942555686);
-        when(exchangePairRepository.findByBaseCurrencyCodeAndTargetCurrencyCode(CurrencyType.RSD, CurrencyType.EUR))
-                .thenReturn(Optional.of(pair));
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.RSD, CurrencyType.EUR, 117.2332942555686))));
+
+        DirectExchangeResult result = exchangeService.calculatePreviewExchange("RSD", "EUR", 100000L);
 
-        Map<String, Object> result = exchangeService.calculatePreviewExchange("RSD", "EUR", 1000.0);
+        assertEquals(1 / 117.2332942555686, result.exchangeRate(), 0.001);
+        assertEquals(Money.subtract(result.convertedAmount(), result.fee()), result.finalAmount());
 
-        assertEquals(1 / 117.2332942555686, (Double) result.get("exchangeRate"), 0.001);
-        assertNotNull(result.get("convertedAmount"));
-        assertNotNull(result.get("fee"));
-        assertNotNull(result.get("provision"));
-        assertNotNull(result.get("finalAmount"));
+        Map<String, Object> view = result.toMap();
+        assertEquals(result.fee(), view.get("provision"));
+        assertEquals(result.finalAmount(), view.get("finalAmount"));
     }
 
     @Test
     void calculatePreviewExchangeForeign_withBothDirectPairs() {
-        // FROM -> RSD
-        ExchangePair usdToRsd = new ExchangePair();
-        usdToRsd.setExchangeRate(108.0);
-        when(exchangePairRepository.findByBaseCurrencyCodeAndTargetCurrencyCode(CurrencyType.USD, CurrencyType.RSD))
-                .thenReturn(Optional.of(usdToRsd));
-
-        // RSD -> EUR
-        ExchangePair rsdToEur = new ExchangePair();
-        rsdToEur.setExchangeRate(117.0);
-        when(exchangePairRepository.findByBaseCurrencyCodeAndTargetCurrencyCode(CurrencyType.RSD, CurrencyType.EUR))
-                .thenReturn(Optional.of(rsdToEur));
+        // FROM -> RSD i RSD -> EUR
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0),
+                pair(CurrencyType.RSD, CurrencyType.EUR, 117.0))));
 
         // Act
-        Map<String, Object> result = exchangeService.calculatePreviewExchangeForeign("USD", "EUR", 100.0);
+        ForeignExchangeResult result = exchangeService.calculatePreviewExchangeForeign("USD", "EUR", 10000L);
 
         // Assert
-        assertEquals(108.0, result.get("firstExchangeRate"));
-        assertEquals(1 / 117.0, (Double) result.get("secondExchangeRate"), 0.001);
-        assertNotNull(result.get("totalFee"));
-        assertNotNull(result.get("finalAmount"));
+        assertEquals(108.0, result.firstExchangeRate());
+        assertEquals(1 / 117.0, result.secondExchangeRate(), 0.001);
+        assertEquals(1_069_200L, result.rsdAmount());
+        assertEquals(10800L, result.firstFee());
+        assertEquals(result.fee(), result.toMap().get("totalFee"));
     }
-}
 
+    @Test
+    void calculatePreviewExchange_usesReverseRateAndFailsWithoutRate() {
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.0))));
+
+        DirectExchangeResult result = exchangeService.calculatePreviewExchange("RSD", "EUR", 117000L);
+
+        assertEquals(117.0, result.exchangeRate(), 0.0001);
+        assertEquals(1000L, result.convertedAmount());
+        assertThrows(RuntimeException.class, () -> exchangeService.calculatePreviewExchange("USD", "RSD", 10000L));
+    }
+
+    @Test
+    void calculatePreviewBatch_keepsOrderAndReportsFailedItems() {
+        when(exchangeRateCache.current()).thenReturn(ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0),
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.0))));
+
+        ExchangePreviewBatch batch = exchangeService.calculatePreviewBatch(List.of(
+                new ExchangePreviewDTO("EUR", "RSD", 10000L, null),
+                new ExchangePreviewDTO("XYZ", "RSD", 1000L, null),
+                new ExchangePreviewDTO("USD", "EUR", 10000L, null),
+                new ExchangePreviewDTO("RSD", "CHF", 10000L, null)));
+
+        assertEquals(4, batch.items().size());
+        assertEquals(1_158_300L, batch.items().get(0).result().finalAmount());
+        assertNotNull(batch.items().get(1).error());
+        assertInstanceOf(ForeignExchangeResult.class, batch.items().get(2).result());
+        assertNull(batch.items().get(3).result());
+        assertEquals("USD", batch.items().get(2).toMap().get("fromCurrency"));
+        // kursna lista se cita jednom za ceo zahtev
+        verify(exchangeRateCache, times(1)).current();
+    }
+
+    @Test
+    void calculatePreviewBatch_rejectsEmptyAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.calculatePreviewBatch(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.calculatePreviewBatch(
+                Collections.nCopies(ExchangeService.MAX_PREVIEW_BATCH_SIZE + 1, new ExchangePreviewDTO("EUR", "RSD", 100L, null))));
+        verifyNoInteractions(exchangeRateCache);
+    }
+}
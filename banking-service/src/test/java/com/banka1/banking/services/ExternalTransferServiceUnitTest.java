@@ -33,6 +33,18 @@ class ExternalTransferServiceUnitTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private FundsHoldService fundsHoldService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
     @InjectMocks
     private TransferService transferService;
 
@@ -44,17 +56,17 @@ class ExternalTransferServiceUnitTest {
     void setUp() {
         fromAccount = new Account();
         fromAccount.setId(1L);
-        fromAccount.setBalance(5000.0);
+        fromAccount.setBalance(500000L);
 
         toAccount = new Account();
         toAccount.setId(2L);
-        toAccount.setBalance(3000.0);
+        toAccount.setBalance(300000L);
 
         transfer = new Transfer();
         transfer.setId(100L);
         transfer.setFromAccountId(fromAccount);
         transfer.setToAccountId(toAccount);
-        transfer.setAmount(2000.0);
+        transfer.setAmount(200000L);
         transfer.setStatus(TransferStatus.PENDING);
         transfer.setType(TransferType.EXTERNAL);
     }
@@ -77,7 +89,7 @@ class ExternalTransferServiceUnitTest {
     @Test
     @Transactional
     void shouldFailExternalTransferWhenInsufficientBalance() {
-        transfer.setAmount(6000.0);
+        transfer.setAmount(600000L);
         when(transferRepository.findById(100L)).thenReturn(Optional.of(transfer));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> transferService.processTransfer(100L));
@@ -0,0 +1,162 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.config.InterbankConfig;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountSubtype;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.CurrencyRepository;
+import com.banka1.banking.repository.FundsHoldRepository;
+import com.banka1.banking.repository.TransferRepository;
+import com.banka1.common.listener.MessageHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transfer u drugu banku sa racuna koji ima limit potrosnje, kroz {@link TransferService#processTransfer}, nad pravom
+ * bazom. Rezervacija ({@link FundsHoldService#placeUntilResolved}) i potrosnja ({@link SpendingLimitService}) menjaju
+ * isti red racuna, pa moraju u istu transakciju; inace rezervacija ceka na red koji drzi transakcija transfera.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:foreign-bank-limit;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=2000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "destination.email=email-queue"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReferenceDataRegistry.class, BankAccountUtils.class, TransferService.class, AccountLockService.class,
+        FundsHoldService.class, SpendingLimitService.class})
+class ForeignBankTransferLimitTest {
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private FundsHoldRepository fundsHoldRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private ConsolidatedBalanceService consolidatedBalanceService;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private MessageHelper messageHelper;
+
+    @MockitoBean
+    private UserServiceCustomer userServiceCustomer;
+
+    @MockitoBean
+    private ExchangeService exchangeService;
+
+    @MockitoBean
+    private OtpTokenService otpTokenService;
+
+    @MockitoBean
+    private ReceiverService receiverService;
+
+    @MockitoBean
+    private InterbankService interbankService;
+
+    @MockitoBean
+    private InterbankConfig interbankConfig;
+
+    @MockitoBean
+    private HouseAccountService houseAccountService;
+
+    @Test
+    void foreignBankTransfer_reservesAndChargesLimit() {
+        Currency rsd = currencyRepository.save(currency());
+        Account account = accountRepository.save(account("111000000000000201"));
+
+        Transfer first = transferRepository.save(transfer(account, rsd, 30000L));
+        assertEquals("Transfer reserved successfully", transferService.processTransfer(first.getId()));
+
+        Account afterFirst = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(30000L, afterFirst.getReservedBalance());
+        assertEquals(30000L, afterFirst.getDailySpent());
+        assertEquals(1, fundsHoldRepository.count());
+
+        // preko dnevnog limita od 500: ni rezervacija ni potrosnja
+        Transfer second = transferRepository.save(transfer(account, rsd, 30000L));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> transferService.processTransfer(second.getId()));
+        assertTrue(e.getMessage().contains("dnevni limit"));
+
+        Account afterSecond = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(30000L, afterSecond.getReservedBalance());
+        assertEquals(30000L, afterSecond.getDailySpent());
+        assertEquals(1, fundsHoldRepository.count());
+    }
+
+    private static Currency currency() {
+        Currency currency = new Currency();
+        currency.setName("RSD");
+        currency.setCode(CurrencyType.RSD);
+        currency.setCountry("Srbija");
+        currency.setSymbol("RSD");
+        return currency;
+    }
+
+    private static Account account(String number) {
+        Account account = new Account();
+        account.setOwnerID(1L);
+        account.setAccountNumber(number);
+        account.setBalance(100_000L);
+        account.setReservedBalance(0L);
+        account.setType(AccountType.CURRENT);
+        account.setCurrencyType(CurrencyType.RSD);
+        account.setSubtype(AccountSubtype.STANDARD);
+        account.setCreatedDate(0L);
+        account.setExpirationDate(0L);
+        account.setDailyLimit(50000L);
+        account.setMonthlyLimit(0L);
+        account.setDailySpent(0L);
+        account.setMonthlySpent(0L);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setEmployeeID(1L);
+        account.setMonthlyMaintenanceFee(0L);
+        return account;
+    }
+
+    private static Transfer transfer(Account from, Currency currency, long amount) {
+        Transfer transfer = new Transfer();
+        transfer.setFromAccountId(from);
+        transfer.setAmount(amount);
+        transfer.setStatus(TransferStatus.RESERVED);
+        transfer.setType(TransferType.FOREIGN_BANK);
+        transfer.setPaymentDescription("Uplata u drugu banku");
+        transfer.setReceiver("Petar Petrovic");
+        transfer.setFromCurrency(currency);
+        transfer.setToCurrency(currency);
+        transfer.setCreatedAt(System.currentTimeMillis());
+        return transfer;
+    }
+}
@@ -0,0 +1,200 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.FundsHold;
+import com.banka1.banking.models.helper.HoldStatus;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.FundsHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FundsHoldServiceTest {
+
+    @Mock
+    private FundsHoldRepository fundsHoldRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FundsHoldService fundsHoldService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        fundsHoldService = new FundsHoldService(fundsHoldRepository, accountRepository, accountLockService, spendingLimitService, transactionManager, 60_000L);
+
+        account = new Account();
+        account.setId(1L);
+        account.setBalance(100000L);
+        account.setReservedBalance(0L);
+    }
+
+    private FundsHold activeHold(long amount) {
+        FundsHold hold = new FundsHold();
+        hold.setId(5L);
+        hold.setAccount(account);
+        hold.setAmount(amount);
+        hold.setReference("transfer:1");
+        hold.setStatus(HoldStatus.ACTIVE);
+        hold.setCreatedAt(0L);
+        hold.setExpiresAt(1L);
+        return hold;
+    }
+
+    @Test
+    void availableBalance_subtractsReservations() {
+        account.setReservedBalance(30000L);
+        assertEquals(70000L, FundsHoldService.availableBalance(account));
+
+        account.setReservedBalance(null);
+        assertEquals(100000L, FundsHoldService.availableBalance(account));
+    }
+
+    @Test
+    void place_reservesWithoutDebiting() {
+        when(accountLockService.lock(account)).thenReturn(List.of(account));
+        when(fundsHoldRepository.save(any(FundsHold.class))).thenAnswer(i -> i.getArgument(0));
+
+        FundsHold hold = fundsHoldService.place(account, 40000L, "transfer:1");
+
+        assertEquals(100000L, account.getBalance());
+        assertEquals(40000L, account.getReservedBalance());
+        assertEquals(HoldStatus.ACTIVE, hold.getStatus());
+        assertEquals(hold.getCreatedAt() + 60_000L, hold.getExpiresAt());
+        verify(accountRepository).save(account);
+    }
+
+    @Test
+    void placeUntilResolved_hasNoExpiry() {
+        when(accountLockService.lock(account)).thenReturn(List.of(account));
+        when(fundsHoldRepository.save(any(FundsHold.class))).thenAnswer(i -> i.getArgument(0));
+
+        FundsHold hold = fundsHoldService.placeUntilResolved(account, 40000L, "transfer:1");
+
+        assertEquals(40000L, account.getReservedBalance());
+        assertEquals(HoldStatus.ACTIVE, hold.getStatus());
+        assertNull(hold.getExpiresAt());
+        verifyNoInteractions(spendingLimitService);
+    }
+
+    @Test
+    void placeUntilResolved_consumeLimit_chargesLockedAccount() {
+        when(accountLockService.lock(account)).thenReturn(List.of(account));
+        when(fundsHoldRepository.save(any(FundsHold.class))).thenAnswer(i -> i.getArgument(0));
+
+        fundsHoldService.placeUntilResolved(account, 40000L, "transfer:1", true);
+
+        InOrder inOrder = inOrder(accountLockService, spendingLimitService);
+        inOrder.verify(accountLockService).lock(account);
+        inOrder.verify(spendingLimitService).consume(account, 40000L);
+        assertEquals(40000L, account.getReservedBalance());
+    }
+
+    @Test
+    void placeUntilResolved_limitExceeded_placesNoHold() {
+        when(accountLockService.lock(account)).thenReturn(List.of(account));
+        doThrow(new IllegalStateException("Prekoračen dnevni limit računa")).when(spendingLimitService).consume(account, 40000L);
+
+        assertThrows(IllegalStateException.class, () -> fundsHoldService.placeUntilResolved(account, 40000L, "transfer:1", true));
+        assertEquals(0L, account.getReservedBalance());
+        verify(fundsHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void place_insufficientAvailableBalance_throws() {
+        account.setReservedBalance(80000L);
+        when(accountLockService.lock(account)).thenReturn(List.of(account));
+
+        assertThrows(RuntimeException.class, () -> fundsHoldService.place(account, 40000L, "transfer:1"));
+        assertEquals(80000L, account.getReservedBalance());
+        verify(fundsHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void capture_debitsAndClearsReservation() {
+        account.setReservedBalance(40000L);
+        FundsHold hold = activeHold(40000L);
+        when(fundsHoldRepository.findByReferenceForUpdate("transfer:1")).thenReturn(Optional.of(hold));
+        when(fundsHoldRepository.save(hold)).thenReturn(hold);
+
+        fundsHoldService.capture("transfer:1");
+
+        assertEquals(60000L, account.getBalance());
+        assertEquals(0L, account.getReservedBalance());
+        assertEquals(HoldStatus.CAPTURED, hold.getStatus());
+        assertNotNull(hold.getResolvedAt());
+        verify(accountLockService).lock(account);
+    }
+
+    @Test
+    void capture_inactiveHold_throws() {
+        FundsHold hold = activeHold(40000L);
+        hold.setStatus(HoldStatus.EXPIRED);
+        when(fundsHoldRepository.findByReferenceForUpdate("transfer:1")).thenReturn(Optional.of(hold));
+
+        assertThrows(RuntimeException.class, () -> fundsHoldService.capture("transfer:1"));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void release_returnsFundsToAvailableBalance() {
+        account.setReservedBalance(40000L);
+        FundsHold hold = activeHold(40000L);
+        when(fundsHoldRepository.findByReferenceForUpdate("transfer:1")).thenReturn(Optional.of(hold));
+
+        fundsHoldService.release("transfer:1");
+
+        assertEquals(100000L, account.getBalance());
+        assertEquals(0L, account.getReservedBalance());
+        assertEquals(HoldStatus.RELEASED, hold.getStatus());
+    }
+
+    @Test
+    void release_alreadyResolvedIsNoOp() {
+        FundsHold hold = activeHold(40000L);
+        hold.setStatus(HoldStatus.CAPTURED);
+        when(fundsHoldRepository.findByReferenceForUpdate("transfer:1")).thenReturn(Optional.of(hold));
+
+        fundsHoldService.release("transfer:1");
+
+        assertEquals(HoldStatus.CAPTURED, hold.getStatus());
+        verifyNoInteractions(accountRepository, accountLockService);
+    }
+
+    @Test
+    void expireHolds_releasesExpiredHolds() {
+        account.setReservedBalance(40000L);
+        FundsHold hold = activeHold(40000L);
+        when(fundsHoldRepository.findTop500ByStatusAndExpiresAtLessThanOrderByIdAsc(eq(HoldStatus.ACTIVE), anyLong())).thenReturn(List.of(hold));
+        when(fundsHoldRepository.findByReferenceForUpdate("transfer:1")).thenReturn(Optional.of(hold));
+
+        fundsHoldService.expireHolds();
+
+        assertEquals(0L, account.getReservedBalance());
+        assertEquals(HoldStatus.EXPIRED, hold.getStatus());
+    }
+}
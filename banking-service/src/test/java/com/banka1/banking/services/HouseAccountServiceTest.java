@@ -0,0 +1,192 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.HouseAccountShard;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.HouseAccountShardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HouseAccountServiceTest {
+
+    @Mock
+    private HouseAccountShardRepository shardRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HouseAccountService houseAccountService;
+
+    private Account bankAccount;
+
+    @BeforeEach
+    void setUp() {
+        houseAccountService = new HouseAccountService(shardRepository, accountRepository, accountLockService, transactionManager, 4);
+
+        bankAccount = new Account();
+        bankAccount.setId(1L);
+        bankAccount.setAccountNumber("111000100000000110");
+        bankAccount.setType(AccountType.BANK);
+        bankAccount.setCurrencyType(CurrencyType.RSD);
+        bankAccount.setBalance(100000L);
+    }
+
+    @Test
+    void credit_postsToShardWithoutTouchingAccountRow() {
+        when(shardRepository.addToShard(eq(1L), anyInt(), eq(5000L))).thenReturn(1);
+
+        houseAccountService.credit(bankAccount, 5000L);
+
+        assertEquals(100000L, bankAccount.getBalance());
+        verifyNoInteractions(accountLockService, accountRepository);
+    }
+
+    @Test
+    void debit_takesFromShardWithEnoughFunds() {
+        when(shardRepository.debitShard(eq(1L), anyInt(), eq(2000L))).thenReturn(1);
+
+        houseAccountService.debit(bankAccount, 2000L);
+
+        verify(shardRepository).debitShard(eq(1L), anyInt(), eq(2000L));
+        verify(shardRepository, never()).addToShard(anyLong(), anyInt(), anyLong());
+        verifyNoInteractions(accountLockService, accountRepository);
+    }
+
+    @Test
+    void debit_triesOtherShardsWhenHomeShardIsShort() {
+        when(shardRepository.debitShard(eq(1L), anyInt(), eq(2000L))).thenReturn(0, 0, 1);
+
+        houseAccountService.debit(bankAccount, 2000L);
+
+        verify(shardRepository, times(3)).debitShard(eq(1L), anyInt(), eq(2000L));
+        verifyNoInteractions(accountLockService, accountRepository);
+    }
+
+    @Test
+    void debit_allShardsShortFoldsShardsAndDebitsAccountRow() {
+        HouseAccountShard shard = new HouseAccountShard(1L, bankAccount, 0, 1500L);
+        when(shardRepository.debitShard(eq(1L), anyInt(), eq(101000L))).thenReturn(0);
+        when(accountLockService.lock(bankAccount)).thenReturn(List.of(bankAccount));
+        when(shardRepository.findAllForUpdate(1L)).thenReturn(List.of(shard));
+
+        houseAccountService.debit(bankAccount, 101000L);
+
+        verify(shardRepository, times(4)).debitShard(eq(1L), anyInt(), eq(101000L));
+        assertEquals(500L, bankAccount.getBalance());
+        assertEquals(0L, shard.getBalance());
+    }
+
+    @Test
+    void debit_insufficientTotalBalanceThrows() {
+        when(shardRepository.debitShard(eq(1L), anyInt(), eq(200000L))).thenReturn(0);
+        when(accountLockService.lock(bankAccount)).thenReturn(List.of(bankAccount));
+        when(shardRepository.findAllForUpdate(1L)).thenReturn(List.of(new HouseAccountShard(1L, bankAccount, 0, 1500L)));
+
+        assertThrows(IllegalStateException.class, () -> houseAccountService.debit(bankAccount, 200000L));
+        assertEquals(101500L, bankAccount.getBalance());
+    }
+
+    @Test
+    void debit_foldsOntoLockedAccountState() {
+        // racun ucitan ranije u transakciji je zastareo; lock vraca stanje iz baze
+        Account locked = new Account();
+        locked.setId(1L);
+        locked.setType(AccountType.BANK);
+        locked.setCurrencyType(CurrencyType.RSD);
+        locked.setBalance(120000L);
+        when(shardRepository.debitShard(eq(1L), anyInt(), eq(110000L))).thenReturn(0);
+        when(accountLockService.lock(bankAccount)).thenReturn(List.of(locked));
+        when(shardRepository.findAllForUpdate(1L)).thenReturn(List.of(new HouseAccountShard(1L, locked, 0, 10L)));
+
+        houseAccountService.debit(bankAccount, 110000L);
+
+        assertEquals(10010L, locked.getBalance());
+        assertEquals(100000L, bankAccount.getBalance());
+        verify(accountRepository).save(locked);
+    }
+
+    @Test
+    void credit_missingShardFallsBackToAccountRow() {
+        when(shardRepository.addToShard(eq(1L), anyInt(), eq(5000L))).thenReturn(0);
+        when(accountLockService.lock(bankAccount)).thenReturn(List.of(bankAccount));
+
+        houseAccountService.credit(bankAccount, 5000L);
+
+        assertEquals(105000L, bankAccount.getBalance());
+        verify(accountLockService).lock(bankAccount);
+        verify(accountRepository).save(bankAccount);
+    }
+
+    @Test
+    void credit_rejectsCustomerAccount() {
+        Account customerAccount = new Account();
+        customerAccount.setId(2L);
+        customerAccount.setType(AccountType.CURRENT);
+
+        assertThrows(IllegalArgumentException.class, () -> houseAccountService.credit(customerAccount, 1000L));
+        verifyNoInteractions(shardRepository);
+    }
+
+    @Test
+    void getTotalBalance_addsShards() {
+        when(shardRepository.sumBalanceByAccountId(1L)).thenReturn(2550L);
+
+        assertEquals(102550L, houseAccountService.getTotalBalance(bankAccount));
+    }
+
+    @Test
+    void shardFor_staysInRange() {
+        for (long key = 0; key < 1000; key++) {
+            int shard = houseAccountService.shardFor(key);
+            assertTrue(shard >= 0 && shard < 4);
+        }
+    }
+
+    @Test
+    void rebalance_foldsShardsIntoAccount() {
+        HouseAccountShard first = new HouseAccountShard(1L, bankAccount, 0, 1000L);
+        HouseAccountShard second = new HouseAccountShard(2L, bankAccount, 1, -300L);
+
+        when(accountRepository.findAllByType(AccountType.BANK)).thenReturn(List.of(bankAccount));
+        when(accountLockService.lock(bankAccount)).thenReturn(List.of(bankAccount));
+        when(shardRepository.findAllForUpdate(1L)).thenReturn(List.of(first, second));
+
+        houseAccountService.rebalance();
+
+        assertEquals(100700L, bankAccount.getBalance());
+        assertEquals(0L, first.getBalance());
+        assertEquals(0L, second.getBalance());
+        verify(accountRepository).save(bankAccount);
+        verify(shardRepository).saveAll(List.of(first, second));
+    }
+
+    @Test
+    void createShards_createsOnlyMissingShards() {
+        when(accountRepository.findAllByType(AccountType.BANK)).thenReturn(List.of(bankAccount));
+        when(shardRepository.existsByAccountIdAndShardIndex(eq(1L), anyInt())).thenReturn(false);
+        when(shardRepository.existsByAccountIdAndShardIndex(1L, 0)).thenReturn(true);
+
+        houseAccountService.createShards();
+
+        verify(shardRepository, times(3)).save(any(HouseAccountShard.class));
+    }
+}
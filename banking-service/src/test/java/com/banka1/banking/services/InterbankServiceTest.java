@@ -11,7 +11,6 @@ import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.models.helper.IdempotenceKey;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.aspectj.weaver.TypeFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,7 +35,7 @@ class InterbankServiceTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
-    private CurrencyRepository currencyRepository;
+    private ReferenceDataRegistry referenceDataRegistry;
     @Mock
     private InterbankConfig config;
 
@@ -60,7 +59,7 @@ class InterbankServiceTest {
 
         when(mockTransfer.getId()).thenReturn(123L);
         when(mockTransfer.getFromAccountId()).thenReturn(mockAccount);
-        when(mockTransfer.getAmount()).thenReturn(100.0);
+        when(mockTransfer.getAmount()).thenReturn(10000L);
         when(mockTransfer.getPaymentDescription()).thenReturn("Test Description");
         when(mockTransfer.getFromCurrency()).thenReturn(mockCurrency);
         when(mockTransfer.getToCurrency()).thenReturn(mockCurrency);
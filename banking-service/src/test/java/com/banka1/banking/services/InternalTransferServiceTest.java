@@ -31,6 +31,18 @@ class InternalTransferServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private FundsHoldService fundsHoldService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
     @InjectMocks
     private TransferService transferService;
 
@@ -42,17 +54,17 @@ class InternalTransferServiceTest {
     void setUp() {
         fromAccount = new Account();
         fromAccount.setId(1L);
-        fromAccount.setBalance(1000.0);
+        fromAccount.setBalance(100000L);
 
         toAccount = new Account();
         toAccount.setId(2L);
-        toAccount.setBalance(500.0);
+        toAccount.setBalance(50000L);
 
         transfer = new Transfer();
         transfer.setId(1L);
         transfer.setFromAccountId(fromAccount);
         transfer.setToAccountId(toAccount);
-        transfer.setAmount(200.0);
+        transfer.setAmount(20000L);
         transfer.setType(TransferType.INTERNAL);
         transfer.setStatus(TransferStatus.PENDING);
     }
@@ -66,8 +78,8 @@ class InternalTransferServiceTest {
         String result = transferService.processInternalTransfer(1L);
 
         assertEquals("Transfer completed successfully", result);
-        assertEquals(800.0, fromAccount.getBalance());
-        assertEquals(700.0, toAccount.getBalance());
+        assertEquals(80000L, fromAccount.getBalance());
+        assertEquals(70000L, toAccount.getBalance());
         assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
 
         verify(accountRepository, times(2)).save(any(Account.class));
@@ -77,7 +89,7 @@ class InternalTransferServiceTest {
 
     @Test
     void testProcessInternalTransfer_FailedDueToInsufficientFunds() {
-        transfer.setAmount(1500.0); // Više nego što ima na računu
+        transfer.setAmount(150000L); // Više nego što ima na računu
         when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
 
         Exception exception = assertThrows(RuntimeException.class, () -> transferService.processInternalTransfer(1L));
@@ -0,0 +1,244 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.LedgerBalanceEntryDTO;
+import com.banka1.banking.models.*;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.PostingDirection;
+import com.banka1.banking.repository.AccountBalanceProjectionRepository;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.LedgerCheckpointRepository;
+import com.banka1.banking.repository.LedgerPostingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerPostingRepository postingRepository;
+
+    @Mock
+    private AccountBalanceProjectionRepository projectionRepository;
+
+    @Mock
+    private LedgerCheckpointRepository checkpointRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private LedgerService ledgerService;
+
+    private Account rsdAccount;
+    private Account otherRsdAccount;
+    private Account eurAccount;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(postingRepository, projectionRepository, checkpointRepository, accountRepository, 0L);
+
+        rsdAccount = account(1L, CurrencyType.RSD);
+        otherRsdAccount = account(2L, CurrencyType.RSD);
+        eurAccount = account(3L, CurrencyType.EUR);
+    }
+
+    private Account account(Long id, CurrencyType currencyType) {
+        Account account = new Account();
+        account.setId(id);
+        account.setCurrencyType(currencyType);
+        account.setBalance(0L);
+        account.setReservedBalance(0L);
+        return account;
+    }
+
+    private Transaction transaction(Account from, Account to, long amount, long finalAmount, CurrencyType currencyType) {
+        Currency currency = new Currency();
+        currency.setCode(currencyType);
+
+        Transaction transaction = new Transaction();
+        transaction.setId(10L);
+        transaction.setFromAccountId(from);
+        transaction.setToAccountId(to);
+        transaction.setAmount(amount);
+        transaction.setFinalAmount(finalAmount);
+        transaction.setCurrency(currency);
+        return transaction;
+    }
+
+    private LedgerPosting posting(Long id, Account account, PostingDirection direction, long amount) {
+        LedgerPosting posting = new LedgerPosting();
+        posting.setId(id);
+        posting.setEntryId("entry-" + id);
+        posting.setAccount(account);
+        posting.setDirection(direction);
+        posting.setAmount(amount);
+        posting.setCurrencyType(account != null ? account.getCurrencyType() : CurrencyType.RSD);
+        posting.setCreatedAt(0L);
+        return posting;
+    }
+
+    private static Map<CurrencyType, Long> netByCurrency(List<LedgerPosting> postings) {
+        return postings.stream().collect(Collectors.groupingBy(LedgerPosting::getCurrencyType,
+                Collectors.summingLong(LedgerPosting::signedAmount)));
+    }
+
+    @Test
+    void postingsFor_sameCurrencyIsSingleBalancedPair() {
+        List<LedgerPosting> postings = ledgerService.postingsFor(transaction(rsdAccount, otherRsdAccount, 10000L, 10000L, CurrencyType.RSD));
+
+        assertEquals(2, postings.size());
+        assertEquals(PostingDirection.DEBIT, postings.get(0).getDirection());
+        assertSame(rsdAccount, postings.get(0).getAccount());
+        assertEquals(PostingDirection.CREDIT, postings.get(1).getDirection());
+        assertSame(otherRsdAccount, postings.get(1).getAccount());
+        assertEquals(1, postings.stream().map(LedgerPosting::getEntryId).distinct().count());
+        assertEquals(0L, netByCurrency(postings).get(CurrencyType.RSD));
+    }
+
+    @Test
+    void postingsFor_exchangeIsBalancedPerCurrencyThroughClearing() {
+        List<LedgerPosting> postings = ledgerService.postingsFor(transaction(rsdAccount, eurAccount, 1_170_000L, 9900L, CurrencyType.RSD));
+
+        assertEquals(4, postings.size());
+        Map<CurrencyType, Long> net = netByCurrency(postings);
+        assertEquals(0L, net.get(CurrencyType.RSD));
+        assertEquals(0L, net.get(CurrencyType.EUR));
+        assertEquals(2, postings.stream().filter(p -> p.getAccount() == null).count());
+    }
+
+    @Test
+    void postingsFor_incomingForeignTransferDebitsClearing() {
+        List<LedgerPosting> postings = ledgerService.postingsFor(transaction(null, rsdAccount, 50000L, 50000L, CurrencyType.RSD));
+
+        assertEquals(2, postings.size());
+        assertNull(postings.get(0).getAccount());
+        assertEquals(50000L, postings.get(1).signedAmount());
+    }
+
+    @Test
+    void project_foldsPostingsAndAdvancesCheckpoint() {
+        LedgerCheckpoint checkpoint = new LedgerCheckpoint(LedgerService.PROJECTOR, 4L);
+        when(checkpointRepository.findForUpdate(LedgerService.PROJECTOR)).thenReturn(Optional.of(checkpoint));
+        when(postingRepository.findTop1000ByIdGreaterThanOrderByIdAsc(4L)).thenReturn(List.of(
+                posting(5L, rsdAccount, PostingDirection.DEBIT, 10000L),
+                posting(6L, otherRsdAccount, PostingDirection.CREDIT, 10000L),
+                posting(7L, rsdAccount, PostingDirection.CREDIT, 3000L),
+                posting(8L, null, PostingDirection.DEBIT, 3000L)
+        ));
+        when(projectionRepository.findById(1L)).thenReturn(Optional.of(new AccountBalanceProjection(1L, 100000L, 4L, 0L)));
+        when(projectionRepository.findById(2L)).thenReturn(Optional.empty());
+
+        ledgerService.project();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AccountBalanceProjection>> captor = ArgumentCaptor.forClass(List.class);
+        verify(projectionRepository).saveAll(captor.capture());
+        Map<Long, AccountBalanceProjection> saved = captor.getValue().stream()
+                .collect(Collectors.toMap(AccountBalanceProjection::getAccountId, p -> p));
+
+        assertEquals(93000L, saved.get(1L).getBalance());
+        assertEquals(7L, saved.get(1L).getLastPostingId());
+        assertEquals(10000L, saved.get(2L).getBalance());
+        assertEquals(8L, checkpoint.getLastPostingId());
+        verify(checkpointRepository).save(checkpoint);
+    }
+
+    @Test
+    void project_nothingNewLeavesCheckpoint() {
+        when(checkpointRepository.findForUpdate(LedgerService.PROJECTOR)).thenReturn(Optional.empty());
+        when(postingRepository.findTop1000ByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of());
+
+        ledgerService.project();
+
+        verify(projectionRepository, never()).saveAll(any());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    void getProjectedAvailableBalance_includesUnprojectedPostingsAndReservations() {
+        rsdAccount.setReservedBalance(5000L);
+        when(projectionRepository.findById(1L)).thenReturn(Optional.of(new AccountBalanceProjection(1L, 100000L, 4L, 0L)));
+        when(checkpointRepository.findById(LedgerService.PROJECTOR)).thenReturn(Optional.of(new LedgerCheckpoint(LedgerService.PROJECTOR, 4L)));
+        when(postingRepository.sumSignedAmountAfter(1L, 4L)).thenReturn(-20000L);
+
+        assertEquals(75000L, ledgerService.getProjectedAvailableBalance(rsdAccount));
+    }
+
+    @Test
+    void replay_returnsRunningBalance() {
+        when(postingRepository.findAllByAccountIdOrderByIdAsc(1L)).thenReturn(List.of(
+                posting(1L, rsdAccount, PostingDirection.CREDIT, 100000L),
+                posting(5L, rsdAccount, PostingDirection.DEBIT, 10000L),
+                posting(7L, rsdAccount, PostingDirection.CREDIT, 3000L)
+        ));
+
+        List<LedgerBalanceEntryDTO> history = ledgerService.replay(1L);
+
+        assertEquals(List.of(100000L, 90000L, 93000L), history.stream().map(LedgerBalanceEntryDTO::getBalanceAfter).toList());
+    }
+
+    @Test
+    void append_savesAllPostingsInOneBatch() {
+        ledgerService.append(List.of(
+                transaction(rsdAccount, otherRsdAccount, 10000L, 10000L, CurrencyType.RSD),
+                transaction(rsdAccount, eurAccount, 1_170_000L, 9900L, CurrencyType.RSD)
+        ));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LedgerPosting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postingRepository).saveAll(captor.capture());
+        assertEquals(6, captor.getValue().size());
+    }
+
+    @Test
+    void journal_skipsExchangeSummaryRow() {
+        Transaction summary = transaction(rsdAccount, eurAccount, 1_170_000L, 9900L, CurrencyType.RSD);
+        summary.setSummary(true);
+
+        ledgerService.journal(summary);
+
+        verifyNoInteractions(postingRepository);
+    }
+
+    @Test
+    void journal_requiresNewWritesOnlyItsOwnPostings() {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:ledger-journal"));
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Transaction outerTransaction = transaction(rsdAccount, otherRsdAccount, 10000L, 10000L, CurrencyType.RSD);
+        Transaction innerTransaction = transaction(rsdAccount, eurAccount, 1_170_000L, 9900L, CurrencyType.RSD);
+        Transaction rolledBackTransaction = transaction(otherRsdAccount, rsdAccount, 500L, 500L, CurrencyType.RSD);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledgerService.journal(outerTransaction);
+            inner.executeWithoutResult(innerStatus -> ledgerService.journal(innerTransaction));
+            inner.executeWithoutResult(innerStatus -> {
+                ledgerService.journal(rolledBackTransaction);
+                innerStatus.setRollbackOnly();
+            });
+        });
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LedgerPosting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postingRepository, times(2)).saveAll(captor.capture());
+        assertEquals(4, captor.getAllValues().get(0).size());
+        assertTrue(captor.getAllValues().get(0).stream().allMatch(p -> p.getTransaction() == innerTransaction));
+        assertEquals(2, captor.getAllValues().get(1).size());
+        assertTrue(captor.getAllValues().get(1).stream().allMatch(p -> p.getTransaction() == outerTransaction));
+    }
+}
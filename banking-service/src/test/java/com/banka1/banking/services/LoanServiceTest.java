@@ -60,7 +60,7 @@ public class LoanServiceTest {
 
         createLoanDTO = new CreateLoanDTO();
         createLoanDTO.setAccountId(1L);
-        createLoanDTO.setLoanAmount(10000.0);
+        createLoanDTO.setLoanAmount(1_000_000L);
         createLoanDTO.setNumberOfInstallments(60);
         createLoanDTO.setLoanType(LoanType.CASH);
         createLoanDTO.setInterestType(InterestType.FIXED);
@@ -77,13 +77,13 @@ public class LoanServiceTest {
         savedLoan.setNominalRate(5.5);
         savedLoan.setEffectiveRate(5.8);
         savedLoan.setPenalty(50.0);
-        savedLoan.setLoanAmount(5000.0);
+        savedLoan.setLoanAmount(500000L);
         savedLoan.setCreatedDate(System.currentTimeMillis());
         savedLoan.setAllowedDate(System.currentTimeMillis() + 1000000L);
-        savedLoan.setMonthlyPayment(450.0);
+        savedLoan.setMonthlyPayment(45000L);
         savedLoan.setNumberOfPaidInstallments(3);
         savedLoan.setNextPaymentDate(LocalDate.now().plusMonths(1));
-        savedLoan.setRemainingAmount(4000.0);
+        savedLoan.setRemainingAmount(400000L);
         savedLoan.setPhoneNumber("+1234567890");
         savedLoan.setLoanReason("Car Purchase");
         savedLoan.setAccount(testAccount);
@@ -93,7 +93,7 @@ public class LoanServiceTest {
         installment.setId(1L);
         installment.setLoan(savedLoan);
         installment.setPaymentStatus(PaymentStatus.PENDING);
-        installment.setAmount(500.0);
+        installment.setAmount(50000L);
     }
 
     @Test
@@ -109,13 +109,13 @@ public class LoanServiceTest {
         savedLoan.setNominalRate(5.5);
         savedLoan.setEffectiveRate(5.8);
         savedLoan.setPenalty(50.0);
-        savedLoan.setLoanAmount(5000.0);
+        savedLoan.setLoanAmount(500000L);
         savedLoan.setCreatedDate(System.currentTimeMillis());
         savedLoan.setAllowedDate(System.currentTimeMillis() + 1000000L);
-        savedLoan.setMonthlyPayment(450.0);
+        savedLoan.setMonthlyPayment(45000L);
         savedLoan.setNumberOfPaidInstallments(3);
         savedLoan.setNextPaymentDate(LocalDate.now().plusMonths(1));
-        savedLoan.setRemainingAmount(4000.0);
+        savedLoan.setRemainingAmount(400000L);
         savedLoan.setPhoneNumber("+1234567890");
         savedLoan.setLoanReason("Car Purchase");
         savedLoan.setAccount(null);
@@ -144,7 +144,7 @@ public class LoanServiceTest {
 
     @Test
     public void testCreateLoan_NegativeLoanAmount() {
-        createLoanDTO.setLoanAmount(-500.0);
+        createLoanDTO.setLoanAmount(-50000L);
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
 
         assertThrows(RuntimeException.class, () -> loanService.createLoan(createLoanDTO));
@@ -154,7 +154,7 @@ public class LoanServiceTest {
 
     @Test
     public void testCreateLoan_ZeroLoanAmount() {
-        createLoanDTO.setLoanAmount(0.0);
+        createLoanDTO.setLoanAmount(0L);
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
 
         assertThrows(RuntimeException.class, () -> loanService.createLoan(createLoanDTO));
@@ -281,13 +281,13 @@ public class LoanServiceTest {
         assertEquals(LoanType.CASH, result.getLoanType());
         assertEquals(60, result.getNumberOfInstallments());
         assertEquals(InterestType.FIXED, result.getInterestType());
-        assertEquals(10000.0, result.getLoanAmount());
+        assertEquals(1_000_000L, result.getLoanAmount());
         assertEquals(CurrencyType.USD, result.getCurrencyType());
         assertEquals("1234567890", result.getPhoneNumber());
         assertEquals("Home renovation", result.getLoanReason());
         assertEquals(8.0, result.getEffectiveRate());
         assertEquals(8.0, result.getNominalRate());
-        assertEquals(10000.0, result.getRemainingAmount());
+        assertEquals(1_000_000L, result.getRemainingAmount());
         assertEquals(PaymentStatus.PENDING, result.getPaymentStatus());
 
         // The next payment date should be approximately 1 month from now
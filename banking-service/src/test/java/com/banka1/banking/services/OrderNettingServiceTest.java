@@ -0,0 +1,269 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.OrderTransactionInitiationDTO;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.OrderFill;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.OrderFillStatus;
+import com.banka1.banking.repository.*;
+import com.banka1.common.listener.MessageHelper;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import org.apache.activemq.command.ActiveMQTempQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNettingServiceTest {
+
+    @Mock
+    private OrderFillRepository orderFillRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private JmsTemplate jmsTemplate;
+
+    @Mock
+    private MessageHelper messageHelper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ActiveMQTempQueue replyTo = new ActiveMQTempQueue("ID:trading-1:1:1");
+
+    private OrderNettingService orderNettingService;
+
+    private Account buyer;
+    private Account seller;
+
+    @BeforeEach
+    void setUp() {
+        orderNettingService = new OrderNettingService(orderFillRepository, accountRepository, transferRepository, transactionRepository, referenceDataRegistry, spendingLimitService, accountLockService, houseAccountService, jmsTemplate, messageHelper, transactionManager, true, 100);
+
+        buyer = account(1L, 100000L);
+        seller = account(2L, 50000L);
+    }
+
+    private Account account(Long id, long balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(balance);
+        account.setReservedBalance(0L);
+        account.setCurrencyType(CurrencyType.USD);
+        account.setType(AccountType.CURRENT);
+        return account;
+    }
+
+    private OrderFill fill(long id, Account from, Account to, long amount) {
+        OrderFill fill = new OrderFill();
+        fill.setId(id);
+        fill.setUid("fill-" + id);
+        fill.setBuyerAccountId(from.getId());
+        fill.setSellerAccountId(to.getId());
+        fill.setAmount(amount);
+        fill.setStatus(OrderFillStatus.PENDING);
+        fill.setReceivedAt(0L);
+        fill.setReplyTo("temp-queue://ID:trading-1:1:1");
+        fill.setCorrelationId("corr-" + id);
+        return fill;
+    }
+
+    private OrderTransactionInitiationDTO dto(String uid, double amount) {
+        OrderTransactionInitiationDTO dto = new OrderTransactionInitiationDTO();
+        dto.setUid(uid);
+        dto.setBuyerAccountId(buyer.getId());
+        dto.setSellerAccountId(seller.getId());
+        dto.setAmount(amount);
+        return dto;
+    }
+
+    /**
+     * Proverava da je odgovor poslat na {@link #replyTo} sa ocekivanim telom i ID-jem korelacije.
+     */
+    private void verifyReply(String body, String correlationId) throws JMSException {
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(jmsTemplate).convertAndSend(eq(replyTo), eq(body), postProcessor.capture());
+        Message message = mock(Message.class);
+        postProcessor.getValue().postProcessMessage(message);
+        verify(message).setJMSCorrelationID(correlationId);
+    }
+
+    @Test
+    void submit_storesReplyToOnFill() throws JMSException {
+        when(orderFillRepository.findByUid("fill-1")).thenReturn(Optional.empty());
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(buyer));
+
+        orderNettingService.submit(dto("fill-1", 10.0), replyTo, "corr-1");
+
+        ArgumentCaptor<OrderFill> saved = ArgumentCaptor.forClass(OrderFill.class);
+        verify(orderFillRepository).save(saved.capture());
+        assertEquals("temp-queue://ID:trading-1:1:1", saved.getValue().getReplyTo());
+        assertEquals("corr-1", saved.getValue().getCorrelationId());
+        assertEquals(OrderFillStatus.PENDING, saved.getValue().getStatus());
+        assertEquals(1000L, saved.getValue().getAmount());
+        assertEquals(CurrencyType.USD, saved.getValue().getCurrencyType());
+        verifyNoInteractions(jmsTemplate);
+    }
+
+    @Test
+    void submit_redeliveredPendingFillUpdatesReplyTo() throws JMSException {
+        OrderFill pending = fill(1L, buyer, seller, 1000L);
+        when(orderFillRepository.findByUid("fill-1")).thenReturn(Optional.of(pending));
+        when(orderFillRepository.updatePendingReplyTo(1L, "temp-queue://ID:trading-1:1:1", "corr-2")).thenReturn(1);
+
+        orderNettingService.submit(dto("fill-1", 10.0), replyTo, "corr-2");
+
+        verify(orderFillRepository, never()).save(any());
+        verifyNoInteractions(jmsTemplate);
+    }
+
+    @Test
+    void settlePending_netsOppositeFillsIntoOneTransfer() throws JMSException {
+        OrderFill first = fill(1L, buyer, seller, 10000L);
+        OrderFill second = fill(2L, seller, buyer, 3000L);
+        OrderFill third = fill(3L, buyer, seller, 2000L);
+
+        Currency usd = new Currency();
+        usd.setCode(CurrencyType.USD);
+        when(orderFillRepository.lockPending(100)).thenReturn(List.of(first, second, third));
+        when(accountRepository.findAllById(anySet())).thenReturn(List.of(buyer, seller));
+        when(referenceDataRegistry.getCurrency(CurrencyType.USD)).thenReturn(usd);
+        when(messageHelper.createTextMessage("null")).thenReturn("null");
+
+        orderNettingService.settlePending();
+
+        assertEquals(91000L, buyer.getBalance());
+        assertEquals(59000L, seller.getBalance());
+        verify(spendingLimitService).consume(buyer, 9000L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transfer>> transfers = ArgumentCaptor.forClass(List.class);
+        verify(transferRepository).saveAll(transfers.capture());
+        assertEquals(1, transfers.getValue().size());
+        assertEquals(9000L, transfers.getValue().get(0).getAmount());
+        assertSame(buyer, transfers.getValue().get(0).getFromAccountId());
+
+        for (OrderFill fill : List.of(first, second, third)) {
+            assertEquals(OrderFillStatus.SETTLED, fill.getStatus());
+            assertSame(transfers.getValue().get(0), fill.getSettlement());
+        }
+
+        // odgovor ide za svako izvrsenje, i za ono primljeno na drugom cvoru
+        verify(jmsTemplate, times(3)).convertAndSend(eq(replyTo), eq("null"), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void settlePending_rejectsBuysOfAccountThatCannotCoverNetPosition() throws JMSException {
+        OrderFill covered = fill(1L, seller, buyer, 40000L);
+        OrderFill uncovered = fill(2L, buyer, seller, 150000L);
+        covered.setReplyTo(null);
+
+        Currency usd = new Currency();
+        usd.setCode(CurrencyType.USD);
+        when(orderFillRepository.lockPending(100)).thenReturn(List.of(covered, uncovered));
+        when(accountRepository.findAllById(anySet())).thenReturn(List.of(buyer, seller));
+        when(referenceDataRegistry.getCurrency(CurrencyType.USD)).thenReturn(usd);
+        when(messageHelper.createTextMessage("Insufficient funds")).thenReturn("Insufficient funds");
+
+        orderNettingService.settlePending();
+
+        assertEquals(OrderFillStatus.REJECTED, uncovered.getStatus());
+        assertEquals(OrderFillStatus.SETTLED, covered.getStatus());
+        assertEquals(140000L, buyer.getBalance());
+        assertEquals(10000L, seller.getBalance());
+        verifyReply("Insufficient funds", "corr-2");
+    }
+
+    @Test
+    void settlePending_rejectsBuysOverSpendingLimit() throws JMSException {
+        OrderFill overLimit = fill(1L, buyer, seller, 10000L);
+        buyer.setAccountNumber("111000100000000110");
+        when(orderFillRepository.lockPending(100)).thenReturn(List.of(overLimit));
+        when(accountRepository.findAllById(anySet())).thenReturn(List.of(buyer, seller));
+        when(spendingLimitService.exceedsLimit(buyer, 10000L)).thenReturn(true);
+        String error = "Prekoračen limit potrošnje računa 111000100000000110";
+        when(messageHelper.createTextMessage(error)).thenReturn(error);
+
+        orderNettingService.settlePending();
+
+        assertEquals(OrderFillStatus.REJECTED, overLimit.getStatus());
+        assertEquals(100000L, buyer.getBalance());
+        verify(spendingLimitService, never()).consume(any(), anyLong());
+        verifyReply(error, "corr-1");
+    }
+
+    @Test
+    void settlePending_invalidAccountsAreRejectedWithoutPosting() throws JMSException {
+        OrderFill sameAccount = fill(1L, buyer, buyer, 1000L);
+        when(orderFillRepository.lockPending(100)).thenReturn(List.of(sameAccount));
+        when(accountRepository.findAllById(anySet())).thenReturn(List.of(buyer));
+        when(messageHelper.createTextMessage("Kupac i prodavac su isti račun")).thenReturn("Kupac i prodavac su isti račun");
+
+        orderNettingService.settlePending();
+
+        assertEquals(OrderFillStatus.REJECTED, sameAccount.getStatus());
+        assertEquals(100000L, buyer.getBalance());
+        verify(transferRepository).saveAll(List.of());
+        verifyNoInteractions(referenceDataRegistry);
+        verifyReply("Kupac i prodavac su isti račun", "corr-1");
+    }
+
+    @Test
+    void submit_redeliveredSettledFillRepliesImmediately() throws JMSException {
+        OrderFill settled = fill(1L, buyer, seller, 1000L);
+        settled.setStatus(OrderFillStatus.SETTLED);
+        when(orderFillRepository.findByUid("fill-1")).thenReturn(Optional.of(settled));
+        when(messageHelper.createTextMessage("null")).thenReturn("null");
+
+        orderNettingService.submit(dto("fill-1", 10.0), replyTo, "corr-9");
+
+        verify(orderFillRepository, never()).save(any());
+        verifyReply("null", "corr-9");
+    }
+
+    @Test
+    void settlePending_disabledDoesNothing() {
+        orderNettingService = new OrderNettingService(orderFillRepository, accountRepository, transferRepository, transactionRepository, referenceDataRegistry, spendingLimitService, accountLockService, houseAccountService, jmsTemplate, messageHelper, transactionManager, false, 100);
+
+        orderNettingService.settlePending();
+
+        verifyNoInteractions(orderFillRepository, transactionManager);
+    }
+}
@@ -6,9 +6,9 @@ import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Currency;
 import com.banka1.banking.models.Transaction;
 import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountType;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,12 +35,21 @@ public class OrderServiceTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
-    private CurrencyRepository currencyRepository;
+    private ReferenceDataRegistry referenceDataRegistry;
     @Mock
     private TransactionRepository transactionRepository;
     @Mock
     private TransferService transferService;
 
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -53,14 +62,14 @@ public class OrderServiceTest {
         userAccount.setId(1L);
         userAccount.setOwnerID(10L);
         userAccount.setAccountNumber("123-456");
-        userAccount.setBalance(100000.0);
+        userAccount.setBalance(10_000_000L);
         userAccount.setCurrencyType(CurrencyType.RSD);
 
         bankAccount = new Account();
         bankAccount.setId(2L);
         bankAccount.setOwnerID(1L);
         bankAccount.setAccountNumber("000-111");
-        bankAccount.setBalance(1000000.0);
+        bankAccount.setBalance(100_000_000L);
         bankAccount.setCurrencyType(CurrencyType.RSD);
     }
 
@@ -72,21 +81,22 @@ public class OrderServiceTest {
         double result = orderService.executeOrder("buy", 10L, 1L, 50000.0, 100.0);
 
         assertEquals(50000.0, result);
+        verify(spendingLimitService).consume(userAccount, 5_010_000L);
 
         ArgumentCaptor<MoneyTransferDTO> captor = ArgumentCaptor.forClass(MoneyTransferDTO.class);
-        verify(transferService, times(2)).createMoneyTransfer(captor.capture());
+        verify(transferService, times(2)).settleSystemTransfer(eq(userAccount), eq(bankAccount), captor.capture());
 
         List<MoneyTransferDTO> calls = captor.getAllValues();
 
         MoneyTransferDTO mainTransfer = calls.get(0);
         assertEquals("123-456", mainTransfer.getFromAccountNumber());
         assertEquals("000-111", mainTransfer.getRecipientAccount());
-        assertEquals(50000.0, mainTransfer.getAmount());
+        assertEquals(5_000_000L, mainTransfer.getAmount());
 
         MoneyTransferDTO feeTransfer = calls.get(1);
         assertEquals("123-456", feeTransfer.getFromAccountNumber());
         assertEquals("000-111", feeTransfer.getRecipientAccount());
-        assertEquals(100.0, feeTransfer.getAmount());
+        assertEquals(10000L, feeTransfer.getAmount());
         assertEquals("Fee", feeTransfer.getPayementReference());
     }
 
@@ -98,12 +108,12 @@ public class OrderServiceTest {
         orderService.executeOrder("buy", 10L, 1L, 1000.0, 200.0);
 
         ArgumentCaptor<MoneyTransferDTO> captor = ArgumentCaptor.forClass(MoneyTransferDTO.class);
-        verify(transferService, times(2)).createMoneyTransfer(captor.capture());
+        verify(transferService, times(2)).settleSystemTransfer(eq(userAccount), eq(bankAccount), captor.capture());
 
         MoneyTransferDTO feeTransfer = captor.getAllValues().get(1);
         assertEquals("123-456", feeTransfer.getFromAccountNumber());
         assertEquals("000-111", feeTransfer.getRecipientAccount());
-        assertEquals(200.0, feeTransfer.getAmount());
+        assertEquals(20000L, feeTransfer.getAmount());
         assertEquals("Fee", feeTransfer.getPayementReference());
     }
 
@@ -118,7 +128,7 @@ public class OrderServiceTest {
         double result = orderService.executeOrder("buy", 10L, 1L, 50000.0, 100.0);
 
         assertEquals(50000.0, result);
-        verify(transferService, times(2)).createMoneyTransfer(any());
+        verify(transferService, times(2)).settleSystemTransfer(eq(userAccount), eq(bankAccount), any());
     }
 
     @Test
@@ -135,7 +145,7 @@ public class OrderServiceTest {
 
     @Test
     void testExecuteOrder_InsufficientFunds_ThrowsException() {
-        userAccount.setBalance(100.0);
+        userAccount.setBalance(10000L);
 
         when(accountService.findById(1L)).thenReturn(userAccount);
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(bankAccount);
@@ -146,15 +156,16 @@ public class OrderServiceTest {
     }
 
     @Test
-    void testExecuteOrder_SameAccount_UpdatesBalanceDirectly() {
+    void testExecuteOrder_SameAccount_PostsToHouseAccount() {
+        userAccount.setType(AccountType.BANK);
         when(accountService.findById(1L)).thenReturn(userAccount);
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(userAccount);
+        when(houseAccountService.getTotalBalance(userAccount)).thenReturn(10_000_000L);
 
         double result = orderService.executeOrder("buy", 10L, 1L, 1000.0, 100.0);
 
         assertEquals(1000.0, result);
-        assertEquals(98900.0, userAccount.getBalance());
-        verify(accountRepository).save(userAccount);
+        verify(houseAccountService).debit(userAccount, 110000L);
         verifyNoInteractions(transferService);
     }
     @Test
@@ -163,9 +174,9 @@ public class OrderServiceTest {
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(bankAccount);
 
         doThrow(new RuntimeException("Greška u transferu"))
-                .when(transferService).createMoneyTransfer(any());
+                .when(transferService).settleSystemTransfer(any(), any(), any());
 
-        double originalBalance = userAccount.getBalance();
+        long originalBalance = userAccount.getBalance();
 
         assertThrows(RuntimeException.class, () ->
                 orderService.executeOrder("buy", 10L, 1L, 1000.0, 100.0)
@@ -187,8 +198,8 @@ public class OrderServiceTest {
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(userAccount));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(bankAccount));
-        when(currencyRepository.getByCode(CurrencyType.RSD)).thenReturn(currency);
-        when(transferService.createMoneyTransferEntity(any(), any(), any())).thenReturn(new Transfer());
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(currency);
+        when(transferService.createSystemTransferEntity(any(), any(), any())).thenReturn(new Transfer());
 
         orderService.processOrderTransaction(dto);
 
@@ -198,7 +209,7 @@ public class OrderServiceTest {
 
     @Test
     void testProcessOrderTransaction_InsufficientFunds() {
-        bankAccount.setBalance(100.0);
+        bankAccount.setBalance(10000L);
 
         OrderTransactionInitiationDTO dto = new OrderTransactionInitiationDTO();
         dto.setBuyerAccountId(1L);
@@ -255,12 +266,12 @@ public class OrderServiceTest {
 
         // Assert
         ArgumentCaptor<MoneyTransferDTO> captor = ArgumentCaptor.forClass(MoneyTransferDTO.class);
-        verify(transferService).createMoneyTransfer(captor.capture());
+        verify(transferService).settleSystemTransfer(eq(bankAccount), eq(userAccount), captor.capture());
 
         MoneyTransferDTO dto = captor.getValue();
         assertEquals("BANK_ACC", dto.getFromAccountNumber());
         assertEquals("USER_ACC", dto.getRecipientAccount());
-        assertEquals(amount, dto.getAmount());
+        assertEquals(10000L, dto.getAmount());
         assertEquals("Order Execution - Sell", dto.getReceiver());
         assertEquals("System", dto.getAdress());
         assertEquals("999", dto.getPayementCode());
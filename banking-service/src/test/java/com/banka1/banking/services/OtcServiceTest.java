@@ -10,7 +10,6 @@ import com.banka1.banking.models.Transfer;
 import com.banka1.banking.models.helper.CurrencyType;
 import com.banka1.banking.repository.AccountRepository;
 import com.banka1.banking.models.OTCTransaction;
-import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.repository.OTCTransactionRepository;
 import com.banka1.banking.repository.TransactionRepository;
 import com.banka1.common.listener.MessageHelper;
@@ -32,6 +31,8 @@ public class OtcServiceTest {
     @InjectMocks
     private OTCService otcService;
     @Mock
+    private AccountLockService accountLockService;
+    @Mock
     private JmsTemplate jmsTemplate;
 
     @Mock
@@ -44,7 +45,7 @@ public class OtcServiceTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private CurrencyRepository currencyRepository;
+    private ReferenceDataRegistry referenceDataRegistry;
 
     @Mock
     private TransferService transferService;
@@ -92,15 +93,15 @@ public class OtcServiceTest {
 
         Account seller = new Account();
         seller.setId(1L);
-        seller.setBalance(200.0);
+        seller.setBalance(20000L);
         seller.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account buyer = new Account();
         buyer.setId(2L);
-        buyer.setBalance(300.0);
+        buyer.setBalance(30000L);
         buyer.setCurrencyType(CurrencyType.valueOf("USD"));
 
-        transaction.setAmount(100.0);
+        transaction.setAmount(10000L);
         transaction.setBuyerAccount(buyer);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(seller));
@@ -113,7 +114,7 @@ public class OtcServiceTest {
         otcService.proceed(uid);
 
 
-        assertEquals(200.0, buyer.getBalance()); // Balance should be reduced by 100
+        assertEquals(20000L, buyer.getBalance()); // Balance should be reduced by 100
     }
 
     @Test
@@ -121,17 +122,17 @@ public class OtcServiceTest {
 
         Account seller = new Account();
         seller.setId(1L);
-        seller.setBalance(200.0);
+        seller.setBalance(20000L);
         seller.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account buyer = new Account();
         buyer.setId(2L);
-        buyer.setBalance(300.0);
+        buyer.setBalance(30000L);
         buyer.setCurrencyType(CurrencyType.valueOf("USD"));
 
         transaction.setSellerAccount(seller);
         transaction.setBuyerAccount(buyer);
-        transaction.setAmount(100.0);
+        transaction.setAmount(10000L);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(seller));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(buyer));
@@ -144,10 +145,10 @@ public class OtcServiceTest {
         otcService.proceed(uid);
         otcService.proceed(uid);
 
-        assertEquals(200.0, buyer.getBalance());
-        assertEquals(300.0, seller.getBalance());
-        assertEquals(100.0, transaction.getAmountTaken());
-        assertEquals(100.0, transaction.getAmountGiven());
+        assertEquals(20000L, buyer.getBalance());
+        assertEquals(30000L, seller.getBalance());
+        assertEquals(10000L, transaction.getAmountTaken());
+        assertEquals(10000L, transaction.getAmountGiven());
     }
 
     @Test
@@ -155,17 +156,17 @@ public class OtcServiceTest {
 
         Account seller = new Account();
         seller.setId(1L);
-        seller.setBalance(200.0);
+        seller.setBalance(20000L);
         seller.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account buyer = new Account();
         buyer.setId(2L);
-        buyer.setBalance(300.0);
+        buyer.setBalance(30000L);
         buyer.setCurrencyType(CurrencyType.valueOf("USD"));
 
         transaction.setSellerAccount(seller);
         transaction.setBuyerAccount(buyer);
-        transaction.setAmount(100.0);
+        transaction.setAmount(10000L);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(seller));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(buyer));
@@ -177,25 +178,25 @@ public class OtcServiceTest {
         otcService.proceed(uid);
         otcService.rollback(uid);
 
-        assertEquals(seller.getBalance(), 200.0);
-        assertEquals(buyer.getBalance(), 300.0);
+        assertEquals(20000L, seller.getBalance());
+        assertEquals(30000L, buyer.getBalance());
     }
 
     @Test
     public void testRollback_AssetsTransferred() {
         Account seller = new Account();
         seller.setId(1L);
-        seller.setBalance(200.0);
+        seller.setBalance(20000L);
         seller.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account buyer = new Account();
         buyer.setId(2L);
-        buyer.setBalance(300.0);
+        buyer.setBalance(30000L);
         buyer.setCurrencyType(CurrencyType.valueOf("USD"));
 
         transaction.setSellerAccount(seller);
         transaction.setBuyerAccount(buyer);
-        transaction.setAmount(100.0);
+        transaction.setAmount(10000L);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(seller));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(buyer));
@@ -208,32 +209,32 @@ public class OtcServiceTest {
 
         otcService.rollback(uid);
 
-        assertEquals(seller.getBalance(), 200.0);
-        assertEquals(buyer.getBalance(), 300.0);
+        assertEquals(20000L, seller.getBalance());
+        assertEquals(30000L, buyer.getBalance());
     }
 
     @Test
     public void testPayPremium_Success() {
         Account from = new Account();
         from.setId(1L);
-        from.setBalance(200.0);
+        from.setBalance(20000L);
         from.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account to = new Account();
         to.setId(2L);
-        to.setBalance(50.0);
+        to.setBalance(5000L);
         to.setCurrencyType(CurrencyType.valueOf("USD"));
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(from));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(to));
         when(userServiceCustomer.getCustomerById(any())).thenReturn(new CustomerDTO());
-        when(currencyRepository.getByCode(any())).thenReturn(new Currency());
+        when(referenceDataRegistry.getCurrency(any())).thenReturn(new Currency());
         when(transferService.createMoneyTransferEntity(eq(from), eq(to), any())).thenReturn(new Transfer());
 
         otcService.payPremium(1L, 2L, 100.0);
 
-        assertEquals(100.0, from.getBalance());
-        assertEquals(150.0, to.getBalance());
+        assertEquals(10000L, from.getBalance());
+        assertEquals(15000L, to.getBalance());
         verify(accountRepository).save(from);
         verify(accountRepository).save(to);
     }
@@ -242,7 +243,7 @@ public class OtcServiceTest {
     public void testPayPremium_InsufficientFunds() {
         Account from = new Account();
         from.setId(1L);
-        from.setBalance(20.0);
+        from.setBalance(2000L);
         from.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account to = new Account();
@@ -262,15 +263,15 @@ public class OtcServiceTest {
     public void testProceed_FinishedStage_Success() {
         Account seller = new Account();
         seller.setId(1L);
-        seller.setBalance(200.0);
+        seller.setBalance(20000L);
         seller.setCurrencyType(CurrencyType.valueOf("USD"));
 
         Account buyer = new Account();
         buyer.setId(2L);
-        buyer.setBalance(300.0);
+        buyer.setBalance(30000L);
         buyer.setCurrencyType(CurrencyType.valueOf("USD"));
 
-        transaction.setAmount(100.0);
+        transaction.setAmount(10000L);
         transaction.setBuyerAccount(buyer);
         transaction.setSellerAccount(seller);
         transaction.setFinished(true);
@@ -297,7 +298,7 @@ public class OtcServiceTest {
 
         otcService.proceed(uid);
 
-        assertEquals(300.0, buyer.getBalance()); // Balance should not change since transaction is finished
+        assertEquals(30000L, buyer.getBalance()); // Balance should not change since transaction is finished
 
     }
 
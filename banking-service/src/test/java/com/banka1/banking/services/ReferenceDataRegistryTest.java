@@ -0,0 +1,233 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.config.InterbankConfig;
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.banking.dto.InternalTransferDTO;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountSubtype;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.CurrencyRepository;
+import com.banka1.banking.repository.TransferRepository;
+import com.banka1.common.listener.MessageHelper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Broji SQL naredbe za staticke podatke koje transfer cita: valute i racune banke po valuti.
+ * Posle ucitavanja registra ta citanja ne idu u bazu.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.banka1.banking.services.ReferenceDataRegistryTest$SqlRecorder",
+        "destination.email=email-queue"
+})
+@Import({ReferenceDataRegistry.class, BankAccountUtils.class, TransferService.class, AccountLockService.class})
+class ReferenceDataRegistryTest {
+
+    private static final Pattern CURRENCY_SELECT = Pattern.compile("^select .* from currency\\b.*");
+    private static final Pattern ACCOUNT_TYPE_SELECT = Pattern.compile("^select .* from account\\b.* where .*\\.type\\s*=.*");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private BankAccountUtils bankAccountUtils;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private ConsolidatedBalanceService consolidatedBalanceService;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private MessageHelper messageHelper;
+
+    @MockitoBean
+    private UserServiceCustomer userServiceCustomer;
+
+    @MockitoBean
+    private ExchangeService exchangeService;
+
+    @MockitoBean
+    private OtpTokenService otpTokenService;
+
+    @MockitoBean
+    private ReceiverService receiverService;
+
+    @MockitoBean
+    private InterbankService interbankService;
+
+    @MockitoBean
+    private InterbankConfig interbankConfig;
+
+    @MockitoBean
+    private HouseAccountService houseAccountService;
+
+    @MockitoBean
+    private FundsHoldService fundsHoldService;
+
+    @MockitoBean
+    private SpendingLimitService spendingLimitService;
+
+    private Statistics statistics;
+
+    private Account eurBankAccount;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        currencyRepository.save(currency(CurrencyType.RSD));
+        currencyRepository.save(currency(CurrencyType.EUR));
+        eurBankAccount = accountRepository.save(account(AccountType.BANK, CurrencyType.EUR, "111000000000000011"));
+        accountRepository.save(account(AccountType.COUNTRY, CurrencyType.RSD, "111000000000000022"));
+        entityManager.flush();
+
+        referenceDataRegistry.refresh();
+        statistics.clear();
+    }
+
+    private static Currency currency(CurrencyType code) {
+        Currency currency = new Currency();
+        currency.setName(code.name());
+        currency.setCode(code);
+        currency.setCountry("Test");
+        currency.setSymbol(code.name());
+        return currency;
+    }
+
+    private static Account account(AccountType type, CurrencyType currencyType, String number) {
+        Account account = new Account();
+        account.setOwnerID(1L);
+        account.setAccountNumber(number);
+        account.setBalance(100_000_000L);
+        account.setReservedBalance(0L);
+        account.setType(type);
+        account.setCurrencyType(currencyType);
+        account.setSubtype(AccountSubtype.STANDARD);
+        account.setCreatedDate(0L);
+        account.setExpirationDate(0L);
+        account.setDailyLimit(0L);
+        account.setMonthlyLimit(0L);
+        account.setDailySpent(0L);
+        account.setMonthlySpent(0L);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setEmployeeID(1L);
+        account.setMonthlyMaintenanceFee(0L);
+        return account;
+    }
+
+    @Test
+    void internalTransfer_doesNotSelectCurrenciesOrAccountsByType() {
+        Account from = accountRepository.save(account(AccountType.CURRENT, CurrencyType.RSD, "111000000000000033"));
+        Account to = accountRepository.save(account(AccountType.CURRENT, CurrencyType.RSD, "111000000000000044"));
+        entityManager.flush();
+        entityManager.clear();
+
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName("Petar");
+        customer.setLastName("Petrovic");
+        customer.setEmail("petar@banka.rs");
+        when(userServiceCustomer.getCustomerById(1L)).thenReturn(customer);
+        when(otpTokenService.generateOtp(anyLong())).thenReturn("123456");
+
+        InternalTransferDTO dto = new InternalTransferDTO();
+        dto.setFromAccountId(from.getId());
+        dto.setToAccountId(to.getId());
+        dto.setAmount(25000L);
+
+        SqlRecorder.STATEMENTS.clear();
+        Long transferId = transferService.createInternalTransfer(dto);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals("Transfer completed successfully", transferService.processTransfer(transferId));
+        entityManager.flush();
+
+        List<String> statements = List.copyOf(SqlRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty());
+        assertTrue(statements.stream().noneMatch(sql -> CURRENCY_SELECT.matcher(sql).matches()), statements::toString);
+        assertTrue(statements.stream().noneMatch(sql -> ACCOUNT_TYPE_SELECT.matcher(sql).matches()), statements::toString);
+
+        entityManager.clear();
+        Transfer transfer = transferRepository.findById(transferId).orElseThrow();
+        assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
+        assertEquals(CurrencyType.RSD, transfer.getFromCurrency().getCode());
+        assertEquals(99_975_000L, accountRepository.findById(from.getId()).orElseThrow().getBalance());
+        assertEquals(100_025_000L, accountRepository.findById(to.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void bankAccountForCurrency_resolvedByIdWithoutQuery() {
+        // racuni transfera su vec ucitani i zakljucani u istoj transakciji
+        Account loaded = bankAccountUtils.getBankAccountForCurrency(CurrencyType.EUR);
+
+        assertSame(eurBankAccount, loaded);
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(eurBankAccount.getId(), referenceDataRegistry.findBankAccountId(CurrencyType.EUR).orElseThrow());
+        assertTrue(referenceDataRegistry.findCountryAccountId(CurrencyType.RSD).isPresent());
+    }
+
+    @Test
+    void missingBankAccount_reloadsOnceAndFails() {
+        assertThrows(RuntimeException.class, () -> bankAccountUtils.getBankAccountForCurrency(CurrencyType.USD));
+        assertEquals(3, statistics.getQueryExecutionCount());
+        assertFalse(referenceDataRegistry.getBusinessActivityCodes().isEmpty());
+    }
+
+    /**
+     * Belezi SQL naredbe koje Hibernate salje bazi.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase().replaceAll("\\s+", " "));
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingLimitServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 14);
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SpendingLimitService spendingLimitService;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        spendingLimitService = new SpendingLimitService(accountRepository, transactionManager);
+
+        account = new Account();
+        account.setId(1L);
+        account.setAccountNumber("111000100000000110");
+        account.setType(AccountType.CURRENT);
+        account.setCurrencyType(CurrencyType.RSD);
+        account.setDailyLimit(100000L);
+        account.setMonthlyLimit(500000L);
+        account.setDailySpent(30000L);
+        account.setMonthlySpent(200000L);
+        account.setSpentDate(TODAY);
+    }
+
+    @Test
+    void consume_persistsIncrementCheckedInTheSameStatement() {
+        when(accountRepository.addSpent(1L, 70000L, TODAY, TODAY.withDayOfMonth(1))).thenReturn(1);
+
+        spendingLimitService.consume(account, 70000L, TODAY);
+
+        assertEquals(100000L, account.getDailySpent());
+        assertEquals(270000L, account.getMonthlySpent());
+        assertTrue(spendingLimitService.exceedsLimit(account, 1L, TODAY));
+    }
+
+    @Test
+    void consume_rejectedUpdateThrowsWithViolatedLimit() {
+        // drugi cvor je u medjuvremenu potrosio ostatak dnevnog limita
+        when(accountRepository.addSpent(1L, 20000L, TODAY, TODAY.withDayOfMonth(1))).thenReturn(0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> spendingLimitService.consume(account, 20000L, TODAY));
+
+        assertTrue(e.getMessage().contains(account.getAccountNumber()));
+        assertEquals(30000L, account.getDailySpent());
+    }
+
+    @Test
+    void exceedsLimit_newDayResetsDailyButKeepsMonthly() {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        assertFalse(spendingLimitService.exceedsLimit(account, 100000L, tomorrow));
+
+        account.setMonthlySpent(470000L);
+        assertTrue(spendingLimitService.exceedsLimit(account, 40000L, tomorrow));
+        assertFalse(spendingLimitService.exceedsLimit(account, 40000L, TODAY.plusMonths(1).withDayOfMonth(1)));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void consume_withoutLimitOrOnBankAccountIsNotTracked() {
+        account.setDailyLimit(0L);
+        account.setMonthlyLimit(null);
+        spendingLimitService.consume(account, 100_000_000L, TODAY);
+
+        Account bank = new Account();
+        bank.setId(2L);
+        bank.setType(AccountType.BANK);
+        bank.setDailyLimit(100L);
+        spendingLimitService.consume(bank, 100_000_000L, TODAY);
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void resetPeriods_resetsMonthBeforeDay() {
+        LocalDate firstOfMonth = TODAY.plusMonths(1).withDayOfMonth(1);
+
+        spendingLimitService.resetPeriods(firstOfMonth);
+
+        var order = inOrder(accountRepository);
+        order.verify(accountRepository).resetMonthlySpent(firstOfMonth);
+        order.verify(accountRepository).resetDailySpent(firstOfMonth);
+    }
+}
@@ -1,5 +1,6 @@
 package com.banka1.banking.services;
 
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
 import com.banka1.banking.dto.TaxCollectionDTO;
 import com.banka1.banking.models.Account;
 import com.banka1.banking.models.Currency;
@@ -44,6 +45,12 @@ public class TaxServiceTest {
     @Mock
     private ExchangeService exchangeService;
 
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private AccountLockService accountLockService;
+
     @Test
     void testPayTax_Success() {
         TaxCollectionDTO dto = new TaxCollectionDTO();
@@ -54,11 +61,11 @@ public class TaxServiceTest {
         Account bankAccount = new Account();
         userAccount.setCurrencyType(CurrencyType.USD);
 
-        userAccount.setBalance(200.0);
-        bankAccount.setBalance(100.0);
+        userAccount.setBalance(20000L);
+        bankAccount.setBalance(10000L);
 
         Transfer transfer = new Transfer();
-        transfer.setAmount(100.0);
+        transfer.setAmount(10000L);
 
         Currency usd = new Currency();
         usd.setCode(CurrencyType.USD);
@@ -66,16 +73,42 @@ public class TaxServiceTest {
 
         when(accountRepository.findById(dto.getAccountId())).thenReturn(Optional.of(userAccount));
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(bankAccount);
-        when(exchangeService.calculatePreviewExchangeAutomatic(any(), any(), any())).thenReturn(Map.of(
-                "fee", 0.0,
-                "finalAmount", 100.0
-        ));
-        when(transferService.createMoneyTransferEntity(any(), any(), any())).thenReturn(transfer);
+        when(exchangeService.calculatePreviewExchange(any(), any(), any())).thenReturn(
+                new DirectExchangeResult(1.0, 10000L, 0L, 10000L));
+        when(transferService.createSystemTransferEntity(any(), any(), any())).thenReturn(transfer);
 
         taxService.payTax(dto);
 
+        verify(accountLockService).lock(userAccount, bankAccount);
         verify(transferRepository, times(1)).save(transfer);
-        assertEquals(100.0, userAccount.getBalance());
-        assertEquals(200.0, bankAccount.getBalance());
+        assertEquals(10000L, userAccount.getBalance());
+        assertEquals(20000L, bankAccount.getBalance());
+    }
+
+    @Test
+    void testPayTax_convertsDecimalAmountToMinorUnits() {
+        TaxCollectionDTO dto = new TaxCollectionDTO();
+        dto.setAccountId(1L);
+        dto.setAmount(0.1);
+
+        Account userAccount = new Account();
+        userAccount.setCurrencyType(CurrencyType.RSD);
+        userAccount.setBalance(30L);
+        Account bankAccount = new Account();
+        bankAccount.setCurrencyType(CurrencyType.RSD);
+        bankAccount.setBalance(20L);
+
+        Transfer transfer = new Transfer();
+        transfer.setAmount(10L);
+
+        when(accountRepository.findById(dto.getAccountId())).thenReturn(Optional.of(userAccount));
+        when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(bankAccount);
+        when(transferService.createSystemTransferEntity(any(), any(), any())).thenReturn(transfer);
+
+        taxService.payTax(dto);
+
+        // trading servis salje 0.1 dinara, sto je tacno 10 para
+        assertEquals(20L, userAccount.getBalance());
+        assertEquals(30L, bankAccount.getBalance());
     }
 }
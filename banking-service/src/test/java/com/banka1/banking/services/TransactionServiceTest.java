@@ -61,13 +61,13 @@ public class TransactionServiceTest {
         // Setup test accounts
         fromAccount = new Account();
         fromAccount.setId(1L);
-        fromAccount.setBalance(1000.0);
+        fromAccount.setBalance(100000L);
         fromAccount.setCurrencyType(CurrencyType.USD);
 
 
         toAccount = new Account();
         toAccount.setId(2L);
-        toAccount.setBalance(500.0);
+        toAccount.setBalance(50000L);
         toAccount.setCurrencyType(CurrencyType.USD);
 
         // Setup currency
@@ -79,7 +79,7 @@ public class TransactionServiceTest {
         internalTransfer.setId(1L);
         internalTransfer.setFromAccountId(fromAccount);
         internalTransfer.setToAccountId(toAccount);
-        internalTransfer.setAmount(100.0);
+        internalTransfer.setAmount(10000L);
         internalTransfer.setStatus(TransferStatus.PENDING);
         internalTransfer.setType(TransferType.INTERNAL);
         internalTransfer.setFromCurrency(currency);
@@ -90,7 +90,7 @@ public class TransactionServiceTest {
         externalTransfer.setId(2L);
         externalTransfer.setFromAccountId(fromAccount);
         externalTransfer.setToAccountId(toAccount);
-        externalTransfer.setAmount(100.0);
+        externalTransfer.setAmount(10000L);
         externalTransfer.setStatus(TransferStatus.PENDING);
         externalTransfer.setType(TransferType.EXTERNAL);
         externalTransfer.setFromCurrency(currency);
@@ -0,0 +1,187 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.config.InterbankConfig;
+import com.banka1.banking.models.Account;
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.Transfer;
+import com.banka1.banking.models.helper.AccountStatus;
+import com.banka1.banking.models.helper.AccountSubtype;
+import com.banka1.banking.models.helper.AccountType;
+import com.banka1.banking.models.helper.CurrencyType;
+import com.banka1.banking.models.helper.TransferStatus;
+import com.banka1.banking.models.helper.TransferType;
+import com.banka1.banking.repository.AccountRepository;
+import com.banka1.banking.repository.CurrencyRepository;
+import com.banka1.banking.repository.TransferRepository;
+import com.banka1.common.listener.MessageHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transferi izmedju dva racuna u oba smera, pokrenuti istovremeno. Racuni se zakljucavaju redom po ID-ju
+ * ({@link AccountLockService}), pa se transferi suprotnog smera ne zaglavljuju jedan u drugi.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:transfer-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "destination.email=email-queue"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReferenceDataRegistry.class, BankAccountUtils.class, TransferService.class, AccountLockService.class})
+class TransferConcurrencyTest {
+
+    private static final int TRANSFERS_PER_DIRECTION = 20;
+    private static final long AMOUNT = 1000L;
+    private static final long INITIAL_BALANCE = 100_000L;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private ConsolidatedBalanceService consolidatedBalanceService;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private MessageHelper messageHelper;
+
+    @MockitoBean
+    private UserServiceCustomer userServiceCustomer;
+
+    @MockitoBean
+    private ExchangeService exchangeService;
+
+    @MockitoBean
+    private OtpTokenService otpTokenService;
+
+    @MockitoBean
+    private ReceiverService receiverService;
+
+    @MockitoBean
+    private InterbankService interbankService;
+
+    @MockitoBean
+    private InterbankConfig interbankConfig;
+
+    @MockitoBean
+    private HouseAccountService houseAccountService;
+
+    @MockitoBean
+    private FundsHoldService fundsHoldService;
+
+    @MockitoBean
+    private SpendingLimitService spendingLimitService;
+
+    @Test
+    void oppositeTransfers_completeWithoutDeadlock() throws Exception {
+        Currency rsd = currencyRepository.save(currency());
+        Account a = accountRepository.save(account("111000000000000101"));
+        Account b = accountRepository.save(account("111000000000000102"));
+
+        // naizmenicno A -> B i B -> A, da bi niti uzimale racune u suprotnom redosledu
+        List<Long> transferIds = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS_PER_DIRECTION; i++) {
+            transferIds.add(transferRepository.save(transfer(a, b, rsd)).getId());
+            transferIds.add(transferRepository.save(transfer(b, a, rsd)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (Long transferId : transferIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transferService.processTransfer(transferId);
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results)
+                assertEquals("Transfer completed successfully", result.get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(transferRepository.findAllById(transferIds).stream().allMatch(t -> t.getStatus() == TransferStatus.COMPLETED));
+        assertEquals(INITIAL_BALANCE, accountRepository.findById(a.getId()).orElseThrow().getBalance());
+        assertEquals(INITIAL_BALANCE, accountRepository.findById(b.getId()).orElseThrow().getBalance());
+    }
+
+    private static Currency currency() {
+        Currency currency = new Currency();
+        currency.setName("RSD");
+        currency.setCode(CurrencyType.RSD);
+        currency.setCountry("Srbija");
+        currency.setSymbol("RSD");
+        return currency;
+    }
+
+    private static Account account(String number) {
+        Account account = new Account();
+        account.setOwnerID(1L);
+        account.setAccountNumber(number);
+        account.setBalance(INITIAL_BALANCE);
+        account.setReservedBalance(0L);
+        account.setType(AccountType.CURRENT);
+        account.setCurrencyType(CurrencyType.RSD);
+        account.setSubtype(AccountSubtype.STANDARD);
+        account.setCreatedDate(0L);
+        account.setExpirationDate(0L);
+        account.setDailyLimit(0L);
+        account.setMonthlyLimit(0L);
+        account.setDailySpent(0L);
+        account.setMonthlySpent(0L);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setEmployeeID(1L);
+        account.setMonthlyMaintenanceFee(0L);
+        return account;
+    }
+
+    private static Transfer transfer(Account from, Account to, Currency currency) {
+        Transfer transfer = new Transfer();
+        transfer.setFromAccountId(from);
+        transfer.setToAccountId(to);
+        transfer.setAmount(AMOUNT);
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setType(TransferType.INTERNAL);
+        transfer.setPaymentDescription("Interni prenos");
+        transfer.setReceiver("Petar Petrovic");
+        transfer.setFromCurrency(currency);
+        transfer.setToCurrency(currency);
+        transfer.setCreatedAt(System.currentTimeMillis());
+        return transfer;
+    }
+}
@@ -0,0 +1,70 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.repository.OtpTokenRepository;
+import com.banka1.banking.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferExpiryServiceTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private OtpTokenRepository otpTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransferExpiryService transferExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        transferExpiryService = new TransferExpiryService(transferRepository, otpTokenRepository, transactionManager, 300_000L, 2);
+    }
+
+    @Test
+    void cancelExpiredTransfers_sweepsInChunksAndExpiresOtps() {
+        when(transferRepository.tryAdvisoryXactLock(TransferExpiryService.SWEEPER_LOCK_KEY)).thenReturn(true);
+        when(transferRepository.cancelPendingCreatedBefore(anyLong(), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        long before = System.currentTimeMillis() - 300_000L;
+        transferExpiryService.cancelExpiredTransfers();
+
+        verify(transferRepository, times(2)).cancelPendingCreatedBefore(longThat(cutoff -> cutoff >= before), eq(2));
+        verify(otpTokenRepository).expireByTransferIds(eq(List.of(1L, 2L)), anyLong());
+        verify(otpTokenRepository).expireByTransferIds(eq(List.of(3L)), anyLong());
+    }
+
+    @Test
+    void cancelExpiredTransfers_nothingExpiredSkipsOtps() {
+        when(transferRepository.tryAdvisoryXactLock(TransferExpiryService.SWEEPER_LOCK_KEY)).thenReturn(true);
+        when(transferRepository.cancelPendingCreatedBefore(anyLong(), eq(2))).thenReturn(List.of());
+
+        transferExpiryService.cancelExpiredTransfers();
+
+        verifyNoInteractions(otpTokenRepository);
+    }
+
+    @Test
+    void cancelExpiredTransfers_otherNodeHoldsLock() {
+        when(transferRepository.tryAdvisoryXactLock(TransferExpiryService.SWEEPER_LOCK_KEY)).thenReturn(false);
+
+        transferExpiryService.cancelExpiredTransfers();
+
+        verify(transferRepository, never()).cancelPendingCreatedBefore(anyLong(), anyInt());
+        verifyNoInteractions(otpTokenRepository);
+    }
+}
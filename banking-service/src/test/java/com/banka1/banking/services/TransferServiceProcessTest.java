@@ -27,7 +27,7 @@ class TransferServiceProcessTest {
     /* ===== mocked collaborators ===== */
     @Mock AccountRepository accountRepo;
     @Mock TransferRepository transferRepo;
-    @Mock CurrencyRepository currencyRepo;
+    @Mock ReferenceDataRegistry referenceDataRegistry;
     @Mock TransactionRepository txRepo;
 
     @Mock JmsTemplate jms;
@@ -40,6 +40,10 @@ class TransferServiceProcessTest {
     @Mock ReceiverService receiverService;
     @Mock InterbankService interbankService;
     @Mock InterbankConfig cfg;
+    @Mock AccountLockService accountLockService;
+    @Mock HouseAccountService houseAccountService;
+    @Mock FundsHoldService fundsHoldService;
+    @Mock SpendingLimitService spendingLimitService;
 
     @InjectMocks
     private TransferService service;
@@ -48,10 +52,10 @@ class TransferServiceProcessTest {
     void init() {
         // destinationEmail is irrelevant for the tests – just pass a dummy value
         service = new TransferService(
-                accountRepo, transferRepo, txRepo, currencyRepo,
+                accountRepo, transferRepo, txRepo, referenceDataRegistry,
                 jms, msgHelper, "dummy-queue",
                 userService, exchangeService, otp, bankUtils,
-                receiverService, interbankService, cfg
+                receiverService, interbankService, cfg, accountLockService, houseAccountService, fundsHoldService, spendingLimitService
         );
     }
 
@@ -60,13 +64,13 @@ class TransferServiceProcessTest {
         /* ---------- arrange ---------- */
         Account acc = new Account();
         acc.setId(1L);
-        acc.setBalance(1_000.0);
-        acc.setReservedBalance(0.0);
+        acc.setBalance(100_000L);
+        acc.setReservedBalance(0L);
         acc.setCurrencyType(CurrencyType.RSD);
 
         Transfer t = new Transfer();
         t.setId(42L);
-        t.setAmount(100.0);
+        t.setAmount(10000L);
         t.setStatus(TransferStatus.RESERVED);
         t.setType(TransferType.FOREIGN_BANK);
         t.setFromAccountId(acc);
@@ -89,20 +93,20 @@ class TransferServiceProcessTest {
         Account from = new Account();
         from.setId(10L);
         from.setOwnerID(77L);
-        from.setBalance(10.0);                   // not enough!
+        from.setBalance(1000L);                   // not enough!
         from.setCurrencyType(CurrencyType.RSD);
 
         Account to = new Account();
         to.setId(11L);
         to.setOwnerID(77L);
-        to.setBalance(0.0);
+        to.setBalance(0L);
         to.setCurrencyType(CurrencyType.RSD);
 
         Currency rsd = mock(Currency.class);
 
         Transfer t = new Transfer();
         t.setId(99L);
-        t.setAmount(100.0);
+        t.setAmount(10000L);
         t.setStatus(TransferStatus.PENDING);
         t.setType(TransferType.INTERNAL);
         t.setFromAccountId(from);
@@ -5,11 +5,12 @@ import com.banka1.banking.dto.CustomerDTO;
 import com.banka1.banking.dto.InternalTransferDTO;
 import com.banka1.banking.dto.MoneyTransferDTO;
 import com.banka1.banking.dto.NotificationDTO;
+import com.banka1.banking.dto.exchange.DirectExchangeResult;
+import com.banka1.banking.dto.exchange.ForeignExchangeResult;
 import com.banka1.banking.models.*;
 import com.banka1.banking.models.Currency;
 import com.banka1.banking.models.helper.*;
 import com.banka1.banking.repository.AccountRepository;
-import com.banka1.banking.repository.CurrencyRepository;
 import com.banka1.banking.repository.TransactionRepository;
 import com.banka1.banking.repository.TransferRepository;
 import com.banka1.common.listener.MessageHelper;
@@ -42,7 +43,7 @@ public class TransferServiceTest {
     private TransferRepository transferRepository;
 
     @Mock
-    private CurrencyRepository currencyRepository;
+    private ReferenceDataRegistry referenceDataRegistry;
 
     @Mock
     private TransactionRepository transactionRepository;
@@ -73,6 +74,18 @@ public class TransferServiceTest {
     @Mock
     private InterbankService interbankService;
 
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private HouseAccountService houseAccountService;
+
+    @Mock
+    private FundsHoldService fundsHoldService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
     @InjectMocks
     private TransferService transferService;
 
@@ -108,35 +121,35 @@ public class TransferServiceTest {
         fromAccountUSD.setId(1L);
         fromAccountUSD.setOwnerID(100L);
         fromAccountUSD.setAccountNumber("123456789");
-        fromAccountUSD.setBalance(1000.0);
+        fromAccountUSD.setBalance(100000L);
         fromAccountUSD.setCurrencyType(CurrencyType.USD);
 
         toAccount = new Account();
         toAccount.setId(2L);
         toAccount.setOwnerID(200L); // Different owner
         toAccount.setAccountNumber("987654321");
-        toAccount.setBalance(500.0);
+        toAccount.setBalance(50000L);
         toAccount.setCurrencyType(CurrencyType.USD);
 
         fromAccountForeign = new Account();
         fromAccountForeign.setId(2L);
         fromAccountForeign.setOwnerID(100L);
         fromAccountForeign.setAccountNumber("223456789");
-        fromAccountForeign.setBalance(1000.0);
+        fromAccountForeign.setBalance(100000L);
         fromAccountForeign.setCurrencyType(CurrencyType.EUR);
 
         toAccountForeign = new Account();
         toAccountForeign.setId(3L);
         toAccountForeign.setOwnerID(200L);
         toAccountForeign.setAccountNumber("987654322");
-        toAccountForeign.setBalance(500.0);
+        toAccountForeign.setBalance(50000L);
         toAccountForeign.setCurrencyType(CurrencyType.EUR);
 
         bankAccountEUR = new Account();
         bankAccountEUR.setId(100L);
         bankAccountEUR.setOwnerID(1L);
         bankAccountEUR.setAccountNumber("111111111");
-        bankAccountEUR.setBalance(1000000.0);
+        bankAccountEUR.setBalance(100_000_000L);
         bankAccountEUR.setCurrencyType(CurrencyType.EUR);
         bankAccountEUR.setCompany(bankCompany);
 
@@ -144,7 +157,7 @@ public class TransferServiceTest {
         bankAccountUSD.setId(100L);
         bankAccountUSD.setOwnerID(1L);
         bankAccountUSD.setAccountNumber("111111112");
-        bankAccountUSD.setBalance(1000000.0);
+        bankAccountUSD.setBalance(100_000_000L);
         bankAccountUSD.setCurrencyType(CurrencyType.USD);
         bankAccountUSD.setCompany(bankCompany);
 
@@ -152,7 +165,7 @@ public class TransferServiceTest {
         bankAccountRSD.setId(100L);
         bankAccountRSD.setOwnerID(1L);
         bankAccountRSD.setAccountNumber("111111113");
-        bankAccountRSD.setBalance(.0);
+        bankAccountRSD.setBalance(0L);
         bankAccountRSD.setCurrencyType(CurrencyType.RSD);
         bankAccountRSD.setCompany(bankCompany);
 
@@ -185,7 +198,7 @@ public class TransferServiceTest {
         pendingTransfer.setId(1L);
         pendingTransfer.setFromAccountId(fromAccountUSD);
         pendingTransfer.setToAccountId(toAccount);
-        pendingTransfer.setAmount(100.0);
+        pendingTransfer.setAmount(10000L);
         pendingTransfer.setStatus(TransferStatus.PENDING);
         pendingTransfer.setCreatedAt(System.currentTimeMillis() - 1000); // Created 1 second ago
 
@@ -194,7 +207,7 @@ public class TransferServiceTest {
         internalTransfer.setId(1L);
         internalTransfer.setFromAccountId(fromAccountUSD);
         internalTransfer.setToAccountId(toAccount);
-        internalTransfer.setAmount(100.0);
+        internalTransfer.setAmount(10000L);
         internalTransfer.setStatus(TransferStatus.PENDING);
         internalTransfer.setType(TransferType.INTERNAL);
         internalTransfer.setFromCurrency(usdCurrency);
@@ -205,7 +218,7 @@ public class TransferServiceTest {
         externalTransfer.setId(2L);
         externalTransfer.setFromAccountId(fromAccountUSD);
         externalTransfer.setToAccountId(toAccount);
-        externalTransfer.setAmount(100.0);
+        externalTransfer.setAmount(10000L);
         externalTransfer.setStatus(TransferStatus.PENDING);
         externalTransfer.setType(TransferType.EXTERNAL);
         externalTransfer.setFromCurrency(usdCurrency);
@@ -215,7 +228,7 @@ public class TransferServiceTest {
         foreignTransfer.setId(3L);
         foreignTransfer.setFromAccountId(fromAccountUSD);
         foreignTransfer.setToAccountId(toAccountForeign);
-        foreignTransfer.setAmount(100.0);
+        foreignTransfer.setAmount(10000L);
         foreignTransfer.setStatus(TransferStatus.PENDING);
         foreignTransfer.setType(TransferType.FOREIGN);
         foreignTransfer.setFromCurrency(usdCurrency);
@@ -225,7 +238,7 @@ public class TransferServiceTest {
         exchangeTransfer.setId(4L);
         exchangeTransfer.setFromAccountId(fromAccountForeign);
         exchangeTransfer.setToAccountId(fromAccountUSD);
-        exchangeTransfer.setAmount(100.0);
+        exchangeTransfer.setAmount(10000L);
         exchangeTransfer.setStatus(TransferStatus.PENDING);
         exchangeTransfer.setType(TransferType.EXCHANGE);
         exchangeTransfer.setFromCurrency(eurCurrency);
@@ -241,12 +254,12 @@ public class TransferServiceTest {
         InternalTransferDTO dto = new InternalTransferDTO();
         dto.setFromAccountId(fromAccountUSD.getId());
         dto.setToAccountId(toAccount.getId());
-        dto.setAmount(100.0);
+        dto.setAmount(10000L);
 
         // Setup mocks
         when(accountRepository.findById(fromAccountUSD.getId())).thenReturn(Optional.of(fromAccountUSD));
         when(accountRepository.findById(toAccount.getId())).thenReturn(Optional.of(toAccount));
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
         when(userServiceCustomer.getCustomerById(100L)).thenReturn(customerDTO);
         when(transferRepository.saveAndFlush(any(Transfer.class))).thenAnswer(invocation -> {
             Transfer t = invocation.getArgument(0);
@@ -268,7 +281,7 @@ public class TransferServiceTest {
         Transfer savedTransfer = transferCaptor.getValue();
         assertEquals(fromAccountUSD, savedTransfer.getFromAccountId());
         assertEquals(toAccount, savedTransfer.getToAccountId());
-        assertEquals(100.0, savedTransfer.getAmount());
+        assertEquals(10000L, savedTransfer.getAmount());
         assertEquals(TransferStatus.PENDING, savedTransfer.getStatus());
         assertEquals(usdCurrency, savedTransfer.getFromCurrency());
         assertEquals(usdCurrency, savedTransfer.getToCurrency());
@@ -296,7 +309,7 @@ public class TransferServiceTest {
         MoneyTransferDTO dto = new MoneyTransferDTO();
         dto.setFromAccountNumber("123456789");
         dto.setRecipientAccount("987654321");
-        dto.setAmount(100.0);
+        dto.setAmount(10000L);
         dto.setReceiver("Jane Smith");
         dto.setPayementCode("123");
         dto.setPayementDescription("Payment for services");
@@ -304,7 +317,7 @@ public class TransferServiceTest {
         // Setup mocks
         when(accountRepository.findByAccountNumber("123456789")).thenReturn(Optional.of(fromAccountUSD));
         when(accountRepository.findByAccountNumber("987654321")).thenReturn(Optional.of(toAccount));
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
         when(userServiceCustomer.getCustomerById(100L)).thenReturn(customerDTO);
         when(transferRepository.saveAndFlush(any(Transfer.class))).thenAnswer(invocation -> {
             Transfer t = invocation.getArgument(0);
@@ -326,7 +339,7 @@ public class TransferServiceTest {
         Transfer savedTransfer = transferCaptor.getValue();
         assertEquals(fromAccountUSD, savedTransfer.getFromAccountId());
         assertEquals(toAccount, savedTransfer.getToAccountId());
-        assertEquals(100.0, savedTransfer.getAmount());
+        assertEquals(10000L, savedTransfer.getAmount());
         assertEquals("Jane Smith", savedTransfer.getReceiver());
         assertEquals(TransferStatus.PENDING, savedTransfer.getStatus());
         assertEquals(usdCurrency, savedTransfer.getFromCurrency());
@@ -359,15 +372,15 @@ public class TransferServiceTest {
         MoneyTransferDTO dto = new MoneyTransferDTO();
         dto.setFromAccountNumber("123456789");
         dto.setRecipientAccount("987654321");
-        dto.setAmount(100.0);
+        dto.setAmount(10000L);
         dto.setReceiver("Jane Smith");
         dto.setPayementCode("123");
         dto.setPayementDescription("International payment");
 
         when(accountRepository.findByAccountNumber("123456789")).thenReturn(Optional.of(fromAccountUSD));
         when(accountRepository.findByAccountNumber("987654321")).thenReturn(Optional.of(toAccount));
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
-        when(currencyRepository.findByCode(CurrencyType.EUR)).thenReturn(Optional.of(eurCurrency));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
+        when(referenceDataRegistry.findCurrency(CurrencyType.EUR)).thenReturn(Optional.of(eurCurrency));
         when(userServiceCustomer.getCustomerById(100L)).thenReturn(customerDTO);
         when(transferRepository.saveAndFlush(any(Transfer.class))).thenAnswer(invocation -> {
             Transfer t = invocation.getArgument(0);
@@ -407,7 +420,7 @@ public class TransferServiceTest {
         MoneyTransferDTO dto = new MoneyTransferDTO();
         dto.setFromAccountNumber("123456789");
         dto.setRecipientAccount("987654321");
-        dto.setAmount(2e4);
+        dto.setAmount(2_000_000L);
 
         toAccount.setStatus(AccountStatus.ACTIVE);
         fromAccountUSD.setStatus(AccountStatus.ACTIVE);
@@ -428,7 +441,7 @@ public class TransferServiceTest {
         MoneyTransferDTO dto = new MoneyTransferDTO();
         dto.setFromAccountNumber("123456789");
         dto.setRecipientAccount("987654321");
-        dto.setAmount(2e4);
+        dto.setAmount(2_000_000L);
 
         when(accountRepository.findByAccountNumber("123456789")).thenReturn(Optional.of(fromAccountUSD));
         when(accountRepository.findByAccountNumber("987654321")).thenReturn(Optional.of(toAccount));
@@ -439,6 +452,20 @@ public class TransferServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void testValidateMoneyTransfer_SpendingLimitExceeded() {
+        MoneyTransferDTO dto = new MoneyTransferDTO();
+        dto.setFromAccountNumber("123456789");
+        dto.setRecipientAccount("987654321");
+        dto.setAmount(2_000_000L);
+
+        when(accountRepository.findByAccountNumber("123456789")).thenReturn(Optional.of(fromAccountUSD));
+        when(accountRepository.findByAccountNumber("987654321")).thenReturn(Optional.of(toAccount));
+        when(spendingLimitService.exceedsLimit(fromAccountUSD, 2_000_000L)).thenReturn(true);
+
+        assertFalse(transferService.validateMoneyTransfer(dto));
+    }
+
     @Test
     void testValidateInternalTransfer_Success() {
         // Set same owner for both accounts for internal transfer
@@ -449,7 +476,7 @@ public class TransferServiceTest {
         InternalTransferDTO dto = new InternalTransferDTO();
         dto.setFromAccountId(1L);
         dto.setToAccountId(2L);
-        dto.setAmount(100.0);
+        dto.setAmount(10000L);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccountUSD));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
@@ -459,25 +486,6 @@ public class TransferServiceTest {
         assertTrue(result);
     }
 
-    @Test
-    void testCancelExpiredTransfers() {
-        // Create a list of expired transfers
-        List<Transfer> expiredTransfers = Arrays.asList(pendingTransfer);
-
-        // Setup mock to return expired transfers
-        when(transferRepository.findAllByStatusAndCreatedAtBefore(
-                eq(TransferStatus.PENDING), anyLong())).thenReturn(expiredTransfers);
-
-        // Execute
-        transferService.cancelExpiredTransfers();
-
-        // Verify
-        ArgumentCaptor<Transfer> transferCaptor = ArgumentCaptor.forClass(Transfer.class);
-        verify(transferRepository).save(transferCaptor.capture());
-
-        assertEquals(TransferStatus.CANCELLED, transferCaptor.getValue().getStatus());
-    }
-
     @Test
     void testFindById_Success() {
         when(transferRepository.findById(1L)).thenReturn(Optional.of(pendingTransfer));
@@ -505,8 +513,8 @@ public class TransferServiceTest {
 
         assertEquals("Transfer completed successfully", result);
         assertEquals(TransferStatus.COMPLETED, internalTransfer.getStatus());
-        assertEquals(900.0, fromAccountUSD.getBalance());
-        assertEquals(600.0, toAccount.getBalance());
+        assertEquals(90000L, fromAccountUSD.getBalance());
+        assertEquals(60000L, toAccount.getBalance());
         verify(transactionRepository, times(1)).save(any(Transaction.class));
     }
 
@@ -517,24 +525,13 @@ public class TransferServiceTest {
         when(transactionRepository.save(any(Transaction.class))).thenReturn(null);
         when(userServiceCustomer.getCustomerById(100L)).thenReturn(customerDTO);
 
-        when(exchangeService.calculatePreviewExchangeAutomatic(eq("EUR"), eq("RSD"), any())).thenReturn(
-                Map.of(
-                        "finalAmount", 11600.0,
-                        "provision", 150.0,
-                        "exchangeRate", 100.0
-                )
-        );
-        when(exchangeService.calculatePreviewExchangeAutomatic(eq("RSD"), eq("USD"), any())).thenReturn(
-                Map.of(
-                        "finalAmount", 105.6,
-                        "provision", 116.0,
-                        "exchangeRate", 100.0
-                )
+        when(exchangeService.calculatePreviewExchangeAutomatic(eq("EUR"), eq("USD"), any())).thenReturn(
+                new ForeignExchangeResult(100.0, 0.0105, 1_160_000L, 15000L, 11600L, 11750L, 10560L)
         );
 
-        when(currencyRepository.getByCode(CurrencyType.RSD)).thenReturn(rsdCurrency);
-        when(currencyRepository.getByCode(CurrencyType.EUR)).thenReturn(eurCurrency);
-        when(currencyRepository.getByCode(CurrencyType.USD)).thenReturn(usdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(rsdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.EUR)).thenReturn(eurCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.USD)).thenReturn(usdCurrency);
 
         when(bankAccountUtils.getBankAccountForCurrency(eurCurrency.getCode())).thenReturn(bankAccountEUR);
         when(bankAccountUtils.getBankAccountForCurrency(usdCurrency.getCode())).thenReturn(bankAccountUSD);
@@ -544,11 +541,46 @@ public class TransferServiceTest {
 
         assertEquals("Transfer completed successfully", result);
         assertEquals(TransferStatus.COMPLETED, exchangeTransfer.getStatus());
-        assertEquals(900.0, fromAccountForeign.getBalance());
-        assertEquals(1105.6, fromAccountUSD.getBalance());
-        assertFalse(1000000.0 < bankAccountEUR.getBalance());
-        assertFalse(999900.0 > bankAccountUSD.getBalance());
-        verify(currencyRepository, times(3)).getByCode(any(CurrencyType.class));
+        assertEquals(90000L, fromAccountForeign.getBalance());
+        assertEquals(110560L, fromAccountUSD.getBalance());
+        assertFalse(100_000_000L < bankAccountEUR.getBalance());
+        assertFalse(99_990_000L > bankAccountUSD.getBalance());
+        verify(referenceDataRegistry, times(3)).getCurrency(any(CurrencyType.class));
+    }
+
+    @Test
+    void testProcessTransfer_ExchangeUsesStoredQuote() {
+        exchangeTransfer.setQuoteId("q-1");
+        exchangeTransfer.setQuotedExchange(new ForeignExchangeResult(100.0, 0.0105, 1_160_000L, 15000L, 11600L, 11750L, 10400L));
+        when(transferRepository.findById(4L)).thenReturn(Optional.of(exchangeTransfer));
+        when(userServiceCustomer.getCustomerById(100L)).thenReturn(customerDTO);
+
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(rsdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.EUR)).thenReturn(eurCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.USD)).thenReturn(usdCurrency);
+
+        when(bankAccountUtils.getBankAccountForCurrency(eurCurrency.getCode())).thenReturn(bankAccountEUR);
+        when(bankAccountUtils.getBankAccountForCurrency(usdCurrency.getCode())).thenReturn(bankAccountUSD);
+        when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(bankAccountRSD);
+
+        String result = transferService.processTransfer(4L);
+
+        assertEquals("Transfer completed successfully", result);
+        assertEquals(90000L, fromAccountForeign.getBalance());
+        assertEquals(110400L, fromAccountUSD.getBalance());
+        verify(exchangeService, never()).calculatePreviewExchangeAutomatic(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testProcessTransfer_ExchangeWithMissingQuoteFailsWithoutRepricing() {
+        exchangeTransfer.setQuoteId("q-1");
+        when(transferRepository.findById(4L)).thenReturn(Optional.of(exchangeTransfer));
+
+        assertThrows(RuntimeException.class, () -> transferService.processTransfer(4L));
+
+        assertEquals(TransferStatus.FAILED, exchangeTransfer.getStatus());
+        assertEquals(100000L, fromAccountForeign.getBalance());
+        verify(exchangeService, never()).calculatePreviewExchangeAutomatic(anyString(), anyString(), any());
     }
 
     @Test
@@ -561,8 +593,8 @@ public class TransferServiceTest {
 
         assertEquals("Transfer completed successfully", result);
         assertEquals(TransferStatus.COMPLETED, externalTransfer.getStatus());
-        assertEquals(900.0, fromAccountUSD.getBalance());
-        assertEquals(600.0, toAccount.getBalance());
+        assertEquals(90000L, fromAccountUSD.getBalance());
+        assertEquals(60000L, toAccount.getBalance());
         verify(transactionRepository, times(1)).save(any(Transaction.class));
     }
 
@@ -574,16 +606,12 @@ public class TransferServiceTest {
         when(userServiceCustomer.getCustomerById(200L)).thenReturn(customerDTO2);
 
         when(exchangeService.calculatePreviewExchangeAutomatic(anyString(), anyString(), any())).thenReturn(
-                Map.of(
-                        "finalAmount", 90.0,
-                        "provision", 100.0,
-                        "exchangeRate", 100.0
-                )
+                new ForeignExchangeResult(100.0, 0.01, 990000L, 10000L, 10000L, 10100L, 9000L)
         );
 
-        when(currencyRepository.getByCode(CurrencyType.RSD)).thenReturn(rsdCurrency);
-        when(currencyRepository.getByCode(CurrencyType.EUR)).thenReturn(eurCurrency);
-        when(currencyRepository.getByCode(CurrencyType.USD)).thenReturn(usdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(rsdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.EUR)).thenReturn(eurCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.USD)).thenReturn(usdCurrency);
 
         when(bankAccountUtils.getBankAccountForCurrency(eurCurrency.getCode())).thenReturn(bankAccountEUR);
         when(bankAccountUtils.getBankAccountForCurrency(usdCurrency.getCode())).thenReturn(bankAccountUSD);
@@ -594,16 +622,16 @@ public class TransferServiceTest {
 
         assertEquals("Transfer completed successfully", result);
         assertEquals(TransferStatus.COMPLETED, foreignTransfer.getStatus());
-        assertEquals(800.0, fromAccountUSD.getBalance());
-        assertEquals(590.0, toAccountForeign.getBalance());
-        assertEquals(1000000.0, bankAccountUSD.getBalance());
-        assertEquals(1000100.0, bankAccountEUR.getBalance());
+        assertEquals(90000L, fromAccountUSD.getBalance());
+        assertEquals(59000L, toAccountForeign.getBalance());
+        assertEquals(100_000_000L, bankAccountUSD.getBalance());
+        assertEquals(100_010_000L, bankAccountEUR.getBalance());
     }
 
     @Test
     void testProcessInternalTransfer_InsufficientFunds() {
-        fromAccountUSD.setBalance(50.0);
-        internalTransfer.setAmount(100.0);
+        fromAccountUSD.setBalance(5000L);
+        internalTransfer.setAmount(10000L);
 
         when(transferRepository.findById(1L)).thenReturn(Optional.of(internalTransfer));
 
@@ -613,8 +641,8 @@ public class TransferServiceTest {
 
     @Test
     void testProcessExternalTransfer_InsufficientFunds() {
-        fromAccountUSD.setBalance(50.0);
-        externalTransfer.setAmount(100.0);
+        fromAccountUSD.setBalance(5000L);
+        externalTransfer.setAmount(10000L);
 
         when(transferRepository.findById(2L)).thenReturn(Optional.of(externalTransfer));
 
@@ -625,15 +653,15 @@ public class TransferServiceTest {
     @Test
     public void testPerformRsdToForeign_successfulExchange() {
 
-        Double amount = 1000.0;
+        Long amount = 100000L;
 
         Account fromAccount = new Account();
         fromAccount.setCurrencyType(CurrencyType.RSD);
-        fromAccount.setBalance(5000.0);
+        fromAccount.setBalance(500000L);
 
         Account toAccount = new Account();
         toAccount.setCurrencyType(CurrencyType.EUR);
-        toAccount.setBalance(200.0);
+        toAccount.setBalance(20000L);
         toAccount.setOwnerID(1L);
 
         Currency rsdCurrency = new Currency();
@@ -642,12 +670,12 @@ public class TransferServiceTest {
         rsdCurrency.setCode(CurrencyType.EUR);
 
         Account rsdBankAccount = new Account();
-        rsdBankAccount.setBalance(100000.0);
+        rsdBankAccount.setBalance(10_000_000L);
         rsdBankAccount.setCurrencyType(CurrencyType.RSD);
         rsdBankAccount.setCompany(new Company());
 
         Account eurBankAccount = new Account();
-        eurBankAccount.setBalance(100000.0);
+        eurBankAccount.setBalance(10_000_000L);
         eurBankAccount.setCurrencyType(CurrencyType.EUR);
         eurBankAccount.setCompany(new Company());
 
@@ -655,45 +683,41 @@ public class TransferServiceTest {
         customer.setFirstName("John");
         customer.setLastName("Doe");
 
-        Map<String, Object> exchangeMock = new HashMap<>();
-        exchangeMock.put("finalAmount", 8.5);
-        exchangeMock.put("provision", 0.5);
-        exchangeMock.put("exchangeRate", 117);
-        exchangeMock.put("convertedAmount", 10000.0);
+        DirectExchangeResult exchangeMock = new DirectExchangeResult(117, 1_000_000L, 50L, 850L);
 
-        when(currencyRepository.getByCode(CurrencyType.RSD)).thenReturn(rsdCurrency);
-        when(currencyRepository.getByCode(CurrencyType.EUR)).thenReturn(eurCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(rsdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.EUR)).thenReturn(eurCurrency);
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(rsdBankAccount);
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.EUR)).thenReturn(eurBankAccount);
         when(userServiceCustomer.getCustomerById(1L)).thenReturn(customer);
-        when(exchangeService.calculatePreviewExchangeAutomatic("RSD", "EUR", amount)).thenReturn(exchangeMock);
+        when(exchangeService.calculatePreviewExchange("RSD", "EUR", amount)).thenReturn(exchangeMock);
 
 
-        Map<String, Object> result = transferService.performRsdToForeign(amount, fromAccount, toAccount);
+        DirectExchangeResult result = transferService.performRsdToForeign(amount, fromAccount, toAccount);
 
 
         assertNotNull(result);
-        assertEquals(8.5, result.get("finalAmount"));
-        assertEquals(0.5, result.get("provision"));
+        assertEquals(850L, result.finalAmount());
+        assertEquals(50L, result.fee());
 
-        assertEquals(4000.0, fromAccount.getBalance());
-        assertEquals(208.5, toAccount.getBalance());
-        assertEquals(100000.0, rsdBankAccount.getBalance());
-        assertEquals(100000.5, eurBankAccount.getBalance());
+        assertEquals(400000L, fromAccount.getBalance());
+        assertEquals(20850L, toAccount.getBalance());
+        assertEquals(10_000_000L, rsdBankAccount.getBalance());
+        assertEquals(10_000_050L, eurBankAccount.getBalance());
     }
 
     @Test
     public void testPerformForeignToRsd_successfulExchange() {
         // Arrange
-        Double amount = 100.0;
+        Long amount = 10000L;
 
         Account fromAccount = new Account();
         fromAccount.setCurrencyType(CurrencyType.EUR);
-        fromAccount.setBalance(1000.0);
+        fromAccount.setBalance(100000L);
 
         Account toAccount = new Account();
         toAccount.setCurrencyType(CurrencyType.RSD);
-        toAccount.setBalance(10000.0);
+        toAccount.setBalance(1_000_000L);
         toAccount.setOwnerID(1L);
 
         Currency eurCurrency = new Currency();
@@ -703,55 +727,51 @@ public class TransferServiceTest {
 
         Account eurBankAccount = new Account();
         eurBankAccount.setCurrencyType(CurrencyType.EUR);
-        eurBankAccount.setBalance(100000.0);
+        eurBankAccount.setBalance(10_000_000L);
         eurBankAccount.setCompany(new Company());
 
         Account rsdBankAccount = new Account();
         rsdBankAccount.setCurrencyType(CurrencyType.RSD);
-        rsdBankAccount.setBalance(200000.0);
+        rsdBankAccount.setBalance(20_000_000L);
         rsdBankAccount.setCompany(new Company());
 
         CustomerDTO customer = new CustomerDTO();
         customer.setFirstName("Ana");
         customer.setLastName("Markovic");
 
-        Map<String, Object> exchangeMock = new HashMap<>();
-        exchangeMock.put("finalAmount", 11700.0);
-        exchangeMock.put("provision", 100.0);
-        exchangeMock.put("exchangeRate", 117);
-        exchangeMock.put("convertedAmount", 10000.0);
+        DirectExchangeResult exchangeMock = new DirectExchangeResult(117, 1_000_000L, 10000L, 1_170_000L);
 
-        when(currencyRepository.getByCode(CurrencyType.RSD)).thenReturn(rsdCurrency);
-        when(currencyRepository.getByCode(CurrencyType.EUR)).thenReturn(eurCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.RSD)).thenReturn(rsdCurrency);
+        when(referenceDataRegistry.getCurrency(CurrencyType.EUR)).thenReturn(eurCurrency);
         when(userServiceCustomer.getCustomerById(1L)).thenReturn(customer);
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.RSD)).thenReturn(rsdBankAccount);
         when(bankAccountUtils.getBankAccountForCurrency(CurrencyType.EUR)).thenReturn(eurBankAccount);
-        when(exchangeService.calculatePreviewExchangeAutomatic("EUR", "RSD", amount)).thenReturn(exchangeMock);
+        when(exchangeService.calculatePreviewExchange("EUR", "RSD", amount)).thenReturn(exchangeMock);
 
         // Act
-        Map<String, Object> result = transferService.performForeignToRsd(amount, fromAccount, toAccount);
+        DirectExchangeResult result = transferService.performForeignToRsd(amount, fromAccount, toAccount);
 
         // Assert
         assertNotNull(result);
-        assertEquals(11700.0, result.get("finalAmount"));
-        assertEquals(100.0, result.get("provision"));
+        assertEquals(1_170_000L, result.finalAmount());
+        assertEquals(10000L, result.fee());
 
-        assertEquals(900.0, fromAccount.getBalance());
-        assertEquals(21700.0, toAccount.getBalance());
-        assertEquals(100000.0, eurBankAccount.getBalance());
-        assertEquals(200100.0, rsdBankAccount.getBalance());
+        assertEquals(90000L, fromAccount.getBalance());
+        assertEquals(2_170_000L, toAccount.getBalance());
+        assertEquals(10_000_000L, eurBankAccount.getBalance());
+        assertEquals(20_010_000L, rsdBankAccount.getBalance());
     }
 
     @Test
     void testSomethingUsingProcessForeignBankTransfer() {
         Long transferId = 1L;
         Account fromAccount = new Account();
-        fromAccount.setBalance(1000.0);
-        fromAccount.setReservedBalance(0.0);
+        fromAccount.setBalance(100000L);
+        fromAccount.setReservedBalance(0L);
 
         Transfer transfer = new Transfer();
         transfer.setId(transferId);
-        transfer.setAmount(200.0);
+        transfer.setAmount(20000L);
         transfer.setFromAccountId(fromAccount);
         transfer.setStatus(TransferStatus.RESERVED);
         transfer.setType(TransferType.FOREIGN_BANK);
@@ -766,7 +786,7 @@ public class TransferServiceTest {
         // Assert
         assertEquals("Transfer reserved successfully", result);
         verify(interbankService).sendNewTXMessage(transfer);
-        verify(accountRepository).save(fromAccount);
+        verify(fundsHoldService).placeUntilResolved(fromAccount, 20000L, "transfer:1", true);
 //        verify(transferRepository, times(2)).save(transfer);
     }
 
@@ -776,12 +796,12 @@ public class TransferServiceTest {
         Long transferId = 1L;
 
         Account fromAccount = new Account();
-        fromAccount.setBalance(100.0); // less than amount
-        fromAccount.setReservedBalance(0.0);
+        fromAccount.setBalance(10000L); // less than amount
+        fromAccount.setReservedBalance(0L);
 
         Transfer transfer = new Transfer();
         transfer.setId(transferId);
-        transfer.setAmount(200.0); // more than available balance
+        transfer.setAmount(20000L); // more than available balance
         transfer.setFromAccountId(fromAccount);
         transfer.setStatus(TransferStatus.RESERVED);
         transfer.setType(TransferType.FOREIGN_BANK);
@@ -811,12 +831,12 @@ public class TransferServiceTest {
 
         // Prepare the transfer and account data
         Account fromAccount = new Account();
-        fromAccount.setBalance(1000.0);  // Sufficient balance
-        fromAccount.setReservedBalance(0.0);
+        fromAccount.setBalance(100000L);  // Sufficient balance
+        fromAccount.setReservedBalance(0L);
 
         Transfer transfer = new Transfer();
         transfer.setId(transferId);
-        transfer.setAmount(200.0);  // Transfer amount
+        transfer.setAmount(20000L);  // Transfer amount
         transfer.setFromAccountId(fromAccount);
         transfer.setStatus(TransferStatus.RESERVED);
         transfer.setType(TransferType.FOREIGN_BANK);
@@ -841,6 +861,7 @@ public class TransferServiceTest {
         // Verify transfer status was updated to FAILED and note was added
         assertEquals(TransferStatus.FAILED, transfer.getStatus());
         assertTrue(transfer.getNote().contains("Error during processing: Simulated error during processing"));
+        verify(fundsHoldService).release("transfer:1");
 
         // Ensure the transfer was saved after failure and the account was saved
         verify(transferRepository, atLeastOnce()).save(transfer);
@@ -861,7 +882,7 @@ public class TransferServiceTest {
         currency.setCode(CurrencyType.USD);
 
         MoneyTransferDTO dto = new MoneyTransferDTO();
-        dto.setAmount(100.0);
+        dto.setAmount(10000L);
         dto.setReceiver("John Doe");
         dto.setAdress("123 Street");
         dto.setPayementCode("289");
@@ -876,7 +897,7 @@ public class TransferServiceTest {
         Transfer savedTransfer = new Transfer(); // mock return from save
         savedTransfer.setId(1L);
 
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(currency));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(currency));
         when(userServiceCustomer.getCustomerById(123L)).thenReturn(customerDTO);
         when(transferRepository.saveAndFlush(any(Transfer.class))).thenReturn(savedTransfer);
 
@@ -886,14 +907,14 @@ public class TransferServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(savedTransfer.getId(), result.getId());
-        verify(currencyRepository).findByCode(CurrencyType.USD);
+        verify(referenceDataRegistry).findCurrency(CurrencyType.USD);
         verify(userServiceCustomer).getCustomerById(123L);
         verify(transferRepository).saveAndFlush(any(Transfer.class));
     }
 
     @Test
     void testCreateForeignBankMoneyTransferEntity_CurrencyNotFound() {
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.empty());
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.empty());
         Account account = new Account();
         account.setCurrencyType(CurrencyType.USD);
 
@@ -912,7 +933,7 @@ public class TransferServiceTest {
         account.setCurrencyType(CurrencyType.USD);
         account.setOwnerID(123L);
 
-        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(currency));
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(currency));
         when(userServiceCustomer.getCustomerById(123L)).thenReturn(null);
 
         MoneyTransferDTO dto = new MoneyTransferDTO();
@@ -936,7 +957,7 @@ public class TransferServiceTest {
 //
 //        Currency mockCurrency = new Currency();
 //        mockCurrency.setCode(CurrencyType.USD);
-//        when(currencyRepository.findByCode(CurrencyType.USD)).thenReturn(Optional.of(mockCurrency));
+//        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(mockCurrency));
 //        // Mock Customer data from userService
 //        CustomerDTO mockCustomerData = new CustomerDTO();
 //        mockCustomerData.setEmail("test@example.com");
@@ -977,7 +998,7 @@ public class TransferServiceTest {
         key.setLocallyGeneratedKey(String.valueOf(transferId));
 
         Account mockAccount = new Account();
-        mockAccount.setReservedBalance(1000.0);
+        mockAccount.setReservedBalance(100000L);
 
         Currency currency = new Currency();
         currency.setCode(CurrencyType.USD);
@@ -985,7 +1006,7 @@ public class TransferServiceTest {
 
         Transfer mockTransfer = new Transfer();
         mockTransfer.setId(transferId);
-        mockTransfer.setAmount(500.0);
+        mockTransfer.setAmount(50000L);
         mockTransfer.setStatus(TransferStatus.RESERVED);
         mockTransfer.setFromAccountId(mockAccount);
         mockTransfer.setFromCurrency(currency);
@@ -998,6 +1019,7 @@ public class TransferServiceTest {
 
         assertEquals(TransferStatus.COMPLETED, result.getStatus());
         verify(transactionRepository).save(any(Transaction.class));
+        verify(fundsHoldService).capture("transfer:1");
     }
 
     @Test
@@ -1007,12 +1029,12 @@ public class TransferServiceTest {
         key.setLocallyGeneratedKey(String.valueOf(transferId));
 
         Account mockAccount = new Account();
-        mockAccount.setReservedBalance(1000.0);
-        mockAccount.setBalance(2000.0);
+        mockAccount.setReservedBalance(100000L);
+        mockAccount.setBalance(200000L);
 
         Transfer mockTransfer = new Transfer();
         mockTransfer.setId(transferId);
-        mockTransfer.setAmount(500.0);
+        mockTransfer.setAmount(50000L);
         mockTransfer.setStatus(TransferStatus.RESERVED);
         mockTransfer.setFromAccountId(mockAccount);
 
@@ -1023,12 +1045,13 @@ public class TransferServiceTest {
 
         assertEquals(TransferStatus.CANCELLED, result.getStatus());
         verify(transferRepository).save(mockTransfer);
+        verify(fundsHoldService).release("transfer:1");
     }
 
     @Test
     void testReceiveForeignBankTransfer_success() {
         String accountNumber = "ACC123";
-        double amount = 300.0;
+        long amount = 30000L;
         String description = "Test payment";
         String senderName = "John Doe";
         Currency currency = new Currency();
@@ -1037,7 +1060,7 @@ public class TransferServiceTest {
 
         Account toAccount = new Account();
         toAccount.setAccountNumber(accountNumber);
-        toAccount.setBalance(1000.0);
+        toAccount.setBalance(100000L);
 
         when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(toAccount));
         when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -1056,6 +1079,54 @@ public class TransferServiceTest {
         verify(transactionRepository).save(any(Transaction.class));
     }
 
+    private MoneyTransferDTO systemTransferDto(long amount) {
+        MoneyTransferDTO dto = new MoneyTransferDTO();
+        dto.setFromAccountNumber(fromAccountUSD.getAccountNumber());
+        dto.setRecipientAccount(toAccount.getAccountNumber());
+        dto.setAmount(amount);
+        dto.setPayementCode("999");
+        dto.setPayementDescription("Realizacija kupovine hartije");
+        return dto;
+    }
+
+    @Test
+    void testSettleSystemTransfer_PostsWithoutOtpOrNotifications() {
+        when(referenceDataRegistry.findCurrency(CurrencyType.USD)).thenReturn(Optional.of(usdCurrency));
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(i -> {
+            // upisuje se samo jednom, odmah kao zavrsen
+            assertEquals(TransferStatus.COMPLETED, i.<Transfer>getArgument(0).getStatus());
+            return i.getArgument(0);
+        });
+
+        Transfer transfer = transferService.settleSystemTransfer(fromAccountUSD, toAccount, systemTransferDto(20000L));
 
+        assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
+        assertNotNull(transfer.getCompletedAt());
+        assertEquals(90000L, fromAccountUSD.getBalance());
+        assertEquals(70000L, toAccount.getBalance());
+        verify(accountLockService).lock(List.of(fromAccountUSD, toAccount));
+        verify(transactionRepository).save(any(Transaction.class));
+        verify(transferRepository).save(any(Transfer.class));
+        verify(transferRepository, never()).saveAndFlush(any(Transfer.class));
+        verifyNoInteractions(userServiceCustomer, otpTokenService, jmsTemplate);
+    }
+
+    @Test
+    void testSettleSystemTransfer_InsufficientBalance() {
+        assertThrows(RuntimeException.class, () -> transferService.settleSystemTransfer(fromAccountUSD, toAccount, systemTransferDto(500000L)));
+        assertEquals(100000L, fromAccountUSD.getBalance());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verifyNoInteractions(transferRepository);
+    }
 
-}
\ No newline at end of file
+    @Test
+    void testSettleSystemTransfer_SharesCustomerValidation() {
+        toAccount.setOwnerID(fromAccountUSD.getOwnerID());
+        assertThrows(IllegalArgumentException.class, () -> transferService.settleSystemTransfer(fromAccountUSD, toAccount, systemTransferDto(10000L)));
+
+        toAccount.setOwnerID(200L);
+        assertThrows(IllegalArgumentException.class, () -> transferService.settleSystemTransfer(fromAccountUSD, toAccount, systemTransferDto(-100L)));
+        assertThrows(IllegalArgumentException.class, () -> transferService.settleSystemTransfer(fromAccountUSD, toAccountForeign, systemTransferDto(10000L)));
+        verifyNoInteractions(transactionRepository);
+    }
+}
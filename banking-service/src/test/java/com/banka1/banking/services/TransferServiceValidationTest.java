@@ -27,7 +27,7 @@ class TransferServiceValidationTest {
 
     @Mock AccountRepository accountRepo;
     @Mock TransferRepository transferRepo;
-    @Mock CurrencyRepository currencyRepo;
+    @Mock ReferenceDataRegistry referenceDataRegistry;
     @Mock TransactionRepository txRepo;
 
     @Mock JmsTemplate jms;
@@ -40,6 +40,10 @@ class TransferServiceValidationTest {
     @Mock ReceiverService receiverService;
     @Mock InterbankService interbankService;
     @Mock InterbankConfig cfg;
+    @Mock AccountLockService accountLockService;
+    @Mock HouseAccountService houseAccountService;
+    @Mock FundsHoldService fundsHoldService;
+    @Mock SpendingLimitService spendingLimitService;
 
     private TransferService service;
 
@@ -48,10 +52,10 @@ class TransferServiceValidationTest {
         when(cfg.getRoutingNumber()).thenReturn("111");          // anything is fine
 
         service = new TransferService(
-                accountRepo, transferRepo, txRepo, currencyRepo,
+                accountRepo, transferRepo, txRepo, referenceDataRegistry,
                 jms, msgHelper, "dummy-queue",
                 userService, exchangeService, otp, bankUtils,
-                receiverService, interbankService, cfg
+                receiverService, interbankService, cfg, accountLockService, houseAccountService, fundsHoldService, spendingLimitService
         );
     }
 
@@ -65,7 +69,7 @@ class TransferServiceValidationTest {
         MoneyTransferDTO dto = new MoneyTransferDTO();
         dto.setFromAccountNumber("111-222");
         dto.setRecipientAccount("123-456");
-        dto.setAmount(-50.0);
+        dto.setAmount(-5000L);
 
         assertFalse(service.validateMoneyTransfer(dto));
     }
@@ -0,0 +1,97 @@
+package com.banka1.banking.services;
+
+import com.banka1.banking.dto.CustomerDTO;
+import com.banka1.common.listener.JmsRpcClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceCustomerTest {
+
+    @Mock
+    private JmsRpcClient jmsRpcClient;
+
+    @Mock
+    private CustomerDirectory customerDirectory;
+
+    @InjectMocks
+    private UserServiceCustomer userServiceCustomer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userServiceCustomer, "destination", "get-customer");
+        ReflectionTestUtils.setField(userServiceCustomer, "destinationBulk", "get-customers-by-ids");
+    }
+
+    private static CustomerDTO customer(long id) {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(id);
+        return customer;
+    }
+
+    @Test
+    void getCustomersByIds_sendsAllChunksBeforeWaiting() {
+        List<Long> ids = LongStream.rangeClosed(1, UserServiceCustomer.MAX_IDS_PER_REQUEST + 1).boxed().toList();
+        CompletableFuture<CustomerDTO[]> first = new CompletableFuture<>();
+        CompletableFuture<CustomerDTO[]> second = CompletableFuture.completedFuture(new CustomerDTO[]{customer(ids.size())});
+        when(jmsRpcClient.request(eq("get-customers-by-ids"), anyList(), eq(CustomerDTO[].class))).thenAnswer(invocation -> {
+            // prvi deo odgovara tek kada je i drugi poslat
+            if (((List<?>) invocation.getArgument(1)).size() == 1) {
+                first.complete(new CustomerDTO[]{customer(1)});
+                return second;
+            }
+            return first;
+        });
+
+        Map<Long, CustomerDTO> customers = userServiceCustomer.getCustomersByIds(ids);
+
+        assertEquals(2, customers.size());
+        assertTrue(customers.containsKey(1L));
+        assertTrue(customers.containsKey((long) ids.size()));
+        verify(jmsRpcClient, times(2)).request(eq("get-customers-by-ids"), anyList(), eq(CustomerDTO[].class));
+    }
+
+    @Test
+    void getCustomerByIdAsync_missingCustomerFails() {
+        when(jmsRpcClient.request("get-customer", 5L, CustomerDTO.class)).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<CustomerDTO> result = userServiceCustomer.getCustomerByIdAsync(5L);
+
+        assertTrue(result.isCompletedExceptionally());
+        verify(jmsRpcClient, never()).call(any(), any(), any());
+    }
+
+    @Test
+    void getCustomersByIds_asksUserServiceOnlyForMissingCustomers() {
+        when(customerDirectory.find(1L)).thenReturn(customer(1));
+        when(jmsRpcClient.request("get-customers-by-ids", List.of(2L), CustomerDTO[].class))
+                .thenReturn(CompletableFuture.completedFuture(new CustomerDTO[]{customer(2)}));
+
+        Map<Long, CustomerDTO> customers = userServiceCustomer.getCustomersByIds(List.of(1L, 2L));
+
+        assertEquals(2, customers.size());
+        verify(jmsRpcClient, times(1)).request(any(), any(), any());
+    }
+
+    @Test
+    void getCustomerById_readsLocalDirectory() {
+        when(customerDirectory.find(3L)).thenReturn(customer(3));
+
+        assertEquals(3L, userServiceCustomer.getCustomerById(3L).getId());
+        verifyNoInteractions(jmsRpcClient);
+    }
+}
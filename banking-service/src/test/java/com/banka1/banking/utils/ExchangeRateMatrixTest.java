@@ -0,0 +1,74 @@
+package com.banka1.banking.utils;
+
+import com.banka1.banking.models.Currency;
+import com.banka1.banking.models.ExchangePair;
+import com.banka1.banking.models.helper.CurrencyType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateMatrixTest {
+
+    private ExchangePair pair(CurrencyType base, CurrencyType target, double rate, LocalDate date) {
+        Currency baseCurrency = new Currency();
+        baseCurrency.setCode(base);
+        Currency targetCurrency = new Currency();
+        targetCurrency.setCode(target);
+
+        ExchangePair pair = new ExchangePair();
+        pair.setBaseCurrency(baseCurrency);
+        pair.setTargetCurrency(targetCurrency);
+        pair.setExchangeRate(rate);
+        pair.setDate(date);
+        return pair;
+    }
+
+    @Test
+    void of_prefersDirectRateAndFillsReverse() {
+        LocalDate today = LocalDate.of(2025, 3, 1);
+        ExchangeRateMatrix matrix = ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.0, today),
+                pair(CurrencyType.RSD, CurrencyType.EUR, 0.0085, today.minusDays(1)),
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0, today)
+        ));
+
+        assertEquals(117.0, matrix.rate(CurrencyType.EUR, CurrencyType.RSD));
+        assertEquals(0.0085, matrix.rate(CurrencyType.RSD, CurrencyType.EUR));
+        assertEquals(1 / 108.0, matrix.rate(CurrencyType.RSD, CurrencyType.USD));
+        assertEquals(today, matrix.getDate());
+    }
+
+    @Test
+    void rate_missingPairIsNaN() {
+        ExchangeRateMatrix matrix = ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0, LocalDate.now()),
+                pair(CurrencyType.CHF, CurrencyType.RSD, 0.0, LocalDate.now())
+        ));
+
+        assertFalse(matrix.has(CurrencyType.USD, CurrencyType.EUR));
+        assertFalse(matrix.has(CurrencyType.CHF, CurrencyType.RSD));
+        assertFalse(matrix.has(CurrencyType.RSD, CurrencyType.RSD));
+        assertTrue(Double.isNaN(ExchangeRateMatrix.EMPTY.rate(CurrencyType.EUR, CurrencyType.RSD)));
+        assertNull(ExchangeRateMatrix.EMPTY.getDate());
+    }
+
+    @Test
+    void encode_roundTripsWholeMatrix() {
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        ExchangeRateMatrix matrix = ExchangeRateMatrix.of(List.of(
+                pair(CurrencyType.EUR, CurrencyType.RSD, 117.0, day),
+                pair(CurrencyType.USD, CurrencyType.RSD, 108.0, day)
+        ));
+
+        ExchangeRateMatrix decoded = ExchangeRateMatrix.decode(matrix.encode(), day, 3L);
+
+        assertEquals(117.0, decoded.rate(CurrencyType.EUR, CurrencyType.RSD));
+        assertEquals(1 / 108.0, decoded.rate(CurrencyType.RSD, CurrencyType.USD));
+        assertFalse(decoded.has(CurrencyType.EUR, CurrencyType.USD));
+        assertEquals(day, decoded.getDate());
+        assertEquals(3L, decoded.getVersion());
+    }
+}
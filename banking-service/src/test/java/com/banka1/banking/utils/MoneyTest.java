@@ -0,0 +1,68 @@
+package com.banka1.banking.utils;
+
+import com.banka1.banking.models.helper.CurrencyType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void toMinor_usesCurrencyDecimals() {
+        assertEquals(12345L, Money.toMinor(123.45, CurrencyType.EUR));
+        assertEquals(123L, Money.toMinor(123.45, CurrencyType.JPY));
+        assertEquals(1.5, Money.toMajor(150L, CurrencyType.RSD));
+        assertEquals(150.0, Money.toMajor(150L, CurrencyType.JPY));
+    }
+
+    @Test
+    void toMinor_roundsHalfEvenOnDecimalValue() {
+        // 1.005 * 100 je u double-u 100.49999..., a decimalno je tacno na polovini
+        assertEquals(100L, Money.toMinor(1.005, CurrencyType.USD));
+        assertEquals(102L, Money.toMinor(1.015, CurrencyType.USD));
+        assertEquals(-100L, Money.toMinor(-1.005, CurrencyType.USD));
+        assertEquals(2L, Money.toMinor(2.5, CurrencyType.JPY));
+    }
+
+    @Test
+    void toMinor_rejectsNonFiniteAmount() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(Double.NaN, CurrencyType.RSD));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(Double.POSITIVE_INFINITY, CurrencyType.RSD));
+    }
+
+    @Test
+    void addAndSubtract_areExactAndFailOnOverflow() {
+        long balance = 0L;
+        for (int i = 0; i < 10; i++)
+            balance = Money.add(balance, 10L);
+
+        assertEquals(100L, balance);
+        assertEquals(89_990L, Money.subtract(100_000L, 10_010L));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1L));
+    }
+
+    @Test
+    void percent_roundsHalfEven() {
+        assertEquals(100L, Money.percent(10_000L, 100L));
+        assertEquals(0L, Money.percent(50L, 100L));
+        assertEquals(2L, Money.percent(150L, 100L));
+        assertEquals(2L, Money.percent(250L, 100L));
+        assertEquals(-2L, Money.percent(-150L, 100L));
+    }
+
+    @Test
+    void convert_handlesDifferentDecimals() {
+        // 10.00 EUR po kursu 160.55 = 1605.5 JPY -> 1606 (HALF_EVEN)
+        assertEquals(1606L, Money.convert(1000L, CurrencyType.EUR, 160.55, CurrencyType.JPY));
+        // 1000 JPY po kursu 0.00623 = 6.23 EUR
+        assertEquals(623L, Money.convert(1000L, CurrencyType.JPY, 0.00623, CurrencyType.EUR));
+        assertEquals(1_172_333L, Money.convert(10_000L, CurrencyType.EUR, 117.2333, CurrencyType.RSD));
+    }
+
+    @Test
+    void minorUnits_defaultsForUnknownCurrency() {
+        assertEquals(2, Money.minorUnits(null));
+        assertEquals(123L, Money.toMinor(1.2345, null));
+    }
+}
@@ -0,0 +1,64 @@
+package com.banka1.common.listener;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.JmsUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link DefaultMessageListenerContainer} koji transakcionu sesiju potvrdjuje na svakih {@code batchSize} poruka
+ * umesto posle svake, i odmah kada red ostane prazan, da poslednja grupa ne bi cekala. Sa {@code batchSize = 1}
+ * radi isto kao {@link DefaultMessageListenerContainer}.
+ * <p>
+ * Svaki potrosac ima svoju sesiju, pa se broj nepotvrdjenih poruka vodi po sesiji.
+ */
+@Slf4j
+public class BatchCommitMessageListenerContainer extends DefaultMessageListenerContainer {
+
+    private final Map<Session, Integer> uncommitted = new ConcurrentHashMap<>();
+    private int batchSize = 1;
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Velicina grupe mora biti pozitivna");
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    protected void commitIfNecessary(Session session, Message message) throws JMSException {
+        if (batchSize > 1 && message != null && session.getTransacted()) {
+            if (uncommitted.merge(session, 1, Integer::sum) < batchSize)
+                return;
+        }
+        uncommitted.remove(session);
+        super.commitIfNecessary(session, message);
+    }
+
+    @Override
+    protected void noMessageReceived(Object invoker, Session session) {
+        super.noMessageReceived(invoker, session);
+        if (uncommitted.remove(session) == null || !isSessionLocallyTransacted(session))
+            return;
+
+        try {
+            JmsUtils.commitIfNecessary(session);
+        } catch (JMSException e) {
+            log.warn("Potvrda grupe poruka sa {} nije uspela: {}", getDestinationDescription(), e.getMessage());
+        }
+    }
+
+    @Override
+    protected void rollbackOnExceptionIfNecessary(Session session, Throwable ex) throws JMSException {
+        uncommitted.remove(session);
+        super.rollbackOnExceptionIfNecessary(session, ex);
+    }
+}
@@ -0,0 +1,32 @@
+package com.banka1.common.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zajednicki deo Jackson codec-a: {@link ObjectReader} i {@link ObjectWriter} se prave jednom po klasi
+ * i dele izmedju poruka, umesto da se tip i konfiguracija razresavaju pri svakom citanju i pisanju.
+ */
+abstract class JacksonMessageCodec implements MessageCodec {
+
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    protected JacksonMessageCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    protected ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    protected ObjectWriter writer(Object payload) {
+        Class<?> type = payload == null ? Object.class : payload.getClass();
+        return writers.computeIfAbsent(type, mapper::writerFor);
+    }
+}
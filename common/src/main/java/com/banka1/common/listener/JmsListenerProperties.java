@@ -0,0 +1,58 @@
+package com.banka1.common.listener;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Podesavanje JMS potrosaca po odredistu, npr.
+ * <pre>
+ * jms.listener.destinations[send-email].concurrency=5-20
+ * jms.listener.destinations[send-email].prefetch=50
+ * jms.listener.destinations[send-email].batch-size=20
+ * </pre>
+ * Odrediste bez unosa koristi {@code concurrency} iz {@code @JmsListener} i prefetch iz URL-a brokera.
+ * Primenjuje ga {@link TunedJmsListenerContainerFactory}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jms.listener")
+public class JmsListenerProperties {
+
+    private Map<String, Destination> destinations = new HashMap<>();
+
+    public enum ExecutorType {
+        /**
+         * Nova nit za svakog potrosaca (podrazumevano u Spring-u).
+         */
+        SIMPLE,
+        /**
+         * Poseban pool niti za odrediste, velicine najveceg broja potrosaca, pa se niti ponovo koriste
+         * kada kontejner dodaje i uklanja potrosace.
+         */
+        POOLED
+    }
+
+    @Getter
+    @Setter
+    public static class Destination {
+        /**
+         * Broj potrosaca ({@code "5-10"} ili {@code "5"}); ima prednost nad vrednoscu iz {@code @JmsListener}.
+         */
+        private String concurrency;
+        /**
+         * Koliko poruka broker unapred salje jednom potrosacu ({@code consumer.prefetchSize}).
+         */
+        private Integer prefetch;
+        /**
+         * Na koliko poruka se potvrdjuje (commit) transakciona sesija. Vece od 1 samo za odredista bez odgovora,
+         * jer se i odgovor salje tek sa commit-om, i za potrosace kojima ne smeta ponovna obrada: kod greske
+         * se vraca cela nepotvrdjena grupa.
+         */
+        private int batchSize = 1;
+        private ExecutorType executor = ExecutorType.SIMPLE;
+    }
+}
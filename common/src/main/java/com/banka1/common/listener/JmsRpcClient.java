@@ -0,0 +1,231 @@
+package com.banka1.common.listener;
+
+import jakarta.jms.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMS request/reply bez blokiranja i bez privremenog reda po pozivu.
+ * <p>
+ * {@link JmsTemplate#sendAndReceive} za svaki poziv pravi privremeni red i consumer-a i drzi nit dok odgovor ne stigne.
+ * Ovaj klijent pri prvom pozivu otvara jednu konekciju i jedan privremeni red za odgovore koji zivi koliko i servis.
+ * Svaki zahtev dobija {@code JMSCorrelationID}, a buduci rezultat ceka u mapi dok odgovor sa istim ID-jem ne stigne
+ * ili dok ne istekne vreme. Zato se vise zahteva moze poslati odjednom i sacekati zajedno.
+ * <p>
+ * Zahtevi se salju na istoj konekciji, preko netransakcionih sesija koje klijent cuva za ponovnu upotrebu, a ne preko
+ * {@link JmsTemplate}-a. Unutar transakcionog {@code @JmsListener}-a {@link JmsTemplate} koristi sesiju listener-a,
+ * pa bi zahtev otisao tek sa commit-om, posto je poziv vec istekao cekajuci odgovor.
+ * <p>
+ * Strana koja odgovara mora da prepise ID korelacije u odgovor ({@link MessageHelper#createReply} ili {@link #reply(Message)}).
+ * Callback-ovi na vracenim {@link CompletableFuture}-ima se izvrsavaju na niti JMS consumer-a, pa ne smeju da blokiraju.
+ */
+@Slf4j
+public class JmsRpcClient implements MessageListener, ExceptionListener, AutoCloseable {
+
+    private record Producer(Connection connection, Session session, MessageProducer producer) {
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final MessageHelper messageHelper;
+    private final Duration timeout;
+
+    private final Map<String, CompletableFuture<Message>> pending = new ConcurrentHashMap<>();
+    // slobodne sesije za slanje; JMS sesiju sme da koristi samo jedna nit u isto vreme
+    private final Queue<Producer> producers = new ConcurrentLinkedQueue<>();
+
+    private volatile Connection connection;
+    private Session session;
+    private volatile TemporaryQueue replyQueue;
+
+    public JmsRpcClient(ConnectionFactory connectionFactory, MessageHelper messageHelper, Duration timeout) {
+        this.connectionFactory = connectionFactory;
+        this.messageHelper = messageHelper;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Salje zahtev i vraca odgovor parsiran u {@code type}, sa podrazumevanim vremenom cekanja.
+     */
+    public <T> CompletableFuture<T> request(String destination, Object payload, Class<T> type) {
+        return send(destination, payload, timeout).thenApply(message -> {
+            try {
+                return messageHelper.getMessage(message, type);
+            } catch (JMSException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Sinhrona varijanta {@link #request}: ceka odgovor na niti pozivaoca.
+     */
+    public <T> T call(String destination, Object payload, Class<T> type) {
+        try {
+            return request(destination, payload, type).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new RuntimeException("JMS zahtev ka " + destination + " nije uspeo.", e.getCause());
+        }
+    }
+
+    /**
+     * Salje zahtev na {@code destination} i vraca odgovor kakav je stigao. Ako odgovor ne stigne za {@code timeout},
+     * rezultat se zavrsava sa {@link java.util.concurrent.TimeoutException}, a kasniji odgovor se odbacuje.
+     */
+    public CompletableFuture<Message> send(String destination, Object payload, Duration timeout) {
+        String correlationId = UUID.randomUUID().toString();
+        CompletableFuture<Message> future = new CompletableFuture<>();
+        // upisuje se pre slanja, da odgovor ne bi stigao pre nego sto ga neko ceka
+        pending.put(correlationId, future);
+        future.whenComplete((message, error) -> pending.remove(correlationId));
+
+        try {
+            Destination replyTo = replyQueue();
+            Producer producer = borrowProducer();
+            try {
+                Message message = messageHelper.createMessage(producer.session(), destination, payload);
+                message.setJMSCorrelationID(correlationId);
+                message.setJMSReplyTo(replyTo);
+                producer.producer().send(producer.session().createQueue(destination), message);
+            } catch (JMSException | RuntimeException e) {
+                closeQuietly(producer.session());
+                throw e;
+            }
+            producers.offer(producer);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        String correlationId;
+        try {
+            correlationId = message.getJMSCorrelationID();
+        } catch (JMSException e) {
+            log.warn("JmsRpcClient: odgovor bez ID-ja korelacije: {}", e.getMessage());
+            return;
+        }
+
+        CompletableFuture<Message> future = correlationId == null ? null : pending.get(correlationId);
+        if (future == null) {
+            log.debug("JmsRpcClient: odbacen odgovor {} (isteklo vreme ili nepoznat zahtev)", correlationId);
+            return;
+        }
+        future.complete(message);
+    }
+
+    /**
+     * Konekcija je pukla, a privremeni red je nestao sa njom. Zahtevi koji cekaju se obaraju,
+     * a sledeci zahtev otvara novu konekciju i novi red.
+     */
+    @Override
+    public void onException(JMSException exception) {
+        log.warn("JmsRpcClient: konekcija je prekinuta: {}", exception.getMessage());
+        synchronized (this) {
+            closeConnection();
+        }
+        pending.values().forEach(future -> future.completeExceptionally(exception));
+    }
+
+    /**
+     * Za listener-e koji odgovaraju preko {@link JmsTemplate#convertAndSend}: prepisuje ID korelacije iz zahteva u odgovor,
+     * kao {@link MessageHelper#createReply}. Pozivaocima preko {@link JmsTemplate#sendAndReceive} ID ne smeta.
+     */
+    public static MessagePostProcessor reply(Message request) {
+        return message -> {
+            MessageHelper.copyCorrelationId(request, message);
+            return message;
+        };
+    }
+
+    private Destination replyQueue() throws JMSException {
+        TemporaryQueue queue = replyQueue;
+        if (queue != null)
+            return queue;
+
+        synchronized (this) {
+            if (replyQueue == null) {
+                try {
+                    connection = connectionFactory.createConnection();
+                    connection.setExceptionListener(this);
+                    session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                    TemporaryQueue created = session.createTemporaryQueue();
+                    session.createConsumer(created).setMessageListener(this);
+                    connection.start();
+                    replyQueue = created;
+                } catch (JMSException e) {
+                    closeConnection();
+                    throw e;
+                }
+            }
+            return replyQueue;
+        }
+    }
+
+    private Producer borrowProducer() throws JMSException {
+        Producer producer;
+        while ((producer = producers.poll()) != null) {
+            if (producer.connection() == connection)
+                return producer;
+            // ostala sa konekcije koja je u medjuvremenu zatvorena
+            closeQuietly(producer.session());
+        }
+
+        Connection current;
+        Session producerSession;
+        synchronized (this) {
+            current = connection;
+            if (current == null)
+                throw new IllegalStateException("JmsRpcClient: konekcija nije otvorena");
+            producerSession = current.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+        return new Producer(current, producerSession, producerSession.createProducer(null));
+    }
+
+    private static void closeQuietly(Session session) {
+        try {
+            session.close();
+        } catch (JMSException e) {
+            log.debug("JmsRpcClient: zatvaranje sesije: {}", e.getMessage());
+        }
+    }
+
+    private void closeConnection() {
+        replyQueue = null;
+        Producer producer;
+        while ((producer = producers.poll()) != null)
+            closeQuietly(producer.session());
+        try {
+            if (session != null)
+                session.close();
+            if (connection != null)
+                connection.close();
+        } catch (JMSException e) {
+            log.debug("JmsRpcClient: zatvaranje konekcije: {}", e.getMessage());
+        }
+        session = null;
+        connection = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeConnection();
+        pending.values().forEach(future -> future.cancel(false));
+    }
+}
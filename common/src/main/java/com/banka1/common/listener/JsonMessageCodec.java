@@ -0,0 +1,47 @@
+package com.banka1.common.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON u {@link TextMessage}. Cita i JSON poslat kao {@link BytesMessage}, kao ranije.
+ */
+public class JsonMessageCodec extends JacksonMessageCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    public JsonMessageCodec(ObjectMapper mapper) {
+        super(mapper);
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    public String writeString(Object payload) throws JsonProcessingException {
+        return writer(payload).writeValueAsString(payload);
+    }
+
+    @Override
+    public Message write(Session session, Object payload) throws JMSException {
+        try {
+            TextMessage message = session.createTextMessage(writeString(payload));
+            message.setStringProperty(MessageHelper.CONTENT_TYPE_PROPERTY, CONTENT_TYPE);
+            return message;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Problem with creating text message", e);
+        }
+    }
+
+    @Override
+    public <T> T read(Message message, Class<T> type) throws JMSException, IOException {
+        if (message instanceof BytesMessage bytes)
+            return reader(type).readValue(new String(bytes.getBody(byte[].class), StandardCharsets.UTF_8));
+        return reader(type).readValue(((TextMessage) message).getText());
+    }
+}
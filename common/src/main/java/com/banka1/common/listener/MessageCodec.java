@@ -0,0 +1,20 @@
+package com.banka1.common.listener;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+import java.io.IOException;
+
+/**
+ * Format tela JMS poruke. Poruka koju codec napravi nosi {@link MessageHelper#CONTENT_TYPE_PROPERTY},
+ * po kom {@link MessageHelper} na prijemu bira codec.
+ */
+public interface MessageCodec {
+
+    String contentType();
+
+    Message write(Session session, Object payload) throws JMSException;
+
+    <T> T read(Message message, Class<T> type) throws JMSException, IOException;
+}
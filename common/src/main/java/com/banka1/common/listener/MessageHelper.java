@@ -2,57 +2,152 @@ package com.banka1.common.listener;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.jms.BytesMessage;
-import jakarta.jms.JMSException;
-import jakarta.jms.Message;
-import jakarta.jms.TextMessage;
+import jakarta.jms.*;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
-import lombok.RequiredArgsConstructor;
+import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Pravljenje i citanje JMS poruka.
+ * <p>
+ * Format tela bira {@link MessageCodec}: JSON ({@link JsonMessageCodec}) ili binarni Smile ({@link SmileMessageCodec}).
+ * Na prijemu se format cita iz svojstva {@link #CONTENT_TYPE_PROPERTY}; poruke bez njega (stari posiljaoci, trading-service)
+ * su JSON. Zato se servisi mogu nadogradjivati jedan po jedan:
+ * <ul>
+ *     <li>zahtev ({@link #createMessage}) je binaran samo za odredista navedena u {@code binaryDestinations}, sto se
+ *     ukljucuje tek kada je primalac nadogradjen, a uvek nosi {@link #ACCEPT_PROPERTY} sa formatima koje posiljalac cita;</li>
+ *     <li>odgovor ({@link #createReply}) je binaran samo ako ga je zahtev naveo u {@link #ACCEPT_PROPERTY}.</li>
+ * </ul>
+ * Bean validacija primljene poruke radi se samo za odredista iz {@code validatedDestinations}. Konstruktor bez tih
+ * skupova zadrzava staro ponasanje: samo JSON i validacija svake poruke.
+ */
 @Component
-@RequiredArgsConstructor
 public class MessageHelper {
 
+    public static final String CONTENT_TYPE_PROPERTY = "contentType";
+    public static final String ACCEPT_PROPERTY = "accept";
+
+    private static final String ACCEPT = SmileMessageCodec.CONTENT_TYPE + "," + JsonMessageCodec.CONTENT_TYPE;
+
     private final Validator validator;
     private final ObjectMapper objectMapper;
+    private final JsonMessageCodec json;
+    private final Set<String> binaryDestinations;
+    // null znaci da se validira svaka poruka
+    private final Set<String> validatedDestinations;
+    private volatile SmileMessageCodec smile;
 
-    public <T> T getMessage(Message message, Class<T> clazz) throws RuntimeException, JMSException {
-        try {
-            String json;
-            if (message instanceof BytesMessage msg)
-                json = new String(msg.getBody(byte[].class), StandardCharsets.UTF_8);
-            else
-                json = ((TextMessage) message).getText();
-
-            T data = objectMapper.readValue(json, clazz);
+    public MessageHelper(Validator validator, ObjectMapper objectMapper) {
+        this(validator, objectMapper, Set.of(), null);
+    }
 
-            Set<ConstraintViolation<T>> violations = validator.validate(data);
-            if (violations.isEmpty()) {
-                return data;
-            }
+    public MessageHelper(Validator validator, ObjectMapper objectMapper, Set<String> binaryDestinations, Set<String> validatedDestinations) {
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.json = new JsonMessageCodec(objectMapper);
+        this.binaryDestinations = Set.copyOf(binaryDestinations);
+        this.validatedDestinations = validatedDestinations == null ? null : Set.copyOf(validatedDestinations);
+    }
 
-            printViolationsAndThrowException(violations);
-            return null;
+    public <T> T getMessage(Message message, Class<T> clazz) throws RuntimeException, JMSException {
+        T data;
+        try {
+            data = codecFor(message).read(message, clazz);
         } catch (IOException exception) {
             throw new RuntimeException("Message parsing fails.", exception);
         }
+
+        if (data == null || !shouldValidate(message))
+            return data;
+
+        Set<ConstraintViolation<T>> violations = validator.validate(data);
+        if (violations.isEmpty()) {
+            return data;
+        }
+
+        printViolationsAndThrowException(violations);
+        return null;
     }
 
     public String createTextMessage(Object object) {
         try {
-            return objectMapper.writeValueAsString(object);
+            return json.writeString(object);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Problem with creating text message");
         }
     }
 
+    /**
+     * Poruka za {@code destination} u formatu podesenom za to odrediste, sa {@link #ACCEPT_PROPERTY}
+     * da bi primalac mogao da odgovori binarno.
+     */
+    public Message createMessage(Session session, String destination, Object payload) throws JMSException {
+        MessageCodec codec = binaryDestinations.contains(destination) ? smile() : json;
+        Message message = codec.write(session, payload);
+        message.setStringProperty(ACCEPT_PROPERTY, ACCEPT);
+        return message;
+    }
+
+    /**
+     * Odgovor na {@code request}: binaran ako ga posiljalac zahteva cita, sa ID-jem korelacije iz zahteva.
+     */
+    public Message createReply(Session session, Message request, Object payload) throws JMSException {
+        String accept = request.getStringProperty(ACCEPT_PROPERTY);
+        MessageCodec codec = accept != null && accept.contains(SmileMessageCodec.CONTENT_TYPE) ? smile() : json;
+        Message reply = codec.write(session, payload);
+        copyCorrelationId(request, reply);
+        return reply;
+    }
+
+    /**
+     * Salje {@link #createReply} na {@code JMSReplyTo} zahteva.
+     */
+    public void sendReply(JmsTemplate jmsTemplate, Message request, Object payload) throws JMSException {
+        jmsTemplate.send(request.getJMSReplyTo(), session -> createReply(session, request, payload));
+    }
+
+    /**
+     * Prepisuje ID korelacije iz zahteva u odgovor, a ako ga zahtev nema, koristi {@code JMSMessageID} zahteva
+     * (uobicajena JMS konvencija).
+     */
+    static void copyCorrelationId(Message request, Message reply) throws JMSException {
+        String correlationId = request.getJMSCorrelationID();
+        reply.setJMSCorrelationID(correlationId != null ? correlationId : request.getJMSMessageID());
+    }
+
+    private MessageCodec codecFor(Message message) throws JMSException {
+        return SmileMessageCodec.CONTENT_TYPE.equals(message.getStringProperty(CONTENT_TYPE_PROPERTY)) ? smile() : json;
+    }
+
+    private SmileMessageCodec smile() {
+        SmileMessageCodec codec = smile;
+        if (codec == null) {
+            // pravi se tek kada zatreba, servis koji ne koristi Smile ne kopira ObjectMapper
+            codec = new SmileMessageCodec(objectMapper);
+            smile = codec;
+        }
+        return codec;
+    }
+
+    private boolean shouldValidate(Message message) throws JMSException {
+        if (validatedDestinations == null)
+            return true;
+        if (validatedDestinations.isEmpty())
+            return false;
+
+        Destination destination = message.getJMSDestination();
+        if (destination instanceof Queue queue)
+            return validatedDestinations.contains(queue.getQueueName());
+        if (destination instanceof Topic topic)
+            return validatedDestinations.contains(topic.getTopicName());
+        return false;
+    }
+
     private <T> void printViolationsAndThrowException(Set<ConstraintViolation<T>> violations) {
         String concatenatedViolations = violations.stream()
                 .map(ConstraintViolation::getMessage)
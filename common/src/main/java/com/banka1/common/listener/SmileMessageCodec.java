@@ -0,0 +1,47 @@
+package com.banka1.common.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+import java.io.IOException;
+
+/**
+ * Binarni JSON (Smile) u {@link BytesMessage}. Isti model podataka kao JSON, pa DTO-i ne moraju da se menjaju,
+ * ali bez parsiranja teksta i sa ponovo koriscenim imenima polja, sto liste (npr. korisnika) dosta smanjuje.
+ * Koristi konfiguraciju (module, datume) {@link ObjectMapper}-a servisa.
+ */
+public class SmileMessageCodec extends JacksonMessageCodec {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    public SmileMessageCodec(ObjectMapper jsonMapper) {
+        super(jsonMapper.copyWith(new SmileFactory()));
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public Message write(Session session, Object payload) throws JMSException {
+        try {
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(writer(payload).writeValueAsBytes(payload));
+            message.setStringProperty(MessageHelper.CONTENT_TYPE_PROPERTY, CONTENT_TYPE);
+            return message;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Problem with creating bytes message", e);
+        }
+    }
+
+    @Override
+    public <T> T read(Message message, Class<T> type) throws JMSException, IOException {
+        return reader(type).readValue(((BytesMessage) message).getBody(byte[].class));
+    }
+}
@@ -0,0 +1,69 @@
+package com.banka1.common.listener;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link DefaultJmsListenerContainerFactory} koji svakom kontejneru primenjuje podesavanja njegovog odredista
+ * iz {@link JmsListenerProperties}: broj potrosaca, prefetch (ActiveMQ opcija {@code consumer.prefetchSize} na odredistu),
+ * potvrdu u grupama ({@link BatchCommitMessageListenerContainer}) i vrstu izvrsioca.
+ */
+public class TunedJmsListenerContainerFactory extends DefaultJmsListenerContainerFactory implements DisposableBean {
+
+    private final JmsListenerProperties properties;
+    private final List<ThreadPoolTaskExecutor> executors = new CopyOnWriteArrayList<>();
+
+    public TunedJmsListenerContainerFactory(JmsListenerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected DefaultMessageListenerContainer createContainerInstance() {
+        return new BatchCommitMessageListenerContainer();
+    }
+
+    @Override
+    public DefaultMessageListenerContainer createListenerContainer(JmsListenerEndpoint endpoint) {
+        DefaultMessageListenerContainer container = super.createListenerContainer(endpoint);
+        String destination = container.getDestinationName();
+        JmsListenerProperties.Destination settings = destination == null ? null : properties.getDestinations().get(destination);
+        if (settings != null)
+            apply((BatchCommitMessageListenerContainer) container, destination, settings);
+        return container;
+    }
+
+    private void apply(BatchCommitMessageListenerContainer container, String destination, JmsListenerProperties.Destination settings) {
+        if (settings.getConcurrency() != null)
+            container.setConcurrency(settings.getConcurrency());
+
+        if (settings.getBatchSize() > 1) {
+            container.setSessionTransacted(true);
+            container.setBatchSize(settings.getBatchSize());
+        }
+
+        if (settings.getExecutor() == JmsListenerProperties.ExecutorType.POOLED) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(container.getMaxConcurrentConsumers());
+            executor.setMaxPoolSize(container.getMaxConcurrentConsumers());
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setThreadNamePrefix("jms-" + destination + "-");
+            executor.initialize();
+            executors.add(executor);
+            container.setTaskExecutor(executor);
+        }
+
+        if (settings.getPrefetch() != null)
+            container.setDestinationName(destination + "?consumer.prefetchSize=" + settings.getPrefetch());
+    }
+
+    @Override
+    public void destroy() {
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
@@ -1,15 +1,20 @@
 package com.banka1.notification.listener;
 
 
+import com.banka1.common.listener.JsonMessageCodec;
 import com.banka1.common.listener.MessageHelper;
+import com.banka1.common.listener.SmileMessageCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -17,8 +22,8 @@ import java.util.Collections;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MessageHelperTest {
@@ -26,13 +31,11 @@ class MessageHelperTest {
     @Mock
     private Validator validator;
 
-    @Mock
-    private ObjectMapper objectMapper;
-
     @Mock
     private TextMessage message;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private MessageHelper messageHelper;
 
     private static class TestMessage {
@@ -47,12 +50,9 @@ class MessageHelperTest {
     @Test
     void getMessage_ShouldReturnValidObject_WhenNoValidationErrors() throws Exception {
         String json = "{\"field\":\"value\"}";
-        TestMessage testMessage = new TestMessage();
-        testMessage.field = "value";
 
         when(message.getText()).thenReturn(json);
-        when(objectMapper.readValue(json, TestMessage.class)).thenReturn(testMessage);
-        when(validator.validate(testMessage)).thenReturn(Collections.emptySet());
+        when(validator.validate(any(TestMessage.class))).thenReturn(Collections.emptySet());
 
         TestMessage result = messageHelper.getMessage(message, TestMessage.class);
 
@@ -63,8 +63,6 @@ class MessageHelperTest {
     @Test
     void getMessage_ShouldThrowException_WhenValidationFails() throws Exception {
         String json = "{\"field\":\"value\"}";
-        TestMessage testMessage = new TestMessage();
-        testMessage.field = "value";
 
         @SuppressWarnings("unchecked")
         ConstraintViolation<TestMessage> violation = mock(ConstraintViolation.class);
@@ -72,8 +70,7 @@ class MessageHelperTest {
         Set<ConstraintViolation<TestMessage>> violations = Set.of(violation);
 
         when(message.getText()).thenReturn(json);
-        when(objectMapper.readValue(json, TestMessage.class)).thenReturn(testMessage);
-        when(validator.validate(testMessage)).thenReturn(violations);
+        when(validator.validate(any(TestMessage.class))).thenReturn(violations);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
                 messageHelper.getMessage(message, TestMessage.class));
@@ -85,10 +82,53 @@ class MessageHelperTest {
         String invalidJson = "invalid_json";
 
         when(message.getText()).thenReturn(invalidJson);
-        when(objectMapper.readValue(invalidJson, TestMessage.class)).thenThrow(new RuntimeException("Parsing error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
                 messageHelper.getMessage(message, TestMessage.class));
-        assertEquals("Parsing error", exception.getMessage());
+        assertEquals("Message parsing fails.", exception.getMessage());
+    }
+
+    @Test
+    void getMessage_ShouldSkipValidation_WhenDestinationIsNotListed() throws Exception {
+        messageHelper = new MessageHelper(validator, objectMapper, Set.of(), Set.of());
+        when(message.getText()).thenReturn("{\"field\":\"value\"}");
+
+        assertEquals("value", messageHelper.getMessage(message, TestMessage.class).field);
+        verifyNoInteractions(validator);
+    }
+
+    @Test
+    void createMessage_ShouldRoundTripSmile_ForBinaryDestination() throws Exception {
+        messageHelper = new MessageHelper(validator, objectMapper, Set.of("send-email"), Set.of());
+        Session session = mock(Session.class);
+        BytesMessage sent = mock(BytesMessage.class);
+        when(session.createBytesMessage()).thenReturn(sent);
+        TestMessage payload = new TestMessage();
+        payload.field = "value";
+
+        messageHelper.createMessage(session, "send-email", payload);
+
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(sent).writeBytes(body.capture());
+        verify(sent).setStringProperty(MessageHelper.CONTENT_TYPE_PROPERTY, SmileMessageCodec.CONTENT_TYPE);
+
+        BytesMessage received = mock(BytesMessage.class);
+        when(received.getStringProperty(MessageHelper.CONTENT_TYPE_PROPERTY)).thenReturn(SmileMessageCodec.CONTENT_TYPE);
+        when(received.getBody(byte[].class)).thenReturn(body.getValue());
+        assertEquals("value", messageHelper.getMessage(received, TestMessage.class).field);
+    }
+
+    @Test
+    void createReply_ShouldAnswerInJson_WhenRequestDoesNotAcceptSmile() throws Exception {
+        Session session = mock(Session.class);
+        TextMessage reply = mock(TextMessage.class);
+        when(session.createTextMessage("\"null\"")).thenReturn(reply);
+        Message request = mock(Message.class);
+        when(request.getJMSCorrelationID()).thenReturn("abc");
+
+        assertSame(reply, messageHelper.createReply(session, request, "null"));
+        verify(reply).setStringProperty(MessageHelper.CONTENT_TYPE_PROPERTY, JsonMessageCodec.CONTENT_TYPE);
+        verify(reply).setJMSCorrelationID("abc");
+        verify(session, never()).createBytesMessage();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.banka1.notification.listener;
+
+import com.banka1.common.listener.BatchCommitMessageListenerContainer;
+import com.banka1.common.listener.JmsListenerProperties;
+import com.banka1.common.listener.TunedJmsListenerContainerFactory;
+import jakarta.jms.MessageListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TunedJmsListenerContainerFactoryTest {
+
+    private TunedJmsListenerContainerFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        JmsListenerProperties.Destination email = new JmsListenerProperties.Destination();
+        email.setConcurrency("5-20");
+        email.setPrefetch(50);
+        email.setBatchSize(20);
+
+        JmsListenerProperties.Destination order = new JmsListenerProperties.Destination();
+        order.setConcurrency("10-20");
+        order.setExecutor(JmsListenerProperties.ExecutorType.POOLED);
+
+        JmsListenerProperties properties = new JmsListenerProperties();
+        properties.getDestinations().put("send-email", email);
+        properties.getDestinations().put("order-init", order);
+        factory = new TunedJmsListenerContainerFactory(properties);
+    }
+
+    @Test
+    void testConfiguredDestination() {
+        DefaultMessageListenerContainer container = factory.createListenerContainer(endpoint("send-email"));
+
+        assertInstanceOf(BatchCommitMessageListenerContainer.class, container);
+        assertEquals("send-email?consumer.prefetchSize=50", container.getDestinationName());
+        assertEquals(20, container.getMaxConcurrentConsumers());
+        assertTrue(container.isSessionTransacted());
+        assertEquals(20, ((BatchCommitMessageListenerContainer) container).getBatchSize());
+    }
+
+    @Test
+    void testPooledExecutorKeepsDestinationName() {
+        DefaultMessageListenerContainer container = factory.createListenerContainer(endpoint("order-init"));
+
+        assertEquals("order-init", container.getDestinationName());
+        assertEquals(10, container.getConcurrentConsumers());
+        assertEquals(1, ((BatchCommitMessageListenerContainer) container).getBatchSize());
+        factory.destroy();
+    }
+
+    @Test
+    void testUnconfiguredDestinationKeepsAnnotationSettings() {
+        DefaultMessageListenerContainer container = factory.createListenerContainer(endpoint("get-employee-legal"));
+
+        assertEquals("get-employee-legal", container.getDestinationName());
+        assertEquals(5, container.getConcurrentConsumers());
+        assertEquals(10, container.getMaxConcurrentConsumers());
+        assertEquals(1, ((BatchCommitMessageListenerContainer) container).getBatchSize());
+    }
+
+    private static SimpleJmsListenerEndpoint endpoint(String destination) {
+        SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+        endpoint.setId(destination);
+        endpoint.setDestination(destination);
+        endpoint.setConcurrency("5-10");
+        endpoint.setMessageListener((MessageListener) message -> { });
+        return endpoint;
+    }
+}
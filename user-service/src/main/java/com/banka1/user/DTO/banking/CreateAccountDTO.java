@@ -22,10 +22,10 @@ public class CreateAccountDTO {
     private AccountSubtype subtype;
 
     @NotNull(message = "Izaberi dnevni limit za potrosnju sredstava sa racuna")
-    private Double dailyLimit;
+    private Long dailyLimit;
 
     @NotNull(message = "Izaberi mesecni limit za potrosnju sredstava sa racuna")
-    private Double monthlyLimit;
+    private Long monthlyLimit;
 
     @NotNull(message = "Izaberi status racuna")
     private AccountStatus status;
@@ -33,7 +33,7 @@ public class CreateAccountDTO {
     @NotNull(message = "Izaberi da li da se kreiraju kartice za racun")
     private Boolean createCard;
 
-    private Double balance;
+    private Long balance;
 
     private CreateCompanyDTO companyData;
 
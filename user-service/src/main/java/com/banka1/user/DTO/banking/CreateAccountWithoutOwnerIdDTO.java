@@ -19,10 +19,10 @@ public class CreateAccountWithoutOwnerIdDTO {
     private AccountSubtype subtype;
 
     @NotNull(message = "Izaberi dnevni limit za potrosnju sredstava sa racuna")
-    private Double dailyLimit;
+    private Long dailyLimit;
 
     @NotNull(message = "Izaberi mesecni limit za potrosnju sredstava sa racuna")
-    private Double monthlyLimit;
+    private Long monthlyLimit;
 
     @NotNull(message = "Izaberi status racuna")
     private AccountStatus status;
@@ -30,7 +30,7 @@ public class CreateAccountWithoutOwnerIdDTO {
     @NotNull(message = "Izaberi da li da se kreiraju kartice za racun")
     private Boolean createCard;
 
-    private Double balance;
+    private Long balance;
 
     private CreateCompanyDTO companyData;
 }
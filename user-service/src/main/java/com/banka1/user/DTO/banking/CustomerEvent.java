@@ -0,0 +1,21 @@
+package com.banka1.user.DTO.banking;
+
+import com.banka1.user.DTO.response.CustomerResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Promena korisnika koja se objavljuje na {@code destination.customer.events} topic.
+ * Za {@link Type#DELETED} je {@code customer} {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerEvent {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private Type type;
+    private Long id;
+    private CustomerResponse customer;
+}
@@ -0,0 +1,19 @@
+package com.banka1.user.config;
+
+import com.banka1.common.listener.JmsRpcClient;
+import com.banka1.common.listener.MessageHelper;
+import jakarta.jms.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class JmsRpcClientConfig {
+    @Bean(destroyMethod = "close")
+    public JmsRpcClient jmsRpcClient(ConnectionFactory connectionFactory, MessageHelper messageHelper,
+                                     @Value("${jms.rpc.timeout-ms:10000}") long timeoutMs) {
+        return new JmsRpcClient(connectionFactory, messageHelper, Duration.ofMillis(timeoutMs));
+    }
+}
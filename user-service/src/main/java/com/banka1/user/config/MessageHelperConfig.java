@@ -3,13 +3,18 @@ package com.banka1.user.config;
 import com.banka1.common.listener.MessageHelper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Set;
+
 @Configuration
 public class MessageHelperConfig {
     @Bean
-    public MessageHelper messageHelper(Validator validator, ObjectMapper objectMapper) {
-        return new MessageHelper(validator, objectMapper);
+    public MessageHelper messageHelper(Validator validator, ObjectMapper objectMapper,
+                                       @Value("${messaging.binary-destinations:}") Set<String> binaryDestinations,
+                                       @Value("${messaging.validated-destinations:}") Set<String> validatedDestinations) {
+        return new MessageHelper(validator, objectMapper, binaryDestinations, validatedDestinations);
     }
 }
@@ -11,6 +11,9 @@ import org.springframework.jms.annotation.JmsListener;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -29,7 +32,7 @@ public class CustomerListener {
         } catch (Exception e) {
             log.error("CustomerListener: ", e);
         }
-        jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage(customer));
+        messageHelper.sendReply(jmsTemplate, message, customer);
     }
 
     @JmsListener(destination = "${destination.customer.email}", concurrency = "5-10")
@@ -42,7 +45,41 @@ public class CustomerListener {
         } catch (Exception e) {
             log.error("CustomerListener (by email): ", e);
         }
-        jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage(customer));
+        messageHelper.sendReply(jmsTemplate, message, customer);
+    }
+
+    /**
+     * Vise korisnika jednim zahtevom: prima niz ID-jeva i vraca listu pronadjenih korisnika.
+     * Korisnici koji ne postoje se izostavljaju, pa pozivalac odgovor uparuje po {@code id}.
+     */
+    @JmsListener(destination = "${destination.customer.bulk}", concurrency = "5-10")
+    public void onGetCustomersByIdsMessage(Message message) throws JMSException {
+        var ids = messageHelper.getMessage(message, Long[].class);
+        List<CustomerResponse> customers = List.of();
+        try {
+            if (ids != null && ids.length > 0)
+                customers = customerService.findAllByIds(Arrays.asList(ids));
+        } catch (Exception e) {
+            log.error("CustomerListener (by ids): ", e);
+        }
+        messageHelper.sendReply(jmsTemplate, message, customers);
+    }
+
+    /**
+     * Jedan deo celog imenika: prima poslednji primljeni ID i vraca sledece korisnike po redu ID-ja.
+     * Prazna lista znaci da je imenik procitan do kraja.
+     */
+    @JmsListener(destination = "${destination.customer.snapshot}", concurrency = "1-2")
+    public void onGetCustomerSnapshotMessage(Message message) throws JMSException {
+        var afterId = messageHelper.getMessage(message, Long.class);
+        // null (a ne prazna lista) javlja gresku, da pozivalac ne bi zakljucio da je imenik procitan
+        List<CustomerResponse> customers = null;
+        try {
+            customers = customerService.findPageAfter(afterId == null ? 0 : afterId);
+        } catch (Exception e) {
+            log.error("CustomerListener (snapshot): ", e);
+        }
+        messageHelper.sendReply(jmsTemplate, message, customers);
     }
 
 }
@@ -27,6 +27,6 @@ public class EmployeeListener {
         } catch (Exception e) {
             log.error("EmployeeListener: ", e);
         }
-        jmsTemplate.convertAndSend(message.getJMSReplyTo(), messageHelper.createTextMessage(employee));
+        messageHelper.sendReply(jmsTemplate, message, employee);
     }
 }
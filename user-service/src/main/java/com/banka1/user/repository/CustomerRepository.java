@@ -4,10 +4,13 @@ import com.banka1.user.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
 
+    List<Customer> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
+
 }
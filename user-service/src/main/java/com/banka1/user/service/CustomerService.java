@@ -1,10 +1,12 @@
 package com.banka1.user.service;
 
 
+import com.banka1.common.listener.JmsRpcClient;
 import com.banka1.common.listener.MessageHelper;
 import com.banka1.common.model.Permission;
 import com.banka1.user.DTO.banking.CreateAccountByEmployeeDTO;
 import com.banka1.user.DTO.banking.CreateAccountDTO;
+import com.banka1.user.DTO.banking.CustomerEvent;
 import com.banka1.user.DTO.request.CreateCustomerRequest;
 import com.banka1.user.DTO.request.NotificationRequest;
 import com.banka1.user.DTO.request.UpdateCustomerRequest;
@@ -15,6 +17,7 @@ import com.banka1.user.model.Customer;
 import com.banka1.user.model.helper.Gender;
 import com.banka1.user.repository.CustomerRepository;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.jms.MessageProducer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +27,7 @@ import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,11 +43,14 @@ public class CustomerService {
     private final SetPasswordService setPasswordService;
     private final JmsTemplate jmsTemplate;
     private final MessageHelper messageHelper;
+    private final JmsRpcClient jmsRpcClient;
 
     @Value("${destination.email}")
     private String destinationEmail;
     @Value("${destination.account}")
     private String destinationAccount;
+    @Value("${destination.customer.events}")
+    private String destinationCustomerEvents;
     @Value("${frontend.url}")
     private String frontendUrl;
 
@@ -59,6 +66,22 @@ public class CustomerService {
         return CustomerMapper.customerToDto(customer);
     }
 
+    public List<CustomerResponse> findAllByIds(Collection<Long> ids) {
+        return customerRepository.findAllById(ids).stream()
+                .map(CustomerMapper::customerToDto)
+                .toList();
+    }
+
+    /**
+     * Najvise 500 korisnika sa ID-jem vecim od {@code afterId}, poredjanih po ID-ju.
+     * Koristi se za ucitavanje celog imenika po delovima (banking-service).
+     */
+    public List<CustomerResponse> findPageAfter(long afterId) {
+        return customerRepository.findTop500ByIdGreaterThanOrderByIdAsc(afterId).stream()
+                .map(CustomerMapper::customerToDto)
+                .toList();
+    }
+
     public CustomerResponse findByEmail(String email) {
         var customerOptional = customerRepository.findByEmail(email);
         if(customerOptional.isEmpty())
@@ -141,9 +164,7 @@ public class CustomerService {
             setPasswordService.saveSetPasswordRequest(verificationCode, customer.getId(), true);
 
             var dto = new CreateAccountByEmployeeDTO(new CreateAccountDTO(customerDTO.getAccountInfo(), customer.getId()), employeeId);
-            var message = jmsTemplate.sendAndReceive(destinationAccount, session -> session.createTextMessage(messageHelper.createTextMessage(dto)));
-
-            var error = messageHelper.getMessage(message, String.class);
+            var error = jmsRpcClient.call(destinationAccount, dto, String.class);
             if (error != null && !error.equals("null"))
                 throw new RuntimeException(error);
         } catch (Exception e) {
@@ -153,6 +174,7 @@ public class CustomerService {
         }
 
         jmsTemplate.convertAndSend(destinationEmail, messageHelper.createTextMessage(emailDTO));
+        publishEvent(CustomerEvent.Type.CREATED, customer);
         return customer;
     }
 
@@ -191,7 +213,9 @@ public class CustomerService {
 
             System.out.println("Verification code: " + verificationCode);
 
-            return customerRepository.save(customer);
+            Customer saved = customerRepository.save(customer);
+            publishEvent(CustomerEvent.Type.UPDATED, saved);
+            return saved;
         });
     }
 
@@ -208,6 +232,7 @@ public class CustomerService {
         }
 
         customerRepository.delete(customer.get());
+        publishEvent(CustomerEvent.Type.DELETED, customer.get());
         return true;
     }
 
@@ -224,7 +249,27 @@ public class CustomerService {
 
         return customerRepository.findById(id).map(customer -> {
             customer.setPermissions(permissions);
-            return customerRepository.save(customer);
+            Customer saved = customerRepository.save(customer);
+            publishEvent(CustomerEvent.Type.UPDATED, saved);
+            return saved;
         });
     }
+
+    /**
+     * Objavljuje promenu korisnika na topic, da bi servisi koji drze lokalnu kopiju imenika (banking-service) mogli da je osveze.
+     * Greska pri slanju ne obara operaciju; propustene promene se nadoknade periodicnim ponovnim ucitavanjem na drugoj strani.
+     */
+    private void publishEvent(CustomerEvent.Type type, Customer customer) {
+        try {
+            var event = new CustomerEvent(type, customer.getId(), type == CustomerEvent.Type.DELETED ? null : CustomerMapper.customerToDto(customer));
+            jmsTemplate.execute(session -> {
+                try (MessageProducer producer = session.createProducer(session.createTopic(destinationCustomerEvents))) {
+                    producer.send(messageHelper.createMessage(session, destinationCustomerEvents, event));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Objavljivanje promene korisnika {} nije uspelo: ", customer.getId(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -71,8 +71,8 @@ class CustomerControllerTest {
         createAccountDTO.setCurrency(CurrencyType.RSD);
         createAccountDTO.setType(AccountType.CURRENT);
         createAccountDTO.setSubtype(AccountSubtype.PERSONAL);
-        createAccountDTO.setDailyLimit(0.0);
-        createAccountDTO.setMonthlyLimit(0.0);
+        createAccountDTO.setDailyLimit(0L);
+        createAccountDTO.setMonthlyLimit(0L);
         createAccountDTO.setStatus(AccountStatus.ACTIVE);
         createAccountDTO.setCreateCard(true);
         var customerDTO = new CreateCustomerRequest(
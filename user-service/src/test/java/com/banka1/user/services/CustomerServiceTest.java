@@ -1,8 +1,10 @@
 package com.banka1.user.services;
 
+import com.banka1.common.listener.JmsRpcClient;
 import com.banka1.common.listener.MessageHelper;
 import com.banka1.common.model.Permission;
 import com.banka1.user.DTO.banking.CreateAccountWithoutOwnerIdDTO;
+import com.banka1.user.DTO.banking.CustomerEvent;
 import com.banka1.user.DTO.banking.helper.AccountStatus;
 import com.banka1.user.DTO.banking.helper.AccountSubtype;
 import com.banka1.user.DTO.banking.helper.AccountType;
@@ -16,8 +18,11 @@ import com.banka1.user.model.helper.Gender;
 import com.banka1.user.repository.CustomerRepository;
 import com.banka1.user.service.CustomerService;
 import com.banka1.user.service.SetPasswordService;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -27,6 +32,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.SessionCallback;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.util.AssertionErrors;
 import org.springframework.web.server.ResponseStatusException;
@@ -53,6 +59,9 @@ public class CustomerServiceTest {
     @Mock
     private JmsTemplate jmsTemplate;
 
+    @Mock
+    private JmsRpcClient jmsRpcClient;
+
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -65,8 +74,8 @@ public class CustomerServiceTest {
         createAccountDTO.setCurrency(CurrencyType.RSD);
         createAccountDTO.setType(AccountType.CURRENT);
         createAccountDTO.setSubtype(AccountSubtype.PERSONAL);
-        createAccountDTO.setDailyLimit(0.0);
-        createAccountDTO.setMonthlyLimit(0.0);
+        createAccountDTO.setDailyLimit(0L);
+        createAccountDTO.setMonthlyLimit(0L);
         createAccountDTO.setStatus(AccountStatus.ACTIVE);
 
         var customerDTO = new CreateCustomerRequest();
@@ -134,6 +143,25 @@ public class CustomerServiceTest {
         verify(customerRepository, times(1)).delete(customer);
     }
 
+    @Test
+    void testDeleteCustomerPublishesEvent() throws Exception {
+        Customer customer = new Customer();
+        customer.setId(1L);
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        customerService.deleteCustomer(1L);
+
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(jmsTemplate, times(1)).execute(callback.capture());
+
+        Session session = mock(Session.class);
+        when(session.createProducer(any())).thenReturn(mock(MessageProducer.class));
+        callback.getValue().doInJms(session);
+        verify(messageHelper).createMessage(eq(session), any(), argThat(event -> event instanceof CustomerEvent e
+                && e.getType() == CustomerEvent.Type.DELETED && e.getId() == 1L && e.getCustomer() == null));
+    }
+
     @Test
     void testDeleteCustomerNotFound() {
         when(customerRepository.findById(1L)).thenReturn(Optional.empty());
@@ -189,6 +217,13 @@ public class CustomerServiceTest {
         Mockito.verify(customerRepository).findById(1L);
     }
 
+    @Test
+    void findAllByIdsReturnsOnlyExistingCustomers() {
+        Mockito.when(customerRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(getCustomer()));
+
+        AssertionErrors.assertEquals("Response", List.of(getCustomerResponse()), customerService.findAllByIds(List.of(1L, 2L)));
+    }
+
     private static Customer getCustomer() {
         var entity = new Customer();
 